@@ -1,5 +1,6 @@
 package com.example.app.admin.controller;
 
+import com.example.app.common.dto.CountPolicy;
 import com.example.app.common.dto.PagedResponse;
 import com.example.app.user.dto.UserResponse;
 import com.example.app.user.service.UserService;
@@ -26,12 +27,14 @@ public class AdminUserController {
     private com.example.app.user.service.UserService userService;
 
     @GetMapping
-    @Operation(summary = "List all users (admin)")
+    @Operation(summary = "List all users (admin)",
+        description = "count=SKIP omits the total count and reports hasNext; count=ESTIMATED approximates it")
     @ApiResponse(responseCode = "200", description = "Users retrieved successfully")
     public ResponseEntity<PagedResponse<UserResponse>> listUsers(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        PagedResponse<UserResponse> response = userService.getAllUsers(page, size);
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "EXACT") CountPolicy count) {
+        PagedResponse<UserResponse> response = userService.getAllUsers(page, size, count);
         return ResponseEntity.ok(response);
     }
 
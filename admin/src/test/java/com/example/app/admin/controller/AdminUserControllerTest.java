@@ -1,5 +1,6 @@
 package com.example.app.admin.controller;
 
+import com.example.app.common.dto.CountPolicy;
 import com.example.app.common.dto.PagedResponse;
 import com.example.app.user.dto.UserResponse;
 import com.example.app.user.service.UserService;
@@ -51,10 +52,11 @@ class AdminUserControllerTest {
         pagedResponse.setTotalElements(1);
         pagedResponse.setTotalPages(1);
 
-        when(userService.getAllUsers(0, 20)).thenReturn(pagedResponse);
+        when(userService.getAllUsers(0, 20, CountPolicy.EXACT)).thenReturn(pagedResponse);
 
         // Act
-        ResponseEntity<PagedResponse<UserResponse>> response = adminUserController.listUsers(0, 20);
+        ResponseEntity<PagedResponse<UserResponse>> response =
+            adminUserController.listUsers(0, 20, CountPolicy.EXACT);
 
         // Assert
         assertNotNull(response);
@@ -62,7 +64,7 @@ class AdminUserControllerTest {
         assertNotNull(response.getBody());
         assertEquals(1, response.getBody().getContent().size());
 
-        verify(userService).getAllUsers(0, 20);
+        verify(userService).getAllUsers(0, 20, CountPolicy.EXACT);
     }
 
     @Test
@@ -73,17 +75,18 @@ class AdminUserControllerTest {
         pagedResponse.setTotalElements(0);
         pagedResponse.setTotalPages(0);
 
-        when(userService.getAllUsers(1, 10)).thenReturn(pagedResponse);
+        when(userService.getAllUsers(1, 10, CountPolicy.EXACT)).thenReturn(pagedResponse);
 
         // Act
-        ResponseEntity<PagedResponse<UserResponse>> response = adminUserController.listUsers(1, 10);
+        ResponseEntity<PagedResponse<UserResponse>> response =
+            adminUserController.listUsers(1, 10, CountPolicy.EXACT);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
 
-        verify(userService).getAllUsers(1, 10);
+        verify(userService).getAllUsers(1, 10, CountPolicy.EXACT);
     }
 
     @Test
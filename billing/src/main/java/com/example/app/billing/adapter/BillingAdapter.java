@@ -1,5 +1,7 @@
 package com.example.app.billing.adapter;
 
+import com.example.app.payment.entity.PaymentStatus;
+
 import java.math.BigDecimal;
 import java.util.UUID;
 
@@ -8,5 +10,11 @@ import java.util.UUID;
  */
 public interface BillingAdapter {
     UUID createPayment(UUID orderId, BigDecimal amount);
+    PaymentStatus getPaymentStatus(UUID paymentId);
+
+    /**
+     * Whether any payment of the order succeeded.
+     */
+    boolean isOrderPaid(UUID orderId);
 }
 
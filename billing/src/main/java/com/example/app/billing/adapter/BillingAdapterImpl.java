@@ -3,8 +3,10 @@ package com.example.app.billing.adapter;
 import com.example.app.billing.domain.PaymentRequest;
 import com.example.app.billing.dto.PaymentResponse;
 import com.example.app.billing.service.BillingService;
+import com.example.app.payment.entity.PaymentStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -27,5 +29,23 @@ public class BillingAdapterImpl implements BillingAdapter {
         PaymentResponse response = billingService.createPayment(request);
         return UUID.fromString(response.getId());
     }
-}
 
+    /**
+     * Read-write on purpose: called right after {@link #createPayment}, so it must read the primary rather than a
+     * replica that may not have the payment yet.
+     */
+    @Override
+    @Transactional
+    public PaymentStatus getPaymentStatus(UUID paymentId) {
+        return billingService.getPaymentById(paymentId).getStatus();
+    }
+
+    /**
+     * Read-write for the same reason as {@link #getPaymentStatus}: a payment that just succeeded must be seen.
+     */
+    @Override
+    @Transactional
+    public boolean isOrderPaid(UUID orderId) {
+        return billingService.isOrderPaid(orderId);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.app.billing.controller;
 import com.example.app.billing.domain.PaymentRequest;
 import com.example.app.billing.dto.PaymentResponse;
 import com.example.app.billing.service.BillingService;
+import com.example.app.common.idempotency.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -24,14 +25,23 @@ public class BillingController {
     
     @Autowired
     private BillingService billingService;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
 
     @PostMapping
-    @Operation(summary = "Create a payment")
+    @Operation(summary = "Create a payment",
+        description = "Retries carrying the same Idempotency-Key replay the first response instead of charging again")
     @ApiResponse(responseCode = "201", description = "Payment created successfully")
     @ApiResponse(responseCode = "400", description = "Validation error")
-    public ResponseEntity<PaymentResponse> createPayment(@Valid @RequestBody PaymentRequest request) {
-        PaymentResponse response = billingService.createPayment(request);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    @ApiResponse(responseCode = "409", description = "Request with the same Idempotency-Key still in progress")
+    public ResponseEntity<PaymentResponse> createPayment(
+            @Valid @RequestBody PaymentRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "payments", request, PaymentResponse.class, () -> {
+            PaymentResponse response = billingService.createPayment(request);
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        });
     }
 
     @GetMapping("/{id}")
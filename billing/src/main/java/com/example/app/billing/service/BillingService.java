@@ -11,5 +11,6 @@ import java.util.UUID;
 public interface BillingService {
     PaymentResponse createPayment(PaymentRequest request);
     PaymentResponse getPaymentById(UUID id);
+    boolean isOrderPaid(UUID orderId);
 }
 
@@ -4,6 +4,7 @@ import com.example.app.billing.domain.PaymentRequest;
 import com.example.app.billing.dto.PaymentResponse;
 import com.example.app.billing.mapper.PaymentMapper;
 import com.example.app.payment.entity.Payment;
+import com.example.app.payment.entity.PaymentStatus;
 import com.example.app.payment.service.PaymentService;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -61,5 +62,11 @@ public class BillingServiceImpl implements BillingService {
         Payment payment = paymentService.getPaymentById(id);
         return paymentMapper.toResponse(payment);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isOrderPaid(UUID orderId) {
+        return paymentService.hasPaymentWithStatus(orderId, PaymentStatus.SUCCESS);
+    }
 }
 
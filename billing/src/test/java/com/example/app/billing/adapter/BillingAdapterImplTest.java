@@ -100,6 +100,30 @@ class BillingAdapterImplTest {
         assertEquals(differentOrderId, result);
     }
 
+    @Test
+    void testGetPaymentStatus_ReturnsStatusOfStoredPayment() {
+        // Arrange
+        UUID paymentId = UUID.randomUUID();
+        paymentResponse.setStatus(PaymentStatus.FAILED);
+        when(billingService.getPaymentById(paymentId)).thenReturn(paymentResponse);
+
+        // Act
+        PaymentStatus result = billingAdapter.getPaymentStatus(paymentId);
+
+        // Assert
+        assertEquals(PaymentStatus.FAILED, result);
+    }
+
+    @Test
+    void testIsOrderPaid_DelegatesToBillingService() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        when(billingService.isOrderPaid(orderId)).thenReturn(true);
+
+        // Act & Assert
+        assertTrue(billingAdapter.isOrderPaid(orderId));
+    }
+
     @Configuration
     @Import(BillingAdapterImpl.class)
     static class TestConfig {
@@ -3,6 +3,7 @@ package com.example.app.billing.controller;
 import com.example.app.billing.domain.PaymentRequest;
 import com.example.app.billing.dto.PaymentResponse;
 import com.example.app.billing.service.BillingService;
+import com.example.app.common.idempotency.IdempotencyService;
 import com.example.app.payment.entity.PaymentStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +17,7 @@ import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -28,6 +30,9 @@ class BillingControllerTest {
     @MockBean
     private BillingService billingService;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     @Autowired
     private BillingController billingController;
 
@@ -50,6 +55,10 @@ class BillingControllerTest {
         paymentResponse.setOrderId(orderId.toString());
         paymentResponse.setStatus(PaymentStatus.SUCCESS);
         paymentResponse.setAmount(new BigDecimal("99.99"));
+
+        // Without a stored response the idempotency layer just runs the request
+        doAnswer(invocation -> ((Supplier<?>) invocation.getArgument(4)).get())
+            .when(idempotencyService).execute(any(), any(), any(), any(), any());
     }
 
     @Test
@@ -58,7 +67,7 @@ class BillingControllerTest {
         when(billingService.createPayment(any(PaymentRequest.class))).thenReturn(paymentResponse);
 
         // Act
-        ResponseEntity<PaymentResponse> response = billingController.createPayment(paymentRequest);
+        ResponseEntity<PaymentResponse> response = billingController.createPayment(paymentRequest, null);
 
         // Assert
         assertNotNull(response);
@@ -70,6 +79,20 @@ class BillingControllerTest {
         verify(billingService).createPayment(any(PaymentRequest.class));
     }
 
+    @Test
+    void testCreatePayment_WithIdempotencyKey_UsesPaymentsScope() {
+        // Arrange
+        when(billingService.createPayment(any(PaymentRequest.class))).thenReturn(paymentResponse);
+
+        // Act
+        ResponseEntity<PaymentResponse> response = billingController.createPayment(paymentRequest, "retry-1");
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        verify(idempotencyService).execute(eq("retry-1"), eq("payments"), eq(paymentRequest),
+            eq(PaymentResponse.class), any());
+    }
+
     @Test
     void testGetPaymentById_Success_ReturnsOk() {
         // Arrange
@@ -81,6 +81,14 @@ class BillingServiceTest {
         assertNotNull(response);
     }
 
+    @Test
+    void testIsOrderPaid_ChecksForSuccessfulPayment() {
+        UUID orderId = UUID.randomUUID();
+        when(paymentService.hasPaymentWithStatus(orderId, PaymentStatus.SUCCESS)).thenReturn(true);
+
+        assertTrue(billingService.isOrderPaid(orderId));
+    }
+
     private PaymentResponse createPaymentResponse() {
         PaymentResponse response = new PaymentResponse();
         response.setId(paymentId.toString());
@@ -0,0 +1,111 @@
+package com.example.app.common.config;
+
+import com.example.app.common.datasource.ReplicaRoutingDataSource;
+import com.example.app.common.datasource.ReplicaSelection;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes read-only transactions to read replicas when {@code app.datasource.replicas.enabled=true}.
+ * <p>
+ * The primary pool is built from {@code spring.datasource.*} as usual; each URL in
+ * {@code app.datasource.replicas.urls} gets its own read-only pool. Everything else keeps using the primary.
+ * Requires {@code spring.jpa.open-in-view=false}; see {@link #checkOpenInView()}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Value("${app.datasource.replicas.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${app.datasource.replicas.username:${spring.datasource.username:}}")
+    private String username;
+
+    @Value("${app.datasource.replicas.password:${spring.datasource.password:}}")
+    private String password;
+
+    @Value("${app.datasource.replicas.selection:ROUND_ROBIN}")
+    private ReplicaSelection selection = ReplicaSelection.ROUND_ROBIN;
+
+    @Value("${app.datasource.replicas.max-lag-ms:5000}")
+    private long maxLagMs = 5000;
+
+    @Value("${app.datasource.replicas.pool-size:10}")
+    private int poolSize = 10;
+
+    @Value("${spring.jpa.open-in-view:true}")
+    private boolean openInView = true;
+
+    /**
+     * Open-in-view keeps the EntityManager, and with it the first connection it fetched, for the whole HTTP
+     * request. Every later transaction of the request would then use whichever data source the first one was
+     * routed to, so a write following a read-only transaction would be sent to a replica.
+     */
+    @PostConstruct
+    public void checkOpenInView() {
+        if (openInView) {
+            throw new IllegalStateException(
+                "app.datasource.replicas.enabled=true requires spring.jpa.open-in-view=false");
+        }
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (StringUtils.hasText(properties.getName())) {
+            dataSource.setPoolName(properties.getName());
+        }
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>(replicaUrls.size());
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            // Start even if a replica is down; it stays out of rotation until a health check succeeds
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricRegistry(meterRegistry);
+            replicas.add(replica);
+        }
+        ReplicaRoutingDataSource routingDataSource =
+            new ReplicaRoutingDataSource(primaryDataSource, replicas, selection, maxLagMs, meterRegistry);
+        routingDataSource.checkReplicas();
+        return routingDataSource;
+    }
+
+    /**
+     * The data source the application uses. Connections are fetched on first use, after the transaction has
+     * declared whether it is read-only.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
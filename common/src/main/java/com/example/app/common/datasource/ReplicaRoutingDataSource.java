@@ -0,0 +1,252 @@
+package com.example.app.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to replica pools and everything else to the primary.
+ * <p>
+ * A replica is eligible while its last health check succeeded and its replay lag was at most the configured
+ * threshold; among eligible replicas one is picked per {@link ReplicaSelection}. With no eligible replica, or if
+ * the chosen one fails to hand out a connection, the primary serves the read. The read-only flag is only known
+ * once the transaction has begun, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ * <p>
+ * A replica may not have replayed a write that just committed. A read that must see such a write, e.g. the
+ * status of a payment just created, has to run in a read-write transaction so it stays on the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    /**
+     * Replay lag in milliseconds. Zero for a server that is not a standby, or for a standby that is streaming from
+     * the primary and has replayed everything it received. Otherwise, including a standby that lost its
+     * connection to the primary and so has nothing left to replay, the age of the last replayed transaction;
+     * null if it has never replayed one.
+     */
+    static final String LAG_QUERY =
+        "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+        "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() " +
+        "AND EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN 0 " +
+        "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+
+    /**
+     * Reported for a replica that has never replayed a transaction; such a replica stays out of rotation.
+     */
+    static final long UNKNOWN_LAG = -1;
+
+    private final Pool primary;
+    private final List<Replica> replicas;
+    private final ReplicaSelection selection;
+    private final long maxLagMs;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private final Counter primaryConnectionsCounter;
+    private final Counter unavailableFallbacksCounter;
+    private final Counter errorFallbacksCounter;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaPools,
+                                    ReplicaSelection selection, long maxLagMs, MeterRegistry meterRegistry) {
+        this.primary = new Pool("primary", primary);
+        this.selection = selection;
+        this.maxLagMs = maxLagMs;
+        this.primaryConnectionsCounter = connectionsCounter("primary", meterRegistry);
+        this.unavailableFallbacksCounter = Counter.builder("datasource.routing.fallbacks")
+            .description("Number of read-only connections served by the primary instead of a replica")
+            .tag("reason", "unavailable")
+            .register(meterRegistry);
+        this.errorFallbacksCounter = Counter.builder("datasource.routing.fallbacks")
+            .description("Number of read-only connections served by the primary instead of a replica")
+            .tag("reason", "error")
+            .register(meterRegistry);
+
+        List<Replica> pools = new ArrayList<>(replicaPools.size());
+        for (int i = 0; i < replicaPools.size(); i++) {
+            Replica replica = new Replica("replica-" + (i + 1), replicaPools.get(i), meterRegistry);
+            pools.add(replica);
+        }
+        this.replicas = Collections.unmodifiableList(pools);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primaryConnection();
+        }
+        Replica replica = selectReplica();
+        if (replica == null) {
+            unavailableFallbacksCounter.increment();
+            return primaryConnection();
+        }
+        try {
+            Connection connection = replica.pool.getConnection();
+            replica.connectionsCounter.increment();
+            return connection;
+        } catch (SQLException e) {
+            logger.warn("Replica {} refused a connection, reading from the primary until it recovers", replica.name, e);
+            replica.available = false;
+            errorFallbacksCounter.increment();
+            return primaryConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Explicit credentials bypass the pools' own, so there is no replica to route to
+        Connection connection = primary.pool.getConnection(username, password);
+        primaryConnectionsCounter.increment();
+        return connection;
+    }
+
+    /**
+     * Probes every replica for reachability and replay lag. Runs when the application enables scheduling.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.check-interval-ms:2000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(5);
+                try (ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                    resultSet.next();
+                    long lagMs = resultSet.getLong(1);
+                    replica.lagMs = resultSet.wasNull() ? UNKNOWN_LAG : lagMs;
+                }
+                boolean eligible = replica.lagMs != UNKNOWN_LAG && replica.lagMs <= maxLagMs;
+                if (eligible != replica.available) {
+                    logger.info("Replica {} is now {} (lag {} ms)", replica.name,
+                        eligible ? "in rotation" : "out of rotation", replica.lagMs);
+                }
+                replica.available = eligible;
+            } catch (SQLException e) {
+                if (replica.available) {
+                    logger.warn("Replica {} failed its health check, taking it out of rotation", replica.name, e);
+                }
+                replica.available = false;
+            }
+        }
+    }
+
+    /**
+     * Closes the replica pools; the primary belongs to the caller.
+     */
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            closePool(replica.pool);
+        }
+    }
+
+    List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    private Connection primaryConnection() throws SQLException {
+        Connection connection = primary.pool.getConnection();
+        primaryConnectionsCounter.increment();
+        return connection;
+    }
+
+    private Replica selectReplica() {
+        int count = replicas.size();
+        if (count == 0) {
+            return null;
+        }
+        if (selection == ReplicaSelection.LEAST_BUSY) {
+            Replica best = null;
+            int bestActive = Integer.MAX_VALUE;
+            for (Replica replica : replicas) {
+                if (replica.available) {
+                    int active = replica.activeConnections();
+                    if (active < bestActive) {
+                        best = replica;
+                        bestActive = active;
+                    }
+                }
+            }
+            return best;
+        }
+
+        int start = Math.floorMod(nextReplica.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((start + i) % count);
+            if (replica.available) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static void closePool(DataSource pool) {
+        if (pool instanceof Closeable) {
+            try {
+                ((Closeable) pool).close();
+            } catch (Exception e) {
+                logger.warn("Could not close connection pool", e);
+            }
+        }
+    }
+
+    private static Counter connectionsCounter(String pool, MeterRegistry meterRegistry) {
+        return Counter.builder("datasource.routing.connections")
+            .description("Number of connections handed out per pool by the routing data source")
+            .tag("pool", pool)
+            .register(meterRegistry);
+    }
+
+    private static class Pool {
+        final String name;
+        final DataSource pool;
+
+        Pool(String name, DataSource pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+    }
+
+    static final class Replica extends Pool {
+        private final Counter connectionsCounter;
+        volatile boolean available;
+        volatile long lagMs;
+
+        private Replica(String name, DataSource pool, MeterRegistry meterRegistry) {
+            super(name, pool);
+            this.connectionsCounter = connectionsCounter(name, meterRegistry);
+            Gauge.builder("datasource.replica.lag", this, replica -> replica.lagMs)
+                .description("Replay lag of the replica at its last health check, in milliseconds")
+                .tag("pool", name)
+                .register(meterRegistry);
+            Gauge.builder("datasource.replica.available", this, replica -> replica.available ? 1 : 0)
+                .description("Whether the replica currently receives read-only transactions")
+                .tag("pool", name)
+                .register(meterRegistry);
+        }
+
+        int activeConnections() {
+            if (pool instanceof HikariDataSource) {
+                HikariPoolMXBean poolBean = ((HikariDataSource) pool).getHikariPoolMXBean();
+                return poolBean == null ? 0 : poolBean.getActiveConnections();
+            }
+            return 0;
+        }
+    }
+}
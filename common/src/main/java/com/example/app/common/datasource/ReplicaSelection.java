@@ -0,0 +1,16 @@
+package com.example.app.common.datasource;
+
+/**
+ * How {@link ReplicaRoutingDataSource} picks among the replicas that are currently eligible.
+ */
+public enum ReplicaSelection {
+    /**
+     * Rotate through the eligible replicas.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Take the eligible replica with the fewest connections in use.
+     */
+    LEAST_BUSY
+}
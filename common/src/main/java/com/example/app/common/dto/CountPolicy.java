@@ -0,0 +1,19 @@
+package com.example.app.common.dto;
+
+/**
+ * How a paged listing obtains {@code totalElements}/{@code totalPages}.
+ */
+public enum CountPolicy {
+    /**
+     * Runs an exact count for every page.
+     */
+    EXACT,
+    /**
+     * Runs no count; the response only reports whether a next page exists.
+     */
+    SKIP,
+    /**
+     * Approximates the total from planner statistics or a briefly cached count. The last page is always exact.
+     */
+    ESTIMATED
+}
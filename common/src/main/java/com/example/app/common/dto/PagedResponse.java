@@ -1,16 +1,30 @@
 package com.example.app.common.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
 /**
  * Generic pagination response wrapper.
+ * <p>
+ * Cursor-paged listings set {@link #getNextCursor() nextCursor} (null on the last page) and report
+ * {@link #UNKNOWN_TOTAL} for the totals, since they never count the whole result. Listings paged with a
+ * {@link CountPolicy} other than EXACT are built with {@link #ofSlice} and always report {@code hasNext}.
  */
 public class PagedResponse<T> {
+    public static final int UNKNOWN_TOTAL = -1;
+
     private List<T> content;
     private int page;
     private int size;
     private long totalElements;
     private int totalPages;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean hasNext;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private CountPolicy countPolicy;
 
     public PagedResponse() {
     }
@@ -23,6 +37,33 @@ public class PagedResponse<T> {
         this.totalPages = totalPages;
     }
 
+    /**
+     * Builds a page that was fetched without an exact count.
+     * @param totalElements Estimated total, or {@link #UNKNOWN_TOTAL}. Raised to what this page proves exists,
+     *                      and replaced by the exact total on the last page
+     */
+    public static <T> PagedResponse<T> ofSlice(List<T> content, int page, int size, boolean hasNext,
+                                               long totalElements, CountPolicy countPolicy) {
+        // Rows this page proves exist; an empty page past the end proves nothing
+        long seen = content.isEmpty() ? 0 : (long) page * size + content.size();
+        long total;
+        if (!hasNext && (seen > 0 || page == 0)) {
+            total = seen;
+        } else if (totalElements == UNKNOWN_TOTAL) {
+            total = UNKNOWN_TOTAL;
+        } else {
+            total = Math.max(totalElements, hasNext ? seen + 1 : seen);
+        }
+        int totalPages = total == UNKNOWN_TOTAL || size <= 0
+            ? UNKNOWN_TOTAL
+            : (int) ((total + size - 1) / size);
+
+        PagedResponse<T> response = new PagedResponse<>(content, page, size, total, totalPages);
+        response.setHasNext(hasNext);
+        response.setCountPolicy(countPolicy);
+        return response;
+    }
+
     public List<T> getContent() {
         return content;
     }
@@ -62,5 +103,28 @@ public class PagedResponse<T> {
     public void setTotalPages(int totalPages) {
         this.totalPages = totalPages;
     }
-}
 
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Boolean getHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(Boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public CountPolicy getCountPolicy() {
+        return countPolicy;
+    }
+
+    public void setCountPolicy(CountPolicy countPolicy) {
+        this.countPolicy = countPolicy;
+    }
+}
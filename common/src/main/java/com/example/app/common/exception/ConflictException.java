@@ -0,0 +1,10 @@
+package com.example.app.common.exception;
+
+/**
+ * Exception thrown when a request conflicts with one that is still being processed.
+ */
+public class ConflictException extends BusinessException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,374 @@
+package com.example.app.common.idempotency;
+
+import com.example.app.common.exception.BusinessException;
+import com.example.app.common.exception.ConflictException;
+import com.example.app.common.exception.EntityNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Executes a request at most once per {@code Idempotency-Key} and replays its response to retries.
+ * <p>
+ * Completed responses are kept in a small in-memory LRU, so a retry storm on one node costs a map lookup.
+ * Concurrent duplicates on the same node wait for the in-flight execution; on other nodes the claim in the
+ * {@link IdempotencyStore} makes them poll for the stored response instead. The claim's lease is renewed
+ * every third of {@code app.idempotency.lease-ms} while the request runs, so a slow request is not taken over
+ * by a retry; only a claim whose node stopped renewing it expires. A request rejected as a client error (a
+ * {@link BusinessException} such as a declined payment, or a missing entity) is recorded too and the same error
+ * is thrown to every retry; any other failure, and a {@link ConflictException}, releases the claim so the next
+ * retry runs again. Reusing a key for a different request body is rejected.
+ */
+@Component
+public class IdempotencyService {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.idempotency.ttl-ms:86400000}")
+    private long ttlMs = 86400000;
+
+    @Value("${app.idempotency.lease-ms:60000}")
+    private long leaseMs = 60000;
+
+    @Value("${app.idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs = 30000;
+
+    @Value("${app.idempotency.poll-interval-ms:100}")
+    private long pollIntervalMs = 100;
+
+    @Value("${app.idempotency.cache-size:10000}")
+    private int cacheSize = 10000;
+
+    private final Map<String, RecentResponse> recentResponses =
+        new LinkedHashMap<String, RecentResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RecentResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    private final ConcurrentHashMap<String, CompletableFuture<IdempotentResponse>> inFlight =
+        new ConcurrentHashMap<>();
+    private final ScheduledExecutorService leaseRenewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "idempotency-lease-renewer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter executedCounter;
+    private final Counter replayedCounter;
+
+    @Autowired
+    public IdempotencyService(MeterRegistry meterRegistry) {
+        this.executedCounter = Counter.builder("idempotency.requests")
+            .description("Number of requests carrying an Idempotency-Key")
+            .tag("outcome", "executed")
+            .register(meterRegistry);
+        this.replayedCounter = Counter.builder("idempotency.requests")
+            .description("Number of requests carrying an Idempotency-Key")
+            .tag("outcome", "replayed")
+            .register(meterRegistry);
+    }
+
+    // Setters for testing
+    public void setIdempotencyStore(IdempotencyStore idempotencyStore) {
+        this.idempotencyStore = idempotencyStore;
+    }
+
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public void setWaitTimeoutMs(long waitTimeoutMs) {
+        this.waitTimeoutMs = waitTimeoutMs;
+    }
+
+    public void setPollIntervalMs(long pollIntervalMs) {
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    public void setLeaseMs(long leaseMs) {
+        this.leaseMs = leaseMs;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        leaseRenewer.shutdownNow();
+    }
+
+    /**
+     * Runs action unless a response for this key is already stored or being produced.
+     * @param idempotencyKey Client-chosen key; when null or empty the action simply runs
+     * @param scope Separates the key spaces of different endpoints
+     * @param request Request body, whose hash must match on every use of the key
+     */
+    public <T> ResponseEntity<T> execute(String idempotencyKey, String scope, Object request,
+                                         Class<T> responseType, Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null || idempotencyKey.isEmpty()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String key = scope + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+
+        IdempotentResponse recent = findRecent(key);
+        if (recent != null) {
+            return replay(recent, fingerprint, responseType);
+        }
+
+        CompletableFuture<IdempotentResponse> own = new CompletableFuture<>();
+        CompletableFuture<IdempotentResponse> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            return replay(await(running), fingerprint, responseType);
+        }
+        try {
+            String claimToken = UUID.randomUUID().toString();
+            IdempotentResponse stored = claim(key, fingerprint, claimToken);
+            if (stored != null) {
+                remember(key, stored);
+                own.complete(stored);
+                return replay(stored, fingerprint, responseType);
+            }
+
+            ResponseEntity<T> result;
+            ScheduledFuture<?> renewal = scheduleRenewal(key, claimToken);
+            try {
+                result = action.get();
+            } catch (RuntimeException e) {
+                HttpStatus errorStatus = finalErrorStatus(e);
+                if (errorStatus == null) {
+                    idempotencyStore.release(key, claimToken);
+                    throw e;
+                }
+                executedCounter.increment();
+                stored = new IdempotentResponse(fingerprint, errorStatus.value(), null, toJson(e.getMessage()));
+                store(key, claimToken, stored);
+                throw e;
+            } finally {
+                renewal.cancel(false);
+            }
+            executedCounter.increment();
+
+            stored = new IdempotentResponse(fingerprint, result.getStatusCodeValue(),
+                result.getHeaders().toSingleValueMap(), toJson(result.getBody()));
+            store(key, claimToken, stored);
+            own.complete(stored);
+            return result;
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * Status the request was answered with when it failed in a way a retry would only repeat, or null when a retry
+     * may succeed. Mirrors the mapping of {@code GlobalExceptionHandler}.
+     */
+    private static HttpStatus finalErrorStatus(RuntimeException e) {
+        if (e instanceof ConflictException) {
+            // Another request holds something this one needs; it is worth retrying once that one is done
+            return null;
+        }
+        if (e instanceof EntityNotFoundException) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (e instanceof BusinessException) {
+            return HttpStatus.UNPROCESSABLE_ENTITY;
+        }
+        return null;
+    }
+
+    /**
+     * Records the outcome under the claim and in the recent responses.
+     */
+    private void store(String key, String claimToken, IdempotentResponse response) {
+        try {
+            if (!idempotencyStore.complete(key, claimToken, response, Instant.now().plusMillis(ttlMs))) {
+                logger.warn("Claim on idempotency key {} was taken over before its response was stored", key);
+            }
+        } catch (RuntimeException e) {
+            // The request already took effect; failing it now would only invite another retry
+            logger.warn("Could not store response for idempotency key {}", key, e);
+        }
+        remember(key, response);
+    }
+
+    /**
+     * Claims the key, or waits until whoever holds it stores a response.
+     * @return The stored response, or null if this caller now owns the key
+     */
+    private IdempotentResponse claim(String key, String fingerprint, String claimToken) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMs);
+        while (true) {
+            Instant now = Instant.now();
+            if (idempotencyStore.claim(key, fingerprint, claimToken, now, now.plusMillis(leaseMs))) {
+                return null;
+            }
+            IdempotentResponse stored = idempotencyStore.findCompleted(key, now);
+            if (stored != null) {
+                return stored;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new ConflictException("A request with this " + HEADER + " is still in progress");
+            }
+            try {
+                Thread.sleep(pollIntervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for idempotent request", e);
+            }
+        }
+    }
+
+    /**
+     * Keeps the claim's lease ahead of the running request. A failed renewal is retried on the next tick; the
+     * lease only runs out if renewals keep failing for a whole lease.
+     */
+    private ScheduledFuture<?> scheduleRenewal(String key, String claimToken) {
+        long interval = Math.max(1, leaseMs / 3);
+        return leaseRenewer.scheduleAtFixedRate(() -> {
+            try {
+                if (!idempotencyStore.renew(key, claimToken, Instant.now().plusMillis(leaseMs))) {
+                    logger.warn("Claim on idempotency key {} was taken over while its request was running", key);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not renew claim on idempotency key {}", key, e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private IdempotentResponse await(CompletableFuture<IdempotentResponse> running) {
+        try {
+            return running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // Same request, same outcome: duplicates of a failed execution fail the same way
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ConflictException("A request with this " + HEADER + " is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for idempotent request", e);
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotentResponse stored, String fingerprint, Class<T> responseType) {
+        if (!stored.getFingerprint().equals(fingerprint)) {
+            throw new BusinessException(HEADER + " was already used for a different request");
+        }
+        replayedCounter.increment();
+        if (stored.getStatus() == HttpStatus.NOT_FOUND.value()) {
+            throw new EntityNotFoundException(readBody(stored, String.class));
+        }
+        if (stored.getStatus() == HttpStatus.UNPROCESSABLE_ENTITY.value()) {
+            throw new BusinessException(readBody(stored, String.class));
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAll(stored.getHeaders());
+        headers.set(REPLAYED_HEADER, "true");
+        return new ResponseEntity<>(readBody(stored, responseType), headers, HttpStatus.valueOf(stored.getStatus()));
+    }
+
+    private <T> T readBody(IdempotentResponse stored, Class<T> type) {
+        try {
+            return stored.getBody() == null ? null : objectMapper.readValue(stored.getBody(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored response", e);
+        }
+    }
+
+    private IdempotentResponse findRecent(String key) {
+        synchronized (recentResponses) {
+            RecentResponse recent = recentResponses.get(key);
+            if (recent == null) {
+                return null;
+            }
+            if (System.nanoTime() - recent.expiresAt > 0) {
+                recentResponses.remove(key);
+                return null;
+            }
+            return recent.response;
+        }
+    }
+
+    private void remember(String key, IdempotentResponse response) {
+        long expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        synchronized (recentResponses) {
+            recentResponses.put(key, new RecentResponse(response, expiresAt));
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(
+                objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+
+    private String toJson(Object body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response", e);
+        }
+    }
+
+    private static final class RecentResponse {
+        private final IdempotentResponse response;
+        private final long expiresAt;
+
+        private RecentResponse(IdempotentResponse response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
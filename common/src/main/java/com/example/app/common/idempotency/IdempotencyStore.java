@@ -0,0 +1,38 @@
+package com.example.app.common.idempotency;
+
+import java.time.Instant;
+
+/**
+ * Shared record of Idempotency-Keys, so a key claimed on one node is honoured by all of them.
+ */
+public interface IdempotencyStore {
+    /**
+     * Claims key for a new execution. Succeeds if the key is unknown or its previous record has expired.
+     * @param claimToken Identifies this claim in {@link #renew}, {@link #complete} and {@link #release}
+     * @param leaseExpiresAt When an unfinished claim may be taken over, e.g. after its node died
+     * @return true if the caller now owns the key and must execute the request
+     */
+    boolean claim(String key, String fingerprint, String claimToken, Instant now, Instant leaseExpiresAt);
+
+    /**
+     * Extends the lease of a claim that is still running.
+     * @return false if the claim was taken over or no longer exists
+     */
+    boolean renew(String key, String claimToken, Instant leaseExpiresAt);
+
+    /**
+     * @return The stored response, or null if the key is unknown, expired or still in progress
+     */
+    IdempotentResponse findCompleted(String key, Instant now);
+
+    /**
+     * Records the response of a claimed key and keeps it until expiresAt.
+     * @return false if the claim was taken over meanwhile; the record of the new owner is left untouched
+     */
+    boolean complete(String key, String claimToken, IdempotentResponse response, Instant expiresAt);
+
+    /**
+     * Drops a claim whose execution failed, so the next retry executes again. A claim taken over is kept.
+     */
+    void release(String key, String claimToken);
+}
@@ -0,0 +1,43 @@
+package com.example.app.common.idempotency;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Response recorded for an Idempotency-Key, replayed to every retry of the same request.
+ */
+public class IdempotentResponse {
+    private final String fingerprint;
+    private final int status;
+    private final Map<String, String> headers;
+    private final String body;
+
+    public IdempotentResponse(String fingerprint, int status, Map<String, String> headers, String body) {
+        this.fingerprint = fingerprint;
+        this.status = status;
+        this.headers = headers == null ? Collections.<String, String>emptyMap() : headers;
+        this.body = body;
+    }
+
+    /**
+     * Hash of the request that produced this response; a retry must present the same one.
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Response body as JSON, or null if there was none.
+     */
+    public String getBody() {
+        return body;
+    }
+}
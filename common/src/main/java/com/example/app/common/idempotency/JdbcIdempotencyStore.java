@@ -0,0 +1,135 @@
+package com.example.app.common.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link IdempotencyStore} on the {@code idempotency_keys} table.
+ * <p>
+ * Each statement runs in its own auto-committed transaction, so a claim is visible to other nodes as soon
+ * as it is made. The primary key makes the insert-or-take-over in {@link #claim} atomic, and every later
+ * statement of a claim matches its {@code claim_token}, so a claim taken over after its lease expired cannot
+ * overwrite or drop the new owner's record.
+ */
+@Component
+public class JdbcIdempotencyStore implements IdempotencyStore {
+    private static final Logger logger = LoggerFactory.getLogger(JdbcIdempotencyStore.class);
+    private static final TypeReference<Map<String, String>> HEADERS_TYPE = new TypeReference<Map<String, String>>() {
+    };
+
+    private static final String CLAIM_SQL =
+        "INSERT INTO cursordb.idempotency_keys "
+            + "(idempotency_key, fingerprint, claim_token, status, created_at, expires_at) "
+            + "VALUES (?, ?, ?, 'IN_PROGRESS', ?, ?) "
+            + "ON CONFLICT (idempotency_key) DO UPDATE SET fingerprint = EXCLUDED.fingerprint, "
+            + "claim_token = EXCLUDED.claim_token, status = 'IN_PROGRESS', response_status = NULL, "
+            + "response_headers = NULL, response_body = NULL, created_at = EXCLUDED.created_at, "
+            + "expires_at = EXCLUDED.expires_at "
+            + "WHERE idempotency_keys.expires_at < ?";
+
+    private static final String RENEW_SQL =
+        "UPDATE cursordb.idempotency_keys SET expires_at = ? "
+            + "WHERE idempotency_key = ? AND claim_token = ? AND status = 'IN_PROGRESS'";
+
+    private static final String FIND_COMPLETED_SQL =
+        "SELECT fingerprint, response_status, response_headers, response_body FROM cursordb.idempotency_keys "
+            + "WHERE idempotency_key = ? AND status = 'COMPLETED' AND expires_at >= ?";
+
+    private static final String COMPLETE_SQL =
+        "UPDATE cursordb.idempotency_keys SET status = 'COMPLETED', response_status = ?, response_headers = ?, "
+            + "response_body = ?, expires_at = ? "
+            + "WHERE idempotency_key = ? AND claim_token = ? AND status = 'IN_PROGRESS'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Setters for testing
+    public void setJdbcTemplate(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean claim(String key, String fingerprint, String claimToken, Instant now, Instant leaseExpiresAt) {
+        return jdbcTemplate.update(CLAIM_SQL, key, fingerprint, claimToken, Timestamp.from(now),
+            Timestamp.from(leaseExpiresAt), Timestamp.from(now)) == 1;
+    }
+
+    @Override
+    public boolean renew(String key, String claimToken, Instant leaseExpiresAt) {
+        return jdbcTemplate.update(RENEW_SQL, Timestamp.from(leaseExpiresAt), key, claimToken) == 1;
+    }
+
+    @Override
+    public IdempotentResponse findCompleted(String key, Instant now) {
+        List<IdempotentResponse> responses = jdbcTemplate.query(FIND_COMPLETED_SQL,
+            (rs, rowNum) -> new IdempotentResponse(
+                rs.getString("fingerprint"),
+                rs.getInt("response_status"),
+                readHeaders(rs.getString("response_headers")),
+                rs.getString("response_body")),
+            key, Timestamp.from(now));
+        return responses.isEmpty() ? null : responses.get(0);
+    }
+
+    @Override
+    public boolean complete(String key, String claimToken, IdempotentResponse response, Instant expiresAt) {
+        return jdbcTemplate.update(COMPLETE_SQL, response.getStatus(), writeHeaders(response.getHeaders()),
+            response.getBody(), Timestamp.from(expiresAt), key, claimToken) == 1;
+    }
+
+    @Override
+    public void release(String key, String claimToken) {
+        jdbcTemplate.update("DELETE FROM cursordb.idempotency_keys "
+            + "WHERE idempotency_key = ? AND claim_token = ? AND status = 'IN_PROGRESS'", key, claimToken);
+    }
+
+    /**
+     * Deletes expired keys. Runs when the application enables scheduling.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update("DELETE FROM cursordb.idempotency_keys WHERE expires_at < ?",
+            Timestamp.from(Instant.now()));
+        if (purged > 0) {
+            logger.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private String writeHeaders(Map<String, String> headers) {
+        try {
+            return objectMapper.writeValueAsString(headers);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response headers", e);
+        }
+    }
+
+    private Map<String, String> readHeaders(String headers) {
+        if (headers == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(headers, HEADERS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored response headers", e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.app.common.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived cache of row counts for {@link com.example.app.common.dto.CountPolicy#ESTIMATED} listings.
+ * <p>
+ * Keys identify a query and its filter values. A cached count may be stale by up to the TTL, which is what
+ * makes it an estimate; entries are never invalidated on writes.
+ */
+@Component
+public class CountCache {
+
+    @Value("${app.paging.count-cache.ttl-ms:30000}")
+    private long ttlMs = 30000;
+
+    @Value("${app.paging.count-cache.max-entries:10000}")
+    private int maxEntries = 10000;
+
+    private final ConcurrentHashMap<String, CachedCount> counts = new ConcurrentHashMap<>();
+    private final Counter hitsCounter;
+    private final Counter missesCounter;
+
+    @Autowired
+    public CountCache(MeterRegistry meterRegistry) {
+        this.hitsCounter = Counter.builder("paging.count.cache")
+            .description("Number of estimated page counts served from the count cache")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.missesCounter = Counter.builder("paging.count.cache")
+            .description("Number of estimated page counts served from the count cache")
+            .tag("result", "miss")
+            .register(meterRegistry);
+    }
+
+    // Setters for testing
+    public void setTtlMs(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the cached count for key, running counter when it is missing or expired.
+     */
+    public long get(String key, LongSupplier counter) {
+        long now = System.nanoTime();
+        CachedCount cached = counts.get(key);
+        if (cached != null && now < cached.expiresAt) {
+            hitsCounter.increment();
+            return cached.count;
+        }
+
+        missesCounter.increment();
+        long count = counter.getAsLong();
+        if (counts.size() >= maxEntries) {
+            counts.entrySet().removeIf(entry -> now >= entry.getValue().expiresAt);
+            if (counts.size() >= maxEntries) {
+                counts.clear();
+            }
+        }
+        counts.put(key, new CachedCount(count, now + TimeUnit.MILLISECONDS.toNanos(ttlMs)));
+        return count;
+    }
+
+    int size() {
+        return counts.size();
+    }
+
+    private static final class CachedCount {
+        private final long count;
+        private final long expiresAt;
+
+        private CachedCount(long count, long expiresAt) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
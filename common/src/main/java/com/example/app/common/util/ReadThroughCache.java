@@ -0,0 +1,326 @@
+package com.example.app.common.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded in-process read-through cache behind the near-caches of single entities, such as orders and products.
+ * <p>
+ * Entries are bounded by a maximum size (least recently read goes first) and expire after a TTL chosen per value;
+ * a TTL of zero or less is not cached, and a loader returning null caches the absence under the TTL chosen for
+ * null. Concurrent misses on the same key share a single load. Writers invalidate a key once their transaction has
+ * completed; the invalidation leaves a marker, so a read that loaded the old state before the commit cannot store
+ * it afterwards. Values are copied on the way in and out, so callers always get their own copy.
+ * <p>
+ * Metrics are registered under the given name: lookups by result (hit, miss, coalesced), {@code <name>.evictions}
+ * by cause (size, expired, invalidated) and the {@code <name>.size} gauge.
+ */
+public class ReadThroughCache<K, V> {
+
+    private final IntSupplier maxSize;
+    private final ToLongFunction<V> ttlMs;
+    private final UnaryOperator<V> copier;
+
+    private final Map<K, Entry<V>> entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+            if (size() <= maxSize.getAsInt()) {
+                return false;
+            }
+            if (!eldest.getValue().isMarker()) {
+                sizeEvictionsCounter.increment();
+            }
+            return true;
+        }
+    };
+    private final Map<K, CompletableFuture<V>> loading = new HashMap<>();
+    private long generation;
+
+    private final Counter hitsCounter;
+    private final Counter missesCounter;
+    private final Counter coalescedCounter;
+    private final Counter sizeEvictionsCounter;
+    private final Counter expiredEvictionsCounter;
+    private final Counter invalidationsCounter;
+
+    /**
+     * @param name Metric name, e.g. {@code orders.cache}
+     * @param subject What is cached, singular, for metric descriptions, e.g. {@code order}
+     * @param maxSize Maximum number of entries, read on every insertion
+     * @param ttlMs How long to keep a loaded value, or the absence of one when given null
+     * @param copier Deep copy of a value
+     */
+    public ReadThroughCache(MeterRegistry meterRegistry, String name, String subject, IntSupplier maxSize,
+                            ToLongFunction<V> ttlMs, UnaryOperator<V> copier) {
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+        this.copier = copier;
+        String lookups = "Number of " + subject + " lookups answered by the " + subject + " cache";
+        String removals = "Number of " + subject + "s removed from the " + subject + " cache";
+        this.hitsCounter = Counter.builder(name)
+            .description(lookups)
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.missesCounter = Counter.builder(name)
+            .description(lookups)
+            .tag("result", "miss")
+            .register(meterRegistry);
+        this.coalescedCounter = Counter.builder(name)
+            .description(lookups)
+            .tag("result", "coalesced")
+            .register(meterRegistry);
+        this.sizeEvictionsCounter = Counter.builder(name + ".evictions")
+            .description(removals)
+            .tag("cause", "size")
+            .register(meterRegistry);
+        this.expiredEvictionsCounter = Counter.builder(name + ".evictions")
+            .description(removals)
+            .tag("cause", "expired")
+            .register(meterRegistry);
+        this.invalidationsCounter = Counter.builder(name + ".evictions")
+            .description(removals)
+            .tag("cause", "invalidated")
+            .register(meterRegistry);
+        Gauge.builder(name + ".size", this, ReadThroughCache::size)
+            .description("Number of entries held by the " + subject + " cache, including not-found and "
+                + "invalidation markers")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached value, or runs loader and caches its result unless the key was invalidated meanwhile.
+     * Threads missing the same key while a load is running wait for that load instead of starting their own.
+     * @param loader Returns null when there is no value for the key
+     * @return The value, or null when there is none
+     */
+    public V get(K key, Supplier<V> loader) {
+        CompletableFuture<V> load;
+        boolean owner;
+        long loadGeneration;
+        synchronized (entries) {
+            Entry<V> entry = lookup(key, System.nanoTime());
+            if (entry != null) {
+                hitsCounter.increment();
+                return copy(entry.value);
+            }
+            load = loading.get(key);
+            owner = load == null;
+            if (owner) {
+                load = new CompletableFuture<>();
+                loading.put(key, load);
+            }
+            loadGeneration = generation;
+        }
+
+        if (!owner) {
+            coalescedCounter.increment();
+            return copy(await(load));
+        }
+
+        missesCounter.increment();
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            // Nothing is cached; waiting threads see the same failure and the next lookup loads again
+            synchronized (entries) {
+                loading.remove(key, load);
+            }
+            load.completeExceptionally(e);
+            throw e;
+        }
+        load.complete(store(key, value, loadGeneration, load));
+        return value;
+    }
+
+    /**
+     * Returns the cached values and loads all missing ones with a single call to loader. Keys the loader does not
+     * return are cached as absent. Batch loads are not shared with concurrent lookups.
+     * @param loader Returns the values found among the given keys
+     * @return The values found
+     */
+    public Map<K, V> getAll(Collection<K> keys, Function<Collection<K>, Map<K, V>> loader) {
+        Map<K, V> result = new HashMap<>(keys.size() * 2);
+        List<K> missing = new ArrayList<>();
+        long loadGeneration;
+        long now = System.nanoTime();
+        synchronized (entries) {
+            for (K key : keys) {
+                if (result.containsKey(key) || missing.contains(key)) {
+                    continue;
+                }
+                Entry<V> entry = lookup(key, now);
+                if (entry == null) {
+                    missing.add(key);
+                } else if (entry.value != null) {
+                    result.put(key, copy(entry.value));
+                }
+            }
+            loadGeneration = generation;
+        }
+        hitsCounter.increment(keys.size() - missing.size());
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        missesCounter.increment(missing.size());
+        Map<K, V> loaded = loader.apply(missing);
+        for (K key : missing) {
+            V value = loaded.get(key);
+            store(key, value, loadGeneration, null);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Caches a value just written by the caller unless the key is already cached or was invalidated since.
+     */
+    public void putIfAbsent(K key, V value) {
+        long ttl = ttlMs.applyAsLong(value);
+        if (ttl <= 0) {
+            return;
+        }
+        V cached = copy(value);
+        long expiresAt = expiresAt(ttl);
+        synchronized (entries) {
+            if (!entries.containsKey(key)) {
+                entries.put(key, new Entry<>(cached, cached == null, generation, expiresAt));
+            }
+        }
+    }
+
+    /**
+     * Drops the key once the current transaction completes, whether it committed or not, or immediately when
+     * there is no transaction.
+     */
+    public void invalidateOnCompletion(K key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidate(key);
+            }
+        });
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            // Later lookups must not join a load that may have read the old state
+            loading.remove(key);
+            Entry<V> previous = entries.put(key, new Entry<>(null, false, ++generation, 0));
+            if (previous != null && !previous.isMarker()) {
+                invalidationsCounter.increment();
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * The live entry for the key, or null when it must be loaded. Expired entries are dropped.
+     */
+    private Entry<V> lookup(K key, long now) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.isMarker()) {
+            return null;
+        }
+        if (now < entry.expiresAt) {
+            return entry;
+        }
+        entries.remove(key);
+        expiredEvictionsCounter.increment();
+        return null;
+    }
+
+    /**
+     * Caches a loaded value, or its absence, and returns the copy held by the cache.
+     */
+    private V store(K key, V value, long loadGeneration, CompletableFuture<V> load) {
+        V cached = copy(value);
+        long ttl = ttlMs.applyAsLong(value);
+        long expiresAt = expiresAt(ttl);
+        synchronized (entries) {
+            if (load != null) {
+                loading.remove(key, load);
+            }
+            Entry<V> current = entries.get(key);
+            if (ttl <= 0 || current != null && current.generation > loadGeneration) {
+                // Not cacheable, or invalidated while loading and the loaded state may predate the write
+                return cached;
+            }
+            entries.put(key, new Entry<>(cached, cached == null, loadGeneration, expiresAt));
+        }
+        return cached;
+    }
+
+    private static long expiresAt(long ttlMs) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    }
+
+    private V copy(V value) {
+        return value == null ? null : copier.apply(value);
+    }
+
+    private static <V> V await(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * A cached value, a not-found entry when absent is set, or an invalidation marker when neither is.
+     */
+    private static final class Entry<V> {
+        private final V value;
+        private final boolean absent;
+        private final long generation;
+        private final long expiresAt;
+
+        private Entry(V value, boolean absent, long generation, long expiresAt) {
+            this.value = value;
+            this.absent = absent;
+            this.generation = generation;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isMarker() {
+            return value == null && !absent;
+        }
+    }
+}
@@ -1,11 +1,21 @@
 package com.example.app.common.util;
 
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Utility class for UUID operations.
  */
 public class UUIDUtil {
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    /**
+     * Last issued millisecond timestamp and sequence, packed as {@code millis << 12 | sequence}.
+     */
+    private static final AtomicLong lastStamp = new AtomicLong();
+
     /**
      * Generates a new UUID.
      */
@@ -13,6 +23,41 @@ public class UUIDUtil {
         return UUID.randomUUID();
     }
 
+    /**
+     * Generates a time-ordered version 7 UUID: a 48-bit Unix millisecond timestamp, a 12-bit sequence
+     * and 62 random bits.
+     * <p>
+     * Values from this JVM are strictly increasing. Within a millisecond the sequence starts at a random
+     * point in its lower half and counts up; if it runs out, or the clock steps back, the timestamp is
+     * carried forward instead of repeating. Lock-free.
+     */
+    public static UUID generateTimeOrdered() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long stamp;
+        while (true) {
+            long last = lastStamp.get();
+            long fresh = System.currentTimeMillis() << SEQUENCE_BITS | random.nextInt(1 << (SEQUENCE_BITS - 1));
+            stamp = Math.max(fresh, last + 1);
+            if (lastStamp.compareAndSet(last, stamp)) {
+                break;
+            }
+        }
+
+        long mostSigBits = (stamp >>> SEQUENCE_BITS) << 16 | 0x7000L | (stamp & SEQUENCE_MASK);
+        long leastSigBits = random.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Returns the Unix millisecond timestamp of a version 7 UUID.
+     */
+    public static long timestampOf(UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("Not a version 7 UUID: " + uuid);
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
     /**
      * Parses a UUID from string, returns null if invalid.
      */
@@ -0,0 +1,192 @@
+package com.example.app.common.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource firstReplica;
+
+    @Mock
+    private DataSource secondReplica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection firstConnection;
+
+    @Mock
+    private Connection secondConnection;
+
+    private MeterRegistry meterRegistry;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        routingDataSource = new ReplicaRoutingDataSource(primary, Arrays.asList(firstReplica, secondReplica),
+            ReplicaSelection.ROUND_ROBIN, 1000, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void testGetConnection_ReadWrite_UsesPrimary() throws SQLException {
+        // Arrange
+        markAvailable();
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // Act
+        Connection connection = routingDataSource.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, connection);
+        verifyNoInteractions(firstReplica, secondReplica);
+    }
+
+    @Test
+    void testGetConnection_ReadOnly_RotatesReplicas() throws SQLException {
+        // Arrange
+        markAvailable();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(firstReplica.getConnection()).thenReturn(firstConnection);
+        when(secondReplica.getConnection()).thenReturn(secondConnection);
+
+        // Act & Assert
+        assertSame(firstConnection, routingDataSource.getConnection());
+        assertSame(secondConnection, routingDataSource.getConnection());
+        assertSame(firstConnection, routingDataSource.getConnection());
+        assertEquals(2, meterRegistry.counter("datasource.routing.connections", "pool", "replica-1").count());
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void testGetConnection_ReplicaRefuses_FallsBackToPrimary() throws SQLException {
+        // Arrange
+        markAvailable();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(firstReplica.getConnection()).thenThrow(new SQLException("connection refused"));
+        when(secondReplica.getConnection()).thenReturn(secondConnection);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // Act
+        Connection fallback = routingDataSource.getConnection();
+        Connection next = routingDataSource.getConnection();
+        Connection skipsFailed = routingDataSource.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, fallback);
+        assertSame(secondConnection, next);
+        assertSame(secondConnection, skipsFailed);
+        assertEquals(1, meterRegistry.counter("datasource.routing.fallbacks", "reason", "error").count());
+    }
+
+    @Test
+    void testCheckReplicas_LaggingReplicaLeavesRotation() throws SQLException {
+        // Arrange
+        stubLag(firstReplica, firstConnection, 5000);
+        stubLag(secondReplica, secondConnection, 200);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        routingDataSource.checkReplicas();
+
+        // Assert
+        assertEquals(0, meterRegistry.get("datasource.replica.available").tag("pool", "replica-1").gauge().value());
+        assertEquals(5000, meterRegistry.get("datasource.replica.lag").tag("pool", "replica-1").gauge().value());
+        assertEquals(1, meterRegistry.get("datasource.replica.available").tag("pool", "replica-2").gauge().value());
+        assertSame(secondConnection, routingDataSource.getConnection());
+        assertSame(secondConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void testCheckReplicas_UnknownLagLeavesRotation() throws SQLException {
+        // Arrange
+        stubLag(firstReplica, firstConnection, 0);
+        stubLag(secondReplica, secondConnection, 200);
+        ResultSet neverReplayed = firstConnection.createStatement().executeQuery(ReplicaRoutingDataSource.LAG_QUERY);
+        when(neverReplayed.wasNull()).thenReturn(true);
+
+        // Act
+        routingDataSource.checkReplicas();
+
+        // Assert
+        assertEquals(0, meterRegistry.get("datasource.replica.available").tag("pool", "replica-1").gauge().value());
+        assertEquals(-1, meterRegistry.get("datasource.replica.lag").tag("pool", "replica-1").gauge().value());
+        assertEquals(1, meterRegistry.get("datasource.replica.available").tag("pool", "replica-2").gauge().value());
+    }
+
+    @Test
+    void testGetConnection_ExplicitCredentials_UsePrimary() throws SQLException {
+        // Arrange
+        markAvailable();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(primary.getConnection("report", "secret")).thenReturn(primaryConnection);
+
+        // Act
+        Connection connection = routingDataSource.getConnection("report", "secret");
+
+        // Assert
+        assertSame(primaryConnection, connection);
+        verifyNoInteractions(firstReplica, secondReplica);
+    }
+
+    @Test
+    void testGetConnection_NoEligibleReplica_UsesPrimary() throws SQLException {
+        // Arrange
+        when(firstReplica.getConnection()).thenThrow(new SQLException("down"));
+        when(secondReplica.getConnection()).thenThrow(new SQLException("down"));
+        routingDataSource.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // Act
+        Connection connection = routingDataSource.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, connection);
+        assertEquals(1, meterRegistry.counter("datasource.routing.fallbacks", "reason", "unavailable").count());
+    }
+
+    private void markAvailable() {
+        for (ReplicaRoutingDataSource.Replica replica : routingDataSource.getReplicas()) {
+            replica.available = true;
+        }
+    }
+
+    private static void stubLag(DataSource replica, Connection connection, long lagMs) throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(lagMs);
+        when(statement.executeQuery(ReplicaRoutingDataSource.LAG_QUERY)).thenReturn(resultSet);
+        when(connection.createStatement()).thenReturn(statement);
+        when(replica.getConnection()).thenReturn(connection);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.app.common.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagedResponseTest {
+
+    @Test
+    void testOfSlice_SkipPolicy_ReportsUnknownTotals() {
+        // Act
+        PagedResponse<String> response =
+            PagedResponse.ofSlice(Arrays.asList("a", "b"), 0, 2, true, PagedResponse.UNKNOWN_TOTAL, CountPolicy.SKIP);
+
+        // Assert
+        assertEquals(PagedResponse.UNKNOWN_TOTAL, response.getTotalElements());
+        assertEquals(PagedResponse.UNKNOWN_TOTAL, response.getTotalPages());
+        assertTrue(response.getHasNext());
+        assertEquals(CountPolicy.SKIP, response.getCountPolicy());
+    }
+
+    @Test
+    void testOfSlice_LastPage_ReportsExactTotal() {
+        // Act
+        PagedResponse<String> response =
+            PagedResponse.ofSlice(Collections.singletonList("a"), 3, 10, false, 500, CountPolicy.ESTIMATED);
+
+        // Assert
+        assertEquals(31, response.getTotalElements());
+        assertEquals(4, response.getTotalPages());
+    }
+
+    @Test
+    void testOfSlice_StaleEstimate_RaisedToRowsSeen() {
+        // Act
+        PagedResponse<String> response =
+            PagedResponse.ofSlice(Arrays.asList("a", "b"), 5, 2, true, 3, CountPolicy.ESTIMATED);
+
+        // Assert
+        assertEquals(13, response.getTotalElements());
+        assertEquals(7, response.getTotalPages());
+    }
+
+    @Test
+    void testOfSlice_EmptyPagePastEnd_KeepsEstimate() {
+        // Act
+        PagedResponse<String> response =
+            PagedResponse.ofSlice(Collections.<String>emptyList(), 9, 10, false, 40, CountPolicy.ESTIMATED);
+
+        // Assert
+        assertEquals(40, response.getTotalElements());
+        assertEquals(4, response.getTotalPages());
+    }
+}
@@ -47,6 +47,17 @@ class GlobalExceptionHandlerTest {
         assertEquals("Insufficient stock", response.getBody().getMessage());
     }
 
+    @Test
+    void testHandleConflict() {
+        ConflictException ex = new ConflictException("Request still in progress");
+        ResponseEntity<ApiError> response = handler.handleConflict(ex, webRequest);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(409, response.getBody().getStatus());
+        assertEquals("Request still in progress", response.getBody().getMessage());
+    }
+
     @Test
     void testHandleGenericException() {
         Exception ex = new RuntimeException("Unexpected error");
@@ -0,0 +1,292 @@
+package com.example.app.common.idempotency;
+
+import com.example.app.common.exception.BusinessException;
+import com.example.app.common.exception.ConflictException;
+import com.example.app.common.exception.EntityNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    private IdempotencyService idempotencyService;
+    private MeterRegistry meterRegistry;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        idempotencyService = new IdempotencyService(meterRegistry);
+        idempotencyService.setIdempotencyStore(idempotencyStore);
+        idempotencyService.setObjectMapper(new ObjectMapper());
+        idempotencyService.setPollIntervalMs(1);
+    }
+
+    @Test
+    void testExecute_WithoutKey_RunsAction() {
+        // Act
+        ResponseEntity<Receipt> response = idempotencyService.execute(null, "orders", "body", Receipt.class,
+            this::createReceipt);
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(1, executions.get());
+        verifyNoInteractions(idempotencyStore);
+    }
+
+    @Test
+    void testExecute_RetryIsReplayedFromMemory() {
+        // Arrange
+        when(idempotencyStore.claim(eq("orders:k1"), anyString(), anyString(), any(), any())).thenReturn(true);
+
+        // Act
+        ResponseEntity<Receipt> first = idempotencyService.execute("k1", "orders", "body", Receipt.class,
+            this::createReceipt);
+        ResponseEntity<Receipt> retry = idempotencyService.execute("k1", "orders", "body", Receipt.class,
+            this::createReceipt);
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(first.getBody().getId(), retry.getBody().getId());
+        assertEquals(URI.create("/receipts/1"), retry.getHeaders().getLocation());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        verify(idempotencyStore, times(1)).claim(anyString(), anyString(), anyString(), any(), any());
+        verify(idempotencyStore).complete(eq("orders:k1"), anyString(), any(IdempotentResponse.class), any());
+        assertEquals(1.0, meterRegistry.counter("idempotency.requests", "outcome", "replayed").count());
+    }
+
+    @Test
+    void testExecute_KeyReusedForDifferentRequest_Rejected() {
+        // Arrange
+        when(idempotencyStore.claim(eq("orders:k1"), anyString(), anyString(), any(), any())).thenReturn(true);
+        idempotencyService.execute("k1", "orders", "body", Receipt.class, this::createReceipt);
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () ->
+            idempotencyService.execute("k1", "orders", "other body", Receipt.class, this::createReceipt));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testExecute_CompletedOnAnotherNode_ReplaysStoredResponse() {
+        // Arrange
+        AtomicReference<String> fingerprint = new AtomicReference<>();
+        when(idempotencyStore.claim(eq("payments:k2"), anyString(), anyString(), any(), any())).thenAnswer(invocation -> {
+            fingerprint.set(invocation.getArgument(1));
+            return false;
+        });
+        when(idempotencyStore.findCompleted(eq("payments:k2"), any()))
+            .thenReturn(null)
+            .thenAnswer(invocation -> new IdempotentResponse(fingerprint.get(), 201,
+                Collections.<String, String>emptyMap(), "{\"id\":\"stored\"}"));
+
+        // Act
+        ResponseEntity<Receipt> response = idempotencyService.execute("k2", "payments", "body", Receipt.class,
+            this::createReceipt);
+
+        // Assert
+        assertEquals(0, executions.get());
+        assertEquals("stored", response.getBody().getId());
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+    }
+
+    @Test
+    void testExecute_StillInProgressElsewhere_Conflict() {
+        // Arrange
+        idempotencyService.setWaitTimeoutMs(20);
+        when(idempotencyStore.claim(anyString(), anyString(), anyString(), any(), any())).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () ->
+            idempotencyService.execute("k3", "orders", "body", Receipt.class, this::createReceipt));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void testExecute_FailedAction_ReleasesClaim() {
+        // Arrange
+        when(idempotencyStore.claim(anyString(), anyString(), anyString(), any(), any())).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("k4", "orders", "body",
+            Receipt.class, () -> {
+                throw new IllegalStateException("Billing service unavailable");
+            }));
+        verify(idempotencyStore).release(eq("orders:k4"), anyString());
+        verify(idempotencyStore, never()).complete(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void testExecute_DeclinedCheckout_RetryIsReplayedWithoutRunningAgain() {
+        // Arrange
+        when(idempotencyStore.claim(eq("orders:k8"), anyString(), anyString(), any(), any())).thenReturn(true);
+        Supplier<ResponseEntity<Receipt>> declined = () -> {
+            executions.incrementAndGet();
+            throw new BusinessException("Payment for order 1 failed with status FAILED");
+        };
+        assertThrows(BusinessException.class, () ->
+            idempotencyService.execute("k8", "orders", "body", Receipt.class, declined));
+
+        // Act
+        BusinessException retry = assertThrows(BusinessException.class, () ->
+            idempotencyService.execute("k8", "orders", "body", Receipt.class, declined));
+
+        // Assert
+        assertEquals("Payment for order 1 failed with status FAILED", retry.getMessage());
+        assertEquals(1, executions.get());
+        ArgumentCaptor<IdempotentResponse> stored = ArgumentCaptor.forClass(IdempotentResponse.class);
+        verify(idempotencyStore).complete(eq("orders:k8"), anyString(), stored.capture(), any());
+        assertEquals(422, stored.getValue().getStatus());
+        verify(idempotencyStore, never()).release(anyString(), anyString());
+        assertEquals(1.0, meterRegistry.counter("idempotency.requests", "outcome", "replayed").count());
+    }
+
+    @Test
+    void testExecute_MissingEntityStoredOnAnotherNode_ReplayedAsNotFound() {
+        // Arrange
+        AtomicReference<String> fingerprint = new AtomicReference<>();
+        when(idempotencyStore.claim(eq("orders:k9"), anyString(), anyString(), any(), any())).thenAnswer(invocation -> {
+            fingerprint.set(invocation.getArgument(1));
+            return false;
+        });
+        when(idempotencyStore.findCompleted(eq("orders:k9"), any())).thenAnswer(invocation ->
+            new IdempotentResponse(fingerprint.get(), 404, null, "\"Product not found\""));
+
+        // Act & Assert
+        EntityNotFoundException error = assertThrows(EntityNotFoundException.class, () ->
+            idempotencyService.execute("k9", "orders", "body", Receipt.class, this::createReceipt));
+        assertEquals("Product not found", error.getMessage());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void testExecute_ConcurrentDuplicatesWaitForInFlightRequest() throws Exception {
+        // Arrange
+        int callers = 8;
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(idempotencyStore.claim(eq("orders:k5"), anyString(), anyString(), any(), any())).thenReturn(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<ResponseEntity<Receipt>>> futures = new ArrayList<>();
+        futures.add(executor.submit(() -> idempotencyService.execute("k5", "orders", "body", Receipt.class, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return createReceipt();
+        })));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < callers; i++) {
+            futures.add(executor.submit(() -> idempotencyService.execute("k5", "orders", "body", Receipt.class,
+                this::createReceipt)));
+        }
+
+        // Act
+        Thread.sleep(50);
+        release.countDown();
+
+        // Assert
+        for (Future<ResponseEntity<Receipt>> future : futures) {
+            assertEquals(HttpStatus.CREATED, future.get(5, TimeUnit.SECONDS).getStatusCode());
+        }
+        executor.shutdown();
+        assertEquals(1, executions.get());
+        verify(idempotencyStore, times(1)).claim(anyString(), anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void testExecute_RenewsLeaseWhileActionRunsAndCompletesWithSameClaim() {
+        // Arrange
+        idempotencyService.setLeaseMs(30);
+        AtomicReference<String> claimToken = new AtomicReference<>();
+        when(idempotencyStore.claim(eq("orders:k6"), anyString(), anyString(), any(), any())).thenAnswer(invocation -> {
+            claimToken.set(invocation.getArgument(2));
+            return true;
+        });
+        when(idempotencyStore.renew(eq("orders:k6"), anyString(), any())).thenReturn(true);
+        when(idempotencyStore.complete(eq("orders:k6"), anyString(), any(), any())).thenReturn(true);
+
+        // Act: the action outlives several leases
+        idempotencyService.execute("k6", "orders", "body", Receipt.class, () -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return createReceipt();
+        });
+
+        // Assert
+        verify(idempotencyStore, atLeast(2)).renew(eq("orders:k6"), eq(claimToken.get()), any());
+        verify(idempotencyStore).complete(eq("orders:k6"), eq(claimToken.get()), any(IdempotentResponse.class), any());
+    }
+
+    @Test
+    void testExecute_ClaimTakenOverMeanwhile_StillReturnsResponse() {
+        // Arrange
+        when(idempotencyStore.claim(eq("orders:k7"), anyString(), anyString(), any(), any())).thenReturn(true);
+        when(idempotencyStore.complete(eq("orders:k7"), anyString(), any(), any())).thenReturn(false);
+
+        // Act
+        ResponseEntity<Receipt> response = idempotencyService.execute("k7", "orders", "body", Receipt.class,
+            this::createReceipt);
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(1, executions.get());
+    }
+
+    private ResponseEntity<Receipt> createReceipt() {
+        int execution = executions.incrementAndGet();
+        Receipt receipt = new Receipt();
+        receipt.setId("receipt-" + execution);
+        return ResponseEntity.created(URI.create("/receipts/" + execution)).body(receipt);
+    }
+
+    static class Receipt {
+        private String id;
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+    }
+}
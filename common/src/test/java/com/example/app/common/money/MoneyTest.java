@@ -0,0 +1,88 @@
+package com.example.app.common.money;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testOf_ConvertsToCents() {
+        // Act
+        Money money = Money.of(new BigDecimal("99.99"));
+
+        // Assert
+        assertEquals(9999, money.getCents());
+        assertEquals(new BigDecimal("99.99"), money.toBigDecimal());
+        assertEquals("99.99", money.toString());
+        assertEquals(Money.of(new BigDecimal("10")), Money.of(new BigDecimal("10.00")));
+    }
+
+    @Test
+    void testOf_FractionOfACent_Throws() {
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0.001")));
+    }
+
+    @Test
+    void testArithmetic_IsExact() {
+        // Arrange
+        Money price = Money.of(new BigDecimal("0.10"));
+
+        // Act
+        Money total = Money.ZERO;
+        for (int i = 0; i < 3; i++) {
+            total = total.plus(price);
+        }
+
+        // Assert
+        assertEquals(Money.of(new BigDecimal("0.30")), total);
+        assertEquals(Money.of(new BigDecimal("199.98")), Money.of(new BigDecimal("99.99")).times(2));
+        assertTrue(price.minus(total).isNegative());
+        assertTrue(price.times(0).isZero());
+    }
+
+    @Test
+    void testArithmetic_OverflowThrows() {
+        // Arrange
+        Money large = Money.ofCents(Long.MAX_VALUE / 2 + 1);
+
+        // Act & Assert
+        assertThrows(ArithmeticException.class, () -> large.plus(large));
+        assertThrows(ArithmeticException.class, () -> large.times(2));
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MIN_VALUE).minus(Money.ofCents(1)));
+    }
+
+    @Test
+    void testJson_RoundTripsAsDecimalNumber() throws Exception {
+        // Act
+        String json = objectMapper.writeValueAsString(Money.of(new BigDecimal("199.98")));
+
+        // Assert
+        assertEquals("199.98", json);
+        assertEquals(Money.ofCents(19998), objectMapper.readValue(json, Money.class));
+        assertEquals(Money.ofCents(500), objectMapper.readValue("\"5\"", Money.class));
+    }
+
+    @Test
+    void testJson_FractionOfACent_Rejected() {
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("1.005", Money.class));
+    }
+
+    @Test
+    void testConverter_MapsNullAndValues() {
+        // Arrange
+        MoneyConverter converter = new MoneyConverter();
+
+        // Act & Assert
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+        assertEquals(new BigDecimal("12.50"), converter.convertToDatabaseColumn(Money.ofCents(1250)));
+        assertEquals(Money.ofCents(1250), converter.convertToEntityAttribute(new BigDecimal("12.5")));
+    }
+}
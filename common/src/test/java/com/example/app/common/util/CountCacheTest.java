@@ -0,0 +1,68 @@
+package com.example.app.common.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountCacheTest {
+
+    private MeterRegistry meterRegistry;
+    private CountCache countCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        countCache = new CountCache(meterRegistry);
+    }
+
+    @Test
+    void testGet_CachesCountPerKey() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        long first = countCache.get("orders:a", () -> { calls.incrementAndGet(); return 10L; });
+        long second = countCache.get("orders:a", () -> { calls.incrementAndGet(); return 99L; });
+        long other = countCache.get("orders:b", () -> { calls.incrementAndGet(); return 5L; });
+
+        // Assert
+        assertEquals(10L, first);
+        assertEquals(10L, second);
+        assertEquals(5L, other);
+        assertEquals(2, calls.get());
+        assertEquals(1.0, meterRegistry.counter("paging.count.cache", "result", "hit").count());
+        assertEquals(2.0, meterRegistry.counter("paging.count.cache", "result", "miss").count());
+    }
+
+    @Test
+    void testGet_RecountsAfterTtl() {
+        // Arrange
+        countCache.setTtlMs(0);
+        countCache.get("users", () -> 1L);
+
+        // Act
+        long result = countCache.get("users", () -> 2L);
+
+        // Assert
+        assertEquals(2L, result);
+    }
+
+    @Test
+    void testGet_StaysWithinMaxEntries() {
+        // Arrange
+        countCache.setMaxEntries(3);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            countCache.get("key" + i, () -> 1L);
+        }
+
+        // Assert
+        assertTrue(countCache.size() <= 3);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.app.common.util;
+
+import com.example.app.common.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void testEncodeDecode_RoundTripKeepsNanos() {
+        // Arrange
+        Instant timestamp = Instant.parse("2024-05-01T10:15:30.123456789Z");
+        UUID id = UUID.randomUUID();
+
+        // Act
+        KeysetCursor decoded = KeysetCursor.decode(new KeysetCursor(timestamp, id).encode());
+
+        // Assert
+        assertEquals(timestamp, decoded.getTimestamp());
+        assertEquals(id, decoded.getId());
+    }
+
+    @Test
+    void testEncode_IsUrlSafe() {
+        // Act
+        String token = new KeysetCursor(Instant.now(), UUID.randomUUID()).encode();
+
+        // Assert
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void testDecode_MalformedToken_ThrowsBusinessException() {
+        assertThrows(BusinessException.class, () -> KeysetCursor.decode("not a cursor"));
+        assertThrows(BusinessException.class, () -> KeysetCursor.decode("dGFtcGVyZWQ"));
+    }
+}
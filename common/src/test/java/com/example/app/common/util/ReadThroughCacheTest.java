@@ -0,0 +1,110 @@
+package com.example.app.common.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadThroughCacheTest {
+
+    private ReadThroughCache<String, StringBuilder> cache;
+    private MeterRegistry meterRegistry;
+    private long ttlMs = 60000;
+    private long absentTtlMs = 60000;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ReadThroughCache<>(meterRegistry, "widgets.cache", "widget", () -> 2,
+            value -> value == null ? absentTtlMs : value.length() > 3 ? ttlMs : 0, StringBuilder::new);
+    }
+
+    @Test
+    void testGet_CopiesValuesInAndOut() {
+        // Arrange
+        StringBuilder loaded = new StringBuilder("blue");
+        cache.get("a", () -> loaded);
+        loaded.append("!");
+
+        // Act
+        StringBuilder first = cache.get("a", () -> fail("should be cached"));
+        first.append("?");
+        StringBuilder second = cache.get("a", () -> fail("should be cached"));
+
+        // Assert
+        assertEquals("blue", second.toString());
+        assertEquals(2, meterRegistry.counter("widgets.cache", "result", "hit").count());
+        assertEquals(1, meterRegistry.counter("widgets.cache", "result", "miss").count());
+    }
+
+    @Test
+    void testGet_ValueWithoutTtlIsNotCached() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        cache.get("a", () -> load("red", loads));
+        cache.get("a", () -> load("red", loads));
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testGetAll_CachesAbsentKeysUnderTheirOwnTtl() {
+        // Arrange
+        absentTtlMs = 0;
+
+        // Act
+        Map<String, StringBuilder> result = cache.getAll(Arrays.asList("a", "b"),
+            keys -> Collections.singletonMap("a", new StringBuilder("green")));
+
+        // Assert
+        assertEquals(Collections.singleton("a"), result.keySet());
+        assertEquals(1, cache.size());
+        assertEquals(2, meterRegistry.counter("widgets.cache", "result", "miss").count());
+    }
+
+    @Test
+    void testPutIfAbsent_DoesNotOverrideInvalidationOrCachedValue() {
+        // Arrange
+        cache.invalidate("a");
+        cache.get("b", () -> new StringBuilder("black"));
+
+        // Act
+        cache.putIfAbsent("a", new StringBuilder("white"));
+        cache.putIfAbsent("b", new StringBuilder("white"));
+
+        // Assert
+        assertEquals("grey", cache.get("a", () -> new StringBuilder("grey")).toString());
+        assertEquals("black", cache.get("b", () -> fail("should be cached")).toString());
+    }
+
+    @Test
+    void testGet_SizeEvictionSkipsInvalidationMarkers() {
+        // Act
+        cache.get("a", () -> new StringBuilder("amber"));
+        cache.invalidate("a");
+        cache.get("b", () -> new StringBuilder("brown"));
+        cache.get("c", () -> new StringBuilder("cyan!"));
+
+        // Assert: the evicted eldest was the marker of "a", which held no value
+        assertEquals(2, cache.size());
+        assertEquals(0, meterRegistry.counter("widgets.cache.evictions", "cause", "size").count());
+        assertEquals(1, meterRegistry.counter("widgets.cache.evictions", "cause", "invalidated").count());
+        assertEquals(2, meterRegistry.get("widgets.cache.size").gauge().value());
+    }
+
+    private static StringBuilder load(String value, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new StringBuilder(value);
+    }
+}
@@ -2,7 +2,16 @@ package com.example.app.common.util;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -149,5 +158,72 @@ class UUIDUtilTest {
         assertNotNull(parsed);
         assertEquals(generated, parsed);
     }
-}
 
+    @Test
+    void testGenerateTimeOrdered_SetsVersionVariantAndTimestamp() {
+        // Arrange
+        long before = System.currentTimeMillis();
+
+        // Act
+        UUID result = UUIDUtil.generateTimeOrdered();
+
+        // Assert
+        assertEquals(7, result.version());
+        assertEquals(2, result.variant());
+        assertTrue(UUIDUtil.timestampOf(result) >= before);
+        assertTrue(UUIDUtil.timestampOf(result) <= System.currentTimeMillis() + 1000);
+    }
+
+    @Test
+    void testGenerateTimeOrdered_IncreasesWithinAMillisecond() {
+        // Act
+        UUID previous = UUIDUtil.generateTimeOrdered();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = UUIDUtil.generateTimeOrdered();
+
+            // Assert: both the JVM and the database compare these as unsigned bytes
+            assertTrue(next.toString().compareTo(previous.toString()) > 0);
+            previous = next;
+        }
+    }
+
+    @Test
+    void testGenerateTimeOrdered_ConcurrentCallersNeverCollide() throws Exception {
+        // Arrange
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<UUID>>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                List<UUID> generated = new ArrayList<>(perThread);
+                for (int j = 0; j < perThread; j++) {
+                    generated.add(UUIDUtil.generateTimeOrdered());
+                }
+                return generated;
+            }));
+        }
+
+        // Act
+        start.countDown();
+        Set<UUID> all = new HashSet<>();
+        for (Future<List<UUID>> future : futures) {
+            List<UUID> generated = future.get(30, TimeUnit.SECONDS);
+            for (int j = 1; j < generated.size(); j++) {
+                assertTrue(generated.get(j).toString().compareTo(generated.get(j - 1).toString()) > 0);
+            }
+            all.addAll(generated);
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(threads * perThread, all.size());
+    }
+
+    @Test
+    void testTimestampOf_RandomUUID_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> UUIDUtil.timestampOf(UUIDUtil.generate()));
+    }
+}
@@ -0,0 +1,14 @@
+-- Striped stock buckets for hot products
+-- Schema: cursordb
+
+-- Set search path to use cursordb schema
+SET search_path TO cursordb;
+
+-- Inventory buckets table
+CREATE TABLE IF NOT EXISTS inventory_buckets (
+    product_id UUID NOT NULL REFERENCES inventory(product_id) ON DELETE CASCADE,
+    bucket_no INTEGER NOT NULL,
+    reserved_qty INTEGER NOT NULL DEFAULT 0,
+    available_qty INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (product_id, bucket_no)
+);
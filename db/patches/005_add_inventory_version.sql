@@ -0,0 +1,7 @@
+-- Optimistic locking version for inventory rows
+-- Schema: cursordb
+
+-- Set search path to use cursordb schema
+SET search_path TO cursordb;
+
+ALTER TABLE inventory ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
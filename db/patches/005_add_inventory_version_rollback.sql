@@ -0,0 +1,7 @@
+-- Rollback script for inventory version column
+-- Schema: cursordb
+
+-- Set search path to use cursordb schema
+SET search_path TO cursordb;
+
+ALTER TABLE inventory DROP COLUMN IF EXISTS version;
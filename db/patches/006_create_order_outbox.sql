@@ -0,0 +1,23 @@
+-- Transactional outbox for order events
+-- Schema: cursordb
+
+-- Set search path to use cursordb schema
+SET search_path TO cursordb;
+
+-- Order outbox table
+CREATE TABLE IF NOT EXISTS order_outbox (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    order_id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    event_type VARCHAR(40) NOT NULL,
+    from_status VARCHAR(20),
+    to_status VARCHAR(20) NOT NULL,
+    detail VARCHAR(255),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(500)
+);
+
+-- Only undelivered events are scanned by the relay
+CREATE INDEX IF NOT EXISTS idx_order_outbox_unpublished ON order_outbox(created_at) WHERE published_at IS NULL;
@@ -0,0 +1,7 @@
+-- Rollback script for order outbox
+-- Schema: cursordb
+
+-- Set search path to use cursordb schema
+SET search_path TO cursordb;
+
+DROP TABLE IF EXISTS order_outbox CASCADE;
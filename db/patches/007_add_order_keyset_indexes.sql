@@ -0,0 +1,10 @@
+-- Indexes for keyset (cursor) pagination of orders
+-- Schema: cursordb
+
+-- Set search path to use cursordb schema
+SET search_path TO cursordb;
+
+-- Each listing filter gets an index ending in (created_at, id) so a page is a single range scan
+CREATE INDEX IF NOT EXISTS idx_order_created_at_id ON orders(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_order_user_id_created_at_id ON orders(user_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_order_status_created_at_id ON orders(status, created_at, id);
@@ -0,0 +1,9 @@
+-- Rollback script for order keyset pagination indexes
+-- Schema: cursordb
+
+-- Set search path to use cursordb schema
+SET search_path TO cursordb;
+
+DROP INDEX IF EXISTS idx_order_status_created_at_id;
+DROP INDEX IF EXISTS idx_order_user_id_created_at_id;
+DROP INDEX IF EXISTS idx_order_created_at_id;
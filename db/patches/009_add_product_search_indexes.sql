@@ -0,0 +1,23 @@
+-- Full-text and trigram indexes for product search
+-- Schema: cursordb
+
+-- Set search path to use cursordb schema
+SET search_path TO cursordb;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Weighted document kept up to date by Postgres (12+): SKU and name rank above description
+ALTER TABLE products ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple'::regconfig, COALESCE(sku, '')), 'A') ||
+        setweight(to_tsvector('english'::regconfig, COALESCE(name, '')), 'A') ||
+        setweight(to_tsvector('english'::regconfig, COALESCE(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_product_search_vector ON products USING GIN (search_vector);
+
+-- Serve LOWER(sku|name) LIKE '%term%' for partial words and SKU fragments (terms of three or more characters)
+CREATE INDEX IF NOT EXISTS idx_product_sku_trgm ON products USING GIN (LOWER(sku) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_product_name_trgm ON products USING GIN (LOWER(name) gin_trgm_ops);
+
+ANALYZE products;
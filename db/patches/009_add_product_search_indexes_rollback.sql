@@ -0,0 +1,10 @@
+-- Rollback script for product search indexes
+-- Schema: cursordb
+
+-- Set search path to use cursordb schema
+SET search_path TO cursordb;
+
+DROP INDEX IF EXISTS idx_product_name_trgm;
+DROP INDEX IF EXISTS idx_product_sku_trgm;
+DROP INDEX IF EXISTS idx_product_search_vector;
+ALTER TABLE products DROP COLUMN IF EXISTS search_vector;
@@ -0,0 +1,15 @@
+-- Indexes for filtered and sorted product listings
+-- Schema: cursordb
+
+-- Set search path to use cursordb schema
+SET search_path TO cursordb;
+
+-- Each sort option reads a (column, id) index in order, backwards for descending sorts; the same indexes serve
+-- price and creation-date range filters
+CREATE INDEX IF NOT EXISTS idx_product_price_id ON products(price, id);
+CREATE INDEX IF NOT EXISTS idx_product_created_at_id ON products(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_product_name_id ON products(name, id);
+
+-- Storefront listings are usually restricted to products in stock
+CREATE INDEX IF NOT EXISTS idx_product_in_stock_price_id ON products(price, id) WHERE available_qty > 0;
+CREATE INDEX IF NOT EXISTS idx_product_in_stock_created_at_id ON products(created_at, id) WHERE available_qty > 0;
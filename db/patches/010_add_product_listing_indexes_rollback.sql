@@ -0,0 +1,11 @@
+-- Rollback script for product listing indexes
+-- Schema: cursordb
+
+-- Set search path to use cursordb schema
+SET search_path TO cursordb;
+
+DROP INDEX IF EXISTS idx_product_in_stock_created_at_id;
+DROP INDEX IF EXISTS idx_product_in_stock_price_id;
+DROP INDEX IF EXISTS idx_product_name_id;
+DROP INDEX IF EXISTS idx_product_created_at_id;
+DROP INDEX IF EXISTS idx_product_price_id;
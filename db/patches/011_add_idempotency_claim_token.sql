@@ -0,0 +1,9 @@
+-- Claim token for idempotency keys
+-- Schema: cursordb
+
+-- Set search path to use cursordb schema
+SET search_path TO cursordb;
+
+-- Identifies the node execution that holds an IN_PROGRESS claim: renewing its lease, storing its response and
+-- releasing it only apply while the claim has not been taken over
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS claim_token VARCHAR(36);
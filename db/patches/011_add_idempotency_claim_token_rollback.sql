@@ -0,0 +1,7 @@
+-- Rollback script for the idempotency claim token
+-- Schema: cursordb
+
+-- Set search path to use cursordb schema
+SET search_path TO cursordb;
+
+ALTER TABLE idempotency_keys DROP COLUMN IF EXISTS claim_token;
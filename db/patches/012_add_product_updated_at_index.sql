@@ -0,0 +1,8 @@
+-- Index for the catalog change feed followed by every node's in-memory search structures
+-- Schema: cursordb
+
+-- Set search path to use cursordb schema
+SET search_path TO cursordb;
+
+-- ProductCatalogSync reads products changed after an (updated_at, id) position, in that order
+CREATE INDEX IF NOT EXISTS idx_product_updated_at_id ON products(updated_at, id);
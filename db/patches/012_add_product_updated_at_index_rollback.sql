@@ -0,0 +1,7 @@
+-- Rollback script for the catalog change feed index
+-- Schema: cursordb
+
+-- Set search path to use cursordb schema
+SET search_path TO cursordb;
+
+DROP INDEX IF EXISTS idx_product_updated_at_id;
@@ -0,0 +1,12 @@
+-- Checkout mode of orders
+-- Schema: cursordb
+
+-- Set search path to use cursordb schema
+SET search_path TO cursordb;
+
+-- Only asynchronous checkouts are settled by the checkout reconciler; existing and seeded orders are not
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS async_checkout BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- The reconciler looks for the oldest stale PENDING asynchronous checkouts
+CREATE INDEX IF NOT EXISTS idx_order_pending_async_created_at ON orders(created_at)
+    WHERE status = 'PENDING' AND async_checkout;
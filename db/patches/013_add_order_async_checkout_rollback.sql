@@ -0,0 +1,8 @@
+-- Rollback script for the order checkout mode
+-- Schema: cursordb
+
+-- Set search path to use cursordb schema
+SET search_path TO cursordb;
+
+DROP INDEX IF EXISTS idx_order_pending_async_created_at;
+ALTER TABLE orders DROP COLUMN IF EXISTS async_checkout;
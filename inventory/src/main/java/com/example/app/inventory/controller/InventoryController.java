@@ -55,5 +55,25 @@ public class InventoryController {
         InventoryResponse response = inventoryService.releaseInventory(productId, request);
         return ResponseEntity.ok(response);
     }
-}
 
+    @PostMapping("/{productId}/buckets/rebalance")
+    @Operation(summary = "Spread a hot product's stock over striped buckets")
+    @ApiResponse(responseCode = "200", description = "Buckets rebalanced successfully")
+    @ApiResponse(responseCode = "404", description = "Inventory not found")
+    @ApiResponse(responseCode = "422", description = "Invalid bucket count")
+    public ResponseEntity<InventoryResponse> rebalanceBuckets(
+            @PathVariable UUID productId,
+            @RequestParam(required = false) Integer buckets) {
+        InventoryResponse response = inventoryService.rebalanceBuckets(productId, buckets);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/{productId}/buckets/merge")
+    @Operation(summary = "Merge a product's striped buckets back into its inventory row")
+    @ApiResponse(responseCode = "200", description = "Buckets merged successfully")
+    @ApiResponse(responseCode = "404", description = "Inventory not found")
+    public ResponseEntity<InventoryResponse> mergeBuckets(@PathVariable UUID productId) {
+        InventoryResponse response = inventoryService.mergeBuckets(productId);
+        return ResponseEntity.ok(response);
+    }
+}
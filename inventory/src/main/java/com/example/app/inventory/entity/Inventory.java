@@ -21,6 +21,10 @@ public class Inventory {
     @Column(name = "available_qty", nullable = false)
     private Integer availableQty = 0;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     public UUID getProductId() {
         return productId;
     }
@@ -44,5 +48,13 @@ public class Inventory {
     public void setAvailableQty(Integer availableQty) {
         this.availableQty = availableQty;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
 
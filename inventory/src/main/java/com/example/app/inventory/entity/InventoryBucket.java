@@ -0,0 +1,60 @@
+package com.example.app.inventory.entity;
+
+import javax.persistence.*;
+import java.util.UUID;
+
+/**
+ * One stripe of a hot product's stock.
+ * Striped products spread their available quantity over several bucket rows so that
+ * concurrent reservations lock different rows instead of queueing on the inventory row.
+ */
+@Entity
+@IdClass(InventoryBucketId.class)
+@Table(name = "inventory_buckets", schema = "cursordb")
+public class InventoryBucket {
+    @Id
+    @Column(name = "product_id", columnDefinition = "UUID")
+    private UUID productId;
+
+    @Id
+    @Column(name = "bucket_no")
+    private Integer bucketNo;
+
+    @Column(name = "reserved_qty", nullable = false)
+    private Integer reservedQty = 0;
+
+    @Column(name = "available_qty", nullable = false)
+    private Integer availableQty = 0;
+
+    public UUID getProductId() {
+        return productId;
+    }
+
+    public void setProductId(UUID productId) {
+        this.productId = productId;
+    }
+
+    public Integer getBucketNo() {
+        return bucketNo;
+    }
+
+    public void setBucketNo(Integer bucketNo) {
+        this.bucketNo = bucketNo;
+    }
+
+    public Integer getReservedQty() {
+        return reservedQty;
+    }
+
+    public void setReservedQty(Integer reservedQty) {
+        this.reservedQty = reservedQty;
+    }
+
+    public Integer getAvailableQty() {
+        return availableQty;
+    }
+
+    public void setAvailableQty(Integer availableQty) {
+        this.availableQty = availableQty;
+    }
+}
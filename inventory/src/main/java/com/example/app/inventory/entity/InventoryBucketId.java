@@ -0,0 +1,54 @@
+package com.example.app.inventory.entity;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Composite primary key for InventoryBucket.
+ */
+public class InventoryBucketId implements Serializable {
+    private UUID productId;
+    private Integer bucketNo;
+
+    public InventoryBucketId() {
+    }
+
+    public InventoryBucketId(UUID productId, Integer bucketNo) {
+        this.productId = productId;
+        this.bucketNo = bucketNo;
+    }
+
+    public UUID getProductId() {
+        return productId;
+    }
+
+    public void setProductId(UUID productId) {
+        this.productId = productId;
+    }
+
+    public Integer getBucketNo() {
+        return bucketNo;
+    }
+
+    public void setBucketNo(Integer bucketNo) {
+        this.bucketNo = bucketNo;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InventoryBucketId)) {
+            return false;
+        }
+        InventoryBucketId that = (InventoryBucketId) o;
+        return Objects.equals(productId, that.productId) && Objects.equals(bucketNo, that.bucketNo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(productId, bucketNo);
+    }
+}
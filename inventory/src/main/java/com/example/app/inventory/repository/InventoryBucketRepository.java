@@ -0,0 +1,63 @@
+package com.example.app.inventory.repository;
+
+import com.example.app.inventory.entity.InventoryBucket;
+import com.example.app.inventory.entity.InventoryBucketId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for InventoryBucket entity.
+ */
+@Repository
+public interface InventoryBucketRepository extends JpaRepository<InventoryBucket, InventoryBucketId> {
+    List<InventoryBucket> findByProductIdOrderByBucketNo(UUID productId);
+
+    long countByProductId(UUID productId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM InventoryBucket b WHERE b.productId = :productId ORDER BY b.bucketNo")
+    List<InventoryBucket> findByProductIdForUpdate(@Param("productId") UUID productId);
+
+    /**
+     * Reserves from the first unlocked bucket with enough stock, scanning from startBucket and wrapping around.
+     * Buckets locked by other transactions are skipped rather than waited on.
+     * @return 1 if a bucket was charged, 0 if no unlocked bucket could cover the quantity
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE cursordb.inventory_buckets " +
+                   "SET available_qty = available_qty - :quantity, reserved_qty = reserved_qty + :quantity " +
+                   "WHERE product_id = :productId AND available_qty >= :quantity AND bucket_no = (" +
+                   "SELECT bucket_no FROM cursordb.inventory_buckets " +
+                   "WHERE product_id = :productId AND available_qty >= :quantity " +
+                   "ORDER BY CASE WHEN bucket_no >= :startBucket THEN 0 ELSE 1 END, bucket_no " +
+                   "LIMIT 1 FOR UPDATE SKIP LOCKED)",
+           nativeQuery = true)
+    int reserveFromAnyBucket(@Param("productId") UUID productId,
+                             @Param("quantity") int quantity,
+                             @Param("startBucket") int startBucket);
+
+    /**
+     * Releases into the first unlocked bucket holding enough reserved stock, scanning from startBucket.
+     * @return 1 if a bucket was credited, 0 otherwise
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE cursordb.inventory_buckets " +
+                   "SET reserved_qty = reserved_qty - :quantity, available_qty = available_qty + :quantity " +
+                   "WHERE product_id = :productId AND reserved_qty >= :quantity AND bucket_no = (" +
+                   "SELECT bucket_no FROM cursordb.inventory_buckets " +
+                   "WHERE product_id = :productId AND reserved_qty >= :quantity " +
+                   "ORDER BY CASE WHEN bucket_no >= :startBucket THEN 0 ELSE 1 END, bucket_no " +
+                   "LIMIT 1 FOR UPDATE SKIP LOCKED)",
+           nativeQuery = true)
+    int releaseToAnyBucket(@Param("productId") UUID productId,
+                           @Param("quantity") int quantity,
+                           @Param("startBucket") int startBucket);
+}
@@ -3,11 +3,14 @@ package com.example.app.inventory.repository;
 import com.example.app.inventory.entity.Inventory;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -18,5 +21,33 @@ public interface InventoryRepository extends JpaRepository<Inventory, UUID> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT i FROM Inventory i WHERE i.productId = :productId")
     Inventory findByProductIdForUpdate(@Param("productId") UUID productId);
-}
 
+    /**
+     * Locks all requested rows with a single SELECT ... FOR UPDATE.
+     * Rows are locked in primary-key order so concurrent callers always acquire them in the same sequence.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.productId IN :productIds ORDER BY i.productId")
+    List<Inventory> findAllByProductIdInForUpdate(@Param("productIds") Collection<UUID> productIds);
+
+    /**
+     * Reserves stock in one statement, only if enough is available.
+     * Bumps the version so concurrent optimistic writers see the change.
+     * @return Number of rows updated; 0 means the product is missing or has insufficient stock
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.availableQty = i.availableQty - :quantity, " +
+           "i.reservedQty = i.reservedQty + :quantity, i.version = i.version + 1 " +
+           "WHERE i.productId = :productId AND i.availableQty >= :quantity")
+    int reserveIfAvailable(@Param("productId") UUID productId, @Param("quantity") int quantity);
+
+    /**
+     * Releases reserved stock in one statement, only if that much is reserved.
+     * @return Number of rows updated; 0 means the product is missing or has too little reserved
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.reservedQty = i.reservedQty - :quantity, " +
+           "i.availableQty = i.availableQty + :quantity, i.version = i.version + 1 " +
+           "WHERE i.productId = :productId AND i.reservedQty >= :quantity")
+    int releaseIfReserved(@Param("productId") UUID productId, @Param("quantity") int quantity);
+}
@@ -0,0 +1,166 @@
+package com.example.app.inventory.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-product contention signal for the ADAPTIVE reservation strategy.
+ * <p>
+ * Records version conflicts and slow row-lock acquisitions. A product is contended, and takes the locked path,
+ * while at least {@code inventory.locking.contention.threshold} such events fall inside the sliding window.
+ * Once the window drains it returns to the optimistic path. Only products with recent events are tracked,
+ * so the long tail of cold products costs nothing.
+ */
+@Component
+public class ContentionTracker {
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    @Value("${inventory.locking.contention.window-ms:10000}")
+    private long windowMs = 10000;
+
+    @Value("${inventory.locking.contention.threshold:3}")
+    private int threshold = 3;
+
+    @Value("${inventory.locking.contention.lock-wait-threshold-ms:5}")
+    private long lockWaitThresholdMs = 5;
+
+    private final ConcurrentHashMap<UUID, EventWindow> windows = new ConcurrentHashMap<>();
+    private final Counter optimisticDecisions;
+    private final Counter pessimisticDecisions;
+    private final Counter conflictsCounter;
+    private final Counter lockWaitsCounter;
+
+    @Autowired
+    public ContentionTracker(MeterRegistry meterRegistry) {
+        this.optimisticDecisions = Counter.builder("inventory.locking.decisions")
+            .description("Number of reservation attempts routed by the contention tracker")
+            .tag("path", "optimistic")
+            .register(meterRegistry);
+        this.pessimisticDecisions = Counter.builder("inventory.locking.decisions")
+            .description("Number of reservation attempts routed by the contention tracker")
+            .tag("path", "pessimistic")
+            .register(meterRegistry);
+        this.conflictsCounter = Counter.builder("inventory.locking.conflicts")
+            .description("Number of optimistic version conflicts on inventory rows")
+            .register(meterRegistry);
+        this.lockWaitsCounter = Counter.builder("inventory.locking.lock.waits")
+            .description("Number of inventory row locks that took longer than the lock-wait threshold")
+            .register(meterRegistry);
+        Gauge.builder("inventory.locking.contended.products", this, ContentionTracker::contendedProductCount)
+            .description("Number of products currently routed to the pessimistic path")
+            .register(meterRegistry);
+    }
+
+    // Setters for testing
+    public void setWindowMs(long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    public void setThreshold(int threshold) {
+        this.threshold = threshold;
+    }
+
+    public void setLockWaitThresholdMs(long lockWaitThresholdMs) {
+        this.lockWaitThresholdMs = lockWaitThresholdMs;
+    }
+
+    /**
+     * Decides the path for one reservation attempt and records the decision.
+     * @return true if the product should be locked pessimistically
+     */
+    public boolean shouldLock(UUID productId) {
+        boolean contended = isContended(productId);
+        (contended ? pessimisticDecisions : optimisticDecisions).increment();
+        return contended;
+    }
+
+    public boolean isContended(UUID productId) {
+        EventWindow window = windows.get(productId);
+        if (window == null) {
+            return false;
+        }
+        long now = System.nanoTime();
+        if (window.isExpired(now, windowNanos())) {
+            windows.remove(productId, window);
+            return false;
+        }
+        return window.isFull(now, windowNanos());
+    }
+
+    public void recordConflict(UUID productId) {
+        conflictsCounter.increment();
+        record(productId);
+    }
+
+    /**
+     * Records how long acquiring a row lock took; only waits above the threshold count as contention.
+     */
+    public void recordLockWait(UUID productId, long waitNanos) {
+        if (waitNanos < TimeUnit.MILLISECONDS.toNanos(lockWaitThresholdMs)) {
+            return;
+        }
+        lockWaitsCounter.increment();
+        record(productId);
+    }
+
+    private void record(UUID productId) {
+        long now = System.nanoTime();
+        windows.computeIfAbsent(productId, id -> new EventWindow(threshold)).add(now);
+        if (windows.size() > CLEANUP_THRESHOLD) {
+            windows.entrySet().removeIf(entry -> entry.getValue().isExpired(now, windowNanos()));
+        }
+    }
+
+    private double contendedProductCount() {
+        long now = System.nanoTime();
+        int count = 0;
+        for (Map.Entry<UUID, EventWindow> entry : windows.entrySet()) {
+            if (entry.getValue().isFull(now, windowNanos())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long windowNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(windowMs);
+    }
+
+    /**
+     * Ring of the most recent event timestamps; full means threshold events happened within the window.
+     */
+    private static final class EventWindow {
+        private final long[] timestamps;
+        private int next;
+        private int count;
+
+        private EventWindow(int capacity) {
+            this.timestamps = new long[Math.max(capacity, 1)];
+        }
+
+        private synchronized void add(long now) {
+            timestamps[next] = now;
+            next = (next + 1) % timestamps.length;
+            count = Math.min(count + 1, timestamps.length);
+        }
+
+        private synchronized boolean isFull(long now, long windowNanos) {
+            // The oldest retained event is the one about to be overwritten
+            return count == timestamps.length && now - timestamps[next] <= windowNanos;
+        }
+
+        private synchronized boolean isExpired(long now, long windowNanos) {
+            int newest = (next - 1 + timestamps.length) % timestamps.length;
+            return count == 0 || now - timestamps[newest] > windowNanos;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.example.app.inventory.domain.ReleaseRequest;
 import com.example.app.inventory.domain.ReserveRequest;
 import com.example.app.inventory.dto.InventoryResponse;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -13,5 +15,37 @@ public interface InventoryService {
     InventoryResponse getInventory(UUID productId);
     InventoryResponse reserveInventory(UUID productId, ReserveRequest request);
     InventoryResponse releaseInventory(UUID productId, ReleaseRequest request);
+
+    /**
+     * Reserves stock for several products atomically.
+     * All rows are locked in one statement in a canonical order; if any product lacks stock,
+     * nothing is reserved and every insufficient product is reported in a single exception.
+     * @param quantities Quantity to reserve keyed by product ID
+     * @return Updated inventory of every reserved product
+     */
+    List<InventoryResponse> reserveAll(Map<UUID, Integer> quantities);
+
+    /**
+     * Releases reserved stock for several products in one transaction, in canonical product order.
+     * Used to compensate a reservation whose order could not be completed.
+     * @param quantities Quantity to release keyed by product ID
+     * @return Updated inventory of every released product
+     */
+    List<InventoryResponse> releaseAll(Map<UUID, Integer> quantities);
+
+    /**
+     * Spreads a product's available stock evenly over bucket rows (striped stock for hot products).
+     * @param productId Product ID
+     * @param bucketCount Number of buckets, or null for the configured default
+     * @return Combined inventory of the product
+     */
+    InventoryResponse rebalanceBuckets(UUID productId, Integer bucketCount);
+
+    /**
+     * Folds all bucket rows of a product back into its inventory row.
+     * @param productId Product ID
+     * @return Combined inventory of the product
+     */
+    InventoryResponse mergeBuckets(UUID productId);
 }
 
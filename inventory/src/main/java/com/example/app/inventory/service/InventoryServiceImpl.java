@@ -1,5 +1,6 @@
 package com.example.app.inventory.service;
 
+import com.example.app.common.exception.BusinessException;
 import com.example.app.common.exception.EntityNotFoundException;
 import com.example.app.inventory.domain.ReleaseRequest;
 import com.example.app.inventory.domain.ReserveRequest;
@@ -10,11 +11,27 @@ import com.example.app.inventory.mapper.InventoryMapper;
 import com.example.app.inventory.repository.InventoryRepository;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Implementation of inventory service with atomic operations.
@@ -22,6 +39,7 @@ import java.util.UUID;
 @Service
 @Transactional
 public class InventoryServiceImpl implements InventoryService {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryServiceImpl.class);
     
     @Autowired
     private InventoryRepository inventoryRepository;
@@ -29,13 +47,38 @@ public class InventoryServiceImpl implements InventoryService {
     @Autowired
     private InventoryMapper inventoryMapper;
     
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private StripedStockManager stripedStockManager;
+    
+    @Autowired
+    private ReservationCoalescer reservationCoalescer;
+    
+    @Autowired
+    private ContentionTracker contentionTracker;
+    
+    @Value("${inventory.reservation.strategy:PESSIMISTIC}")
+    private ReservationStrategy reservationStrategy = ReservationStrategy.PESSIMISTIC;
+    
+    @Value("${inventory.reservation.retry.max-attempts:3}")
+    private int maxReservationAttempts = 3;
+    
+    @Value("${inventory.reservation.retry.base-delay-ms:20}")
+    private long reservationRetryBaseDelayMs = 20;
+    
     private final Counter reservationsFailedCounter;
+    private final Counter reservationsRetriedCounter;
 
     @Autowired
     public InventoryServiceImpl(MeterRegistry meterRegistry) {
         this.reservationsFailedCounter = Counter.builder("inventory.reservations.failed")
             .description("Number of failed inventory reservations")
             .register(meterRegistry);
+        this.reservationsRetriedCounter = Counter.builder("inventory.reservations.retried")
+            .description("Number of reservations retried after a deadlock, serialization failure or version conflict")
+            .register(meterRegistry);
     }
     
     // Setters for testing
@@ -46,24 +89,124 @@ public class InventoryServiceImpl implements InventoryService {
     public void setInventoryMapper(InventoryMapper inventoryMapper) {
         this.inventoryMapper = inventoryMapper;
     }
+    
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+    
+    public void setStripedStockManager(StripedStockManager stripedStockManager) {
+        this.stripedStockManager = stripedStockManager;
+    }
+    
+    public void setReservationCoalescer(ReservationCoalescer reservationCoalescer) {
+        this.reservationCoalescer = reservationCoalescer;
+    }
+    
+    public void setContentionTracker(ContentionTracker contentionTracker) {
+        this.contentionTracker = contentionTracker;
+    }
+    
+    public void setReservationStrategy(ReservationStrategy reservationStrategy) {
+        this.reservationStrategy = reservationStrategy;
+    }
+    
+    public void setMaxReservationAttempts(int maxReservationAttempts) {
+        this.maxReservationAttempts = maxReservationAttempts;
+    }
+    
+    public void setReservationRetryBaseDelayMs(long reservationRetryBaseDelayMs) {
+        this.reservationRetryBaseDelayMs = reservationRetryBaseDelayMs;
+    }
 
     @Override
     @Transactional(readOnly = true)
     public InventoryResponse getInventory(UUID productId) {
+        if (stripedStockManager.isStriped(productId)) {
+            return inventoryMapper.toResponse(stripedStockManager.getTotals(productId));
+        }
         Inventory inventory = inventoryRepository.findById(productId)
             .orElseThrow(() -> new EntityNotFoundException("Inventory not found for product: " + productId));
         return inventoryMapper.toResponse(inventory);
     }
 
+    /**
+     * Standalone calls for regular products go through the reservation coalescer when it is enabled,
+     * or through the optimistic path under the ADAPTIVE strategy;
+     * calls made inside a caller's transaction always reserve directly in that transaction.
+     */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public InventoryResponse reserveInventory(UUID productId, ReserveRequest request) {
+        boolean standalone = !TransactionSynchronizationManager.isActualTransactionActive()
+            && !stripedStockManager.isStriped(productId);
+        if (standalone && reservationCoalescer.isEnabled()) {
+            try {
+                return reservationCoalescer.reserve(productId, request.getQuantity());
+            } catch (InsufficientStockException e) {
+                reservationsFailedCounter.increment();
+                throw e;
+            }
+        }
+        if (standalone && reservationStrategy == ReservationStrategy.ADAPTIVE) {
+            return reserveAdaptively(productId, request.getQuantity());
+        }
+        return new TransactionTemplate(transactionManager).execute(status -> doReserveInventory(productId, request));
+    }
+
+    /**
+     * Tries the optimistic path while the product is uncontended, each attempt in its own transaction.
+     * The final attempt always takes the row lock, so the number of retries stays bounded.
+     */
+    private InventoryResponse reserveAdaptively(UUID productId, int requestedQty) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; attempt < maxReservationAttempts && !contentionTracker.shouldLock(productId); attempt++) {
+            try {
+                return template.execute(status -> inventoryMapper.toResponse(reserveOptimistically(productId, requestedQty)));
+            } catch (OptimisticLockingFailureException e) {
+                contentionTracker.recordConflict(productId);
+                reservationsRetriedCounter.increment();
+                backOff(attempt, e);
+            }
+        }
+        return template.execute(status -> inventoryMapper.toResponse(reserveLocked(productId, requestedQty)));
+    }
+
+    private InventoryResponse doReserveInventory(UUID productId, ReserveRequest request) {
+        if (stripedStockManager.isStriped(productId)) {
+            Inventory totals = stripedStockManager.reserve(productId, request.getQuantity());
+            if (totals == null) {
+                reservationsFailedCounter.increment();
+                throw new InsufficientStockException(
+                    String.format("Insufficient stock. Requested: %d", request.getQuantity())
+                );
+            }
+            return inventoryMapper.toResponse(totals);
+        }
+        if (reservationStrategy == ReservationStrategy.CONDITIONAL_UPDATE) {
+            return inventoryMapper.toResponse(reserveConditionally(productId, request.getQuantity()));
+        }
+        return inventoryMapper.toResponse(reserveLocked(productId, request.getQuantity()));
+    }
+
+    private Inventory reserveLocked(UUID productId, int requestedQty) {
+        long lockStarted = System.nanoTime();
         Inventory inventory = inventoryRepository.findByProductIdForUpdate(productId);
+        contentionTracker.recordLockWait(productId, System.nanoTime() - lockStarted);
         
         if (inventory == null) {
             throw new EntityNotFoundException("Inventory not found for product: " + productId);
         }
+        return applyReservation(inventory, requestedQty);
+    }
+
+    private Inventory reserveOptimistically(UUID productId, int requestedQty) {
+        Inventory reserved = applyReservation(findInventory(productId), requestedQty);
+        // Flush now so a version conflict surfaces inside this attempt
+        inventoryRepository.flush();
+        return reserved;
+    }
 
-        int requestedQty = request.getQuantity();
+    private Inventory applyReservation(Inventory inventory, int requestedQty) {
         int availableQty = inventory.getAvailableQty();
         
         if (availableQty < requestedQty) {
@@ -76,19 +219,44 @@ public class InventoryServiceImpl implements InventoryService {
         inventory.setAvailableQty(availableQty - requestedQty);
         inventory.setReservedQty(inventory.getReservedQty() + requestedQty);
         
-        Inventory updated = inventoryRepository.save(inventory);
-        return inventoryMapper.toResponse(updated);
+        return inventoryRepository.save(inventory);
     }
 
     @Override
     public InventoryResponse releaseInventory(UUID productId, ReleaseRequest request) {
+        return inventoryMapper.toResponse(release(productId, request.getQuantity()));
+    }
+
+    @Override
+    public List<InventoryResponse> releaseAll(Map<UUID, Integer> quantities) {
+        List<InventoryResponse> responses = new ArrayList<>(quantities.size());
+        // Key order keeps row locks canonical, as in reserveAll
+        for (Map.Entry<UUID, Integer> entry : new TreeMap<>(quantities).entrySet()) {
+            responses.add(inventoryMapper.toResponse(release(entry.getKey(), entry.getValue())));
+        }
+        return responses;
+    }
+
+    private Inventory release(UUID productId, int releaseQty) {
+        if (stripedStockManager.isStriped(productId)) {
+            Inventory totals = stripedStockManager.release(productId, releaseQty);
+            if (totals == null) {
+                throw new InsufficientStockException(
+                    String.format("Cannot release more than reserved. Requested: %d", releaseQty)
+                );
+            }
+            return totals;
+        }
+        if (reservationStrategy == ReservationStrategy.CONDITIONAL_UPDATE) {
+            return releaseConditionally(productId, releaseQty);
+        }
+
         Inventory inventory = inventoryRepository.findByProductIdForUpdate(productId);
         
         if (inventory == null) {
             throw new EntityNotFoundException("Inventory not found for product: " + productId);
         }
 
-        int releaseQty = request.getQuantity();
         int reservedQty = inventory.getReservedQty();
         
         if (reservedQty < releaseQty) {
@@ -100,7 +268,230 @@ public class InventoryServiceImpl implements InventoryService {
         inventory.setReservedQty(reservedQty - releaseQty);
         inventory.setAvailableQty(inventory.getAvailableQty() + releaseQty);
         
-        Inventory updated = inventoryRepository.save(inventory);
-        return inventoryMapper.toResponse(updated);
+        return inventoryRepository.save(inventory);
+    }
+
+    @Override
+    public InventoryResponse rebalanceBuckets(UUID productId, Integer bucketCount) {
+        int buckets = bucketCount != null ? bucketCount : stripedStockManager.getDefaultBucketCount();
+        return inventoryMapper.toResponse(stripedStockManager.rebalance(productId, buckets));
+    }
+
+    @Override
+    public InventoryResponse mergeBuckets(UUID productId) {
+        return inventoryMapper.toResponse(stripedStockManager.merge(productId));
+    }
+
+    /**
+     * Runs each attempt in its own transaction so a deadlock victim or a version conflict can be retried.
+     * When called inside an existing transaction the attempt joins it and cannot be retried,
+     * because the database has already aborted the surrounding transaction; under the ADAPTIVE strategy
+     * such calls, and the final attempt, therefore lock every row. Otherwise a batch is written optimistically
+     * only when none of its products is contended, and locked as a whole in key order when any is.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<InventoryResponse> reserveAll(Map<UUID, Integer> quantities) {
+        // Sorted copy: the lock statement and the reservation loop see products in a stable order
+        TreeMap<UUID, Integer> sorted = new TreeMap<>(quantities);
+        boolean joined = TransactionSynchronizationManager.isActualTransactionActive();
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+
+        for (int attempt = 1; ; attempt++) {
+            boolean optimisticAllowed = !joined && attempt < maxReservationAttempts;
+            try {
+                return template.execute(status -> doReserveAll(sorted, optimisticAllowed));
+            } catch (PessimisticLockingFailureException | OptimisticLockingFailureException e) {
+                if (joined || attempt >= maxReservationAttempts) {
+                    throw e;
+                }
+                if (e instanceof ObjectOptimisticLockingFailureException
+                        && ((ObjectOptimisticLockingFailureException) e).getIdentifier() instanceof UUID) {
+                    contentionTracker.recordConflict((UUID) ((ObjectOptimisticLockingFailureException) e).getIdentifier());
+                }
+                reservationsRetriedCounter.increment();
+                logger.warn("Bulk reservation attempt {} failed with {}, retrying", attempt, e.getClass().getSimpleName());
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    private List<InventoryResponse> doReserveAll(TreeMap<UUID, Integer> quantities, boolean optimisticAllowed) {
+        TreeMap<UUID, Integer> regular = new TreeMap<>();
+        TreeMap<UUID, Integer> striped = new TreeMap<>();
+        for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+            if (entry.getValue() == null || entry.getValue() < 1) {
+                throw new BusinessException("Quantity must be at least 1 for product: " + entry.getKey());
+            }
+            if (stripedStockManager.isStriped(entry.getKey())) {
+                striped.put(entry.getKey(), entry.getValue());
+            } else {
+                regular.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        List<String> shortages = new ArrayList<>();
+        List<InventoryResponse> responses = new ArrayList<>(quantities.size());
+        if (reservationStrategy == ReservationStrategy.ADAPTIVE) {
+            // One contended product locks the whole batch: splitting it would take row locks in two passes whose
+            // split depends on each node's own tracker, so two batches could lock shared rows in opposite orders
+            boolean lockAll = !optimisticAllowed || regular.keySet().stream().anyMatch(contentionTracker::shouldLock);
+            if (!regular.isEmpty()) {
+                responses.addAll(lockAll
+                    ? reserveAllLocked(regular, shortages)
+                    : reserveAllOptimistically(regular, shortages));
+            }
+        } else if (!regular.isEmpty()) {
+            responses.addAll(reservationStrategy == ReservationStrategy.CONDITIONAL_UPDATE
+                ? reserveAllConditionally(regular, shortages)
+                : reserveAllLocked(regular, shortages));
+        }
+        // Striped products are handled after the regular batch so lock order stays canonical across callers
+        for (Map.Entry<UUID, Integer> entry : striped.entrySet()) {
+            Inventory totals = stripedStockManager.reserve(entry.getKey(), entry.getValue());
+            if (totals == null) {
+                shortages.add(String.format("%s (Requested: %d)", entry.getKey(), entry.getValue()));
+            } else {
+                responses.add(inventoryMapper.toResponse(totals));
+            }
+        }
+
+        if (!shortages.isEmpty()) {
+            // Throwing rolls back any reservation that did succeed
+            reservationsFailedCounter.increment();
+            throw new InsufficientStockException("Insufficient stock for products: " + String.join(", ", shortages));
+        }
+        return responses;
+    }
+
+    private List<InventoryResponse> reserveAllLocked(TreeMap<UUID, Integer> quantities, List<String> shortages) {
+        long lockStarted = System.nanoTime();
+        List<Inventory> locked = inventoryRepository.findAllByProductIdInForUpdate(quantities.keySet());
+        long lockWait = System.nanoTime() - lockStarted;
+        for (Inventory inventory : locked) {
+            contentionTracker.recordLockWait(inventory.getProductId(), lockWait);
+        }
+        return applyReservations(locked, quantities, shortages);
+    }
+
+    private List<InventoryResponse> reserveAllOptimistically(TreeMap<UUID, Integer> quantities, List<String> shortages) {
+        List<Inventory> read = new ArrayList<>();
+        for (Inventory inventory : inventoryRepository.findAllById(quantities.keySet())) {
+            read.add(inventory);
+        }
+        // Writes happen in key order, like the locked path
+        read.sort((left, right) -> left.getProductId().compareTo(right.getProductId()));
+        List<InventoryResponse> responses = applyReservations(read, quantities, shortages);
+        if (!responses.isEmpty()) {
+            // Flush now so a version conflict surfaces inside this attempt
+            inventoryRepository.flush();
+        }
+        return responses;
+    }
+
+    private List<InventoryResponse> applyReservations(List<Inventory> inventories, TreeMap<UUID, Integer> quantities,
+                                                      List<String> shortages) {
+        if (inventories.size() < quantities.size()) {
+            List<UUID> missing = new ArrayList<>(quantities.keySet());
+            for (Inventory inventory : inventories) {
+                missing.remove(inventory.getProductId());
+            }
+            throw new EntityNotFoundException("Inventory not found for products: " + missing);
+        }
+
+        for (Inventory inventory : inventories) {
+            int requestedQty = quantities.get(inventory.getProductId());
+            if (inventory.getAvailableQty() < requestedQty) {
+                shortages.add(String.format("%s (Available: %d, Requested: %d)",
+                    inventory.getProductId(), inventory.getAvailableQty(), requestedQty));
+            }
+        }
+        if (!shortages.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        for (Inventory inventory : inventories) {
+            int requestedQty = quantities.get(inventory.getProductId());
+            inventory.setAvailableQty(inventory.getAvailableQty() - requestedQty);
+            inventory.setReservedQty(inventory.getReservedQty() + requestedQty);
+        }
+        List<InventoryResponse> responses = new ArrayList<>(inventories.size());
+        for (Inventory updated : inventoryRepository.saveAll(inventories)) {
+            responses.add(inventoryMapper.toResponse(updated));
+        }
+        return responses;
+    }
+
+    private List<InventoryResponse> reserveAllConditionally(TreeMap<UUID, Integer> quantities, List<String> shortages) {
+        // Updates run in key order, so row locks are still taken in a canonical sequence
+        List<UUID> failed = new ArrayList<>();
+        for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+            if (inventoryRepository.reserveIfAvailable(entry.getKey(), entry.getValue()) == 0) {
+                failed.add(entry.getKey());
+            }
+        }
+        if (!failed.isEmpty()) {
+            // An update matching no row means either too little stock or no inventory row at all
+            Map<UUID, Inventory> current = new HashMap<>(failed.size() * 2);
+            for (Inventory inventory : inventoryRepository.findAllById(failed)) {
+                current.put(inventory.getProductId(), inventory);
+            }
+            List<UUID> missing = new ArrayList<>(failed);
+            missing.removeAll(current.keySet());
+            if (!missing.isEmpty()) {
+                throw new EntityNotFoundException("Inventory not found for products: " + missing);
+            }
+            for (UUID productId : failed) {
+                shortages.add(String.format("%s (Available: %d, Requested: %d)",
+                    productId, current.get(productId).getAvailableQty(), quantities.get(productId)));
+            }
+            return new ArrayList<>();
+        }
+
+        List<InventoryResponse> responses = new ArrayList<>(quantities.size());
+        for (Inventory inventory : inventoryRepository.findAllById(quantities.keySet())) {
+            responses.add(inventoryMapper.toResponse(inventory));
+        }
+        return responses;
+    }
+
+    private Inventory reserveConditionally(UUID productId, int requestedQty) {
+        if (inventoryRepository.reserveIfAvailable(productId, requestedQty) == 1) {
+            return findInventory(productId);
+        }
+
+        Inventory current = findInventory(productId);
+        reservationsFailedCounter.increment();
+        throw new InsufficientStockException(
+            String.format("Insufficient stock. Available: %d, Requested: %d", current.getAvailableQty(), requestedQty)
+        );
+    }
+
+    private Inventory releaseConditionally(UUID productId, int releaseQty) {
+        if (inventoryRepository.releaseIfReserved(productId, releaseQty) == 1) {
+            return findInventory(productId);
+        }
+
+        Inventory current = findInventory(productId);
+        throw new InsufficientStockException(
+            String.format("Cannot release more than reserved. Reserved: %d, Requested: %d", current.getReservedQty(), releaseQty)
+        );
+    }
+
+    private Inventory findInventory(UUID productId) {
+        return inventoryRepository.findById(productId)
+            .orElseThrow(() -> new EntityNotFoundException("Inventory not found for product: " + productId));
+    }
+
+    private void backOff(int attempt, RuntimeException cause) {
+        // Exponential backoff with full jitter so competing retries do not collide again
+        long ceiling = reservationRetryBaseDelayMs << (attempt - 1);
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
     }
 }
@@ -0,0 +1,234 @@
+package com.example.app.inventory.service;
+
+import com.example.app.common.exception.EntityNotFoundException;
+import com.example.app.inventory.dto.InventoryResponse;
+import com.example.app.inventory.entity.Inventory;
+import com.example.app.inventory.exception.InsufficientStockException;
+import com.example.app.inventory.mapper.InventoryMapper;
+import com.example.app.inventory.repository.InventoryRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Group-commit layer for single-product reservations.
+ * <p>
+ * Concurrent reservations for the same product are queued; one of the waiting callers becomes the leader,
+ * waits up to the configured window (or until the batch is full), then locks the inventory row once,
+ * accepts or rejects the queued requests in FIFO order against the available stock, and writes the
+ * combined quantity in a single update. Every caller still receives its own response or exception.
+ * Batches commit in their own transaction, so callers must not already be inside one. A product's lane is
+ * dropped once its last queued reservation has been applied, so only products with reservations in flight
+ * hold one.
+ */
+@Component
+public class ReservationCoalescer {
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryMapper inventoryMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${inventory.reservation.coalescing.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${inventory.reservation.coalescing.window-micros:1000}")
+    private long windowMicros = 1000;
+
+    @Value("${inventory.reservation.coalescing.max-batch:32}")
+    private int maxBatch = 32;
+
+    private final ConcurrentHashMap<UUID, Lane> lanes = new ConcurrentHashMap<>();
+    private final DistributionSummary batchSizeSummary;
+
+    @Autowired
+    public ReservationCoalescer(MeterRegistry meterRegistry) {
+        this.batchSizeSummary = DistributionSummary.builder("inventory.reservations.batch.size")
+            .description("Number of reservations applied per coalesced database update")
+            .register(meterRegistry);
+    }
+
+    // Setters for testing
+    public void setInventoryRepository(InventoryRepository inventoryRepository) {
+        this.inventoryRepository = inventoryRepository;
+    }
+
+    public void setInventoryMapper(InventoryMapper inventoryMapper) {
+        this.inventoryMapper = inventoryMapper;
+    }
+
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setWindowMicros(long windowMicros) {
+        this.windowMicros = windowMicros;
+    }
+
+    public void setMaxBatch(int maxBatch) {
+        this.maxBatch = maxBatch;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reserves stock through the shared batch for this product and blocks until that batch has committed.
+     */
+    public InventoryResponse reserve(UUID productId, int quantity) {
+        // Counted inside compute, so the lane cannot be dropped between joining it and queueing on it
+        Lane lane = lanes.compute(productId, (id, current) -> {
+            Lane joined = current != null ? current : new Lane();
+            joined.size.incrementAndGet();
+            return joined;
+        });
+        PendingReservation pending = new PendingReservation(quantity);
+        lane.queue.add(pending);
+
+        long waitMicros = Math.max(windowMicros, 1000);
+        while (!pending.result.isDone()) {
+            if (lane.leader.compareAndSet(false, true)) {
+                try {
+                    runBatch(productId, lane);
+                } finally {
+                    lane.leader.set(false);
+                    lanes.computeIfPresent(productId,
+                        (id, current) -> current == lane && lane.size.get() == 0 ? null : current);
+                }
+            } else {
+                try {
+                    pending.result.get(waitMicros, TimeUnit.MICROSECONDS);
+                } catch (TimeoutException | ExecutionException e) {
+                    // Either still queued behind a running batch, or completed; the loop condition decides
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for reservation", e);
+                }
+            }
+        }
+
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    int laneCount() {
+        return lanes.size();
+    }
+
+    private void runBatch(UUID productId, Lane lane) {
+        // Hold the door open for the window so concurrent callers can join this batch
+        long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        while (lane.size.get() < maxBatch && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(50_000);
+        }
+
+        List<PendingReservation> batch = new ArrayList<>(maxBatch);
+        PendingReservation next;
+        while (batch.size() < maxBatch && (next = lane.queue.poll()) != null) {
+            lane.size.decrementAndGet();
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizeSummary.record(batch.size());
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> applyBatch(productId, batch));
+        } catch (RuntimeException e) {
+            // The batch rolled back as a whole; accepted callers must not see a success
+            for (PendingReservation pending : batch) {
+                pending.outcome = null;
+                pending.result.completeExceptionally(e);
+            }
+            return;
+        }
+        for (PendingReservation pending : batch) {
+            if (pending.outcome != null) {
+                pending.result.complete(pending.outcome);
+            } else {
+                pending.result.completeExceptionally(pending.failure);
+            }
+        }
+    }
+
+    private void applyBatch(UUID productId, List<PendingReservation> batch) {
+        Inventory inventory = inventoryRepository.findByProductIdForUpdate(productId);
+        if (inventory == null) {
+            throw new EntityNotFoundException("Inventory not found for product: " + productId);
+        }
+
+        int available = inventory.getAvailableQty();
+        int reserved = inventory.getReservedQty();
+        for (PendingReservation pending : batch) {
+            if (pending.quantity <= available) {
+                available -= pending.quantity;
+                reserved += pending.quantity;
+                InventoryResponse response = inventoryMapper.toResponse(inventory);
+                response.setAvailableQty(available);
+                response.setReservedQty(reserved);
+                pending.outcome = response;
+            } else {
+                pending.failure = new InsufficientStockException(
+                    String.format("Insufficient stock. Available: %d, Requested: %d", available, pending.quantity)
+                );
+            }
+        }
+
+        if (reserved != inventory.getReservedQty()) {
+            inventory.setAvailableQty(available);
+            inventory.setReservedQty(reserved);
+            inventoryRepository.save(inventory);
+        }
+    }
+
+    private static final class Lane {
+        private final ConcurrentLinkedQueue<PendingReservation> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean leader = new AtomicBoolean();
+    }
+
+    private static final class PendingReservation {
+        private final int quantity;
+        private final CompletableFuture<InventoryResponse> result = new CompletableFuture<>();
+        private InventoryResponse outcome;
+        private RuntimeException failure;
+
+        private PendingReservation(int quantity) {
+            this.quantity = quantity;
+        }
+    }
+}
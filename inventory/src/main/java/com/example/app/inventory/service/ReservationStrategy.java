@@ -0,0 +1,23 @@
+package com.example.app.inventory.service;
+
+/**
+ * How stock reservations and releases are applied to the inventory table.
+ * Selected with the {@code inventory.reservation.strategy} property.
+ */
+public enum ReservationStrategy {
+    /**
+     * Lock the row with SELECT ... FOR UPDATE, adjust it in Java and write it back.
+     */
+    PESSIMISTIC,
+
+    /**
+     * Apply the change with a single guarded UPDATE; zero affected rows means the guard failed.
+     */
+    CONDITIONAL_UPDATE,
+
+    /**
+     * Read without locking and write back with a version check, retrying on conflict. Products that the
+     * {@link ContentionTracker} reports as contended, and the final retry, take the PESSIMISTIC path instead.
+     */
+    ADAPTIVE
+}
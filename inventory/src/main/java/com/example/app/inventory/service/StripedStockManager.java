@@ -0,0 +1,303 @@
+package com.example.app.inventory.service;
+
+import com.example.app.common.exception.BusinessException;
+import com.example.app.common.exception.EntityNotFoundException;
+import com.example.app.inventory.entity.Inventory;
+import com.example.app.inventory.entity.InventoryBucket;
+import com.example.app.inventory.repository.InventoryBucketRepository;
+import com.example.app.inventory.repository.InventoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToIntFunction;
+
+/**
+ * Striped stock for hot products listed in {@code inventory.striping.product-ids}.
+ * <p>
+ * A striped product's stock is the inventory row plus all of its bucket rows. Reservations first try a
+ * single unlocked bucket (starting from a random one). While some bucket could serve the request but is locked
+ * by another transaction, they probe again up to {@code inventory.striping.probe-attempts} times, and only fall
+ * back to locking the inventory row and every bucket when no single bucket can serve the request or probing
+ * gives up. Row locks are always taken inventory row first, then buckets in bucket order. Callers must run
+ * inside a transaction.
+ */
+@Component
+public class StripedStockManager {
+    static final int MAX_BUCKETS = 256;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryBucketRepository inventoryBucketRepository;
+
+    @Value("${inventory.striping.product-ids:}")
+    private Set<UUID> stripedProductIds = new HashSet<>();
+
+    @Value("${inventory.striping.buckets:8}")
+    private int defaultBucketCount = 8;
+
+    @Value("${inventory.striping.probe-attempts:3}")
+    private int probeAttempts = 3;
+
+    @Value("${inventory.striping.probe-delay-ms:2}")
+    private long probeDelayMs = 2;
+
+    // Bucket count per product, for picking a start bucket; refreshed whenever the buckets are read
+    private final Map<UUID, Integer> bucketCounts = new ConcurrentHashMap<>();
+
+    // Setters for testing
+    public void setInventoryRepository(InventoryRepository inventoryRepository) {
+        this.inventoryRepository = inventoryRepository;
+    }
+
+    public void setInventoryBucketRepository(InventoryBucketRepository inventoryBucketRepository) {
+        this.inventoryBucketRepository = inventoryBucketRepository;
+    }
+
+    public void setStripedProductIds(Set<UUID> stripedProductIds) {
+        this.stripedProductIds = stripedProductIds;
+    }
+
+    public void setProbeAttempts(int probeAttempts) {
+        this.probeAttempts = probeAttempts;
+    }
+
+    public void setProbeDelayMs(long probeDelayMs) {
+        this.probeDelayMs = probeDelayMs;
+    }
+
+    public boolean isStriped(UUID productId) {
+        return stripedProductIds.contains(productId);
+    }
+
+    public int getDefaultBucketCount() {
+        return defaultBucketCount;
+    }
+
+    /**
+     * Reserves stock for a striped product.
+     * @return Combined inventory after the reservation, or null if total stock is insufficient
+     */
+    public Inventory reserve(UUID productId, int quantity) {
+        for (int probe = 1; ; probe++) {
+            int startBucket = randomStartBucket(productId);
+            if (inventoryBucketRepository.reserveFromAnyBucket(productId, quantity, startBucket) == 1) {
+                return getTotals(productId);
+            }
+            if (probe >= probeAttempts || !anyBucketCovers(productId, quantity, InventoryBucket::getAvailableQty)) {
+                break;
+            }
+            pauseBeforeProbe();
+        }
+
+        Inventory inventory = lockInventory(productId);
+        List<InventoryBucket> buckets = inventoryBucketRepository.findByProductIdForUpdate(productId);
+        if (sumAvailable(inventory, buckets) < quantity) {
+            return null;
+        }
+
+        int remaining = quantity;
+        int taken = Math.min(inventory.getAvailableQty(), remaining);
+        inventory.setAvailableQty(inventory.getAvailableQty() - taken);
+        inventory.setReservedQty(inventory.getReservedQty() + taken);
+        remaining -= taken;
+        for (InventoryBucket bucket : buckets) {
+            if (remaining == 0) {
+                break;
+            }
+            taken = Math.min(bucket.getAvailableQty(), remaining);
+            bucket.setAvailableQty(bucket.getAvailableQty() - taken);
+            bucket.setReservedQty(bucket.getReservedQty() + taken);
+            remaining -= taken;
+        }
+        inventoryRepository.save(inventory);
+        inventoryBucketRepository.saveAll(buckets);
+        return combine(inventory, buckets);
+    }
+
+    /**
+     * Releases reserved stock for a striped product.
+     * @return Combined inventory after the release, or null if less than the quantity is reserved
+     */
+    public Inventory release(UUID productId, int quantity) {
+        for (int probe = 1; ; probe++) {
+            int startBucket = randomStartBucket(productId);
+            if (inventoryBucketRepository.releaseToAnyBucket(productId, quantity, startBucket) == 1) {
+                return getTotals(productId);
+            }
+            if (probe >= probeAttempts || !anyBucketCovers(productId, quantity, InventoryBucket::getReservedQty)) {
+                break;
+            }
+            pauseBeforeProbe();
+        }
+
+        Inventory inventory = lockInventory(productId);
+        List<InventoryBucket> buckets = inventoryBucketRepository.findByProductIdForUpdate(productId);
+        if (sumReserved(inventory, buckets) < quantity) {
+            return null;
+        }
+
+        int remaining = quantity;
+        int returned = Math.min(inventory.getReservedQty(), remaining);
+        inventory.setReservedQty(inventory.getReservedQty() - returned);
+        inventory.setAvailableQty(inventory.getAvailableQty() + returned);
+        remaining -= returned;
+        for (InventoryBucket bucket : buckets) {
+            if (remaining == 0) {
+                break;
+            }
+            returned = Math.min(bucket.getReservedQty(), remaining);
+            bucket.setReservedQty(bucket.getReservedQty() - returned);
+            bucket.setAvailableQty(bucket.getAvailableQty() + returned);
+            remaining -= returned;
+        }
+        inventoryRepository.save(inventory);
+        inventoryBucketRepository.saveAll(buckets);
+        return combine(inventory, buckets);
+    }
+
+    /**
+     * Returns the inventory row with the quantities of all buckets added in. Does not take locks.
+     */
+    public Inventory getTotals(UUID productId) {
+        Inventory inventory = inventoryRepository.findById(productId)
+            .orElseThrow(() -> new EntityNotFoundException("Inventory not found for product: " + productId));
+        return combine(inventory, inventoryBucketRepository.findByProductIdOrderByBucketNo(productId));
+    }
+
+    /**
+     * Spreads all available stock evenly over exactly bucketCount buckets.
+     * Reserved stock is consolidated on the inventory row.
+     */
+    public Inventory rebalance(UUID productId, int bucketCount) {
+        if (bucketCount < 1 || bucketCount > MAX_BUCKETS) {
+            throw new BusinessException("Bucket count must be between 1 and " + MAX_BUCKETS);
+        }
+
+        Inventory inventory = lockInventory(productId);
+        List<InventoryBucket> buckets = inventoryBucketRepository.findByProductIdForUpdate(productId);
+        int totalAvailable = sumAvailable(inventory, buckets);
+        int totalReserved = sumReserved(inventory, buckets);
+
+        List<InventoryBucket> kept = new ArrayList<>(bucketCount);
+        List<InventoryBucket> removed = new ArrayList<>();
+        for (InventoryBucket bucket : buckets) {
+            if (bucket.getBucketNo() < bucketCount) {
+                kept.add(bucket);
+            } else {
+                removed.add(bucket);
+            }
+        }
+        for (int bucketNo = 0; bucketNo < bucketCount; bucketNo++) {
+            if (bucketNo >= kept.size() || kept.get(bucketNo).getBucketNo() != bucketNo) {
+                InventoryBucket bucket = new InventoryBucket();
+                bucket.setProductId(productId);
+                bucket.setBucketNo(bucketNo);
+                kept.add(bucketNo, bucket);
+            }
+        }
+
+        int share = totalAvailable / bucketCount;
+        int remainder = totalAvailable % bucketCount;
+        for (InventoryBucket bucket : kept) {
+            bucket.setAvailableQty(share + (bucket.getBucketNo() < remainder ? 1 : 0));
+            bucket.setReservedQty(0);
+        }
+        inventory.setAvailableQty(0);
+        inventory.setReservedQty(totalReserved);
+
+        inventoryBucketRepository.deleteAll(removed);
+        inventoryRepository.save(inventory);
+        inventoryBucketRepository.saveAll(kept);
+        bucketCounts.put(productId, bucketCount);
+        return combine(inventory, kept);
+    }
+
+    /**
+     * Folds every bucket back into the inventory row and deletes the buckets.
+     */
+    public Inventory merge(UUID productId) {
+        Inventory inventory = lockInventory(productId);
+        List<InventoryBucket> buckets = inventoryBucketRepository.findByProductIdForUpdate(productId);
+        inventory.setAvailableQty(sumAvailable(inventory, buckets));
+        inventory.setReservedQty(sumReserved(inventory, buckets));
+
+        inventoryBucketRepository.deleteAll(buckets);
+        bucketCounts.put(productId, 0);
+        return inventoryRepository.save(inventory);
+    }
+
+    private Inventory lockInventory(UUID productId) {
+        Inventory inventory = inventoryRepository.findByProductIdForUpdate(productId);
+        if (inventory == null) {
+            throw new EntityNotFoundException("Inventory not found for product: " + productId);
+        }
+        return inventory;
+    }
+
+    private int randomStartBucket(UUID productId) {
+        int bucketCount = bucketCounts.computeIfAbsent(productId,
+            id -> (int) inventoryBucketRepository.countByProductId(id));
+        return bucketCount > 1 ? ThreadLocalRandom.current().nextInt(bucketCount) : 0;
+    }
+
+    /**
+     * Whether some single bucket holds at least quantity, read without locks. If so, the fast path only missed
+     * because that bucket was locked, and probing again is cheaper than locking every bucket.
+     */
+    private boolean anyBucketCovers(UUID productId, int quantity, ToIntFunction<InventoryBucket> field) {
+        List<InventoryBucket> buckets = inventoryBucketRepository.findByProductIdOrderByBucketNo(productId);
+        bucketCounts.put(productId, buckets.size());
+        for (InventoryBucket bucket : buckets) {
+            if (field.applyAsInt(bucket) >= quantity) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void pauseBeforeProbe() {
+        if (probeDelayMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(probeDelayMs) + 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Inventory combine(Inventory inventory, List<InventoryBucket> buckets) {
+        Inventory totals = new Inventory();
+        totals.setProductId(inventory.getProductId());
+        totals.setAvailableQty(sumAvailable(inventory, buckets));
+        totals.setReservedQty(sumReserved(inventory, buckets));
+        return totals;
+    }
+
+    private static int sumAvailable(Inventory inventory, List<InventoryBucket> buckets) {
+        int total = inventory.getAvailableQty();
+        for (InventoryBucket bucket : buckets) {
+            total += bucket.getAvailableQty();
+        }
+        return total;
+    }
+
+    private static int sumReserved(Inventory inventory, List<InventoryBucket> buckets) {
+        int total = inventory.getReservedQty();
+        for (InventoryBucket bucket : buckets) {
+            total += bucket.getReservedQty();
+        }
+        return total;
+    }
+}
@@ -119,6 +119,35 @@ class InventoryControllerTest {
         verify(inventoryService).releaseInventory(eq(productId), any(ReleaseRequest.class));
     }
 
+    @Test
+    void testRebalanceBuckets_Success_ReturnsOk() {
+        // Arrange
+        when(inventoryService.rebalanceBuckets(productId, 4)).thenReturn(inventoryResponse);
+
+        // Act
+        ResponseEntity<InventoryResponse> response = inventoryController.rebalanceBuckets(productId, 4);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(100, response.getBody().getAvailableQty());
+
+        verify(inventoryService).rebalanceBuckets(productId, 4);
+    }
+
+    @Test
+    void testMergeBuckets_Success_ReturnsOk() {
+        // Arrange
+        when(inventoryService.mergeBuckets(productId)).thenReturn(inventoryResponse);
+
+        // Act
+        ResponseEntity<InventoryResponse> response = inventoryController.mergeBuckets(productId);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        verify(inventoryService).mergeBuckets(productId);
+    }
+
     @Configuration
     @Import(InventoryController.class)
     static class TestConfig {
@@ -0,0 +1,75 @@
+package com.example.app.inventory.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentionTrackerTest {
+
+    private ContentionTracker tracker;
+    private MeterRegistry meterRegistry;
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new ContentionTracker(meterRegistry);
+        tracker.setThreshold(3);
+        tracker.setWindowMs(60_000);
+        tracker.setLockWaitThresholdMs(5);
+        productId = UUID.randomUUID();
+    }
+
+    @Test
+    void testColdProductStaysOptimistic() {
+        tracker.recordConflict(productId);
+        tracker.recordConflict(productId);
+
+        assertFalse(tracker.shouldLock(productId));
+        assertFalse(tracker.shouldLock(UUID.randomUUID()));
+        assertEquals(2.0, meterRegistry.counter("inventory.locking.decisions", "path", "optimistic").count());
+    }
+
+    @Test
+    void testThresholdSwitchesToPessimistic() {
+        tracker.recordConflict(productId);
+        tracker.recordConflict(productId);
+        tracker.recordLockWait(productId, TimeUnit.MILLISECONDS.toNanos(20));
+
+        assertTrue(tracker.shouldLock(productId));
+        assertEquals(1.0, meterRegistry.counter("inventory.locking.decisions", "path", "pessimistic").count());
+        assertEquals(2.0, meterRegistry.counter("inventory.locking.conflicts").count());
+        assertEquals(1.0, meterRegistry.counter("inventory.locking.lock.waits").count());
+        assertEquals(1.0, meterRegistry.get("inventory.locking.contended.products").gauge().value());
+    }
+
+    @Test
+    void testShortLockWaitsAreIgnored() {
+        for (int i = 0; i < 5; i++) {
+            tracker.recordLockWait(productId, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        assertFalse(tracker.isContended(productId));
+        assertEquals(0.0, meterRegistry.counter("inventory.locking.lock.waits").count());
+    }
+
+    @Test
+    void testWindowExpiryReturnsToOptimistic() throws InterruptedException {
+        tracker.setWindowMs(20);
+        tracker.recordConflict(productId);
+        tracker.recordConflict(productId);
+        tracker.recordConflict(productId);
+        assertTrue(tracker.isContended(productId));
+
+        Thread.sleep(50);
+
+        assertFalse(tracker.isContended(productId));
+        assertEquals(0.0, meterRegistry.get("inventory.locking.contended.products").gauge().value());
+    }
+}
@@ -13,14 +13,32 @@ import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotSerializeTransactionException;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeSet;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +50,18 @@ class InventoryServiceTest {
     @Mock
     private InventoryMapper inventoryMapper;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private StripedStockManager stripedStockManager;
+
+    @Mock
+    private ReservationCoalescer reservationCoalescer;
+
+    @Mock
+    private ContentionTracker contentionTracker;
+
     private InventoryServiceImpl inventoryService;
     private MeterRegistry meterRegistry;
 
@@ -44,6 +74,11 @@ class InventoryServiceTest {
         inventoryService = new InventoryServiceImpl(meterRegistry);
         inventoryService.setInventoryRepository(inventoryRepository);
         inventoryService.setInventoryMapper(inventoryMapper);
+        inventoryService.setTransactionManager(transactionManager);
+        inventoryService.setStripedStockManager(stripedStockManager);
+        inventoryService.setReservationCoalescer(reservationCoalescer);
+        inventoryService.setContentionTracker(contentionTracker);
+        inventoryService.setReservationRetryBaseDelayMs(0);
         
         productId = UUID.randomUUID();
         inventory = new Inventory();
@@ -81,6 +116,103 @@ class InventoryServiceTest {
         verify(inventoryRepository, never()).save(any(Inventory.class));
     }
 
+    @Test
+    void testReserveInventory_CoalescedWhenEnabled() {
+        ReserveRequest request = new ReserveRequest();
+        request.setQuantity(10);
+        InventoryResponse coalesced = createInventoryResponse();
+
+        when(reservationCoalescer.isEnabled()).thenReturn(true);
+        when(reservationCoalescer.reserve(productId, 10)).thenReturn(coalesced);
+
+        assertSame(coalesced, inventoryService.reserveInventory(productId, request));
+        verify(inventoryRepository, never()).findByProductIdForUpdate(any());
+    }
+
+    @Test
+    void testReserveInventory_CoalescedInsufficientStockCounted() {
+        ReserveRequest request = new ReserveRequest();
+        request.setQuantity(150);
+
+        when(reservationCoalescer.isEnabled()).thenReturn(true);
+        when(reservationCoalescer.reserve(productId, 150))
+            .thenThrow(new InsufficientStockException("Insufficient stock. Available: 100, Requested: 150"));
+
+        assertThrows(InsufficientStockException.class,
+            () -> inventoryService.reserveInventory(productId, request));
+        assertEquals(1.0, meterRegistry.counter("inventory.reservations.failed").count());
+    }
+
+    @Test
+    void testReserveInventory_StripedProductBypassesCoalescer() {
+        ReserveRequest request = new ReserveRequest();
+        request.setQuantity(10);
+        Inventory totals = new Inventory();
+        totals.setProductId(productId);
+
+        lenient().when(reservationCoalescer.isEnabled()).thenReturn(true);
+        when(stripedStockManager.isStriped(productId)).thenReturn(true);
+        when(stripedStockManager.reserve(productId, 10)).thenReturn(totals);
+        when(inventoryMapper.toResponse(totals)).thenReturn(createInventoryResponse());
+
+        assertNotNull(inventoryService.reserveInventory(productId, request));
+        verify(reservationCoalescer, never()).reserve(any(), anyInt());
+    }
+
+    @Test
+    void testReserveInventory_Adaptive_UncontendedSkipsRowLock() {
+        inventoryService.setReservationStrategy(ReservationStrategy.ADAPTIVE);
+        ReserveRequest request = new ReserveRequest();
+        request.setQuantity(10);
+
+        when(contentionTracker.shouldLock(productId)).thenReturn(false);
+        when(inventoryRepository.findById(productId)).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.save(inventory)).thenReturn(inventory);
+        when(inventoryMapper.toResponse(inventory)).thenReturn(createInventoryResponse());
+
+        assertNotNull(inventoryService.reserveInventory(productId, request));
+        assertEquals(90, inventory.getAvailableQty());
+        verify(inventoryRepository).flush();
+        verify(inventoryRepository, never()).findByProductIdForUpdate(any());
+    }
+
+    @Test
+    void testReserveInventory_Adaptive_ConflictsFallBackToRowLock() {
+        inventoryService.setReservationStrategy(ReservationStrategy.ADAPTIVE);
+        ReserveRequest request = new ReserveRequest();
+        request.setQuantity(10);
+
+        when(contentionTracker.shouldLock(productId)).thenReturn(false);
+        when(inventoryRepository.findById(productId)).thenAnswer(invocation -> Optional.of(copyOf(inventory)));
+        doThrow(new ObjectOptimisticLockingFailureException(Inventory.class, productId))
+            .when(inventoryRepository).flush();
+        when(inventoryRepository.findByProductIdForUpdate(productId)).thenReturn(inventory);
+        when(inventoryRepository.save(any(Inventory.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(inventoryMapper.toResponse(inventory)).thenReturn(createInventoryResponse());
+
+        assertNotNull(inventoryService.reserveInventory(productId, request));
+        assertEquals(90, inventory.getAvailableQty());
+        verify(contentionTracker, times(2)).recordConflict(productId);
+        verify(inventoryRepository).findByProductIdForUpdate(productId);
+        assertEquals(2.0, meterRegistry.counter("inventory.reservations.retried").count());
+    }
+
+    @Test
+    void testReserveInventory_Adaptive_ContendedProductLocks() {
+        inventoryService.setReservationStrategy(ReservationStrategy.ADAPTIVE);
+        ReserveRequest request = new ReserveRequest();
+        request.setQuantity(10);
+
+        when(contentionTracker.shouldLock(productId)).thenReturn(true);
+        when(inventoryRepository.findByProductIdForUpdate(productId)).thenReturn(inventory);
+        when(inventoryRepository.save(inventory)).thenReturn(inventory);
+        when(inventoryMapper.toResponse(inventory)).thenReturn(createInventoryResponse());
+
+        assertNotNull(inventoryService.reserveInventory(productId, request));
+        verify(inventoryRepository, never()).findById(any());
+        verify(contentionTracker).recordLockWait(eq(productId), anyLong());
+    }
+
     @Test
     void testReleaseInventory_Success() {
         inventory.setReservedQty(20);
@@ -101,6 +233,35 @@ class InventoryServiceTest {
         verify(inventoryRepository).save(inventory);
     }
 
+    @Test
+    void testReleaseAll_ReleasesEveryProductInKeyOrder() {
+        UUID otherId = UUID.randomUUID();
+        Inventory other = new Inventory();
+        other.setProductId(otherId);
+        other.setAvailableQty(0);
+        other.setReservedQty(5);
+        inventory.setReservedQty(10);
+
+        Map<UUID, Integer> quantities = new HashMap<>();
+        quantities.put(productId, 10);
+        quantities.put(otherId, 5);
+
+        when(inventoryRepository.findByProductIdForUpdate(productId)).thenReturn(inventory);
+        when(inventoryRepository.findByProductIdForUpdate(otherId)).thenReturn(other);
+        when(inventoryRepository.save(any(Inventory.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(inventoryMapper.toResponse(any(Inventory.class))).thenReturn(createInventoryResponse());
+
+        List<InventoryResponse> responses = inventoryService.releaseAll(quantities);
+
+        assertEquals(2, responses.size());
+        assertEquals(110, inventory.getAvailableQty());
+        assertEquals(0, inventory.getReservedQty());
+        assertEquals(5, other.getAvailableQty());
+        ArgumentCaptor<UUID> idsCaptor = ArgumentCaptor.forClass(UUID.class);
+        verify(inventoryRepository, times(2)).findByProductIdForUpdate(idsCaptor.capture());
+        assertEquals(new ArrayList<>(new TreeSet<>(quantities.keySet())), idsCaptor.getAllValues());
+    }
+
     @Test
     void testGetInventory() {
         when(inventoryRepository.findById(productId)).thenReturn(Optional.of(inventory));
@@ -119,6 +280,330 @@ class InventoryServiceTest {
             () -> inventoryService.getInventory(productId));
     }
 
+    @Test
+    void testReserveAll_LocksOnceInSortedOrder() {
+        UUID otherId = UUID.randomUUID();
+        Inventory other = new Inventory();
+        other.setProductId(otherId);
+        other.setAvailableQty(5);
+        other.setReservedQty(0);
+
+        Map<UUID, Integer> quantities = new HashMap<>();
+        quantities.put(productId, 10);
+        quantities.put(otherId, 5);
+
+        when(inventoryRepository.findAllByProductIdInForUpdate(anyCollection()))
+            .thenReturn(Arrays.asList(inventory, other));
+        when(inventoryRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(inventoryMapper.toResponse(any(Inventory.class))).thenReturn(createInventoryResponse());
+
+        List<InventoryResponse> responses = inventoryService.reserveAll(quantities);
+
+        assertEquals(2, responses.size());
+        assertEquals(90, inventory.getAvailableQty());
+        assertEquals(0, other.getAvailableQty());
+        assertEquals(5, other.getReservedQty());
+        ArgumentCaptor<Collection<UUID>> idsCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(inventoryRepository, times(1)).findAllByProductIdInForUpdate(idsCaptor.capture());
+        assertEquals(new ArrayList<>(new TreeSet<>(quantities.keySet())), new ArrayList<>(idsCaptor.getValue()));
+        verify(inventoryRepository, never()).findByProductIdForUpdate(any(UUID.class));
+    }
+
+    @Test
+    void testReserveAll_ReportsEveryInsufficientProduct() {
+        UUID otherId = UUID.randomUUID();
+        Inventory other = new Inventory();
+        other.setProductId(otherId);
+        other.setAvailableQty(1);
+        other.setReservedQty(0);
+
+        Map<UUID, Integer> quantities = new HashMap<>();
+        quantities.put(productId, 150);
+        quantities.put(otherId, 2);
+
+        when(inventoryRepository.findAllByProductIdInForUpdate(anyCollection()))
+            .thenReturn(Arrays.asList(inventory, other));
+
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class,
+            () -> inventoryService.reserveAll(quantities));
+
+        assertTrue(ex.getMessage().contains(productId.toString()));
+        assertTrue(ex.getMessage().contains(otherId.toString()));
+        assertEquals(100, inventory.getAvailableQty());
+        verify(inventoryRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testReserveAll_MissingInventory() {
+        when(inventoryRepository.findAllByProductIdInForUpdate(anyCollection()))
+            .thenReturn(Collections.emptyList());
+
+        assertThrows(EntityNotFoundException.class,
+            () -> inventoryService.reserveAll(Collections.singletonMap(productId, 1)));
+    }
+
+    @Test
+    void testReserveAll_RetriesDeadlock() {
+        when(inventoryRepository.findAllByProductIdInForUpdate(anyCollection()))
+            .thenThrow(new DeadlockLoserDataAccessException("deadlock detected", null))
+            .thenReturn(Collections.singletonList(inventory));
+        when(inventoryRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(inventoryMapper.toResponse(any(Inventory.class))).thenReturn(createInventoryResponse());
+
+        List<InventoryResponse> responses = inventoryService.reserveAll(Collections.singletonMap(productId, 10));
+
+        assertEquals(1, responses.size());
+        verify(inventoryRepository, times(2)).findAllByProductIdInForUpdate(anyCollection());
+        assertEquals(1.0, meterRegistry.counter("inventory.reservations.retried").count());
+    }
+
+    @Test
+    void testReserveAll_GivesUpAfterMaxAttempts() {
+        inventoryService.setMaxReservationAttempts(2);
+        when(inventoryRepository.findAllByProductIdInForUpdate(anyCollection()))
+            .thenThrow(new CannotSerializeTransactionException("could not serialize access"));
+
+        assertThrows(CannotSerializeTransactionException.class,
+            () -> inventoryService.reserveAll(Collections.singletonMap(productId, 10)));
+        verify(inventoryRepository, times(2)).findAllByProductIdInForUpdate(anyCollection());
+    }
+
+    @Test
+    void testReserveInventory_ConditionalUpdate_Success() {
+        inventoryService.setReservationStrategy(ReservationStrategy.CONDITIONAL_UPDATE);
+        ReserveRequest request = new ReserveRequest();
+        request.setQuantity(10);
+
+        when(inventoryRepository.reserveIfAvailable(productId, 10)).thenReturn(1);
+        when(inventoryRepository.findById(productId)).thenReturn(Optional.of(inventory));
+        when(inventoryMapper.toResponse(inventory)).thenReturn(createInventoryResponse());
+
+        InventoryResponse response = inventoryService.reserveInventory(productId, request);
+
+        assertNotNull(response);
+        verify(inventoryRepository, never()).findByProductIdForUpdate(any(UUID.class));
+        verify(inventoryRepository, never()).save(any(Inventory.class));
+    }
+
+    @Test
+    void testReserveInventory_ConditionalUpdate_InsufficientStock() {
+        inventoryService.setReservationStrategy(ReservationStrategy.CONDITIONAL_UPDATE);
+        ReserveRequest request = new ReserveRequest();
+        request.setQuantity(150);
+
+        when(inventoryRepository.reserveIfAvailable(productId, 150)).thenReturn(0);
+        when(inventoryRepository.findById(productId)).thenReturn(Optional.of(inventory));
+
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class,
+            () -> inventoryService.reserveInventory(productId, request));
+        assertTrue(ex.getMessage().contains("Available: 100"));
+    }
+
+    @Test
+    void testReserveInventory_ConditionalUpdate_NotFound() {
+        inventoryService.setReservationStrategy(ReservationStrategy.CONDITIONAL_UPDATE);
+        ReserveRequest request = new ReserveRequest();
+        request.setQuantity(1);
+
+        when(inventoryRepository.reserveIfAvailable(productId, 1)).thenReturn(0);
+        when(inventoryRepository.findById(productId)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class,
+            () -> inventoryService.reserveInventory(productId, request));
+    }
+
+    @Test
+    void testReleaseInventory_ConditionalUpdate() {
+        inventoryService.setReservationStrategy(ReservationStrategy.CONDITIONAL_UPDATE);
+        ReleaseRequest request = new ReleaseRequest();
+        request.setQuantity(10);
+
+        when(inventoryRepository.releaseIfReserved(productId, 10)).thenReturn(0);
+        when(inventoryRepository.findById(productId)).thenReturn(Optional.of(inventory));
+
+        assertThrows(InsufficientStockException.class,
+            () -> inventoryService.releaseInventory(productId, request));
+        verify(inventoryRepository, never()).findByProductIdForUpdate(any(UUID.class));
+    }
+
+    @Test
+    void testReserveAll_ConditionalUpdate_ReportsEveryFailure() {
+        inventoryService.setReservationStrategy(ReservationStrategy.CONDITIONAL_UPDATE);
+        UUID otherId = UUID.randomUUID();
+        Map<UUID, Integer> quantities = new HashMap<>();
+        quantities.put(productId, 10);
+        quantities.put(otherId, 2);
+
+        Inventory other = new Inventory();
+        other.setProductId(otherId);
+        other.setAvailableQty(1);
+        other.setReservedQty(0);
+
+        when(inventoryRepository.reserveIfAvailable(productId, 10)).thenReturn(0);
+        when(inventoryRepository.reserveIfAvailable(otherId, 2)).thenReturn(0);
+        when(inventoryRepository.findAllById(anyCollection())).thenReturn(Arrays.asList(inventory, other));
+
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class,
+            () -> inventoryService.reserveAll(quantities));
+        assertTrue(ex.getMessage().contains(productId.toString()));
+        assertTrue(ex.getMessage().contains(otherId + " (Available: 1, Requested: 2)"));
+        verify(inventoryRepository, never()).findAllByProductIdInForUpdate(anyCollection());
+    }
+
+    @Test
+    void testReserveAll_ConditionalUpdate_MissingInventory() {
+        inventoryService.setReservationStrategy(ReservationStrategy.CONDITIONAL_UPDATE);
+        UUID unknownId = UUID.randomUUID();
+        Map<UUID, Integer> quantities = new HashMap<>();
+        quantities.put(productId, 1000);
+        quantities.put(unknownId, 1);
+
+        when(inventoryRepository.reserveIfAvailable(productId, 1000)).thenReturn(0);
+        when(inventoryRepository.reserveIfAvailable(unknownId, 1)).thenReturn(0);
+        when(inventoryRepository.findAllById(anyCollection())).thenReturn(Collections.singletonList(inventory));
+
+        EntityNotFoundException ex = assertThrows(EntityNotFoundException.class,
+            () -> inventoryService.reserveAll(quantities));
+        assertTrue(ex.getMessage().contains(unknownId.toString()));
+        assertFalse(ex.getMessage().contains(productId.toString()));
+    }
+
+    @Test
+    void testReserveInventory_StripedProductUsesBuckets() {
+        ReserveRequest request = new ReserveRequest();
+        request.setQuantity(1);
+
+        when(stripedStockManager.isStriped(productId)).thenReturn(true);
+        when(stripedStockManager.reserve(productId, 1)).thenReturn(inventory);
+        when(inventoryMapper.toResponse(inventory)).thenReturn(createInventoryResponse());
+
+        InventoryResponse response = inventoryService.reserveInventory(productId, request);
+
+        assertNotNull(response);
+        verify(inventoryRepository, never()).findByProductIdForUpdate(any(UUID.class));
+    }
+
+    @Test
+    void testReserveInventory_StripedProductInsufficientStock() {
+        ReserveRequest request = new ReserveRequest();
+        request.setQuantity(1000);
+
+        when(stripedStockManager.isStriped(productId)).thenReturn(true);
+        when(stripedStockManager.reserve(productId, 1000)).thenReturn(null);
+
+        assertThrows(InsufficientStockException.class,
+            () -> inventoryService.reserveInventory(productId, request));
+        assertEquals(1.0, meterRegistry.counter("inventory.reservations.failed").count());
+    }
+
+    @Test
+    void testReserveAll_ReportsStripedAndRegularShortagesTogether() {
+        UUID stripedId = UUID.randomUUID();
+        Map<UUID, Integer> quantities = new HashMap<>();
+        quantities.put(productId, 150);
+        quantities.put(stripedId, 5);
+
+        when(stripedStockManager.isStriped(productId)).thenReturn(false);
+        when(stripedStockManager.isStriped(stripedId)).thenReturn(true);
+        when(inventoryRepository.findAllByProductIdInForUpdate(anyCollection()))
+            .thenReturn(Collections.singletonList(inventory));
+        when(stripedStockManager.reserve(stripedId, 5)).thenReturn(null);
+
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class,
+            () -> inventoryService.reserveAll(quantities));
+        assertTrue(ex.getMessage().contains(productId.toString()));
+        assertTrue(ex.getMessage().contains(stripedId.toString()));
+    }
+
+    @Test
+    void testGetInventory_StripedProductSumsBuckets() {
+        when(stripedStockManager.isStriped(productId)).thenReturn(true);
+        when(stripedStockManager.getTotals(productId)).thenReturn(inventory);
+        when(inventoryMapper.toResponse(inventory)).thenReturn(createInventoryResponse());
+
+        assertNotNull(inventoryService.getInventory(productId));
+        verify(inventoryRepository, never()).findById(any(UUID.class));
+    }
+
+    @Test
+    void testReserveAll_Adaptive_ContendedProductLocksWholeBatch() {
+        inventoryService.setReservationStrategy(ReservationStrategy.ADAPTIVE);
+        UUID coldId = UUID.randomUUID();
+        Inventory cold = new Inventory();
+        cold.setProductId(coldId);
+        cold.setAvailableQty(5);
+        cold.setReservedQty(0);
+
+        Map<UUID, Integer> quantities = new HashMap<>();
+        quantities.put(productId, 10);
+        quantities.put(coldId, 5);
+
+        lenient().when(contentionTracker.shouldLock(productId)).thenReturn(true);
+        lenient().when(contentionTracker.shouldLock(coldId)).thenReturn(false);
+        List<Inventory> locked = productId.compareTo(coldId) < 0
+            ? Arrays.asList(inventory, cold)
+            : Arrays.asList(cold, inventory);
+        when(inventoryRepository.findAllByProductIdInForUpdate(new TreeSet<>(quantities.keySet()))).thenReturn(locked);
+        when(inventoryRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(inventoryMapper.toResponse(any(Inventory.class))).thenReturn(createInventoryResponse());
+
+        List<InventoryResponse> responses = inventoryService.reserveAll(quantities);
+
+        assertEquals(2, responses.size());
+        assertEquals(90, inventory.getAvailableQty());
+        assertEquals(0, cold.getAvailableQty());
+        verify(inventoryRepository, never()).findAllById(anyCollection());
+        verify(inventoryRepository, never()).flush();
+    }
+
+    @Test
+    void testReserveAll_Adaptive_UncontendedBatchStaysOptimistic() {
+        inventoryService.setReservationStrategy(ReservationStrategy.ADAPTIVE);
+
+        when(contentionTracker.shouldLock(productId)).thenReturn(false);
+        when(inventoryRepository.findAllById(Collections.singleton(productId)))
+            .thenReturn(Collections.singletonList(inventory));
+        when(inventoryRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(inventoryMapper.toResponse(any(Inventory.class))).thenReturn(createInventoryResponse());
+
+        inventoryService.reserveAll(Collections.singletonMap(productId, 10));
+
+        assertEquals(90, inventory.getAvailableQty());
+        verify(inventoryRepository, never()).findAllByProductIdInForUpdate(anyCollection());
+        verify(inventoryRepository).flush();
+    }
+
+    @Test
+    void testReserveAll_Adaptive_FinalAttemptLocksEverything() {
+        inventoryService.setReservationStrategy(ReservationStrategy.ADAPTIVE);
+        inventoryService.setMaxReservationAttempts(2);
+
+        when(contentionTracker.shouldLock(productId)).thenReturn(false);
+        when(inventoryRepository.findAllById(Collections.singleton(productId)))
+            .thenReturn(Collections.singletonList(copyOf(inventory)));
+        doThrow(new ObjectOptimisticLockingFailureException(Inventory.class, productId))
+            .when(inventoryRepository).flush();
+        when(inventoryRepository.findAllByProductIdInForUpdate(Collections.singleton(productId)))
+            .thenReturn(Collections.singletonList(inventory));
+        when(inventoryRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(inventoryMapper.toResponse(any(Inventory.class))).thenReturn(createInventoryResponse());
+
+        List<InventoryResponse> responses = inventoryService.reserveAll(Collections.singletonMap(productId, 10));
+
+        assertEquals(1, responses.size());
+        assertEquals(90, inventory.getAvailableQty());
+        verify(contentionTracker).recordConflict(productId);
+        verify(contentionTracker, times(1)).shouldLock(productId);
+    }
+
+    private Inventory copyOf(Inventory source) {
+        Inventory copy = new Inventory();
+        copy.setProductId(source.getProductId());
+        copy.setAvailableQty(source.getAvailableQty());
+        copy.setReservedQty(source.getReservedQty());
+        return copy;
+    }
+
     private InventoryResponse createInventoryResponse() {
         InventoryResponse response = new InventoryResponse();
         response.setProductId(productId.toString());
@@ -0,0 +1,135 @@
+package com.example.app.inventory.service;
+
+import com.example.app.common.exception.EntityNotFoundException;
+import com.example.app.inventory.dto.InventoryResponse;
+import com.example.app.inventory.entity.Inventory;
+import com.example.app.inventory.exception.InsufficientStockException;
+import com.example.app.inventory.mapper.InventoryMapper;
+import com.example.app.inventory.repository.InventoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationCoalescerTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private InventoryMapper inventoryMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReservationCoalescer coalescer;
+    private MeterRegistry meterRegistry;
+
+    private UUID productId;
+    private Inventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new ReservationCoalescer(meterRegistry);
+        coalescer.setInventoryRepository(inventoryRepository);
+        coalescer.setInventoryMapper(inventoryMapper);
+        coalescer.setTransactionManager(transactionManager);
+        coalescer.setEnabled(true);
+        coalescer.setWindowMicros(0);
+
+        productId = UUID.randomUUID();
+        inventory = new Inventory();
+        inventory.setProductId(productId);
+        inventory.setAvailableQty(5);
+        inventory.setReservedQty(0);
+    }
+
+    @Test
+    void testReserve_SingleRequest() {
+        when(inventoryRepository.findByProductIdForUpdate(productId)).thenReturn(inventory);
+        when(inventoryMapper.toResponse(any(Inventory.class))).thenAnswer(invocation -> new InventoryResponse());
+
+        InventoryResponse response = coalescer.reserve(productId, 2);
+
+        assertEquals(3, response.getAvailableQty());
+        assertEquals(2, response.getReservedQty());
+        assertEquals(3, inventory.getAvailableQty());
+        verify(inventoryRepository).save(inventory);
+        assertEquals(0, coalescer.laneCount());
+    }
+
+    @Test
+    void testReserve_InsufficientStock() {
+        when(inventoryRepository.findByProductIdForUpdate(productId)).thenReturn(inventory);
+
+        assertThrows(InsufficientStockException.class, () -> coalescer.reserve(productId, 6));
+        verify(inventoryRepository, never()).save(any(Inventory.class));
+    }
+
+    @Test
+    void testReserve_NotFound() {
+        when(inventoryRepository.findByProductIdForUpdate(productId)).thenReturn(null);
+
+        assertThrows(EntityNotFoundException.class, () -> coalescer.reserve(productId, 1));
+    }
+
+    @Test
+    void testReserve_ConcurrentRequestsShareOneLock() throws Exception {
+        int callers = 10;
+        coalescer.setWindowMicros(TimeUnit.MILLISECONDS.toMicros(50));
+        when(inventoryRepository.findByProductIdForUpdate(productId)).thenReturn(inventory);
+        when(inventoryMapper.toResponse(any(Inventory.class))).thenAnswer(invocation -> new InventoryResponse());
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<InventoryResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return coalescer.reserve(productId, 2);
+            }));
+        }
+        start.countDown();
+
+        int accepted = 0;
+        int rejected = 0;
+        for (Future<InventoryResponse> future : futures) {
+            try {
+                future.get(10, TimeUnit.SECONDS);
+                accepted++;
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof InsufficientStockException);
+                rejected++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(2, accepted);
+        assertEquals(8, rejected);
+        assertEquals(1, inventory.getAvailableQty());
+        assertEquals(4, inventory.getReservedQty());
+        verify(inventoryRepository, atMost(callers - 1)).findByProductIdForUpdate(productId);
+        assertEquals(callers, (long) meterRegistry.summary("inventory.reservations.batch.size").totalAmount());
+        assertEquals(0, coalescer.laneCount());
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.app.inventory.service;
+
+import com.example.app.common.exception.BusinessException;
+import com.example.app.inventory.entity.Inventory;
+import com.example.app.inventory.entity.InventoryBucket;
+import com.example.app.inventory.repository.InventoryBucketRepository;
+import com.example.app.inventory.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StripedStockManagerTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private InventoryBucketRepository inventoryBucketRepository;
+
+    private StripedStockManager manager;
+
+    private UUID productId;
+    private Inventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        manager = new StripedStockManager();
+        manager.setInventoryRepository(inventoryRepository);
+        manager.setInventoryBucketRepository(inventoryBucketRepository);
+        productId = UUID.randomUUID();
+        manager.setStripedProductIds(Collections.singleton(productId));
+
+        inventory = new Inventory();
+        inventory.setProductId(productId);
+        inventory.setAvailableQty(0);
+        inventory.setReservedQty(0);
+    }
+
+    @Test
+    void testIsStriped() {
+        assertTrue(manager.isStriped(productId));
+        assertFalse(manager.isStriped(UUID.randomUUID()));
+    }
+
+    @Test
+    void testReserve_FastPathChargesSingleBucket() {
+        when(inventoryBucketRepository.reserveFromAnyBucket(eq(productId), eq(2), anyInt())).thenReturn(1);
+        when(inventoryRepository.findById(productId)).thenReturn(Optional.of(inventory));
+        when(inventoryBucketRepository.findByProductIdOrderByBucketNo(productId))
+            .thenReturn(Arrays.asList(bucket(0, 3, 2), bucket(1, 5, 0)));
+
+        Inventory totals = manager.reserve(productId, 2);
+
+        assertEquals(8, totals.getAvailableQty());
+        assertEquals(2, totals.getReservedQty());
+        verify(inventoryRepository, never()).findByProductIdForUpdate(productId);
+    }
+
+    @Test
+    void testReserve_SlowPathSpansBuckets() {
+        inventory.setAvailableQty(1);
+        InventoryBucket first = bucket(0, 2, 0);
+        InventoryBucket second = bucket(1, 4, 0);
+        when(inventoryBucketRepository.reserveFromAnyBucket(eq(productId), eq(5), anyInt())).thenReturn(0);
+        when(inventoryRepository.findByProductIdForUpdate(productId)).thenReturn(inventory);
+        when(inventoryBucketRepository.findByProductIdForUpdate(productId)).thenReturn(Arrays.asList(first, second));
+
+        Inventory totals = manager.reserve(productId, 5);
+
+        assertEquals(2, totals.getAvailableQty());
+        assertEquals(5, totals.getReservedQty());
+        assertEquals(0, inventory.getAvailableQty());
+        assertEquals(0, first.getAvailableQty());
+        assertEquals(2, second.getAvailableQty());
+        assertEquals(2, second.getReservedQty());
+    }
+
+    @Test
+    void testReserve_ProbesAgainWhileCoveringBucketIsLocked() {
+        manager.setProbeDelayMs(0);
+        when(inventoryBucketRepository.reserveFromAnyBucket(eq(productId), eq(2), anyInt())).thenReturn(0, 1);
+        when(inventoryBucketRepository.findByProductIdOrderByBucketNo(productId))
+            .thenReturn(Arrays.asList(bucket(0, 1, 0), bucket(1, 5, 0)));
+        when(inventoryRepository.findById(productId)).thenReturn(Optional.of(inventory));
+
+        Inventory totals = manager.reserve(productId, 2);
+
+        assertNotNull(totals);
+        verify(inventoryBucketRepository, times(2)).reserveFromAnyBucket(eq(productId), eq(2), anyInt());
+        verify(inventoryRepository, never()).findByProductIdForUpdate(productId);
+    }
+
+    @Test
+    void testReserve_EscalatesAfterProbeAttempts() {
+        manager.setProbeDelayMs(0);
+        manager.setProbeAttempts(2);
+        InventoryBucket only = bucket(0, 5, 0);
+        when(inventoryBucketRepository.reserveFromAnyBucket(eq(productId), eq(2), anyInt())).thenReturn(0);
+        when(inventoryBucketRepository.findByProductIdOrderByBucketNo(productId))
+            .thenReturn(Collections.singletonList(only));
+        when(inventoryRepository.findByProductIdForUpdate(productId)).thenReturn(inventory);
+        when(inventoryBucketRepository.findByProductIdForUpdate(productId)).thenReturn(Collections.singletonList(only));
+
+        Inventory totals = manager.reserve(productId, 2);
+
+        assertEquals(3, totals.getAvailableQty());
+        verify(inventoryBucketRepository, times(2)).reserveFromAnyBucket(eq(productId), eq(2), anyInt());
+    }
+
+    @Test
+    void testReserve_StartBucketFollowsRebalancedCount() {
+        when(inventoryRepository.findByProductIdForUpdate(productId)).thenReturn(inventory);
+        when(inventoryBucketRepository.findByProductIdForUpdate(productId)).thenReturn(new ArrayList<>());
+        manager.rebalance(productId, 32);
+        when(inventoryBucketRepository.reserveFromAnyBucket(eq(productId), eq(1), anyInt())).thenReturn(1);
+        when(inventoryRepository.findById(productId)).thenReturn(Optional.of(inventory));
+
+        for (int i = 0; i < 200; i++) {
+            manager.reserve(productId, 1);
+        }
+
+        ArgumentCaptor<Integer> starts = ArgumentCaptor.forClass(Integer.class);
+        verify(inventoryBucketRepository, times(200)).reserveFromAnyBucket(eq(productId), eq(1), starts.capture());
+        assertTrue(starts.getAllValues().stream().allMatch(start -> start >= 0 && start < 32));
+        assertTrue(starts.getAllValues().stream().anyMatch(start -> start >= 8));
+        verify(inventoryBucketRepository, never()).countByProductId(productId);
+    }
+
+    @Test
+    void testReserve_InsufficientReturnsNull() {
+        when(inventoryBucketRepository.reserveFromAnyBucket(eq(productId), eq(50), anyInt())).thenReturn(0);
+        when(inventoryRepository.findByProductIdForUpdate(productId)).thenReturn(inventory);
+        when(inventoryBucketRepository.findByProductIdForUpdate(productId))
+            .thenReturn(Collections.singletonList(bucket(0, 10, 0)));
+
+        assertNull(manager.reserve(productId, 50));
+        verify(inventoryRepository, never()).save(inventory);
+    }
+
+    @Test
+    void testRelease_SlowPathReturnsStock() {
+        inventory.setReservedQty(1);
+        InventoryBucket first = bucket(0, 0, 3);
+        when(inventoryBucketRepository.releaseToAnyBucket(eq(productId), eq(4), anyInt())).thenReturn(0);
+        when(inventoryRepository.findByProductIdForUpdate(productId)).thenReturn(inventory);
+        when(inventoryBucketRepository.findByProductIdForUpdate(productId)).thenReturn(Collections.singletonList(first));
+
+        Inventory totals = manager.release(productId, 4);
+
+        assertEquals(4, totals.getAvailableQty());
+        assertEquals(0, totals.getReservedQty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRebalance_SpreadsAvailableEvenly() {
+        inventory.setAvailableQty(7);
+        inventory.setReservedQty(1);
+        InventoryBucket stale = bucket(5, 3, 2);
+        when(inventoryRepository.findByProductIdForUpdate(productId)).thenReturn(inventory);
+        when(inventoryBucketRepository.findByProductIdForUpdate(productId))
+            .thenReturn(new ArrayList<>(Arrays.asList(bucket(1, 0, 0), stale)));
+
+        Inventory totals = manager.rebalance(productId, 4);
+
+        assertEquals(10, totals.getAvailableQty());
+        assertEquals(3, totals.getReservedQty());
+        assertEquals(0, inventory.getAvailableQty());
+        assertEquals(3, inventory.getReservedQty());
+        verify(inventoryBucketRepository).deleteAll(Collections.singletonList(stale));
+        ArgumentCaptor<List<InventoryBucket>> captor = ArgumentCaptor.forClass(List.class);
+        verify(inventoryBucketRepository).saveAll(captor.capture());
+        List<InventoryBucket> saved = captor.getValue();
+        assertEquals(4, saved.size());
+        for (int i = 0; i < saved.size(); i++) {
+            assertEquals(i, saved.get(i).getBucketNo());
+        }
+        assertEquals(3, saved.get(0).getAvailableQty());
+        assertEquals(3, saved.get(1).getAvailableQty());
+        assertEquals(2, saved.get(2).getAvailableQty());
+        assertEquals(2, saved.get(3).getAvailableQty());
+    }
+
+    @Test
+    void testRebalance_InvalidBucketCount() {
+        assertThrows(BusinessException.class, () -> manager.rebalance(productId, 0));
+    }
+
+    @Test
+    void testMerge_FoldsBucketsIntoInventory() {
+        List<InventoryBucket> buckets = Arrays.asList(bucket(0, 4, 1), bucket(1, 6, 2));
+        when(inventoryRepository.findByProductIdForUpdate(productId)).thenReturn(inventory);
+        when(inventoryBucketRepository.findByProductIdForUpdate(productId)).thenReturn(buckets);
+        when(inventoryRepository.save(inventory)).thenReturn(inventory);
+
+        Inventory merged = manager.merge(productId);
+
+        assertEquals(10, merged.getAvailableQty());
+        assertEquals(3, merged.getReservedQty());
+        verify(inventoryBucketRepository).deleteAll(buckets);
+    }
+
+    private InventoryBucket bucket(int bucketNo, int available, int reserved) {
+        InventoryBucket bucket = new InventoryBucket();
+        bucket.setProductId(productId);
+        bucket.setBucketNo(bucketNo);
+        bucket.setAvailableQty(available);
+        bucket.setReservedQty(reserved);
+        return bucket;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.app.order.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Bounded worker pool that completes asynchronous checkouts (payment and the resulting status change).
+ * When the queue is full the submitting request thread runs the work itself, which applies backpressure
+ * instead of dropping a checkout that already holds reserved stock.
+ */
+@Configuration
+public class CheckoutExecutorConfig {
+
+    @Bean(name = "checkoutExecutor")
+    public ThreadPoolTaskExecutor checkoutExecutor(
+            @Value("${order.checkout.async.pool-size:8}") int poolSize,
+            @Value("${order.checkout.async.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("checkout-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // Let queued checkouts finish on shutdown so no order is left PENDING with stock reserved
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.app.order.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled tasks such as the order outbox relay.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
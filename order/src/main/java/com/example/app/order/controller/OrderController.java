@@ -1,21 +1,33 @@
 package com.example.app.order.controller;
 
+import com.example.app.common.dto.CountPolicy;
 import com.example.app.common.dto.PagedResponse;
+import com.example.app.common.exception.BusinessException;
+import com.example.app.common.idempotency.IdempotencyService;
+import com.example.app.order.domain.OrderExportFormat;
 import com.example.app.order.domain.OrderRequest;
 import com.example.app.order.domain.OrderStatusChangeRequest;
 import com.example.app.order.dto.OrderResponse;
 import com.example.app.order.entity.OrderStatus;
+import com.example.app.order.service.OrderExporter;
 import com.example.app.order.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.net.URI;
+import java.time.Instant;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST controller for order operations.
@@ -24,18 +36,44 @@ import java.util.UUID;
 @RequestMapping("/api/v1/orders")
 @Tag(name = "Orders", description = "Order management API")
 public class OrderController {
+    private static final String RESPOND_ASYNC = "respond-async";
+    private static final String GZIP = "gzip";
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
     
     @Autowired
     private OrderService orderService;
+    
+    @Autowired
+    private OrderExporter orderExporter;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
 
     @PostMapping
-    @Operation(summary = "Create a new order")
+    @Operation(summary = "Create a new order",
+        description = "With \"Prefer: respond-async\" the order is reserved and stored, then returned as PENDING "
+            + "while payment completes in the background; poll the Location URL for CONFIRMED or CANCELLED. "
+            + "Retries carrying the same Idempotency-Key replay the first response instead of ordering again")
     @ApiResponse(responseCode = "201", description = "Order created successfully")
+    @ApiResponse(responseCode = "202", description = "Order accepted, payment in progress")
     @ApiResponse(responseCode = "400", description = "Validation error")
+    @ApiResponse(responseCode = "409", description = "Request with the same Idempotency-Key still in progress")
     @ApiResponse(responseCode = "422", description = "Business error (e.g., insufficient stock)")
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest request) {
-        OrderResponse response = orderService.createOrder(request);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    public ResponseEntity<OrderResponse> createOrder(
+            @Valid @RequestBody OrderRequest request,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "orders", request, OrderResponse.class, () -> {
+            if (prefer != null && prefer.contains(RESPOND_ASYNC)) {
+                OrderResponse response = orderService.createOrderAsync(request);
+                return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/orders/" + response.getId()))
+                    .header("Preference-Applied", RESPOND_ASYNC)
+                    .body(response);
+            }
+            OrderResponse response = orderService.createOrder(request);
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        });
     }
 
     @GetMapping("/{id}")
@@ -48,17 +86,105 @@ public class OrderController {
     }
 
     @GetMapping
-    @Operation(summary = "Get orders with optional filters")
+    @Operation(summary = "Get orders with optional filters",
+        description = "Passing cursor (empty for the first page) switches to keyset paging, newest first: "
+            + "follow nextCursor until it is absent; page is ignored and totals are reported as -1. "
+            + "In offset mode, count=SKIP omits the total count and count=ESTIMATED approximates it")
     @ApiResponse(responseCode = "200", description = "Orders retrieved successfully")
+    @ApiResponse(responseCode = "422", description = "Invalid cursor or page size")
     public ResponseEntity<PagedResponse<OrderResponse>> getOrders(
             @RequestParam(required = false) UUID userId,
             @RequestParam(required = false) OrderStatus status,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        PagedResponse<OrderResponse> response = orderService.getOrders(userId, status, page, size);
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "EXACT") CountPolicy count) {
+        PagedResponse<OrderResponse> response = cursor != null
+            ? orderService.getOrdersAfter(userId, status, cursor, size)
+            : orderService.getOrders(userId, status, page, size, count);
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Export orders with their lines",
+        description = "Streams every matching order, oldest first, as NDJSON (one order per line) or CSV "
+            + "(one row per order line). from is inclusive and to exclusive on createdAt. "
+            + "The body is gzip-compressed when Accept-Encoding accepts gzip (explicitly or through *) with q > 0")
+    @ApiResponse(responseCode = "200", description = "Export streamed")
+    @ApiResponse(responseCode = "422", description = "Invalid date range")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(defaultValue = "NDJSON") OrderExportFormat format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BusinessException("Export range start must be before its end");
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, EXPORT_BUFFER_SIZE);
+                orderExporter.export(userId, status, from, to, format, compressed);
+                compressed.finish();
+            } else {
+                orderExporter.export(userId, status, from, to, format, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"orders." + format.getFileExtension() + "\"")
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip: listed with a q-value above 0, or not listed while {@code *}
+     * is. Codings such as {@code x-gzip} do not count, and a malformed q-value refuses its coding.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (!coding.equals(GZIP) && !coding.equals("*")) {
+                continue;
+            }
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 1 && Character.toLowerCase(parameter.charAt(0)) == 'q'
+                        && parameter.charAt(1) == '=') {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals(GZIP)) {
+                gzipQuality = quality;
+            } else {
+                anyQuality = quality;
+            }
+        }
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return anyQuality != null && anyQuality > 0;
+    }
+
     @PostMapping("/{id}/status")
     @Operation(summary = "Change order status")
     @ApiResponse(responseCode = "200", description = "Order status updated successfully")
@@ -0,0 +1,31 @@
+package com.example.app.order.domain;
+
+/**
+ * Output formats of the bulk order export.
+ */
+public enum OrderExportFormat {
+    /**
+     * One JSON order, with its lines, per line of output.
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /**
+     * One row per order line; an order without lines gets a single row with empty line columns.
+     */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    OrderExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+}
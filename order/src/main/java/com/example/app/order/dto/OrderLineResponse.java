@@ -1,6 +1,6 @@
 package com.example.app.order.dto;
 
-import java.math.BigDecimal;
+import com.example.app.common.money.Money;
 import java.util.UUID;
 
 /**
@@ -11,7 +11,21 @@ public class OrderLineResponse {
     private String orderId;
     private String productId;
     private Integer quantity;
-    private BigDecimal price;
+    private Money price;
+
+    public OrderLineResponse() {
+    }
+
+    /**
+     * Projection constructor for JPQL constructor expressions, so listings are built straight from result rows.
+     */
+    public OrderLineResponse(UUID id, UUID orderId, UUID productId, Integer quantity, Money price) {
+        this.id = id.toString();
+        this.orderId = orderId.toString();
+        this.productId = productId.toString();
+        this.quantity = quantity;
+        this.price = price;
+    }
 
     public String getId() {
         return id;
@@ -45,11 +59,11 @@ public class OrderLineResponse {
         this.quantity = quantity;
     }
 
-    public BigDecimal getPrice() {
+    public Money getPrice() {
         return price;
     }
 
-    public void setPrice(BigDecimal price) {
+    public void setPrice(Money price) {
         this.price = price;
     }
 }
@@ -1,7 +1,7 @@
 package com.example.app.order.dto;
 
+import com.example.app.common.money.Money;
 import com.example.app.order.entity.OrderStatus;
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 
@@ -11,7 +11,7 @@ import java.util.List;
 public class OrderResponse {
     private String id;
     private String userId;
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     private OrderStatus status;
     private List<OrderLineResponse> orderLines;
     private Instant createdAt;
@@ -33,11 +33,11 @@ public class OrderResponse {
         this.userId = userId;
     }
 
-    public BigDecimal getTotalAmount() {
+    public Money getTotalAmount() {
         return totalAmount;
     }
 
-    public void setTotalAmount(BigDecimal totalAmount) {
+    public void setTotalAmount(Money totalAmount) {
         this.totalAmount = totalAmount;
     }
 
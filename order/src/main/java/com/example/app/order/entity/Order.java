@@ -1,7 +1,11 @@
 package com.example.app.order.entity;
 
+import com.example.app.common.money.Money;
+import com.example.app.common.money.MoneyConverter;
+import com.example.app.common.util.TimeOrderedUUIDGenerator;
+import org.hibernate.annotations.GenericGenerator;
+
 import javax.persistence.*;
-import java.math.BigDecimal;
 import java.util.Date;
 import java.util.UUID;
 
@@ -11,11 +15,15 @@ import java.util.UUID;
 @Entity
 @Table(name = "orders", schema = "cursordb", indexes = {
     @Index(name = "idx_order_user_id", columnList = "user_id"),
-    @Index(name = "idx_order_status", columnList = "status")
+    @Index(name = "idx_order_status", columnList = "status"),
+    @Index(name = "idx_order_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_order_user_id_created_at_id", columnList = "user_id, created_at, id"),
+    @Index(name = "idx_order_status_created_at_id", columnList = "status, created_at, id")
 })
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = TimeOrderedUUIDGenerator.NAME)
+    @GenericGenerator(name = TimeOrderedUUIDGenerator.NAME, strategy = TimeOrderedUUIDGenerator.STRATEGY)
     @Column(name = "id", columnDefinition = "UUID")
     private UUID id;
 
@@ -23,12 +31,17 @@ public class Order {
     private UUID userId;
 
     @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
-    private BigDecimal totalAmount;
+    @Convert(converter = MoneyConverter.class)
+    private Money totalAmount;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false, length = 20)
     private OrderStatus status = OrderStatus.PENDING;
 
+    // Payment completes in the background; only these checkouts are settled by the checkout reconciler
+    @Column(name = "async_checkout", nullable = false)
+    private boolean asyncCheckout;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     @Temporal(TemporalType.TIMESTAMP)
     private Date createdAt;
@@ -65,11 +78,11 @@ public class Order {
         this.userId = userId;
     }
 
-    public BigDecimal getTotalAmount() {
+    public Money getTotalAmount() {
         return totalAmount;
     }
 
-    public void setTotalAmount(BigDecimal totalAmount) {
+    public void setTotalAmount(Money totalAmount) {
         this.totalAmount = totalAmount;
     }
 
@@ -81,6 +94,14 @@ public class Order {
         this.status = status;
     }
 
+    public boolean isAsyncCheckout() {
+        return asyncCheckout;
+    }
+
+    public void setAsyncCheckout(boolean asyncCheckout) {
+        this.asyncCheckout = asyncCheckout;
+    }
+
     public Date getCreatedAt() {
         return createdAt;
     }
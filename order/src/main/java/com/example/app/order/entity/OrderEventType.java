@@ -0,0 +1,9 @@
+package com.example.app.order.entity;
+
+/**
+ * Kinds of order events written to the outbox.
+ */
+public enum OrderEventType {
+    ORDER_CREATED,
+    ORDER_STATUS_CHANGED
+}
@@ -1,7 +1,11 @@
 package com.example.app.order.entity;
 
+import com.example.app.common.money.Money;
+import com.example.app.common.money.MoneyConverter;
+import com.example.app.common.util.TimeOrderedUUIDGenerator;
+import org.hibernate.annotations.GenericGenerator;
+
 import javax.persistence.*;
-import java.math.BigDecimal;
 import java.util.UUID;
 
 /**
@@ -14,7 +18,8 @@ import java.util.UUID;
 })
 public class OrderLine {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = TimeOrderedUUIDGenerator.NAME)
+    @GenericGenerator(name = TimeOrderedUUIDGenerator.NAME, strategy = TimeOrderedUUIDGenerator.STRATEGY)
     @Column(name = "id", columnDefinition = "UUID")
     private UUID id;
 
@@ -28,7 +33,8 @@ public class OrderLine {
     private Integer quantity;
 
     @Column(name = "price", nullable = false, precision = 19, scale = 2)
-    private BigDecimal price;
+    @Convert(converter = MoneyConverter.class)
+    private Money price;
 
     public UUID getId() {
         return id;
@@ -62,11 +68,11 @@ public class OrderLine {
         this.quantity = quantity;
     }
 
-    public BigDecimal getPrice() {
+    public Money getPrice() {
         return price;
     }
 
-    public void setPrice(BigDecimal price) {
+    public void setPrice(Money price) {
         this.price = price;
     }
 }
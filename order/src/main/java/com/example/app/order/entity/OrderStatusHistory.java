@@ -1,5 +1,8 @@
 package com.example.app.order.entity;
 
+import com.example.app.common.util.TimeOrderedUUIDGenerator;
+import org.hibernate.annotations.GenericGenerator;
+
 import javax.persistence.*;
 import java.util.Date;
 import java.util.UUID;
@@ -13,7 +16,8 @@ import java.util.UUID;
 })
 public class OrderStatusHistory {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = TimeOrderedUUIDGenerator.NAME)
+    @GenericGenerator(name = TimeOrderedUUIDGenerator.NAME, strategy = TimeOrderedUUIDGenerator.STRATEGY)
     @Column(name = "id", columnDefinition = "UUID")
     private UUID id;
 
@@ -1,9 +1,13 @@
 package com.example.app.order.repository;
 
+import com.example.app.order.dto.OrderLineResponse;
 import com.example.app.order.entity.OrderLine;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -13,5 +17,12 @@ import java.util.UUID;
 @Repository
 public interface OrderLineRepository extends JpaRepository<OrderLine, UUID> {
     List<OrderLine> findByOrderId(UUID orderId);
+
+    /**
+     * Lines of a page of orders projected straight into response DTOs; no entities enter the persistence context.
+     */
+    @Query("SELECT new com.example.app.order.dto.OrderLineResponse(l.id, l.orderId, l.productId, l.quantity, l.price) " +
+           "FROM OrderLine l WHERE l.orderId IN :orderIds")
+    List<OrderLineResponse> findResponsesByOrderIdIn(@Param("orderIds") Collection<UUID> orderIds);
 }
 
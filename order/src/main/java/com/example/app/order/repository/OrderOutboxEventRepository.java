@@ -0,0 +1,27 @@
+package com.example.app.order.repository;
+
+import com.example.app.order.entity.OrderOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for OrderOutboxEvent entity.
+ */
+@Repository
+public interface OrderOutboxEventRepository extends JpaRepository<OrderOutboxEvent, UUID> {
+    /**
+     * Locks the oldest undelivered events that still have attempts left.
+     * Rows locked by another relay are skipped, so several relays can drain the outbox in parallel.
+     */
+    @Query(value = "SELECT * FROM cursordb.order_outbox " +
+                   "WHERE published_at IS NULL AND attempts < :maxAttempts " +
+                   "ORDER BY created_at " +
+                   "LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<OrderOutboxEvent> lockNextBatch(@Param("limit") int limit, @Param("maxAttempts") int maxAttempts);
+}
@@ -4,20 +4,40 @@ import com.example.app.order.entity.Order;
 import com.example.app.order.entity.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Repository for Order entity.
  */
 @Repository
-public interface OrderRepository extends JpaRepository<Order, UUID>, JpaSpecificationExecutor<Order> {
+public interface OrderRepository extends JpaRepository<Order, UUID>, JpaSpecificationExecutor<Order>,
+        OrderRepositoryCustom {
+    // Listing reads load orders read-only: Hibernate keeps no snapshot of them for dirty checking
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    Page<Order> findAll(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    Page<Order> findAll(Specification<Order> spec, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
     Page<Order> findByUserId(UUID userId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
     Page<Order> findByStatus(OrderStatus status, Pageable pageable);
     
     @Query("SELECT o FROM Order o WHERE " +
@@ -26,5 +46,46 @@ public interface OrderRepository extends JpaRepository<Order, UUID>, JpaSpecific
     Page<Order> findByUserIdAndStatus(@Param("userId") UUID userId, 
                                       @Param("status") OrderStatus status, 
                                       Pageable pageable);
+
+    // Slice variants fetch one extra row instead of running a count query
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    Slice<Order> findSliceBy(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    Slice<Order> findSliceByUserId(UUID userId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    Slice<Order> findSliceByStatus(OrderStatus status, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    Slice<Order> findSliceByUserIdAndStatus(UUID userId, OrderStatus status, Pageable pageable);
+
+    /**
+     * Loads the order with a row lock, so a status check and the following update cannot interleave with
+     * another writer.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * IDs of the oldest asynchronous checkouts still in the given status that were created before the given time.
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.asyncCheckout = true AND o.status = :status " +
+           "AND o.createdAt < :createdBefore ORDER BY o.createdAt")
+    List<UUID> findAsyncCheckoutIdsByStatusCreatedBefore(@Param("status") OrderStatus status,
+                                                         @Param("createdBefore") Date createdBefore,
+                                                         Pageable pageable);
+
+    long countByUserId(UUID userId);
+    long countByStatus(OrderStatus status);
+    long countByUserIdAndStatus(UUID userId, OrderStatus status);
+
+    /**
+     * Planner estimate of the table's row count; negative or zero until the table has been analyzed.
+     */
+    @Query(value = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = CAST('cursordb.orders' AS regclass)",
+           nativeQuery = true)
+    Long estimateRowCount();
 }
 
@@ -0,0 +1,23 @@
+package com.example.app.order.repository;
+
+import com.example.app.order.entity.Order;
+import com.example.app.order.entity.OrderStatus;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Custom queries for Order that Spring Data cannot derive.
+ */
+public interface OrderRepositoryCustom {
+    /**
+     * Keyset page of orders, newest first by (createdAt, id), without a count query.
+     * @param userId Optional user filter
+     * @param status Optional status filter
+     * @param afterCreatedAt createdAt of the last row already seen, or null for the first page
+     * @param afterId id of the last row already seen, or null for the first page
+     * @param limit Maximum number of rows to return
+     */
+    List<Order> findPageAfter(UUID userId, OrderStatus status, Date afterCreatedAt, UUID afterId, int limit);
+}
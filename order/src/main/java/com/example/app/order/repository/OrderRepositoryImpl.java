@@ -0,0 +1,60 @@
+package com.example.app.order.repository;
+
+import com.example.app.order.entity.Order;
+import com.example.app.order.entity.OrderStatus;
+import org.hibernate.jpa.QueryHints;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Implementation of {@link OrderRepositoryCustom}.
+ * Only the filters actually given are added to the query, so each combination can use its own
+ * (filter, created_at, id) index.
+ */
+public class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Order> findPageAfter(UUID userId, OrderStatus status, Date afterCreatedAt, UUID afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Order> query = cb.createQuery(Order.class);
+        Root<Order> root = query.from(Order.class);
+        Path<Date> createdAt = root.get("createdAt");
+        Path<UUID> id = root.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (userId != null) {
+            predicates.add(cb.equal(root.get("userId"), userId));
+        }
+        if (status != null) {
+            predicates.add(cb.equal(root.get("status"), status));
+        }
+        if (afterCreatedAt != null && afterId != null) {
+            // (created_at, id) < (:createdAt, :id); the leading <= gives the planner an index range to seek to
+            predicates.add(cb.lessThanOrEqualTo(createdAt, afterCreatedAt));
+            predicates.add(cb.or(
+                cb.lessThan(createdAt, afterCreatedAt),
+                cb.and(cb.equal(createdAt, afterCreatedAt), cb.lessThan(id, afterId))));
+        }
+
+        query.select(root)
+            .where(predicates.toArray(new Predicate[0]))
+            .orderBy(cb.desc(createdAt), cb.desc(id));
+        return entityManager.createQuery(query)
+            .setHint(QueryHints.HINT_READONLY, true)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+}
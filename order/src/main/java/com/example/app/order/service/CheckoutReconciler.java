@@ -0,0 +1,113 @@
+package com.example.app.order.service;
+
+import com.example.app.order.entity.OrderStatus;
+import com.example.app.order.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Settles asynchronous checkouts that stayed PENDING for longer than {@code order.checkout.reconcile.stale-after-ms},
+ * e.g. because the node running the payment stopped or could not record its outcome. Synchronous checkouts finish
+ * within their request, and other PENDING orders never had stock reserved by a checkout, so both are left alone.
+ * <p>
+ * Each order is settled in its own transaction by {@link OrderService#reconcileCheckout}, which locks the order
+ * first, so reconcilers on several nodes and a late checkout worker never settle the same order twice. The
+ * threshold must stay well above the payment timeout, or a checkout still paying could be cancelled.
+ */
+@Component
+@ConditionalOnProperty(name = "order.checkout.reconcile.enabled", havingValue = "true", matchIfMissing = true)
+public class CheckoutReconciler {
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutReconciler.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Value("${order.checkout.reconcile.stale-after-ms:600000}")
+    private long staleAfterMs = 600000;
+
+    @Value("${order.checkout.reconcile.batch-size:100}")
+    private int batchSize = 100;
+
+    private final Counter confirmedCounter;
+    private final Counter cancelledCounter;
+    private final Counter failedCounter;
+
+    @Autowired
+    public CheckoutReconciler(MeterRegistry meterRegistry) {
+        this.confirmedCounter = Counter.builder("orders.checkout.reconciled")
+            .description("Number of stale PENDING checkouts settled by the reconciler")
+            .tag("outcome", "confirmed")
+            .register(meterRegistry);
+        this.cancelledCounter = Counter.builder("orders.checkout.reconciled")
+            .description("Number of stale PENDING checkouts settled by the reconciler")
+            .tag("outcome", "cancelled")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("orders.checkout.reconciled")
+            .description("Number of stale PENDING checkouts settled by the reconciler")
+            .tag("outcome", "failed")
+            .register(meterRegistry);
+    }
+
+    // Setters for testing
+    public void setOrderRepository(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    public void setOrderService(OrderService orderService) {
+        this.orderService = orderService;
+    }
+
+    public void setStaleAfterMs(long staleAfterMs) {
+        this.staleAfterMs = staleAfterMs;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Settles the oldest stale checkouts, one batch per run. An order that fails is logged and retried next run.
+     * @return Number of orders settled
+     */
+    @Scheduled(fixedDelayString = "${order.checkout.reconcile.interval-ms:60000}")
+    public int reconcile() {
+        Date staleBefore = new Date(System.currentTimeMillis() - staleAfterMs);
+        List<UUID> orderIds = orderRepository.findAsyncCheckoutIdsByStatusCreatedBefore(
+            OrderStatus.PENDING, staleBefore, PageRequest.of(0, batchSize));
+        int settled = 0;
+        for (UUID orderId : orderIds) {
+            try {
+                OrderStatus outcome = orderService.reconcileCheckout(orderId);
+                if (outcome == OrderStatus.CONFIRMED) {
+                    confirmedCounter.increment();
+                    settled++;
+                } else if (outcome == OrderStatus.CANCELLED) {
+                    cancelledCounter.increment();
+                    settled++;
+                }
+            } catch (RuntimeException e) {
+                failedCounter.increment();
+                logger.warn("Could not reconcile stale checkout of order {}", orderId, e);
+            }
+        }
+        if (settled > 0) {
+            logger.info("Reconciled {} stale checkouts", settled);
+        }
+        return settled;
+    }
+}
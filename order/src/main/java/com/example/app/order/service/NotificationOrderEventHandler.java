@@ -0,0 +1,38 @@
+package com.example.app.order.service;
+
+import com.example.app.notifications.domain.NotificationRequest;
+import com.example.app.notifications.service.NotificationService;
+import com.example.app.order.entity.OrderEventType;
+import com.example.app.order.entity.OrderOutboxEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends a user notification for every order event.
+ */
+@Component
+public class NotificationOrderEventHandler implements OrderEventHandler {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    // Setters for testing
+    public void setNotificationService(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    @Override
+    public void handle(OrderOutboxEvent event) {
+        NotificationRequest request = new NotificationRequest();
+        request.setUserId(event.getUserId().toString());
+        if (event.getEventType() == OrderEventType.ORDER_CREATED) {
+            request.setType("ORDER_CREATED");
+            request.setMessage("Order " + event.getOrderId() + " has been created");
+        } else {
+            request.setType("ORDER_" + event.getToStatus());
+            String message = "Order " + event.getOrderId() + " is now " + event.getToStatus();
+            request.setMessage(event.getDetail() != null ? message + " (" + event.getDetail() + ")" : message);
+        }
+        notificationService.sendNotification(request);
+    }
+}
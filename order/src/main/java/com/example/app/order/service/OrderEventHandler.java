@@ -0,0 +1,12 @@
+package com.example.app.order.service;
+
+import com.example.app.order.entity.OrderOutboxEvent;
+
+/**
+ * Consumer of order events delivered by the outbox relay.
+ * Delivery is at-least-once: if any handler fails, every handler sees the event again on the next attempt,
+ * so implementations must tolerate duplicates.
+ */
+public interface OrderEventHandler {
+    void handle(OrderOutboxEvent event);
+}
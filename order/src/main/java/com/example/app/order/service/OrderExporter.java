@@ -0,0 +1,285 @@
+package com.example.app.order.service;
+
+import com.example.app.common.money.Money;
+import com.example.app.order.domain.OrderExportFormat;
+import com.example.app.order.dto.OrderLineResponse;
+import com.example.app.order.dto.OrderResponse;
+import com.example.app.order.entity.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Streams orders with their lines for bulk export.
+ * <p>
+ * Rows are read through a forward-only JDBC cursor ({@code order.export.fetch-size} rows per round trip)
+ * inside a read-only transaction, which Postgres needs to honour the fetch size, and are written out as
+ * they arrive. At most one order is held in memory, so the cost is constant whatever the result size.
+ */
+@Component
+public class OrderExporter {
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER =
+        "order_id,user_id,status,total_amount,created_at,updated_at,line_id,product_id,quantity,price\n";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${order.export.fetch-size:1000}")
+    private int fetchSize = 1000;
+
+    private final Counter exportedCounter;
+
+    @Autowired
+    public OrderExporter(MeterRegistry meterRegistry) {
+        this.exportedCounter = Counter.builder("orders.exported")
+            .description("Number of orders written by the bulk export")
+            .register(meterRegistry);
+    }
+
+    // Setters for testing
+    public void setJdbcTemplate(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Writes every matching order, oldest first, to out. Does not close out.
+     * @param from Inclusive lower bound on createdAt, or null
+     * @param to Exclusive upper bound on createdAt, or null
+     * @return Number of orders written
+     */
+    public long export(UUID userId, OrderStatus status, Instant from, Instant to,
+                       OrderExportFormat format, OutputStream out) throws IOException {
+        List<Object> parameters = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(
+            "SELECT o.id, o.user_id, o.status, o.total_amount, o.created_at, o.updated_at, "
+                + "l.id, l.product_id, l.quantity, l.price "
+                + "FROM cursordb.orders o LEFT JOIN cursordb.order_lines l ON l.order_id = o.id WHERE 1 = 1");
+        if (userId != null) {
+            sql.append(" AND o.user_id = ?");
+            parameters.add(userId);
+        }
+        if (status != null) {
+            sql.append(" AND o.status = ?");
+            parameters.add(status.name());
+        }
+        if (from != null) {
+            sql.append(" AND o.created_at >= ?");
+            parameters.add(Timestamp.from(from));
+        }
+        if (to != null) {
+            sql.append(" AND o.created_at < ?");
+            parameters.add(Timestamp.from(to));
+        }
+        // Lines of one order arrive together, so each order can be written as soon as the next one starts
+        sql.append(" ORDER BY o.created_at, o.id");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        ExportHandler handler = format == OrderExportFormat.CSV
+            ? new CsvHandler(writer)
+            : new NdjsonHandler(writer, objectMapper);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        try {
+            handler.start();
+            transactionTemplate.executeWithoutResult(transactionStatus ->
+                jdbcTemplate.query(connection -> prepare(connection, sql.toString(), parameters), handler));
+            handler.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            exportedCounter.increment(handler.orderCount);
+        }
+        writer.flush();
+        return handler.orderCount;
+    }
+
+    private PreparedStatement prepare(Connection connection, String sql, List<Object> parameters) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(
+            sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(fetchSize);
+        for (int i = 0; i < parameters.size(); i++) {
+            statement.setObject(i + 1, parameters.get(i));
+        }
+        return statement;
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    /**
+     * Receives the joined rows in order; I/O failures are tunnelled out of JDBC as UncheckedIOException.
+     */
+    private abstract static class ExportHandler implements RowCallbackHandler {
+        protected final Writer writer;
+        protected long orderCount;
+        private UUID currentOrderId;
+
+        private ExportHandler(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public final void processRow(ResultSet rs) throws SQLException {
+            UUID orderId = rs.getObject(1, UUID.class);
+            boolean newOrder = !orderId.equals(currentOrderId);
+            if (newOrder) {
+                currentOrderId = orderId;
+                orderCount++;
+            }
+            try {
+                writeRow(rs, newOrder);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void start() throws IOException {
+        }
+
+        abstract void writeRow(ResultSet rs, boolean newOrder) throws SQLException, IOException;
+
+        void finish() throws IOException {
+        }
+    }
+
+    private static final class CsvHandler extends ExportHandler {
+
+        private CsvHandler(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        void start() throws IOException {
+            writer.write(CSV_HEADER);
+        }
+
+        @Override
+        void writeRow(ResultSet rs, boolean newOrder) throws SQLException, IOException {
+            // Every column is a UUID, enum name, number or ISO instant, so nothing needs quoting
+            writer.write(rs.getObject(1, UUID.class).toString());
+            writer.write(',');
+            writer.write(rs.getObject(2, UUID.class).toString());
+            writer.write(',');
+            writer.write(rs.getString(3));
+            writer.write(',');
+            writer.write(rs.getBigDecimal(4).toPlainString());
+            writer.write(',');
+            writeValue(toInstant(rs.getTimestamp(5)));
+            writer.write(',');
+            writeValue(toInstant(rs.getTimestamp(6)));
+            UUID lineId = rs.getObject(7, UUID.class);
+            if (lineId != null) {
+                writer.write(',');
+                writer.write(lineId.toString());
+                writer.write(',');
+                writer.write(rs.getObject(8, UUID.class).toString());
+                writer.write(',');
+                writer.write(Integer.toString(rs.getInt(9)));
+                writer.write(',');
+                writer.write(rs.getBigDecimal(10).toPlainString());
+            } else {
+                writer.write(",,,,");
+            }
+            writer.write('\n');
+        }
+
+        private void writeValue(Object value) throws IOException {
+            if (value != null) {
+                writer.write(value.toString());
+            }
+        }
+    }
+
+    private static final class NdjsonHandler extends ExportHandler {
+        private final ObjectMapper objectMapper;
+        private OrderResponse pending;
+
+        private NdjsonHandler(Writer writer, ObjectMapper objectMapper) {
+            super(writer);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        void writeRow(ResultSet rs, boolean newOrder) throws SQLException, IOException {
+            if (newOrder) {
+                flushPending();
+                pending = new OrderResponse();
+                pending.setId(rs.getObject(1, UUID.class).toString());
+                pending.setUserId(rs.getObject(2, UUID.class).toString());
+                pending.setStatus(OrderStatus.valueOf(rs.getString(3)));
+                pending.setTotalAmount(Money.of(rs.getBigDecimal(4)));
+                pending.setCreatedAt(toInstant(rs.getTimestamp(5)));
+                pending.setUpdatedAt(toInstant(rs.getTimestamp(6)));
+                pending.setOrderLines(new ArrayList<>());
+            }
+            UUID lineId = rs.getObject(7, UUID.class);
+            if (lineId != null) {
+                OrderLineResponse line = new OrderLineResponse();
+                line.setId(lineId.toString());
+                line.setOrderId(pending.getId());
+                line.setProductId(rs.getObject(8, UUID.class).toString());
+                line.setQuantity(rs.getInt(9));
+                line.setPrice(Money.of(rs.getBigDecimal(10)));
+                pending.getOrderLines().add(line);
+            }
+        }
+
+        @Override
+        void finish() throws IOException {
+            flushPending();
+        }
+
+        private void flushPending() throws IOException {
+            if (pending != null) {
+                writer.write(objectMapper.writeValueAsString(pending));
+                writer.write('\n');
+                pending = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.app.order.service;
+
+import com.example.app.order.entity.Order;
+import com.example.app.order.entity.OrderEventType;
+import com.example.app.order.entity.OrderOutboxEvent;
+import com.example.app.order.entity.OrderStatus;
+import com.example.app.order.repository.OrderOutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records order events in the outbox table. Must be called inside the transaction that changes the order,
+ * so an event exists exactly when the change it describes was committed.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class OrderOutbox {
+
+    @Autowired
+    private OrderOutboxEventRepository orderOutboxEventRepository;
+
+    // Setters for testing
+    public void setOrderOutboxEventRepository(OrderOutboxEventRepository orderOutboxEventRepository) {
+        this.orderOutboxEventRepository = orderOutboxEventRepository;
+    }
+
+    public void orderCreated(Order order) {
+        orderOutboxEventRepository.save(event(order, OrderEventType.ORDER_CREATED, null, order.getStatus(), null));
+    }
+
+    /**
+     * @param detail Optional reason shown to consumers, or null
+     */
+    public void statusChanged(Order order, OrderStatus fromStatus, OrderStatus toStatus, String detail) {
+        orderOutboxEventRepository.save(event(order, OrderEventType.ORDER_STATUS_CHANGED, fromStatus, toStatus, detail));
+    }
+
+    private static OrderOutboxEvent event(Order order, OrderEventType type, OrderStatus fromStatus,
+                                          OrderStatus toStatus, String detail) {
+        OrderOutboxEvent event = new OrderOutboxEvent();
+        event.setOrderId(order.getId());
+        event.setUserId(order.getUserId());
+        event.setEventType(type);
+        event.setFromStatus(fromStatus);
+        event.setToStatus(toStatus);
+        event.setDetail(detail);
+        return event;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.app.order.service;
+
+import com.example.app.order.entity.OrderOutboxEvent;
+import com.example.app.order.repository.OrderOutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Drains the order outbox in batches and hands each event to every {@link OrderEventHandler}.
+ * <p>
+ * Each batch is locked with FOR UPDATE SKIP LOCKED inside its own transaction, so relays on several nodes
+ * drain disjoint batches in parallel. A failed event stays in the outbox with its attempt count raised and
+ * is retried on later runs until {@code order.outbox.relay.max-attempts} is reached.
+ */
+@Component
+@ConditionalOnProperty(name = "order.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderOutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OrderOutboxRelay.class);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Autowired
+    private OrderOutboxEventRepository orderOutboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired(required = false)
+    private List<OrderEventHandler> handlers = new ArrayList<>();
+
+    @Value("${order.outbox.relay.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${order.outbox.relay.max-attempts:10}")
+    private int maxAttempts = 10;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+
+    @Autowired
+    public OrderOutboxRelay(MeterRegistry meterRegistry) {
+        this.publishedCounter = Counter.builder("orders.outbox.published")
+            .description("Number of order events delivered to all handlers")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("orders.outbox.failed")
+            .description("Number of order event delivery attempts that failed")
+            .register(meterRegistry);
+    }
+
+    // Setters for testing
+    public void setOrderOutboxEventRepository(OrderOutboxEventRepository orderOutboxEventRepository) {
+        this.orderOutboxEventRepository = orderOutboxEventRepository;
+    }
+
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    public void setHandlers(List<OrderEventHandler> handlers) {
+        this.handlers = handlers;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Keeps draining while full batches are delivered cleanly; a short or failing batch ends the run.
+     */
+    @Scheduled(fixedDelayString = "${order.outbox.relay.interval-ms:500}")
+    public void relay() {
+        while (relayBatch() == batchSize) {
+            // Full batch delivered, there may be more waiting
+        }
+    }
+
+    /**
+     * Delivers one batch in one transaction.
+     * @return Number of events delivered successfully
+     */
+    public int relayBatch() {
+        Integer delivered = new TransactionTemplate(transactionManager).execute(status -> {
+            List<OrderOutboxEvent> batch = orderOutboxEventRepository.lockNextBatch(batchSize, maxAttempts);
+            int published = 0;
+            for (OrderOutboxEvent event : batch) {
+                if (dispatch(event)) {
+                    published++;
+                }
+            }
+            orderOutboxEventRepository.saveAll(batch);
+            return published;
+        });
+        return delivered != null ? delivered : 0;
+    }
+
+    private boolean dispatch(OrderOutboxEvent event) {
+        try {
+            for (OrderEventHandler handler : handlers) {
+                handler.handle(event);
+            }
+            event.setPublishedAt(new Date());
+            publishedCounter.increment();
+            return true;
+        } catch (RuntimeException e) {
+            event.setAttempts(event.getAttempts() + 1);
+            String error = String.valueOf(e);
+            event.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            failedCounter.increment();
+            logger.warn("Delivery of order event {} failed (attempt {})", event.getId(), event.getAttempts(), e);
+            return false;
+        }
+    }
+}
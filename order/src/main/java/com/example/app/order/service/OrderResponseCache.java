@@ -0,0 +1,143 @@
+package com.example.app.order.service;
+
+import com.example.app.common.util.ReadThroughCache;
+import com.example.app.order.dto.OrderLineResponse;
+import com.example.app.order.dto.OrderResponse;
+import com.example.app.order.entity.OrderStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of assembled {@link OrderResponse}s for {@code getOrderById}, a {@link ReadThroughCache}
+ * bounded by {@code order.cache.max-size} and {@code order.cache.ttl-ms}. Writers invalidate an order once their
+ * transaction has completed, so neither a read that loaded the old row before the commit nor a creation response
+ * can overwrite a status change that beat it.
+ * <p>
+ * Invalidation only reaches the node that made the change. Orders that can still change status are therefore
+ * kept for at most {@code order.cache.active-ttl-ms}, which bounds how long another node can serve a stale
+ * status while still absorbing polling bursts; only DELIVERED and CANCELLED orders, which never change again,
+ * are kept for the full TTL. Broadcasting through the outbox relay was not an option: it hands each event to
+ * one node only.
+ */
+@Component
+public class OrderResponseCache {
+
+    @Value("${order.cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${order.cache.max-size:10000}")
+    private int maxSize = 10000;
+
+    @Value("${order.cache.ttl-ms:60000}")
+    private long ttlMs = 60000;
+
+    @Value("${order.cache.active-ttl-ms:1000}")
+    private long activeTtlMs = 1000;
+
+    private final ReadThroughCache<UUID, OrderResponse> cache;
+
+    @Autowired
+    public OrderResponseCache(MeterRegistry meterRegistry) {
+        this.cache = new ReadThroughCache<>(meterRegistry, "orders.cache", "order", () -> maxSize, this::ttlFor,
+            OrderResponseCache::copy);
+    }
+
+    // Setters for testing
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public void setTtlMs(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    public void setActiveTtlMs(long activeTtlMs) {
+        this.activeTtlMs = activeTtlMs;
+    }
+
+    /**
+     * Returns the cached order, or runs loader and caches its result unless the order was invalidated meanwhile.
+     * Threads missing the same order while a load is running wait for that load instead of starting their own.
+     */
+    public OrderResponse get(UUID orderId, Supplier<OrderResponse> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        return cache.get(orderId, loader);
+    }
+
+    /**
+     * Caches a freshly created order unless the order is already cached or was invalidated since it was written.
+     */
+    public void putIfAbsent(UUID orderId, OrderResponse response) {
+        if (!enabled) {
+            return;
+        }
+        cache.putIfAbsent(orderId, response);
+    }
+
+    /**
+     * Drops the order once the current transaction completes, whether it committed or not.
+     */
+    public void invalidateOnCompletion(UUID orderId) {
+        if (!enabled) {
+            return;
+        }
+        cache.invalidateOnCompletion(orderId);
+    }
+
+    public void invalidate(UUID orderId) {
+        cache.invalidate(orderId);
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    /**
+     * TTL of a loaded order; a loader that found none is not cached.
+     */
+    private long ttlFor(OrderResponse response) {
+        if (response == null) {
+            return 0;
+        }
+        OrderStatus status = response.getStatus();
+        boolean settled = status == OrderStatus.DELIVERED || status == OrderStatus.CANCELLED;
+        return settled ? ttlMs : Math.min(ttlMs, activeTtlMs);
+    }
+
+    private static OrderResponse copy(OrderResponse source) {
+        OrderResponse copy = new OrderResponse();
+        copy.setId(source.getId());
+        copy.setUserId(source.getUserId());
+        copy.setTotalAmount(source.getTotalAmount());
+        copy.setStatus(source.getStatus());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        if (source.getOrderLines() != null) {
+            List<OrderLineResponse> lines = new ArrayList<>(source.getOrderLines().size());
+            for (OrderLineResponse line : source.getOrderLines()) {
+                OrderLineResponse lineCopy = new OrderLineResponse();
+                lineCopy.setId(line.getId());
+                lineCopy.setOrderId(line.getOrderId());
+                lineCopy.setProductId(line.getProductId());
+                lineCopy.setQuantity(line.getQuantity());
+                lineCopy.setPrice(line.getPrice());
+                lines.add(lineCopy);
+            }
+            copy.setOrderLines(lines);
+        }
+        return copy;
+    }
+}
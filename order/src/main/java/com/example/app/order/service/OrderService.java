@@ -1,5 +1,6 @@
 package com.example.app.order.service;
 
+import com.example.app.common.dto.CountPolicy;
 import com.example.app.common.dto.PagedResponse;
 import com.example.app.order.domain.OrderRequest;
 import com.example.app.order.domain.OrderStatusChangeRequest;
@@ -13,8 +14,38 @@ import java.util.UUID;
  */
 public interface OrderService {
     OrderResponse createOrder(OrderRequest request);
+
+    /**
+     * Reserves stock and persists the order, then completes payment in the background.
+     * @param request Order to create
+     * @return The order in PENDING status; it later moves to CONFIRMED or CANCELLED
+     */
+    OrderResponse createOrderAsync(OrderRequest request);
     OrderResponse getOrderById(UUID id);
-    PagedResponse<OrderResponse> getOrders(UUID userId, OrderStatus status, int page, int size);
+
+    /**
+     * Offset-paged listing.
+     * @param countPolicy How totalElements/totalPages are obtained; null means EXACT
+     */
+    PagedResponse<OrderResponse> getOrders(UUID userId, OrderStatus status, int page, int size,
+                                           CountPolicy countPolicy);
+
+    /**
+     * Cursor-paged listing, newest first by (createdAt, id). Cost does not grow with page depth
+     * and no total count is computed.
+     * @param cursor nextCursor of the previous page, or null/empty for the first page
+     * @return Page whose nextCursor is null when there are no more orders
+     */
+    PagedResponse<OrderResponse> getOrdersAfter(UUID userId, OrderStatus status, String cursor, int size);
     OrderResponse changeOrderStatus(UUID orderId, OrderStatusChangeRequest request);
+
+    /**
+     * Settles an asynchronous checkout left PENDING, e.g. by a node that stopped before recording the payment
+     * outcome. The order is confirmed when one of its payments succeeded; otherwise its stock is released and it is
+     * cancelled.
+     * @return The status the order moved to, or null when it was no longer PENDING or is not an asynchronous
+     *         checkout
+     */
+    OrderStatus reconcileCheckout(UUID orderId);
 }
 
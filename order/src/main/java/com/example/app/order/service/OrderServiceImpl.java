@@ -1,13 +1,13 @@
 package com.example.app.order.service;
 
+import com.example.app.common.dto.CountPolicy;
 import com.example.app.common.dto.PagedResponse;
 import com.example.app.common.exception.BusinessException;
 import com.example.app.common.exception.EntityNotFoundException;
-import com.example.app.inventory.domain.ReserveRequest;
-import com.example.app.inventory.dto.InventoryResponse;
+import com.example.app.common.money.Money;
+import com.example.app.common.util.CountCache;
+import com.example.app.common.util.KeysetCursor;
 import com.example.app.inventory.service.InventoryService;
-import com.example.app.notifications.domain.NotificationRequest;
-import com.example.app.notifications.service.NotificationService;
 import com.example.app.billing.adapter.BillingAdapter;
 import com.example.app.order.domain.OrderLineRequest;
 import com.example.app.order.domain.OrderRequest;
@@ -23,22 +23,38 @@ import com.example.app.order.repository.OrderLineRepository;
 import com.example.app.order.repository.OrderRepository;
 import com.example.app.order.repository.OrderStatusHistoryRepository;
 import com.example.app.product.dto.ProductResponse;
+import com.example.app.payment.entity.PaymentStatus;
 import com.example.app.product.service.ProductService;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.persistence.criteria.Predicate;
-import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -47,6 +63,7 @@ import java.util.stream.Collectors;
 @Service
 @Transactional
 public class OrderServiceImpl implements OrderService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderServiceImpl.class);
     
     @Autowired
     private OrderRepository orderRepository;
@@ -67,11 +84,30 @@ public class OrderServiceImpl implements OrderService {
     private BillingAdapter billingAdapter;
     
     @Autowired
-    private NotificationService notificationService;
+    private OrderOutbox orderOutbox;
     
     @Autowired
     private OrderMapper orderMapper;
     
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    @Qualifier("checkoutExecutor")
+    private Executor checkoutExecutor;
+    
+    @Autowired
+    private CountCache countCache;
+
+    @Autowired
+    private OrderResponseCache orderResponseCache;
+
+    @Value("${order.checkout.completion-attempts:3}")
+    private int completionAttempts = 3;
+
+    @Value("${order.checkout.completion-backoff-ms:200}")
+    private long completionBackoffMs = 200;
+    
     private final Counter ordersCreatedCounter;
 
     @Autowired
@@ -106,54 +142,273 @@ public class OrderServiceImpl implements OrderService {
         this.billingAdapter = billingAdapter;
     }
     
-    public void setNotificationService(NotificationService notificationService) {
-        this.notificationService = notificationService;
+    public void setOrderOutbox(OrderOutbox orderOutbox) {
+        this.orderOutbox = orderOutbox;
     }
     
     public void setOrderMapper(OrderMapper orderMapper) {
         this.orderMapper = orderMapper;
     }
+    
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+    
+    public void setCheckoutExecutor(Executor checkoutExecutor) {
+        this.checkoutExecutor = checkoutExecutor;
+    }
+    
+    public void setCountCache(CountCache countCache) {
+        this.countCache = countCache;
+    }
 
+    public void setOrderResponseCache(OrderResponseCache orderResponseCache) {
+        this.orderResponseCache = orderResponseCache;
+    }
+
+    public void setCompletionAttempts(int completionAttempts) {
+        this.completionAttempts = completionAttempts;
+    }
+
+    public void setCompletionBackoffMs(long completionBackoffMs) {
+        this.completionBackoffMs = completionBackoffMs;
+    }
+
+    /**
+     * Checkout runs as separately committed phases: reserve stock, persist the order, then pay; a paid order moves
+     * to CONFIRMED, as in the async checkout. Inventory row locks are held only for the reservation, never across
+     * payment.
+     * If persisting or paying fails, the reservation is released and a persisted order is cancelled; a checkout
+     * that cannot be cancelled stays PENDING with its stock reserved for an admin to cancel.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public OrderResponse createOrder(OrderRequest request) {
-        BigDecimal totalAmount = BigDecimal.ZERO;
+        Checkout checkout = reserveAndPersist(request, false);
+        Order savedOrder = checkout.order;
+
+        // Phase 3: create payment record via BillingAdapter, outside any inventory lock. A declined payment is
+        // recorded as FAILED rather than thrown, so the outcome is read back like the async checkout does
+        RuntimeException failure;
+        try {
+            UUID paymentId = billingAdapter.createPayment(savedOrder.getId(), checkout.totalAmount.toBigDecimal());
+            PaymentStatus paymentStatus = billingAdapter.getPaymentStatus(paymentId);
+            failure = paymentStatus == PaymentStatus.SUCCESS ? null : new BusinessException(
+                String.format("Payment for order %s failed with status %s", savedOrder.getId(), paymentStatus));
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        if (failure != null) {
+            try {
+                finishCheckout(savedOrder.getId(), checkout.quantities, OrderStatus.CANCELLED, "payment failed");
+            } catch (RuntimeException cancelFailure) {
+                logger.error("Could not cancel order {} after payment failure", savedOrder.getId(), cancelFailure);
+                failure.addSuppressed(cancelFailure);
+            }
+            throw failure;
+        }
+
+        // Paid: confirmed like an async checkout. The payment stands even if this fails, so the order is left
+        // PENDING for an admin to confirm rather than failing the request
+        boolean confirmed;
+        try {
+            confirmed = finishCheckout(savedOrder.getId(), checkout.quantities, OrderStatus.CONFIRMED, null);
+        } catch (RuntimeException e) {
+            logger.error("Could not confirm order {} after successful payment", savedOrder.getId(), e);
+            confirmed = false;
+        }
+        ordersCreatedCounter.increment();
+
+        // The persisted lines are still in memory with their IDs assigned; no need to read them back
+        OrderResponse response = orderMapper.toResponse(savedOrder);
+        if (confirmed) {
+            response.setStatus(OrderStatus.CONFIRMED);
+        }
+        response.setOrderLines(orderMapper.toOrderLineResponseList(checkout.orderLines));
+        orderResponseCache.putIfAbsent(savedOrder.getId(), response);
+        return response;
+    }
+
+    /**
+     * Reserves and persists synchronously, then hands payment to the checkout pool.
+     * The order moves to CONFIRMED when the payment succeeds, or to CANCELLED with its stock released.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public OrderResponse createOrderAsync(OrderRequest request) {
+        Checkout checkout = reserveAndPersist(request, true);
+        ordersCreatedCounter.increment();
+
+        // Build the PENDING response before the worker can change the order
+        OrderResponse response = orderMapper.toResponse(checkout.order);
+        response.setOrderLines(orderMapper.toOrderLineResponseList(checkout.orderLines));
+        orderResponseCache.putIfAbsent(checkout.order.getId(), response);
+        checkoutExecutor.execute(() -> completeCheckout(checkout));
+        return response;
+    }
+
+    /**
+     * Phases 1 and 2 shared by both checkout modes.
+     */
+    private Checkout reserveAndPersist(OrderRequest request, boolean asyncCheckout) {
+        Money totalAmount = Money.ZERO;
         List<OrderLine> orderLines = new ArrayList<>();
 
-        // Validate products and calculate total
+        // Load all referenced products in one round-trip and report every unknown ID at once
+        Set<UUID> productIds = new LinkedHashSet<>();
         for (OrderLineRequest lineRequest : request.getOrderLines()) {
-            ProductResponse product = productService.getProductById(lineRequest.getProductId());
-            BigDecimal lineTotal = product.getPrice().multiply(new BigDecimal(lineRequest.getQuantity()));
-            totalAmount = totalAmount.add(lineTotal);
+            productIds.add(lineRequest.getProductId());
+        }
+        Map<UUID, ProductResponse> products = productService.getProductsByIds(productIds);
+        if (products.size() < productIds.size()) {
+            List<UUID> missing = productIds.stream()
+                .filter(productId -> !products.containsKey(productId))
+                .collect(Collectors.toList());
+            throw new EntityNotFoundException("Products not found with ids: " + missing);
+        }
+
+        // Calculate total in exact cents; each product's price is converted once however many lines it has
+        Map<UUID, Money> prices = new HashMap<>();
+        for (Map.Entry<UUID, ProductResponse> product : products.entrySet()) {
+            prices.put(product.getKey(), Money.of(product.getValue().getPrice()));
+        }
+        try {
+            for (OrderLineRequest lineRequest : request.getOrderLines()) {
+                Money price = prices.get(lineRequest.getProductId());
+                totalAmount = totalAmount.plus(price.times(lineRequest.getQuantity()));
+
+                OrderLine orderLine = new OrderLine();
+                orderLine.setProductId(lineRequest.getProductId());
+                orderLine.setQuantity(lineRequest.getQuantity());
+                orderLine.setPrice(price);
+                orderLines.add(orderLine);
+            }
+        } catch (ArithmeticException e) {
+            throw new BusinessException("Order total is out of range");
+        }
+
+        // Phase 1: reserve inventory for all products at once, merging duplicate lines; commits on its own
+        Map<UUID, Integer> quantities = new HashMap<>();
+        for (OrderLineRequest lineRequest : request.getOrderLines()) {
+            quantities.merge(lineRequest.getProductId(), lineRequest.getQuantity(), Integer::sum);
+        }
+        inventoryService.reserveAll(quantities);
+
+        // Phase 2: persist the order, its lines and initial status history in one short transaction
+        try {
+            Money orderTotal = totalAmount;
+            Order savedOrder = new TransactionTemplate(transactionManager)
+                .execute(status -> persistOrder(request, orderTotal, orderLines, asyncCheckout));
+            return new Checkout(savedOrder, orderLines, quantities, orderTotal);
+        } catch (RuntimeException e) {
+            releaseReservation(quantities, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Phase 3 of an asynchronous checkout, run on the checkout pool. Recording the outcome is retried up to
+     * {@code order.checkout.completion-attempts} times; after that the order is left to {@link CheckoutReconciler}.
+     */
+    private void completeCheckout(Checkout checkout) {
+        Order order = checkout.order;
+        boolean paid;
+        try {
+            UUID paymentId = billingAdapter.createPayment(order.getId(), checkout.totalAmount.toBigDecimal());
+            paid = billingAdapter.getPaymentStatus(paymentId) == PaymentStatus.SUCCESS;
+        } catch (RuntimeException e) {
+            logger.warn("Payment for order {} failed", order.getId(), e);
+            paid = false;
+        }
+
+        OrderStatus outcome = paid ? OrderStatus.CONFIRMED : OrderStatus.CANCELLED;
+        String detail = paid ? null : "payment failed";
+        for (int attempt = 1; ; attempt++) {
+            try {
+                finishCheckout(order.getId(), checkout.quantities, outcome, detail);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= completionAttempts) {
+                    logger.error("Could not complete checkout of order {} as {} after {} attempts",
+                        order.getId(), outcome, attempt, e);
+                    return;
+                }
+                logger.warn("Could not complete checkout of order {} as {} (attempt {})",
+                    order.getId(), outcome, attempt, e);
+            }
+            try {
+                Thread.sleep(completionBackoffMs * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Records the outcome of a PENDING checkout in one transaction. A cancelled checkout releases its stock in the
+     * same transaction, so a failed attempt leaves both the reservation and the order untouched for a retry.
+     * @return Whether the order moved to outcome; false when it had already left PENDING
+     */
+    private boolean finishCheckout(UUID orderId, Map<UUID, Integer> quantities, OrderStatus outcome, String detail) {
+        Boolean moved = new TransactionTemplate(transactionManager).execute(status -> {
+            Order order = lockPendingOrder(orderId);
+            if (order == null) {
+                return false;
+            }
+            if (outcome == OrderStatus.CANCELLED) {
+                inventoryService.releaseAll(quantities);
+            }
+            moveToStatus(order, outcome, detail);
+            return true;
+        });
+        return Boolean.TRUE.equals(moved);
+    }
+
+    /**
+     * Settles an asynchronous checkout nobody finished. Runs in one transaction with the order locked, so it cannot
+     * interleave with a late {@link #finishCheckout} or an admin status change. Other PENDING orders, such as
+     * synchronous checkouts or orders imported without a checkout, reserved nothing this code could release and
+     * are left to the status API.
+     */
+    @Override
+    public OrderStatus reconcileCheckout(UUID orderId) {
+        Order order = lockPendingOrder(orderId);
+        if (order == null) {
+            return null;
+        }
+        if (!order.isAsyncCheckout()) {
+            logger.warn("Order {} is not an asynchronous checkout, leaving it to the status API", orderId);
+            return null;
+        }
+        if (billingAdapter.isOrderPaid(orderId)) {
+            moveToStatus(order, OrderStatus.CONFIRMED, null);
+            return OrderStatus.CONFIRMED;
+        }
 
-            OrderLine orderLine = new OrderLine();
-            orderLine.setProductId(lineRequest.getProductId());
-            orderLine.setQuantity(lineRequest.getQuantity());
-            orderLine.setPrice(product.getPrice());
-            orderLines.add(orderLine);
+        Map<UUID, Integer> quantities = new HashMap<>();
+        for (OrderLine orderLine : orderLineRepository.findByOrderId(orderId)) {
+            quantities.merge(orderLine.getProductId(), orderLine.getQuantity(), Integer::sum);
         }
+        inventoryService.releaseAll(quantities);
+        moveToStatus(order, OrderStatus.CANCELLED, "checkout abandoned");
+        return OrderStatus.CANCELLED;
+    }
 
-        // Create order first
+    private Order persistOrder(OrderRequest request, Money totalAmount, List<OrderLine> orderLines,
+                               boolean asyncCheckout) {
         Order order = new Order();
         order.setUserId(request.getUserId());
         order.setTotalAmount(totalAmount);
         order.setStatus(OrderStatus.PENDING);
+        order.setAsyncCheckout(asyncCheckout);
         Order savedOrder = orderRepository.save(order);
 
-        // Reserve inventory for each product
-        for (OrderLineRequest lineRequest : request.getOrderLines()) {
-            ReserveRequest reserveRequest = new ReserveRequest();
-            reserveRequest.setQuantity(lineRequest.getQuantity());
-            inventoryService.reserveInventory(lineRequest.getProductId(), reserveRequest);
-        }
-
-        // Create payment record via BillingAdapter
-        UUID paymentId = billingAdapter.createPayment(savedOrder.getId(), totalAmount);
-
-        // Create order lines
+        // Create order lines; they are flushed as one JDBC batch (hibernate.jdbc.batch_size)
         for (OrderLine orderLine : orderLines) {
             orderLine.setOrderId(savedOrder.getId());
-            orderLineRepository.save(orderLine);
         }
+        orderLineRepository.saveAll(orderLines);
 
         // Record initial status history
         OrderStatusHistory history = new OrderStatusHistory();
@@ -162,42 +417,95 @@ public class OrderServiceImpl implements OrderService {
         history.setToStatus(OrderStatus.PENDING);
         orderStatusHistoryRepository.save(history);
 
-        // Publish notification (async stub)
-        try {
-            NotificationRequest notificationRequest = new NotificationRequest();
-            notificationRequest.setUserId(request.getUserId().toString());
-            notificationRequest.setMessage("Order " + savedOrder.getId() + " has been created");
-            notificationRequest.setType("ORDER_CREATED");
-            notificationService.sendNotification(notificationRequest);
-        } catch (Exception e) {
-            // Log but don't fail the order creation
-            // In production, this would be handled by a message queue
+        // The event commits together with the order and is delivered later by the outbox relay
+        orderOutbox.orderCreated(savedOrder);
+        return savedOrder;
+    }
+
+    /**
+     * Locks the order until the surrounding transaction ends, so a concurrent status change waits instead of being
+     * overwritten.
+     * @return The order, or null when it has already left PENDING
+     */
+    private Order lockPendingOrder(UUID orderId) {
+        Order order = orderRepository.findByIdForUpdate(orderId)
+            .orElseThrow(() -> new EntityNotFoundException("Order not found with id: " + orderId));
+        if (order.getStatus() != OrderStatus.PENDING) {
+            logger.warn("Order {} is already {}, its checkout was settled elsewhere", orderId, order.getStatus());
+            return null;
         }
+        return order;
+    }
 
-        ordersCreatedCounter.increment();
+    /**
+     * Moves a locked PENDING order to its checkout outcome.
+     */
+    private void moveToStatus(Order order, OrderStatus newStatus, String detail) {
+        UUID orderId = order.getId();
+        OrderStatusHistory history = new OrderStatusHistory();
+        history.setOrderId(orderId);
+        history.setFromStatus(order.getStatus());
+        history.setToStatus(newStatus);
+        orderStatusHistoryRepository.save(history);
+        orderOutbox.statusChanged(order, order.getStatus(), newStatus, detail);
 
-        // Fetch saved order lines for the response
-        List<OrderLine> savedOrderLines = orderLineRepository.findByOrderId(savedOrder.getId());
-        OrderResponse response = orderMapper.toResponse(savedOrder);
-        response.setOrderLines(orderMapper.toOrderLineResponseList(savedOrderLines));
-        return response;
+        order.setStatus(newStatus);
+        orderRepository.save(order);
+        orderResponseCache.invalidateOnCompletion(orderId);
+    }
+
+    /**
+     * Compensates a committed reservation. A failed release is logged and attached to the original failure,
+     * which is what the caller sees.
+     */
+    private void releaseReservation(Map<UUID, Integer> quantities, RuntimeException cause) {
+        try {
+            inventoryService.releaseAll(quantities);
+        } catch (RuntimeException releaseFailure) {
+            logger.error("Could not release reserved stock {} after checkout failure", quantities, releaseFailure);
+            cause.addSuppressed(releaseFailure);
+        }
     }
 
+    /**
+     * Served from the order cache; only a miss touches the database, so no transaction is opened up front.
+     * A miss loads in a read-write transaction so it reads the primary: a lagging replica could return the status
+     * an invalidation has just removed, and the cache would keep it.
+     */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public OrderResponse getOrderById(UUID id) {
-        Order order = orderRepository.findById(id)
-            .orElseThrow(() -> new EntityNotFoundException("Order not found with id: " + id));
-        List<OrderLine> orderLines = orderLineRepository.findByOrderId(id);
-        OrderResponse response = orderMapper.toResponse(order);
-        response.setOrderLines(orderMapper.toOrderLineResponseList(orderLines));
-        return response;
+        return orderResponseCache.get(id, () -> new TransactionTemplate(transactionManager).execute(status -> {
+            Order order = orderRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Order not found with id: " + id));
+            List<OrderLine> orderLines = orderLineRepository.findByOrderId(id);
+            OrderResponse response = orderMapper.toResponse(order);
+            response.setOrderLines(orderMapper.toOrderLineResponseList(orderLines));
+            return response;
+        }));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public PagedResponse<OrderResponse> getOrders(UUID userId, OrderStatus status, int page, int size) {
+    public PagedResponse<OrderResponse> getOrders(UUID userId, OrderStatus status, int page, int size,
+                                                  CountPolicy countPolicy) {
+        requireValidPageSize(size);
         Pageable pageable = PageRequest.of(page, size);
+        if (countPolicy != null && countPolicy != CountPolicy.EXACT) {
+            Slice<Order> orderSlice = findOrderSlice(userId, status, pageable);
+            long totalElements = countPolicy == CountPolicy.ESTIMATED && orderSlice.hasNext()
+                ? estimateOrderCount(userId, status)
+                : PagedResponse.UNKNOWN_TOTAL;
+            return PagedResponse.ofSlice(
+                toResponsesWithLines(orderSlice.getContent()),
+                page,
+                size,
+                orderSlice.hasNext(),
+                totalElements,
+                countPolicy
+            );
+        }
+
         Page<Order> orderPage;
         
         // Handle query conditionally to avoid PostgreSQL enum parameter type inference issues
@@ -218,14 +526,7 @@ public class OrderServiceImpl implements OrderService {
         }
         
         return new PagedResponse<>(
-            orderPage.getContent().stream()
-                .map(order -> {
-                    List<OrderLine> orderLines = orderLineRepository.findByOrderId(order.getId());
-                    OrderResponse response = orderMapper.toResponse(order);
-                    response.setOrderLines(orderMapper.toOrderLineResponseList(orderLines));
-                    return response;
-                })
-                .collect(Collectors.toList()),
+            toResponsesWithLines(orderPage.getContent()),
             orderPage.getNumber(),
             orderPage.getSize(),
             orderPage.getTotalElements(),
@@ -233,9 +534,107 @@ public class OrderServiceImpl implements OrderService {
         );
     }
 
+    private Slice<Order> findOrderSlice(UUID userId, OrderStatus status, Pageable pageable) {
+        if (userId != null && status != null) {
+            return orderRepository.findSliceByUserIdAndStatus(userId, status, pageable);
+        } else if (userId != null) {
+            return orderRepository.findSliceByUserId(userId, pageable);
+        } else if (status != null) {
+            return orderRepository.findSliceByStatus(status, pageable);
+        }
+        return orderRepository.findSliceBy(pageable);
+    }
+
+    private long estimateOrderCount(UUID userId, OrderStatus status) {
+        if (userId == null && status == null) {
+            Long estimate = orderRepository.estimateRowCount();
+            if (estimate != null && estimate > 0) {
+                return estimate;
+            }
+        }
+        return countCache.get("orders:" + userId + ":" + status, () -> {
+            if (userId != null && status != null) {
+                return orderRepository.countByUserIdAndStatus(userId, status);
+            } else if (userId != null) {
+                return orderRepository.countByUserId(userId);
+            } else if (status != null) {
+                return orderRepository.countByStatus(status);
+            }
+            return orderRepository.count();
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PagedResponse<OrderResponse> getOrdersAfter(UUID userId, OrderStatus status, String cursor, int size) {
+        requireValidPageSize(size);
+        Date afterCreatedAt = null;
+        UUID afterId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            afterCreatedAt = Timestamp.from(position.getTimestamp());
+            afterId = position.getId();
+        }
+
+        // One extra row tells whether another page exists without counting
+        List<Order> orders = orderRepository.findPageAfter(userId, status, afterCreatedAt, afterId, size + 1);
+        boolean hasMore = orders.size() > size;
+        if (hasMore) {
+            orders = orders.subList(0, size);
+        }
+
+        PagedResponse<OrderResponse> response = new PagedResponse<>(
+            toResponsesWithLines(orders),
+            0,
+            size,
+            PagedResponse.UNKNOWN_TOTAL,
+            PagedResponse.UNKNOWN_TOTAL
+        );
+        if (hasMore) {
+            Order last = orders.get(orders.size() - 1);
+            response.setNextCursor(new KeysetCursor(toInstant(last.getCreatedAt()), last.getId()).encode());
+        }
+        return response;
+    }
+
+    private static void requireValidPageSize(int size) {
+        if (size < 1) {
+            throw new BusinessException("Page size must be at least 1, was " + size);
+        }
+    }
+
+    private static Instant toInstant(Date date) {
+        // java.sql.Timestamp keeps the database's sub-millisecond precision; Date.toInstant would drop it
+        return date instanceof Timestamp ? ((Timestamp) date).toInstant() : date.toInstant();
+    }
+
+    /**
+     * Maps a page of orders to responses, loading the lines of every order in one projected query.
+     */
+    private List<OrderResponse> toResponsesWithLines(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<UUID> orderIds = orders.stream()
+            .map(Order::getId)
+            .collect(Collectors.toList());
+        Map<String, List<OrderLineResponse>> linesByOrderId =
+            orderLineRepository.findResponsesByOrderIdIn(orderIds).stream()
+                .collect(Collectors.groupingBy(OrderLineResponse::getOrderId));
+
+        List<OrderResponse> responses = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            OrderResponse response = orderMapper.toResponse(order);
+            response.setOrderLines(linesByOrderId.getOrDefault(order.getId().toString(), new ArrayList<>()));
+            responses.add(response);
+        }
+        return responses;
+    }
+
     @Override
     public OrderResponse changeOrderStatus(UUID orderId, OrderStatusChangeRequest request) {
-        Order order = orderRepository.findById(orderId)
+        // Locked so the transition is validated against the status it replaces
+        Order order = orderRepository.findByIdForUpdate(orderId)
             .orElseThrow(() -> new EntityNotFoundException("Order not found with id: " + orderId));
 
         OrderStatus currentStatus = order.getStatus();
@@ -254,9 +653,12 @@ public class OrderServiceImpl implements OrderService {
         history.setFromStatus(currentStatus);
         history.setToStatus(newStatus);
         orderStatusHistoryRepository.save(history);
+        orderOutbox.statusChanged(order, currentStatus, newStatus, null);
 
         order.setStatus(newStatus);
         Order updatedOrder = orderRepository.save(order);
+        // Cached copies go once this transaction commits, so no reader can re-cache the old status
+        orderResponseCache.invalidateOnCompletion(orderId);
 
         List<OrderLine> orderLines = orderLineRepository.findByOrderId(orderId);
         OrderResponse response = orderMapper.toResponse(updatedOrder);
@@ -264,6 +666,20 @@ public class OrderServiceImpl implements OrderService {
         return response;
     }
 
+    private static final class Checkout {
+        private final Order order;
+        private final List<OrderLine> orderLines;
+        private final Map<UUID, Integer> quantities;
+        private final Money totalAmount;
+
+        private Checkout(Order order, List<OrderLine> orderLines, Map<UUID, Integer> quantities, Money totalAmount) {
+            this.order = order;
+            this.orderLines = orderLines;
+            this.quantities = quantities;
+            this.totalAmount = totalAmount;
+        }
+    }
+
     private boolean isValidStatusTransition(OrderStatus from, OrderStatus to) {
         if (from == null) {
             return to == OrderStatus.PENDING;
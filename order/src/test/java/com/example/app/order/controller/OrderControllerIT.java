@@ -1,5 +1,6 @@
 package com.example.app.order.controller;
 
+import com.example.app.common.money.Money;
 import com.example.app.inventory.entity.Inventory;
 import com.example.app.inventory.repository.InventoryRepository;
 import com.example.app.order.domain.OrderLineRequest;
@@ -168,7 +169,7 @@ class OrderControllerIT {
         // Create order via repository for testing
         Order order = new Order();
         order.setUserId(user.getId());
-        order.setTotalAmount(new BigDecimal("199.98"));
+        order.setTotalAmount(Money.of(new BigDecimal("199.98")));
         order.setStatus(OrderStatus.PENDING);
         Order saved = orderRepository.save(order);
 
@@ -191,13 +192,13 @@ class OrderControllerIT {
         // Create multiple orders
         Order order1 = new Order();
         order1.setUserId(user.getId());
-        order1.setTotalAmount(new BigDecimal("99.99"));
+        order1.setTotalAmount(Money.of(new BigDecimal("99.99")));
         order1.setStatus(OrderStatus.PENDING);
         orderRepository.save(order1);
 
         Order order2 = new Order();
         order2.setUserId(user.getId());
-        order2.setTotalAmount(new BigDecimal("199.99"));
+        order2.setTotalAmount(Money.of(new BigDecimal("199.99")));
         order2.setStatus(OrderStatus.CONFIRMED);
         orderRepository.save(order2);
 
@@ -224,7 +225,7 @@ class OrderControllerIT {
     void testChangeOrderStatus_Success() throws Exception {
         Order order = new Order();
         order.setUserId(user.getId());
-        order.setTotalAmount(new BigDecimal("99.99"));
+        order.setTotalAmount(Money.of(new BigDecimal("99.99")));
         order.setStatus(OrderStatus.PENDING);
         Order saved = orderRepository.save(order);
 
@@ -247,7 +248,7 @@ class OrderControllerIT {
     void testChangeOrderStatus_InvalidTransition() throws Exception {
         Order order = new Order();
         order.setUserId(user.getId());
-        order.setTotalAmount(new BigDecimal("99.99"));
+        order.setTotalAmount(Money.of(new BigDecimal("99.99")));
         order.setStatus(OrderStatus.DELIVERED); // Terminal state
         Order saved = orderRepository.save(order);
 
@@ -1,10 +1,16 @@
 package com.example.app.order.controller;
 
+import com.example.app.common.dto.CountPolicy;
 import com.example.app.common.dto.PagedResponse;
+import com.example.app.common.exception.BusinessException;
+import com.example.app.common.idempotency.IdempotencyService;
+import com.example.app.common.money.Money;
+import com.example.app.order.domain.OrderExportFormat;
 import com.example.app.order.domain.OrderRequest;
 import com.example.app.order.domain.OrderStatusChangeRequest;
 import com.example.app.order.dto.OrderResponse;
 import com.example.app.order.entity.OrderStatus;
+import com.example.app.order.service.OrderExporter;
 import com.example.app.order.service.OrderService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,11 +19,21 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -30,6 +46,12 @@ class OrderControllerTest {
     @MockBean
     private OrderService orderService;
 
+    @MockBean
+    private OrderExporter orderExporter;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     @Autowired
     private OrderController orderController;
 
@@ -51,10 +73,14 @@ class OrderControllerTest {
         orderResponse.setId(orderId.toString());
         orderResponse.setUserId(userId.toString());
         orderResponse.setStatus(OrderStatus.PENDING);
-        orderResponse.setTotalAmount(new BigDecimal("99.99"));
+        orderResponse.setTotalAmount(Money.of(new BigDecimal("99.99")));
 
         statusChangeRequest = new OrderStatusChangeRequest();
         statusChangeRequest.setStatus(OrderStatus.CONFIRMED);
+
+        // Without a stored response the idempotency layer just runs the request
+        doAnswer(invocation -> ((Supplier<?>) invocation.getArgument(4)).get())
+            .when(idempotencyService).execute(any(), any(), any(), any(), any());
     }
 
     @Test
@@ -63,7 +89,7 @@ class OrderControllerTest {
         when(orderService.createOrder(any(OrderRequest.class))).thenReturn(orderResponse);
 
         // Act
-        ResponseEntity<OrderResponse> response = orderController.createOrder(orderRequest);
+        ResponseEntity<OrderResponse> response = orderController.createOrder(orderRequest, null, null);
 
         // Assert
         assertNotNull(response);
@@ -75,6 +101,35 @@ class OrderControllerTest {
         verify(orderService).createOrder(any(OrderRequest.class));
     }
 
+    @Test
+    void testCreateOrder_PreferAsync_ReturnsAccepted() {
+        // Arrange
+        when(orderService.createOrderAsync(any(OrderRequest.class))).thenReturn(orderResponse);
+
+        // Act
+        ResponseEntity<OrderResponse> response = orderController.createOrder(orderRequest, "respond-async, wait=5", null);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/api/v1/orders/" + orderId, response.getHeaders().getLocation().toString());
+        assertEquals(OrderStatus.PENDING, response.getBody().getStatus());
+        verify(orderService, never()).createOrder(any(OrderRequest.class));
+    }
+
+    @Test
+    void testCreateOrder_WithIdempotencyKey_UsesOrdersScope() {
+        // Arrange
+        when(orderService.createOrder(any(OrderRequest.class))).thenReturn(orderResponse);
+
+        // Act
+        ResponseEntity<OrderResponse> response = orderController.createOrder(orderRequest, null, "retry-1");
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        verify(idempotencyService).execute(eq("retry-1"), eq("orders"), eq(orderRequest),
+            eq(OrderResponse.class), any());
+    }
+
     @Test
     void testGetOrderById_Success_ReturnsOk() {
         // Arrange
@@ -100,11 +155,12 @@ class OrderControllerTest {
         pagedResponse.setTotalElements(1);
         pagedResponse.setTotalPages(1);
 
-        when(orderService.getOrders(eq(null), eq(null), eq(0), eq(20))).thenReturn(pagedResponse);
+        when(orderService.getOrders(eq(null), eq(null), eq(0), eq(20), eq(CountPolicy.EXACT)))
+            .thenReturn(pagedResponse);
 
         // Act
         ResponseEntity<PagedResponse<OrderResponse>> response = 
-            orderController.getOrders(null, null, 0, 20);
+            orderController.getOrders(null, null, 0, 20, null, CountPolicy.EXACT);
 
         // Assert
         assertNotNull(response);
@@ -112,7 +168,7 @@ class OrderControllerTest {
         assertNotNull(response.getBody());
         assertEquals(1, response.getBody().getContent().size());
 
-        verify(orderService).getOrders(eq(null), eq(null), eq(0), eq(20));
+        verify(orderService).getOrders(eq(null), eq(null), eq(0), eq(20), eq(CountPolicy.EXACT));
     }
 
     @Test
@@ -123,18 +179,19 @@ class OrderControllerTest {
         pagedResponse.setTotalElements(1);
         pagedResponse.setTotalPages(1);
 
-        when(orderService.getOrders(eq(userId), eq(null), eq(0), eq(20))).thenReturn(pagedResponse);
+        when(orderService.getOrders(eq(userId), eq(null), eq(0), eq(20), eq(CountPolicy.EXACT)))
+            .thenReturn(pagedResponse);
 
         // Act
         ResponseEntity<PagedResponse<OrderResponse>> response = 
-            orderController.getOrders(userId, null, 0, 20);
+            orderController.getOrders(userId, null, 0, 20, null, CountPolicy.EXACT);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
 
-        verify(orderService).getOrders(eq(userId), eq(null), eq(0), eq(20));
+        verify(orderService).getOrders(eq(userId), eq(null), eq(0), eq(20), eq(CountPolicy.EXACT));
     }
 
     @Test
@@ -145,19 +202,19 @@ class OrderControllerTest {
         pagedResponse.setTotalElements(1);
         pagedResponse.setTotalPages(1);
 
-        when(orderService.getOrders(eq(null), eq(OrderStatus.PENDING), eq(0), eq(20)))
+        when(orderService.getOrders(eq(null), eq(OrderStatus.PENDING), eq(0), eq(20), eq(CountPolicy.EXACT)))
             .thenReturn(pagedResponse);
 
         // Act
         ResponseEntity<PagedResponse<OrderResponse>> response = 
-            orderController.getOrders(null, OrderStatus.PENDING, 0, 20);
+            orderController.getOrders(null, OrderStatus.PENDING, 0, 20, null, CountPolicy.EXACT);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
 
-        verify(orderService).getOrders(eq(null), eq(OrderStatus.PENDING), eq(0), eq(20));
+        verify(orderService).getOrders(eq(null), eq(OrderStatus.PENDING), eq(0), eq(20), eq(CountPolicy.EXACT));
     }
 
     @Test
@@ -168,19 +225,116 @@ class OrderControllerTest {
         pagedResponse.setTotalElements(1);
         pagedResponse.setTotalPages(1);
 
-        when(orderService.getOrders(eq(userId), eq(OrderStatus.PENDING), eq(0), eq(20)))
+        when(orderService.getOrders(eq(userId), eq(OrderStatus.PENDING), eq(0), eq(20), eq(CountPolicy.EXACT)))
             .thenReturn(pagedResponse);
 
         // Act
         ResponseEntity<PagedResponse<OrderResponse>> response = 
-            orderController.getOrders(userId, OrderStatus.PENDING, 0, 20);
+            orderController.getOrders(userId, OrderStatus.PENDING, 0, 20, null, CountPolicy.EXACT);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
 
-        verify(orderService).getOrders(eq(userId), eq(OrderStatus.PENDING), eq(0), eq(20));
+        verify(orderService).getOrders(eq(userId), eq(OrderStatus.PENDING), eq(0), eq(20), eq(CountPolicy.EXACT));
+    }
+
+    @Test
+    void testGetOrders_WithCursor_UsesKeysetPaging() {
+        // Arrange
+        PagedResponse<OrderResponse> pagedResponse = new PagedResponse<>();
+        pagedResponse.setContent(java.util.Collections.singletonList(orderResponse));
+        pagedResponse.setNextCursor("next");
+
+        when(orderService.getOrdersAfter(eq(userId), eq(null), eq(""), eq(20))).thenReturn(pagedResponse);
+
+        // Act
+        ResponseEntity<PagedResponse<OrderResponse>> response =
+            orderController.getOrders(userId, null, 0, 20, "", CountPolicy.EXACT);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("next", response.getBody().getNextCursor());
+
+        verify(orderService).getOrdersAfter(eq(userId), eq(null), eq(""), eq(20));
+        verify(orderService, never()).getOrders(any(), any(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void testExportOrders_Gzip_StreamsCompressedBody() throws Exception {
+        // Arrange
+        Instant from = Instant.parse("2024-01-01T00:00:00Z");
+        Instant to = Instant.parse("2024-02-01T00:00:00Z");
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(5);
+            out.write("{\"id\":\"1\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(orderExporter).export(eq(userId), eq(null), eq(from), eq(to), eq(OrderExportFormat.NDJSON),
+            any(OutputStream.class));
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = orderController.exportOrders(
+            userId, null, from, to, OrderExportFormat.NDJSON, "gzip, deflate");
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        response.getBody().writeTo(body);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()))) {
+            assertEquals("{\"id\":\"1\"}\n", StreamUtils.copyToString(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testExportOrders_Csv_WithoutGzip() throws Exception {
+        // Act
+        ResponseEntity<StreamingResponseBody> response = orderController.exportOrders(
+            null, OrderStatus.DELIVERED, null, null, OrderExportFormat.CSV, null);
+        response.getBody().writeTo(new ByteArrayOutputStream());
+
+        // Assert
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("attachment; filename=\"orders.csv\"",
+            response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        verify(orderExporter).export(eq(null), eq(OrderStatus.DELIVERED), eq(null), eq(null),
+            eq(OrderExportFormat.CSV), any(OutputStream.class));
+    }
+
+    @Test
+    void testExportOrders_RefusedGzipIsNotUsed() throws Exception {
+        // Act
+        ResponseEntity<StreamingResponseBody> response = orderController.exportOrders(
+            null, null, null, null, OrderExportFormat.NDJSON, "gzip;q=0, identity");
+        response.getBody().writeTo(new ByteArrayOutputStream());
+
+        // Assert
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        verify(orderExporter).export(eq(null), eq(null), eq(null), eq(null), eq(OrderExportFormat.NDJSON),
+            any(ByteArrayOutputStream.class));
+    }
+
+    @Test
+    void testAcceptsGzip_HonoursTokensAndQualities() {
+        assertTrue(OrderController.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(OrderController.acceptsGzip("br, *"));
+        assertFalse(OrderController.acceptsGzip("gzip;q=0"));
+        assertFalse(OrderController.acceptsGzip("gzip; q=0.000, *"));
+        assertFalse(OrderController.acceptsGzip("x-gzip"));
+        assertFalse(OrderController.acceptsGzip("*;q=0"));
+        assertFalse(OrderController.acceptsGzip("gzip;q=abc"));
+        assertFalse(OrderController.acceptsGzip(null));
+    }
+
+    @Test
+    void testExportOrders_InvalidRange_ThrowsException() {
+        Instant from = Instant.parse("2024-02-01T00:00:00Z");
+
+        assertThrows(BusinessException.class, () ->
+            orderController.exportOrders(null, null, from, from, OrderExportFormat.NDJSON, null));
+        verifyNoInteractions(orderExporter);
     }
 
     @Test
@@ -1,5 +1,6 @@
 package com.example.app.order.mapper;
 
+import com.example.app.common.money.Money;
 import com.example.app.order.dto.OrderLineResponse;
 import com.example.app.order.dto.OrderResponse;
 import com.example.app.order.entity.Order;
@@ -39,7 +40,7 @@ class OrderMapperTest {
         order = new Order();
         order.setId(orderId);
         order.setUserId(userId);
-        order.setTotalAmount(new BigDecimal("199.98"));
+        order.setTotalAmount(Money.of(new BigDecimal("199.98")));
         order.setStatus(OrderStatus.PENDING);
         Date createdAt = new Date();
         Date updatedAt = new Date();
@@ -51,7 +52,7 @@ class OrderMapperTest {
         orderLine.setOrderId(orderId);
         orderLine.setProductId(productId);
         orderLine.setQuantity(2);
-        orderLine.setPrice(new BigDecimal("99.99"));
+        orderLine.setPrice(Money.of(new BigDecimal("99.99")));
     }
 
     @Test
@@ -63,7 +64,7 @@ class OrderMapperTest {
         assertNotNull(response);
         assertEquals(orderId.toString(), response.getId());
         assertEquals(userId.toString(), response.getUserId());
-        assertEquals(new BigDecimal("199.98"), response.getTotalAmount());
+        assertEquals(Money.of(new BigDecimal("199.98")), response.getTotalAmount());
         assertEquals(OrderStatus.PENDING, response.getStatus());
         assertNotNull(response.getCreatedAt());
         assertNotNull(response.getUpdatedAt());
@@ -97,7 +98,7 @@ class OrderMapperTest {
         assertEquals(orderId.toString(), response.getOrderId());
         assertEquals(productId.toString(), response.getProductId());
         assertEquals(2, response.getQuantity());
-        assertEquals(new BigDecimal("99.99"), response.getPrice());
+        assertEquals(Money.of(new BigDecimal("99.99")), response.getPrice());
     }
 
     @Test
@@ -111,7 +112,7 @@ class OrderMapperTest {
         orderLine2.setOrderId(orderId);
         orderLine2.setProductId(UUID.randomUUID());
         orderLine2.setQuantity(1);
-        orderLine2.setPrice(new BigDecimal("50.00"));
+        orderLine2.setPrice(Money.of(new BigDecimal("50.00")));
         orderLines.add(orderLine2);
 
         // Act
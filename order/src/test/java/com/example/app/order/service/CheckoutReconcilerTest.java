@@ -0,0 +1,87 @@
+package com.example.app.order.service;
+
+import com.example.app.order.entity.OrderStatus;
+import com.example.app.order.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CheckoutReconcilerTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderService orderService;
+
+    private CheckoutReconciler reconciler;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reconciler = new CheckoutReconciler(meterRegistry);
+        reconciler.setOrderRepository(orderRepository);
+        reconciler.setOrderService(orderService);
+        reconciler.setStaleAfterMs(60000);
+        reconciler.setBatchSize(3);
+    }
+
+    @Test
+    void testReconcile_SettlesStalePendingOrdersOneByOne() {
+        UUID paid = UUID.randomUUID();
+        UUID abandoned = UUID.randomUUID();
+        UUID settledMeanwhile = UUID.randomUUID();
+        when(orderRepository.findAsyncCheckoutIdsByStatusCreatedBefore(
+                eq(OrderStatus.PENDING), any(Date.class), any(Pageable.class)))
+            .thenReturn(Arrays.asList(paid, abandoned, settledMeanwhile));
+        when(orderService.reconcileCheckout(paid)).thenReturn(OrderStatus.CONFIRMED);
+        when(orderService.reconcileCheckout(abandoned)).thenReturn(OrderStatus.CANCELLED);
+        when(orderService.reconcileCheckout(settledMeanwhile)).thenReturn(null);
+        long before = System.currentTimeMillis();
+
+        int settled = reconciler.reconcile();
+
+        assertEquals(2, settled);
+        ArgumentCaptor<Date> staleBefore = ArgumentCaptor.forClass(Date.class);
+        ArgumentCaptor<Pageable> page = ArgumentCaptor.forClass(Pageable.class);
+        verify(orderRepository).findAsyncCheckoutIdsByStatusCreatedBefore(eq(OrderStatus.PENDING),
+            staleBefore.capture(), page.capture());
+        assertTrue(staleBefore.getValue().getTime() <= before - 60000 + 1000);
+        assertEquals(3, page.getValue().getPageSize());
+        assertEquals(1.0, meterRegistry.counter("orders.checkout.reconciled", "outcome", "confirmed").count());
+        assertEquals(1.0, meterRegistry.counter("orders.checkout.reconciled", "outcome", "cancelled").count());
+    }
+
+    @Test
+    void testReconcile_FailedOrderDoesNotStopTheBatch() {
+        UUID failing = UUID.randomUUID();
+        UUID healthy = UUID.randomUUID();
+        when(orderRepository.findAsyncCheckoutIdsByStatusCreatedBefore(
+                eq(OrderStatus.PENDING), any(Date.class), any(Pageable.class)))
+            .thenReturn(Arrays.asList(failing, healthy));
+        when(orderService.reconcileCheckout(failing)).thenThrow(new IllegalStateException("inventory down"));
+        when(orderService.reconcileCheckout(healthy)).thenReturn(OrderStatus.CANCELLED);
+
+        int settled = reconciler.reconcile();
+
+        assertEquals(1, settled);
+        assertEquals(1.0, meterRegistry.counter("orders.checkout.reconciled", "outcome", "failed").count());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.app.order.service;
+
+import com.example.app.notifications.domain.NotificationRequest;
+import com.example.app.notifications.service.NotificationService;
+import com.example.app.order.entity.OrderEventType;
+import com.example.app.order.entity.OrderOutboxEvent;
+import com.example.app.order.entity.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationOrderEventHandlerTest {
+
+    @Mock
+    private NotificationService notificationService;
+
+    private NotificationOrderEventHandler handler;
+    private OrderOutboxEvent event;
+
+    @BeforeEach
+    void setUp() {
+        handler = new NotificationOrderEventHandler();
+        handler.setNotificationService(notificationService);
+
+        event = new OrderOutboxEvent();
+        event.setOrderId(UUID.randomUUID());
+        event.setUserId(UUID.randomUUID());
+    }
+
+    @Test
+    void testHandle_OrderCreated() {
+        event.setEventType(OrderEventType.ORDER_CREATED);
+        event.setToStatus(OrderStatus.PENDING);
+
+        handler.handle(event);
+
+        NotificationRequest request = captureRequest();
+        assertEquals("ORDER_CREATED", request.getType());
+        assertEquals(event.getUserId().toString(), request.getUserId());
+        assertEquals("Order " + event.getOrderId() + " has been created", request.getMessage());
+    }
+
+    @Test
+    void testHandle_StatusChangeWithDetail() {
+        event.setEventType(OrderEventType.ORDER_STATUS_CHANGED);
+        event.setFromStatus(OrderStatus.PENDING);
+        event.setToStatus(OrderStatus.CANCELLED);
+        event.setDetail("payment failed");
+
+        handler.handle(event);
+
+        NotificationRequest request = captureRequest();
+        assertEquals("ORDER_CANCELLED", request.getType());
+        assertEquals("Order " + event.getOrderId() + " is now CANCELLED (payment failed)", request.getMessage());
+    }
+
+    private NotificationRequest captureRequest() {
+        ArgumentCaptor<NotificationRequest> captor = ArgumentCaptor.forClass(NotificationRequest.class);
+        verify(notificationService).sendNotification(captor.capture());
+        return captor.getValue();
+    }
+}
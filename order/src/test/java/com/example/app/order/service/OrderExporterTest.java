@@ -0,0 +1,155 @@
+package com.example.app.order.service;
+
+import com.example.app.order.domain.OrderExportFormat;
+import com.example.app.order.entity.OrderStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExporterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderExporter orderExporter;
+    private MeterRegistry meterRegistry;
+    private ObjectMapper objectMapper;
+
+    private final UUID firstOrderId = UUID.randomUUID();
+    private final UUID secondOrderId = UUID.randomUUID();
+    private final UUID userId = UUID.randomUUID();
+    private final Instant createdAt = Instant.parse("2024-03-01T12:00:00Z");
+    private final List<ResultSet> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        orderExporter = new OrderExporter(meterRegistry);
+        orderExporter.setJdbcTemplate(jdbcTemplate);
+        orderExporter.setTransactionManager(transactionManager);
+        orderExporter.setObjectMapper(objectMapper);
+
+        rows.add(row(firstOrderId, UUID.randomUUID(), 2));
+        rows.add(row(firstOrderId, UUID.randomUUID(), 1));
+        rows.add(row(secondOrderId, null, 0));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (ResultSet row : rows) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void testExport_Ndjson_GroupsLinesPerOrder() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = orderExporter.export(null, null, null, null, OrderExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8.name()).split("\n");
+        assertEquals(2, exported);
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(firstOrderId.toString(), first.get("id").asText());
+        assertEquals(2, first.get("orderLines").size());
+        assertEquals("2024-03-01T12:00:00Z", first.get("createdAt").asText());
+        assertEquals(0, objectMapper.readTree(lines[1]).get("orderLines").size());
+        assertEquals(2.0, meterRegistry.counter("orders.exported").count());
+    }
+
+    @Test
+    void testExport_Csv_WritesOneRowPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = orderExporter.export(null, null, null, null, OrderExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8.name()).split("\n");
+        assertEquals(2, exported);
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("order_id,user_id,status"));
+        assertTrue(lines[1].startsWith(firstOrderId + "," + userId + ",CONFIRMED,50.00,2024-03-01T12:00:00Z"));
+        assertTrue(lines[3].endsWith(",,,,"));
+        assertEquals(10, lines[3].split(",", -1).length);
+    }
+
+    @Test
+    void testExport_BindsFiltersOnForwardOnlyCursor() throws Exception {
+        orderExporter.setFetchSize(250);
+        Instant from = Instant.parse("2024-01-01T00:00:00Z");
+        Instant to = Instant.parse("2024-02-01T00:00:00Z");
+
+        orderExporter.export(userId, OrderStatus.SHIPPED, from, to, OrderExportFormat.NDJSON,
+            new ByteArrayOutputStream());
+
+        org.mockito.ArgumentCaptor<PreparedStatementCreator> creator =
+            org.mockito.ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate).query(creator.capture(), any(RowCallbackHandler.class));
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+
+        creator.getValue().createPreparedStatement(connection);
+
+        verify(connection).prepareStatement(
+            contains("o.user_id = ? AND o.status = ? AND o.created_at >= ? AND o.created_at < ?"),
+            eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY));
+        verify(statement).setFetchSize(250);
+        verify(statement).setObject(1, userId);
+        verify(statement).setObject(2, "SHIPPED");
+        verify(statement).setObject(3, Timestamp.from(from));
+        verify(statement).setObject(4, Timestamp.from(to));
+    }
+
+    private ResultSet row(UUID orderId, UUID lineId, int quantity) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        lenient().when(rs.getObject(1, UUID.class)).thenReturn(orderId);
+        lenient().when(rs.getObject(2, UUID.class)).thenReturn(userId);
+        lenient().when(rs.getString(3)).thenReturn("CONFIRMED");
+        lenient().when(rs.getBigDecimal(4)).thenReturn(new BigDecimal("50.00"));
+        lenient().when(rs.getTimestamp(5)).thenReturn(Timestamp.from(createdAt));
+        lenient().when(rs.getTimestamp(6)).thenReturn(Timestamp.from(createdAt));
+        lenient().when(rs.getObject(7, UUID.class)).thenReturn(lineId);
+        lenient().when(rs.getObject(8, UUID.class)).thenReturn(UUID.randomUUID());
+        lenient().when(rs.getInt(9)).thenReturn(quantity);
+        lenient().when(rs.getBigDecimal(10)).thenReturn(new BigDecimal("25.00"));
+        return rs;
+    }
+}
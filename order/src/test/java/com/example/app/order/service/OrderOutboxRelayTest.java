@@ -0,0 +1,110 @@
+package com.example.app.order.service;
+
+import com.example.app.order.entity.OrderEventType;
+import com.example.app.order.entity.OrderOutboxEvent;
+import com.example.app.order.entity.OrderStatus;
+import com.example.app.order.repository.OrderOutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderOutboxRelayTest {
+
+    @Mock
+    private OrderOutboxEventRepository orderOutboxEventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private OrderEventHandler firstHandler;
+
+    @Mock
+    private OrderEventHandler secondHandler;
+
+    private OrderOutboxRelay relay;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OrderOutboxRelay(meterRegistry);
+        relay.setOrderOutboxEventRepository(orderOutboxEventRepository);
+        relay.setTransactionManager(transactionManager);
+        relay.setHandlers(Arrays.asList(firstHandler, secondHandler));
+        relay.setBatchSize(2);
+        relay.setMaxAttempts(5);
+    }
+
+    @Test
+    void testRelayBatch_DeliversToEveryHandlerAndMarksPublished() {
+        OrderOutboxEvent event = createEvent();
+        when(orderOutboxEventRepository.lockNextBatch(2, 5)).thenReturn(Collections.singletonList(event));
+
+        int delivered = relay.relayBatch();
+
+        assertEquals(1, delivered);
+        assertNotNull(event.getPublishedAt());
+        verify(firstHandler).handle(event);
+        verify(secondHandler).handle(event);
+        verify(orderOutboxEventRepository).saveAll(Collections.singletonList(event));
+        assertEquals(1.0, meterRegistry.counter("orders.outbox.published").count());
+    }
+
+    @Test
+    void testRelayBatch_FailedEventStaysQueuedWithAttemptRecorded() {
+        OrderOutboxEvent failing = createEvent();
+        OrderOutboxEvent healthy = createEvent();
+        when(orderOutboxEventRepository.lockNextBatch(2, 5)).thenReturn(Arrays.asList(failing, healthy));
+        doThrow(new IllegalStateException("mail server down")).when(secondHandler).handle(failing);
+
+        int delivered = relay.relayBatch();
+
+        assertEquals(1, delivered);
+        assertNull(failing.getPublishedAt());
+        assertEquals(1, failing.getAttempts());
+        assertTrue(failing.getLastError().contains("mail server down"));
+        assertNotNull(healthy.getPublishedAt());
+        assertEquals(1.0, meterRegistry.counter("orders.outbox.failed").count());
+    }
+
+    @Test
+    void testRelay_DrainsUntilShortBatch() {
+        List<OrderOutboxEvent> full = Arrays.asList(createEvent(), createEvent());
+        when(orderOutboxEventRepository.lockNextBatch(2, 5))
+            .thenReturn(full)
+            .thenReturn(Collections.singletonList(createEvent()));
+
+        relay.relay();
+
+        verify(orderOutboxEventRepository, times(2)).lockNextBatch(2, 5);
+        verify(orderOutboxEventRepository, times(2)).saveAll(anyList());
+        verify(firstHandler, times(3)).handle(any(OrderOutboxEvent.class));
+    }
+
+    private OrderOutboxEvent createEvent() {
+        OrderOutboxEvent event = new OrderOutboxEvent();
+        event.setId(UUID.randomUUID());
+        event.setOrderId(UUID.randomUUID());
+        event.setUserId(UUID.randomUUID());
+        event.setEventType(OrderEventType.ORDER_CREATED);
+        event.setToStatus(OrderStatus.PENDING);
+        return event;
+    }
+}
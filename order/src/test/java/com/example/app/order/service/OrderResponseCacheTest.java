@@ -0,0 +1,167 @@
+package com.example.app.order.service;
+
+import com.example.app.order.dto.OrderLineResponse;
+import com.example.app.order.dto.OrderResponse;
+import com.example.app.order.entity.OrderStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderResponseCacheTest {
+
+    private OrderResponseCache cache;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new OrderResponseCache(meterRegistry);
+    }
+
+    @Test
+    void testGet_ReturnsCopies() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        cache.get(orderId, () -> response(orderId, OrderStatus.PENDING));
+
+        // Act
+        OrderResponse first = cache.get(orderId, () -> fail("should be cached"));
+        first.setStatus(OrderStatus.CANCELLED);
+        first.getOrderLines().get(0).setQuantity(99);
+        OrderResponse second = cache.get(orderId, () -> fail("should be cached"));
+
+        // Assert
+        assertEquals(OrderStatus.PENDING, second.getStatus());
+        assertEquals(1, second.getOrderLines().get(0).getQuantity());
+        assertEquals(2, meterRegistry.counter("orders.cache", "result", "hit").count());
+        assertEquals(1, meterRegistry.counter("orders.cache", "result", "miss").count());
+    }
+
+    @Test
+    void testGet_ReloadsAfterTtl() throws InterruptedException {
+        // Arrange
+        cache.setTtlMs(1);
+        UUID orderId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(orderId, () -> response(orderId, OrderStatus.PENDING, loads));
+        Thread.sleep(5);
+
+        // Act
+        cache.get(orderId, () -> response(orderId, OrderStatus.PENDING, loads));
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(1, meterRegistry.counter("orders.cache.evictions", "cause", "expired").count());
+    }
+
+    @Test
+    void testGet_OrdersThatCanStillChangeExpireAfterActiveTtl() throws InterruptedException {
+        // Arrange
+        cache.setActiveTtlMs(1);
+        UUID pendingId = UUID.randomUUID();
+        UUID cancelledId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(pendingId, () -> response(pendingId, OrderStatus.PENDING, loads));
+        cache.putIfAbsent(cancelledId, response(cancelledId, OrderStatus.CANCELLED));
+        Thread.sleep(5);
+
+        // Act
+        cache.get(pendingId, () -> response(pendingId, OrderStatus.CONFIRMED, loads));
+        OrderResponse cancelled = cache.get(cancelledId, () -> fail("should be cached"));
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(OrderStatus.CANCELLED, cancelled.getStatus());
+    }
+
+    @Test
+    void testGet_EvictsLeastRecentlyReadBeyondMaxSize() {
+        // Arrange
+        cache.setMaxSize(2);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        cache.get(first, () -> response(first, OrderStatus.PENDING));
+        cache.get(second, () -> response(second, OrderStatus.PENDING));
+        cache.get(first, () -> fail("should be cached"));
+
+        // Act
+        cache.get(third, () -> response(third, OrderStatus.PENDING));
+
+        // Assert
+        assertEquals(2, cache.size());
+        assertEquals(1, meterRegistry.counter("orders.cache.evictions", "cause", "size").count());
+        cache.get(first, () -> fail("should be cached"));
+    }
+
+    @Test
+    void testGet_DoesNotStoreLoadThatRacedAnInvalidation() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act: the status change commits while the stale row is being loaded
+        cache.get(orderId, () -> {
+            cache.invalidate(orderId);
+            return response(orderId, OrderStatus.PENDING, loads);
+        });
+        OrderResponse reloaded = cache.get(orderId, () -> response(orderId, OrderStatus.CONFIRMED, loads));
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(OrderStatus.CONFIRMED, reloaded.getStatus());
+    }
+
+    @Test
+    void testPutIfAbsent_DoesNotOverrideInvalidation() {
+        // Arrange
+        UUID orderId = UUID.randomUUID();
+        cache.invalidate(orderId);
+
+        // Act
+        cache.putIfAbsent(orderId, response(orderId, OrderStatus.PENDING));
+        OrderResponse loaded = cache.get(orderId, () -> response(orderId, OrderStatus.CANCELLED));
+
+        // Assert
+        assertEquals(OrderStatus.CANCELLED, loaded.getStatus());
+    }
+
+    @Test
+    void testGet_DisabledAlwaysLoads() {
+        // Arrange
+        cache.setEnabled(false);
+        UUID orderId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        cache.get(orderId, () -> response(orderId, OrderStatus.PENDING, loads));
+        cache.get(orderId, () -> response(orderId, OrderStatus.PENDING, loads));
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    private static OrderResponse response(UUID orderId, OrderStatus status, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return response(orderId, status);
+    }
+
+    private static OrderResponse response(UUID orderId, OrderStatus status) {
+        OrderLineResponse line = new OrderLineResponse();
+        line.setOrderId(orderId.toString());
+        line.setQuantity(1);
+        OrderResponse response = new OrderResponse();
+        response.setId(orderId.toString());
+        response.setStatus(status);
+        response.setOrderLines(Collections.singletonList(line));
+        return response;
+    }
+}
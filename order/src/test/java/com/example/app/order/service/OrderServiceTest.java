@@ -1,6 +1,10 @@
 package com.example.app.order.service;
 
 import com.example.app.billing.adapter.BillingAdapter;
+import com.example.app.common.dto.CountPolicy;
+import com.example.app.common.exception.BusinessException;
+import com.example.app.common.money.Money;
+import com.example.app.common.util.CountCache;
 import com.example.app.order.domain.OrderLineRequest;
 import com.example.app.order.domain.OrderRequest;
 import com.example.app.order.domain.OrderStatusChangeRequest;
@@ -12,7 +16,7 @@ import com.example.app.order.repository.OrderRepository;
 import com.example.app.order.repository.OrderStatusHistoryRepository;
 import com.example.app.inventory.domain.ReserveRequest;
 import com.example.app.inventory.service.InventoryService;
-import com.example.app.notifications.service.NotificationService;
+import com.example.app.payment.entity.PaymentStatus;
 import com.example.app.product.dto.ProductResponse;
 import com.example.app.product.service.ProductService;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -20,15 +24,22 @@ import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -56,11 +67,14 @@ class OrderServiceTest {
     private BillingAdapter billingAdapter;
 
     @Mock
-    private NotificationService notificationService;
+    private OrderOutbox orderOutbox;
 
     @Mock
     private OrderMapper orderMapper;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private OrderServiceImpl orderService;
 
     private OrderRequest orderRequest;
@@ -78,8 +92,12 @@ class OrderServiceTest {
         orderService.setProductService(productService);
         orderService.setInventoryService(inventoryService);
         orderService.setBillingAdapter(billingAdapter);
-        orderService.setNotificationService(notificationService);
+        orderService.setOrderOutbox(orderOutbox);
         orderService.setOrderMapper(orderMapper);
+        orderService.setTransactionManager(transactionManager);
+        orderService.setCheckoutExecutor(Runnable::run);
+        orderService.setCountCache(new CountCache(meterRegistry));
+        orderService.setOrderResponseCache(new OrderResponseCache(meterRegistry));
 
         orderId = UUID.randomUUID();
         UUID userId = UUID.randomUUID();
@@ -95,7 +113,7 @@ class OrderServiceTest {
         order = new Order();
         order.setId(orderId);
         order.setUserId(userId);
-        order.setTotalAmount(new BigDecimal("199.98"));
+        order.setTotalAmount(Money.of(new BigDecimal("199.98")));
         order.setStatus(OrderStatus.PENDING);
     }
 
@@ -106,23 +124,561 @@ class OrderServiceTest {
         product.setId(productId.toString());
         product.setPrice(new BigDecimal("99.99"));
 
-        when(productService.getProductById(productId)).thenReturn(product);
-        when(inventoryService.reserveInventory(any(UUID.class), any(ReserveRequest.class)))
-            .thenReturn(null);
+        when(productService.getProductsByIds(anyCollection()))
+            .thenReturn(Collections.singletonMap(productId, product));
+        when(inventoryService.reserveAll(anyMap())).thenReturn(Collections.emptyList());
         when(billingAdapter.createPayment(any(UUID.class), any(BigDecimal.class)))
             .thenReturn(UUID.randomUUID());
+        when(billingAdapter.getPaymentStatus(any(UUID.class))).thenReturn(PaymentStatus.SUCCESS);
         when(orderRepository.save(any(Order.class))).thenReturn(order);
-        when(orderLineRepository.save(any(com.example.app.order.entity.OrderLine.class)))
-            .thenReturn(new com.example.app.order.entity.OrderLine());
         when(orderStatusHistoryRepository.save(any(com.example.app.order.entity.OrderStatusHistory.class)))
             .thenReturn(new com.example.app.order.entity.OrderStatusHistory());
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
         when(orderMapper.toResponse(any(Order.class))).thenReturn(createOrderResponse());
 
         com.example.app.order.dto.OrderResponse response = orderService.createOrder(orderRequest);
 
         assertNotNull(response);
-        verify(orderRepository).save(any(Order.class));
-        verify(inventoryService).reserveInventory(any(UUID.class), any(ReserveRequest.class));
+        assertEquals(OrderStatus.CONFIRMED, response.getStatus());
+        assertEquals(OrderStatus.CONFIRMED, order.getStatus());
+        ArgumentCaptor<Order> saved = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository, times(2)).save(saved.capture());
+        assertFalse(saved.getAllValues().get(0).isAsyncCheckout());
+        verify(orderOutbox).statusChanged(order, OrderStatus.PENDING, OrderStatus.CONFIRMED, null);
+        verify(inventoryService).reserveAll(Collections.singletonMap(productId, 2));
+        verify(inventoryService, never()).reserveInventory(any(UUID.class), any(ReserveRequest.class));
+        verify(orderOutbox).orderCreated(order);
+    }
+
+    @Test
+    void testCreateOrder_FailedConfirmationStillReturnsPaidPendingOrder() {
+        UUID productId = orderRequest.getOrderLines().get(0).getProductId();
+        stubProduct(productId, new BigDecimal("99.99"));
+        when(inventoryService.reserveAll(anyMap())).thenReturn(Collections.emptyList());
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(billingAdapter.createPayment(any(UUID.class), any(BigDecimal.class))).thenReturn(UUID.randomUUID());
+        when(billingAdapter.getPaymentStatus(any(UUID.class))).thenReturn(PaymentStatus.SUCCESS);
+        when(orderRepository.findByIdForUpdate(orderId)).thenThrow(new IllegalStateException("database down"));
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(createOrderResponse());
+
+        com.example.app.order.dto.OrderResponse response = orderService.createOrder(orderRequest);
+
+        // The payment went through, so the order is neither cancelled nor released
+        assertEquals(OrderStatus.PENDING, response.getStatus());
+        verify(inventoryService, never()).releaseAll(anyMap());
+    }
+
+    @Test
+    void testCreateOrder_SavesLinesInOneBatchAndDoesNotReadThemBack() {
+        UUID productId = orderRequest.getOrderLines().get(0).getProductId();
+        stubProduct(productId, new BigDecimal("99.99"));
+        when(inventoryService.reserveAll(anyMap())).thenReturn(Collections.emptyList());
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(billingAdapter.createPayment(any(UUID.class), any(BigDecimal.class))).thenReturn(UUID.randomUUID());
+        when(billingAdapter.getPaymentStatus(any(UUID.class))).thenReturn(PaymentStatus.SUCCESS);
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(createOrderResponse());
+
+        orderService.createOrder(orderRequest);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<com.example.app.order.entity.OrderLine>> lines = ArgumentCaptor.forClass(List.class);
+        verify(orderLineRepository).saveAll(lines.capture());
+        assertEquals(1, lines.getValue().size());
+        assertEquals(orderId, lines.getValue().get(0).getOrderId());
+        verify(orderLineRepository, never()).save(any(com.example.app.order.entity.OrderLine.class));
+        verify(orderLineRepository, never()).findByOrderId(any(UUID.class));
+        verify(orderMapper).toOrderLineResponseList(lines.getValue());
+    }
+
+    @Test
+    void testCreateOrder_MergesDuplicateLinesIntoOneReservation() {
+        UUID productId = orderRequest.getOrderLines().get(0).getProductId();
+        OrderLineRequest duplicate = new OrderLineRequest();
+        duplicate.setProductId(productId);
+        duplicate.setQuantity(3);
+        orderRequest.setOrderLines(Arrays.asList(orderRequest.getOrderLines().get(0), duplicate));
+
+        ProductResponse product = new ProductResponse();
+        product.setId(productId.toString());
+        product.setPrice(new BigDecimal("10.00"));
+
+        when(productService.getProductsByIds(anyCollection()))
+            .thenReturn(Collections.singletonMap(productId, product));
+        when(inventoryService.reserveAll(anyMap())).thenReturn(Collections.emptyList());
+        when(billingAdapter.createPayment(any(UUID.class), any(BigDecimal.class)))
+            .thenReturn(UUID.randomUUID());
+        when(billingAdapter.getPaymentStatus(any(UUID.class))).thenReturn(PaymentStatus.SUCCESS);
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(createOrderResponse());
+
+        orderService.createOrder(orderRequest);
+
+        verify(inventoryService).reserveAll(Collections.singletonMap(productId, 5));
+        verify(billingAdapter).createPayment(orderId, new BigDecimal("50.00"));
+    }
+
+    @Test
+    void testCreateOrder_ReportsAllUnknownProducts() {
+        UUID knownId = orderRequest.getOrderLines().get(0).getProductId();
+        UUID unknownId1 = UUID.randomUUID();
+        UUID unknownId2 = UUID.randomUUID();
+        List<OrderLineRequest> lines = new ArrayList<>(orderRequest.getOrderLines());
+        for (UUID unknownId : Arrays.asList(unknownId1, unknownId2)) {
+            OrderLineRequest line = new OrderLineRequest();
+            line.setProductId(unknownId);
+            line.setQuantity(1);
+            lines.add(line);
+        }
+        orderRequest.setOrderLines(lines);
+
+        ProductResponse product = new ProductResponse();
+        product.setId(knownId.toString());
+        product.setPrice(new BigDecimal("99.99"));
+        when(productService.getProductsByIds(anyCollection()))
+            .thenReturn(Collections.singletonMap(knownId, product));
+
+        com.example.app.common.exception.EntityNotFoundException ex = assertThrows(
+            com.example.app.common.exception.EntityNotFoundException.class,
+            () -> orderService.createOrder(orderRequest));
+
+        assertTrue(ex.getMessage().contains(unknownId1.toString()));
+        assertTrue(ex.getMessage().contains(unknownId2.toString()));
+        verify(productService, never()).getProductById(any(UUID.class));
+        verifyNoInteractions(inventoryService, orderRepository);
+    }
+
+    @Test
+    void testCreateOrder_TotalOverflowIsRejectedBeforeReserving() {
+        UUID productId = orderRequest.getOrderLines().get(0).getProductId();
+        orderRequest.getOrderLines().get(0).setQuantity(Integer.MAX_VALUE);
+        stubProduct(productId, new BigDecimal("99999999999999.99"));
+
+        assertThrows(com.example.app.common.exception.BusinessException.class,
+            () -> orderService.createOrder(orderRequest));
+
+        verifyNoInteractions(inventoryService, orderRepository);
+    }
+
+    @Test
+    void testCreateOrder_ReservesThenPersistsThenPays() {
+        UUID productId = orderRequest.getOrderLines().get(0).getProductId();
+        stubProduct(productId, new BigDecimal("99.99"));
+        when(inventoryService.reserveAll(anyMap())).thenReturn(Collections.emptyList());
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(billingAdapter.createPayment(any(UUID.class), any(BigDecimal.class))).thenReturn(UUID.randomUUID());
+        when(billingAdapter.getPaymentStatus(any(UUID.class))).thenReturn(PaymentStatus.SUCCESS);
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(createOrderResponse());
+
+        orderService.createOrder(orderRequest);
+
+        InOrder phases = inOrder(inventoryService, orderRepository, billingAdapter);
+        phases.verify(inventoryService).reserveAll(anyMap());
+        phases.verify(orderRepository).save(any(Order.class));
+        phases.verify(billingAdapter).createPayment(orderId, new BigDecimal("199.98"));
+        verify(inventoryService, never()).releaseAll(anyMap());
+    }
+
+    @Test
+    void testCreateOrder_PaymentFailureReleasesStockAndCancelsOrder() {
+        UUID productId = orderRequest.getOrderLines().get(0).getProductId();
+        stubProduct(productId, new BigDecimal("99.99"));
+        when(inventoryService.reserveAll(anyMap())).thenReturn(Collections.emptyList());
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(billingAdapter.createPayment(any(UUID.class), any(BigDecimal.class)))
+            .thenThrow(new IllegalStateException("payment gateway down"));
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+
+        assertThrows(IllegalStateException.class, () -> orderService.createOrder(orderRequest));
+
+        verify(inventoryService).releaseAll(Collections.singletonMap(productId, 2));
+        assertEquals(OrderStatus.CANCELLED, order.getStatus());
+        verify(orderStatusHistoryRepository, times(2))
+            .save(any(com.example.app.order.entity.OrderStatusHistory.class));
+        verify(orderOutbox).statusChanged(order, OrderStatus.PENDING, OrderStatus.CANCELLED, "payment failed");
+        assertEquals(0.0, meterRegistry.counter("orders.created").count());
+    }
+
+    @Test
+    void testCreateOrder_FailedPaymentStatusReleasesStockAndCancelsOrder() {
+        UUID productId = orderRequest.getOrderLines().get(0).getProductId();
+        UUID paymentId = UUID.randomUUID();
+        stubProduct(productId, new BigDecimal("99.99"));
+        when(inventoryService.reserveAll(anyMap())).thenReturn(Collections.emptyList());
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(billingAdapter.createPayment(orderId, new BigDecimal("199.98"))).thenReturn(paymentId);
+        when(billingAdapter.getPaymentStatus(paymentId)).thenReturn(PaymentStatus.FAILED);
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> orderService.createOrder(orderRequest));
+
+        assertTrue(ex.getMessage().contains("FAILED"));
+        verify(inventoryService).releaseAll(Collections.singletonMap(productId, 2));
+        assertEquals(OrderStatus.CANCELLED, order.getStatus());
+        verify(orderOutbox).statusChanged(order, OrderStatus.PENDING, OrderStatus.CANCELLED, "payment failed");
+        assertEquals(0.0, meterRegistry.counter("orders.created").count());
+    }
+
+    @Test
+    void testCreateOrder_PersistFailureReleasesStock() {
+        UUID productId = orderRequest.getOrderLines().get(0).getProductId();
+        stubProduct(productId, new BigDecimal("99.99"));
+        when(inventoryService.reserveAll(anyMap())).thenReturn(Collections.emptyList());
+        when(orderRepository.save(any(Order.class))).thenThrow(new IllegalStateException("connection reset"));
+
+        assertThrows(IllegalStateException.class, () -> orderService.createOrder(orderRequest));
+
+        verify(inventoryService).releaseAll(Collections.singletonMap(productId, 2));
+        verifyNoInteractions(billingAdapter);
+    }
+
+    @Test
+    void testCreateOrder_FailedReleaseIsAttachedToOriginalFailure() {
+        UUID productId = orderRequest.getOrderLines().get(0).getProductId();
+        stubProduct(productId, new BigDecimal("99.99"));
+        when(inventoryService.reserveAll(anyMap())).thenReturn(Collections.emptyList());
+        when(orderRepository.save(any(Order.class))).thenThrow(new IllegalStateException("connection reset"));
+        when(inventoryService.releaseAll(anyMap())).thenThrow(new IllegalStateException("still down"));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+            () -> orderService.createOrder(orderRequest));
+
+        assertEquals("connection reset", ex.getMessage());
+        assertEquals(1, ex.getSuppressed().length);
+    }
+
+    @Test
+    void testCreateOrderAsync_ReturnsPendingAndConfirmsAfterPayment() {
+        UUID productId = orderRequest.getOrderLines().get(0).getProductId();
+        UUID paymentId = UUID.randomUUID();
+        List<Runnable> submitted = new ArrayList<>();
+        orderService.setCheckoutExecutor(submitted::add);
+        stubProduct(productId, new BigDecimal("99.99"));
+        when(inventoryService.reserveAll(anyMap())).thenReturn(Collections.emptyList());
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(createOrderResponse());
+
+        com.example.app.order.dto.OrderResponse response = orderService.createOrderAsync(orderRequest);
+
+        assertEquals(OrderStatus.PENDING, response.getStatus());
+        assertEquals(1, submitted.size());
+        verifyNoInteractions(billingAdapter);
+        ArgumentCaptor<Order> persisted = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(persisted.capture());
+        assertTrue(persisted.getValue().isAsyncCheckout());
+
+        when(billingAdapter.createPayment(orderId, new BigDecimal("199.98"))).thenReturn(paymentId);
+        when(billingAdapter.getPaymentStatus(paymentId)).thenReturn(PaymentStatus.SUCCESS);
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        submitted.get(0).run();
+
+        assertEquals(OrderStatus.CONFIRMED, order.getStatus());
+        verify(inventoryService, never()).releaseAll(anyMap());
+        verify(orderOutbox).statusChanged(order, OrderStatus.PENDING, OrderStatus.CONFIRMED, null);
+    }
+
+    @Test
+    void testCreateOrderAsync_FailedPaymentCancelsAndReleases() {
+        UUID productId = orderRequest.getOrderLines().get(0).getProductId();
+        UUID paymentId = UUID.randomUUID();
+        stubProduct(productId, new BigDecimal("99.99"));
+        when(inventoryService.reserveAll(anyMap())).thenReturn(Collections.emptyList());
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(createOrderResponse());
+        when(billingAdapter.createPayment(any(UUID.class), any(BigDecimal.class))).thenReturn(paymentId);
+        when(billingAdapter.getPaymentStatus(paymentId)).thenReturn(PaymentStatus.FAILED);
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+
+        com.example.app.order.dto.OrderResponse response = orderService.createOrderAsync(orderRequest);
+
+        assertEquals(OrderStatus.PENDING, response.getStatus());
+        assertEquals(OrderStatus.CANCELLED, order.getStatus());
+        verify(inventoryService).releaseAll(Collections.singletonMap(productId, 2));
+        verify(orderOutbox).statusChanged(order, OrderStatus.PENDING, OrderStatus.CANCELLED, "payment failed");
+    }
+
+    @Test
+    void testCreateOrderAsync_DoesNotOverrideConcurrentStatusChange() {
+        UUID productId = orderRequest.getOrderLines().get(0).getProductId();
+        stubProduct(productId, new BigDecimal("99.99"));
+        when(inventoryService.reserveAll(anyMap())).thenReturn(Collections.emptyList());
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(createOrderResponse());
+        when(billingAdapter.createPayment(any(UUID.class), any(BigDecimal.class)))
+            .thenThrow(new IllegalStateException("payment gateway down"));
+        Order cancelledMeanwhile = new Order();
+        cancelledMeanwhile.setId(orderId);
+        cancelledMeanwhile.setStatus(OrderStatus.CANCELLED);
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(cancelledMeanwhile));
+
+        orderService.createOrderAsync(orderRequest);
+
+        verify(orderRepository, times(1)).save(any(Order.class));
+        verify(orderStatusHistoryRepository, times(1))
+            .save(any(com.example.app.order.entity.OrderStatusHistory.class));
+    }
+
+    @Test
+    void testCreateOrder_FailedCancellationLeavesOrderPendingWithStockReserved() {
+        UUID productId = orderRequest.getOrderLines().get(0).getProductId();
+        stubProduct(productId, new BigDecimal("99.99"));
+        when(inventoryService.reserveAll(anyMap())).thenReturn(Collections.emptyList());
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(billingAdapter.createPayment(any(UUID.class), any(BigDecimal.class)))
+            .thenThrow(new IllegalStateException("payment gateway down"));
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        when(inventoryService.releaseAll(anyMap())).thenThrow(new IllegalStateException("inventory down"));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+            () -> orderService.createOrder(orderRequest));
+
+        // Release and cancellation share one transaction, so the reconciler later finds both undone
+        assertEquals("payment gateway down", ex.getMessage());
+        assertEquals(1, ex.getSuppressed().length);
+        assertEquals(OrderStatus.PENDING, order.getStatus());
+        verify(orderOutbox, never()).statusChanged(any(), any(), any(), any());
+    }
+
+    @Test
+    void testCreateOrderAsync_RetriesCompletionAfterFailure() {
+        UUID productId = orderRequest.getOrderLines().get(0).getProductId();
+        UUID paymentId = UUID.randomUUID();
+        orderService.setCompletionBackoffMs(0);
+        stubProduct(productId, new BigDecimal("99.99"));
+        when(inventoryService.reserveAll(anyMap())).thenReturn(Collections.emptyList());
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(createOrderResponse());
+        when(billingAdapter.createPayment(any(UUID.class), any(BigDecimal.class))).thenReturn(paymentId);
+        when(billingAdapter.getPaymentStatus(paymentId)).thenReturn(PaymentStatus.SUCCESS);
+        when(orderRepository.findByIdForUpdate(orderId))
+            .thenThrow(new IllegalStateException("lock timeout"))
+            .thenReturn(Optional.of(order));
+
+        orderService.createOrderAsync(orderRequest);
+
+        assertEquals(OrderStatus.CONFIRMED, order.getStatus());
+        verify(orderRepository, times(2)).findByIdForUpdate(orderId);
+    }
+
+    @Test
+    void testCreateOrderAsync_GivesUpAfterCompletionAttempts() {
+        UUID productId = orderRequest.getOrderLines().get(0).getProductId();
+        UUID paymentId = UUID.randomUUID();
+        orderService.setCompletionAttempts(2);
+        orderService.setCompletionBackoffMs(0);
+        stubProduct(productId, new BigDecimal("99.99"));
+        when(inventoryService.reserveAll(anyMap())).thenReturn(Collections.emptyList());
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(createOrderResponse());
+        when(billingAdapter.createPayment(any(UUID.class), any(BigDecimal.class))).thenReturn(paymentId);
+        when(billingAdapter.getPaymentStatus(paymentId)).thenReturn(PaymentStatus.FAILED);
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        when(inventoryService.releaseAll(anyMap())).thenThrow(new IllegalStateException("inventory down"));
+
+        orderService.createOrderAsync(orderRequest);
+
+        assertEquals(OrderStatus.PENDING, order.getStatus());
+        verify(inventoryService, times(2)).releaseAll(anyMap());
+    }
+
+    @Test
+    void testReconcileCheckout_PaidOrderIsConfirmed() {
+        order.setAsyncCheckout(true);
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        when(billingAdapter.isOrderPaid(orderId)).thenReturn(true);
+
+        OrderStatus outcome = orderService.reconcileCheckout(orderId);
+
+        assertEquals(OrderStatus.CONFIRMED, outcome);
+        assertEquals(OrderStatus.CONFIRMED, order.getStatus());
+        verify(inventoryService, never()).releaseAll(anyMap());
+        verify(orderOutbox).statusChanged(order, OrderStatus.PENDING, OrderStatus.CONFIRMED, null);
+    }
+
+    @Test
+    void testReconcileCheckout_UnpaidOrderReleasesAllLinesAndIsCancelled() {
+        UUID productId = UUID.randomUUID();
+        order.setAsyncCheckout(true);
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        when(billingAdapter.isOrderPaid(orderId)).thenReturn(false);
+        when(orderLineRepository.findByOrderId(orderId))
+            .thenReturn(Arrays.asList(orderLine(productId, 2), orderLine(productId, 3)));
+
+        OrderStatus outcome = orderService.reconcileCheckout(orderId);
+
+        assertEquals(OrderStatus.CANCELLED, outcome);
+        assertEquals(OrderStatus.CANCELLED, order.getStatus());
+        verify(inventoryService).releaseAll(Collections.singletonMap(productId, 5));
+        verify(orderOutbox).statusChanged(order, OrderStatus.PENDING, OrderStatus.CANCELLED, "checkout abandoned");
+    }
+
+    @Test
+    void testReconcileCheckout_StaleSynchronousPendingOrderIsLeftAlone() {
+        // A synchronous checkout, or an order from before checkout modes were recorded
+        order.setAsyncCheckout(false);
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+
+        assertNull(orderService.reconcileCheckout(orderId));
+
+        assertEquals(OrderStatus.PENDING, order.getStatus());
+        verifyNoInteractions(billingAdapter, inventoryService, orderOutbox);
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void testReconcileCheckout_SettledOrderIsLeftAlone() {
+        order.setStatus(OrderStatus.CONFIRMED);
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+
+        assertNull(orderService.reconcileCheckout(orderId));
+
+        verifyNoInteractions(billingAdapter, inventoryService, orderOutbox);
+    }
+
+    @Test
+    void testGetOrders_LoadsLinesForWholePageInOneQuery() {
+        Order secondOrder = new Order();
+        secondOrder.setId(UUID.randomUUID());
+        secondOrder.setUserId(order.getUserId());
+        secondOrder.setStatus(OrderStatus.PENDING);
+
+        com.example.app.order.dto.OrderLineResponse line = new com.example.app.order.dto.OrderLineResponse(
+            UUID.randomUUID(), orderId, UUID.randomUUID(), 2, Money.of(new BigDecimal("99.99")));
+
+        when(orderRepository.findAll(any(org.springframework.data.domain.Pageable.class)))
+            .thenReturn(new org.springframework.data.domain.PageImpl<>(Arrays.asList(order, secondOrder)));
+        when(orderLineRepository.findResponsesByOrderIdIn(anyCollection()))
+            .thenReturn(Collections.singletonList(line));
+        when(orderMapper.toResponse(any(Order.class))).thenAnswer(invocation -> createOrderResponse());
+
+        com.example.app.common.dto.PagedResponse<com.example.app.order.dto.OrderResponse> response =
+            orderService.getOrders(null, null, 0, 20, CountPolicy.EXACT);
+
+        assertEquals(2, response.getContent().size());
+        assertEquals(Collections.singletonList(line), response.getContent().get(0).getOrderLines());
+        assertTrue(response.getContent().get(1).getOrderLines().isEmpty());
+        verify(orderLineRepository, times(1)).findResponsesByOrderIdIn(anyCollection());
+        verify(orderLineRepository, never()).findByOrderId(any(UUID.class));
+        // Lines arrive already projected; no line entity is mapped
+        verify(orderMapper, never()).toOrderLineResponseList(anyList());
+    }
+
+    @Test
+    void testGetOrders_SkipPolicy_RunsNoCount() {
+        when(orderRepository.findSliceByStatus(eq(OrderStatus.PENDING), any(org.springframework.data.domain.Pageable.class)))
+            .thenReturn(new org.springframework.data.domain.SliceImpl<>(
+                Collections.singletonList(order), org.springframework.data.domain.PageRequest.of(0, 1), true));
+        when(orderLineRepository.findResponsesByOrderIdIn(anyCollection())).thenReturn(Collections.emptyList());
+        when(orderMapper.toResponse(any(Order.class))).thenAnswer(invocation -> createOrderResponse());
+
+        com.example.app.common.dto.PagedResponse<com.example.app.order.dto.OrderResponse> response =
+            orderService.getOrders(null, OrderStatus.PENDING, 0, 1, CountPolicy.SKIP);
+
+        assertEquals(1, response.getContent().size());
+        assertEquals(Boolean.TRUE, response.getHasNext());
+        assertEquals(com.example.app.common.dto.PagedResponse.UNKNOWN_TOTAL, response.getTotalElements());
+        verify(orderRepository, never()).countByStatus(any());
+        verify(orderRepository, never()).findByStatus(any(), any());
+    }
+
+    @Test
+    void testGetOrders_EstimatedPolicy_CachesFilteredCount() {
+        UUID userId = order.getUserId();
+        when(orderRepository.findSliceByUserId(eq(userId), any(org.springframework.data.domain.Pageable.class)))
+            .thenReturn(new org.springframework.data.domain.SliceImpl<>(
+                Collections.singletonList(order), org.springframework.data.domain.PageRequest.of(0, 1), true));
+        when(orderRepository.countByUserId(userId)).thenReturn(42L);
+        when(orderLineRepository.findResponsesByOrderIdIn(anyCollection())).thenReturn(Collections.emptyList());
+        when(orderMapper.toResponse(any(Order.class))).thenAnswer(invocation -> createOrderResponse());
+
+        orderService.getOrders(userId, null, 0, 1, CountPolicy.ESTIMATED);
+        com.example.app.common.dto.PagedResponse<com.example.app.order.dto.OrderResponse> response =
+            orderService.getOrders(userId, null, 0, 1, CountPolicy.ESTIMATED);
+
+        assertEquals(42L, response.getTotalElements());
+        assertEquals(42, response.getTotalPages());
+        verify(orderRepository, times(1)).countByUserId(userId);
+        verify(orderRepository, never()).estimateRowCount();
+    }
+
+    @Test
+    void testGetOrders_EstimatedPolicy_UsesPlannerStatisticsWithoutFilters() {
+        when(orderRepository.findSliceBy(any(org.springframework.data.domain.Pageable.class)))
+            .thenReturn(new org.springframework.data.domain.SliceImpl<>(
+                Collections.singletonList(order), org.springframework.data.domain.PageRequest.of(0, 1), true));
+        when(orderRepository.estimateRowCount()).thenReturn(1000L);
+        when(orderLineRepository.findResponsesByOrderIdIn(anyCollection())).thenReturn(Collections.emptyList());
+        when(orderMapper.toResponse(any(Order.class))).thenAnswer(invocation -> createOrderResponse());
+
+        com.example.app.common.dto.PagedResponse<com.example.app.order.dto.OrderResponse> response =
+            orderService.getOrders(null, null, 0, 1, CountPolicy.ESTIMATED);
+
+        assertEquals(1000L, response.getTotalElements());
+        assertEquals(CountPolicy.ESTIMATED, response.getCountPolicy());
+        verify(orderRepository, never()).count();
+    }
+
+    @Test
+    void testGetOrdersAfter_ReturnsCursorWhenMoreRowsExist() {
+        Order secondOrder = new Order();
+        secondOrder.setId(UUID.randomUUID());
+        secondOrder.setCreatedAt(new java.sql.Timestamp(1_000L));
+        order.setCreatedAt(new java.sql.Timestamp(2_000L));
+        Order thirdOrder = new Order();
+        thirdOrder.setId(UUID.randomUUID());
+
+        when(orderRepository.findPageAfter(null, null, null, null, 3))
+            .thenReturn(Arrays.asList(order, secondOrder, thirdOrder));
+        when(orderLineRepository.findResponsesByOrderIdIn(anyCollection())).thenReturn(Collections.emptyList());
+        when(orderMapper.toResponse(any(Order.class))).thenAnswer(invocation -> createOrderResponse());
+
+        com.example.app.common.dto.PagedResponse<com.example.app.order.dto.OrderResponse> response =
+            orderService.getOrdersAfter(null, null, null, 2);
+
+        assertEquals(2, response.getContent().size());
+        assertEquals(com.example.app.common.dto.PagedResponse.UNKNOWN_TOTAL, response.getTotalElements());
+        assertNotNull(response.getNextCursor());
+
+        com.example.app.common.util.KeysetCursor next =
+            com.example.app.common.util.KeysetCursor.decode(response.getNextCursor());
+        assertEquals(secondOrder.getId(), next.getId());
+        assertEquals(secondOrder.getCreatedAt().toInstant(), next.getTimestamp());
+        verify(orderRepository, never()).count();
+    }
+
+    @Test
+    void testGetOrdersAfter_ResumesFromCursorAndEndsWithoutCursor() {
+        java.time.Instant createdAt = java.time.Instant.parse("2024-01-01T10:00:00.123456Z");
+        UUID lastSeenId = UUID.randomUUID();
+        String cursor = new com.example.app.common.util.KeysetCursor(createdAt, lastSeenId).encode();
+
+        when(orderRepository.findPageAfter(eq(order.getUserId()), eq(OrderStatus.PENDING),
+            eq(java.sql.Timestamp.from(createdAt)), eq(lastSeenId), eq(21)))
+            .thenReturn(Collections.singletonList(order));
+        when(orderLineRepository.findResponsesByOrderIdIn(anyCollection())).thenReturn(Collections.emptyList());
+        when(orderMapper.toResponse(any(Order.class))).thenAnswer(invocation -> createOrderResponse());
+
+        com.example.app.common.dto.PagedResponse<com.example.app.order.dto.OrderResponse> response =
+            orderService.getOrdersAfter(order.getUserId(), OrderStatus.PENDING, cursor, 20);
+
+        assertEquals(1, response.getContent().size());
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    void testGetOrdersAfter_InvalidCursor() {
+        assertThrows(com.example.app.common.exception.BusinessException.class,
+            () -> orderService.getOrdersAfter(null, null, "not-a-cursor", 20));
+        verify(orderRepository, never()).findPageAfter(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testGetOrders_NonPositiveSizeIsRejected() {
+        assertThrows(BusinessException.class, () -> orderService.getOrdersAfter(null, null, "", 0));
+        assertThrows(BusinessException.class, () -> orderService.getOrders(null, null, 0, -1, CountPolicy.EXACT));
+        verifyNoInteractions(orderRepository);
     }
 
     @Test
@@ -130,7 +686,7 @@ class OrderServiceTest {
         OrderStatusChangeRequest request = new OrderStatusChangeRequest();
         request.setStatus(OrderStatus.CONFIRMED);
 
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
         when(orderRepository.save(any(Order.class))).thenReturn(order);
         when(orderStatusHistoryRepository.save(any(com.example.app.order.entity.OrderStatusHistory.class)))
             .thenReturn(new com.example.app.order.entity.OrderStatusHistory());
@@ -141,6 +697,53 @@ class OrderServiceTest {
 
         assertNotNull(response);
         verify(orderStatusHistoryRepository).save(any());
+        verify(orderOutbox).statusChanged(order, OrderStatus.PENDING, OrderStatus.CONFIRMED, null);
+    }
+
+    @Test
+    void testGetOrderById_SecondReadServedFromCache() {
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderMapper.toResponse(any(Order.class))).thenAnswer(invocation -> createOrderResponse());
+
+        com.example.app.order.dto.OrderResponse first = orderService.getOrderById(orderId);
+        first.setStatus(OrderStatus.CANCELLED);
+        com.example.app.order.dto.OrderResponse second = orderService.getOrderById(orderId);
+
+        assertEquals(OrderStatus.PENDING, second.getStatus());
+        verify(orderRepository, times(1)).findById(orderId);
+        verify(orderLineRepository, times(1)).findByOrderId(orderId);
+        assertEquals(1, meterRegistry.counter("orders.cache", "result", "hit").count());
+    }
+
+    @Test
+    void testGetOrderById_MissReadsThePrimary() {
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(createOrderResponse());
+
+        orderService.getOrderById(orderId);
+
+        // Read-only transactions may be routed to a replica that has not seen the latest status yet
+        verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()));
+    }
+
+    @Test
+    void testChangeOrderStatus_InvalidatesCachedOrder() {
+        OrderStatusChangeRequest request = new OrderStatusChangeRequest();
+        request.setStatus(OrderStatus.CONFIRMED);
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(orderMapper.toResponse(any(Order.class))).thenAnswer(invocation -> {
+            com.example.app.order.dto.OrderResponse response = createOrderResponse();
+            response.setStatus(invocation.<Order>getArgument(0).getStatus());
+            return response;
+        });
+
+        orderService.getOrderById(orderId);
+        orderService.changeOrderStatus(orderId, request);
+
+        assertEquals(OrderStatus.CONFIRMED, orderService.getOrderById(orderId).getStatus());
+        assertEquals(1, meterRegistry.counter("orders.cache.evictions", "cause", "invalidated").count());
     }
 
     @Test
@@ -149,12 +752,27 @@ class OrderServiceTest {
         OrderStatusChangeRequest request = new OrderStatusChangeRequest();
         request.setStatus(OrderStatus.PENDING);
 
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
 
         assertThrows(com.example.app.common.exception.BusinessException.class,
             () -> orderService.changeOrderStatus(orderId, request));
     }
 
+    private static com.example.app.order.entity.OrderLine orderLine(UUID productId, int quantity) {
+        com.example.app.order.entity.OrderLine line = new com.example.app.order.entity.OrderLine();
+        line.setProductId(productId);
+        line.setQuantity(quantity);
+        return line;
+    }
+
+    private void stubProduct(UUID productId, BigDecimal price) {
+        ProductResponse product = new ProductResponse();
+        product.setId(productId.toString());
+        product.setPrice(price);
+        when(productService.getProductsByIds(anyCollection()))
+            .thenReturn(Collections.singletonMap(productId, product));
+    }
+
     private com.example.app.order.dto.OrderResponse createOrderResponse() {
         com.example.app.order.dto.OrderResponse response = new com.example.app.order.dto.OrderResponse();
         response.setId(orderId.toString());
@@ -1,5 +1,8 @@
 package com.example.app.payment.entity;
 
+import com.example.app.common.util.TimeOrderedUUIDGenerator;
+import org.hibernate.annotations.GenericGenerator;
+
 import javax.persistence.*;
 import java.math.BigDecimal;
 import java.util.Date;
@@ -15,7 +18,8 @@ import java.util.UUID;
 })
 public class Payment {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = TimeOrderedUUIDGenerator.NAME)
+    @GenericGenerator(name = TimeOrderedUUIDGenerator.NAME, strategy = TimeOrderedUUIDGenerator.STRATEGY)
     @Column(name = "id", columnDefinition = "UUID")
     private UUID id;
 
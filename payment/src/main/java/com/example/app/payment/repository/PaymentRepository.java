@@ -1,6 +1,7 @@
 package com.example.app.payment.repository;
 
 import com.example.app.payment.entity.Payment;
+import com.example.app.payment.entity.PaymentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -11,5 +12,6 @@ import java.util.UUID;
  */
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, UUID> {
+    boolean existsByOrderIdAndStatus(UUID orderId, PaymentStatus status);
 }
 
@@ -24,6 +24,14 @@ public interface PaymentService {
      * @return Payment entity
      */
     Payment getPaymentById(UUID id);
+
+    /**
+     * Check whether an order has a payment in the given status.
+     * @param orderId Order ID
+     * @param status Payment status
+     * @return true if at least one payment of the order has the status
+     */
+    boolean hasPaymentWithStatus(UUID orderId, PaymentStatus status);
     
     /**
      * Create a payment record with initial status.
@@ -71,6 +71,12 @@ public class PaymentServiceImpl implements PaymentService {
             .orElseThrow(() -> new EntityNotFoundException("Payment not found with id: " + id));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public boolean hasPaymentWithStatus(UUID orderId, PaymentStatus status) {
+        return paymentRepository.existsByOrderIdAndStatus(orderId, status);
+    }
+
     @Override
     public Payment createPayment(UUID orderId, BigDecimal amount, PaymentStatus status) {
         Payment payment = new Payment();
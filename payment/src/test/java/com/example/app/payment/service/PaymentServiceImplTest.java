@@ -234,6 +234,16 @@ class PaymentServiceImplTest {
         verify(paymentRepository).save(any(Payment.class));
     }
 
+    @Test
+    void testHasPaymentWithStatus_DelegatesToRepository() {
+        // Arrange
+        when(paymentRepository.existsByOrderIdAndStatus(orderId, PaymentStatus.SUCCESS)).thenReturn(true);
+
+        // Act & Assert
+        assertTrue(paymentService.hasPaymentWithStatus(orderId, PaymentStatus.SUCCESS));
+        assertFalse(paymentService.hasPaymentWithStatus(orderId, PaymentStatus.FAILED));
+    }
+
     @Configuration
     @Import(PaymentServiceImpl.class)
     static class TestConfig {
@@ -1,18 +1,24 @@
 package com.example.app.product.controller;
 
+import com.example.app.common.dto.CountPolicy;
 import com.example.app.common.dto.PagedResponse;
 import com.example.app.product.domain.ProductRequest;
+import com.example.app.product.domain.ProductSearchCriteria;
+import com.example.app.product.dto.ProductFacets;
 import com.example.app.product.dto.ProductResponse;
+import com.example.app.product.dto.ProductSuggestion;
 import com.example.app.product.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.api.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -45,14 +51,35 @@ public class ProductController {
     }
 
     @GetMapping
-    @Operation(summary = "Search products with pagination")
+    @Operation(summary = "Search products with pagination",
+        description = "Optional filters: minPrice, maxPrice, inStock, createdFrom, createdTo (ISO-8601); " +
+            "sort=RELEVANCE|PRICE_ASC|PRICE_DESC|NAME|NEWEST. " +
+            "count=SKIP omits the total count and reports hasNext; count=ESTIMATED approximates it")
     @ApiResponse(responseCode = "200", description = "Products retrieved successfully")
     public ResponseEntity<PagedResponse<ProductResponse>> searchProducts(
-            @RequestParam(required = false) String search,
+            @ParameterObject ProductSearchCriteria criteria,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        PagedResponse<ProductResponse> response = productService.searchProducts(search, page, size);
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "EXACT") CountPolicy count) {
+        PagedResponse<ProductResponse> response = productService.searchProducts(criteria, page, size, count);
         return ResponseEntity.ok(response);
     }
-}
 
+    @GetMapping("/facets")
+    @Operation(summary = "Facet counts for a product search",
+        description = "Takes the same search and filter parameters as the search endpoint")
+    @ApiResponse(responseCode = "200", description = "Facets computed successfully")
+    public ResponseEntity<ProductFacets> getProductFacets(@ParameterObject ProductSearchCriteria criteria) {
+        return ResponseEntity.ok(productService.getProductFacets(criteria));
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest products by name or SKU prefix",
+        description = "Returns up to limit (at most 20) products, most popular first; served from memory")
+    @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully")
+    public ResponseEntity<List<ProductSuggestion>> suggestProducts(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productService.suggestProducts(prefix, limit));
+    }
+}
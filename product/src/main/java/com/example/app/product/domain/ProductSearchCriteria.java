@@ -0,0 +1,112 @@
+package com.example.app.product.domain;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Free-text search, filters and order for product listings, bound from query parameters.
+ */
+public class ProductSearchCriteria {
+    private String search;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Boolean inStock;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private Instant createdFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private Instant createdTo;
+    private ProductSort sort = ProductSort.RELEVANCE;
+
+    public static ProductSearchCriteria ofSearch(String search) {
+        ProductSearchCriteria criteria = new ProductSearchCriteria();
+        criteria.setSearch(search);
+        return criteria;
+    }
+
+    /**
+     * Whether anything beyond the free-text search is requested.
+     */
+    public boolean isFiltered() {
+        return minPrice != null || maxPrice != null || inStock != null || createdFrom != null || createdTo != null
+            || (sort != null && sort != ProductSort.RELEVANCE);
+    }
+
+    public String getSearch() {
+        return search;
+    }
+
+    public void setSearch(String search) {
+        this.search = search;
+    }
+
+    /**
+     * Inclusive lower price bound.
+     */
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    /**
+     * Inclusive upper price bound.
+     */
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    /**
+     * True for products with available quantity, false for those without, null for both.
+     */
+    public Boolean getInStock() {
+        return inStock;
+    }
+
+    public void setInStock(Boolean inStock) {
+        this.inStock = inStock;
+    }
+
+    /**
+     * Inclusive lower bound on the creation time.
+     */
+    public Instant getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public void setCreatedFrom(Instant createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+
+    /**
+     * Exclusive upper bound on the creation time.
+     */
+    public Instant getCreatedTo() {
+        return createdTo;
+    }
+
+    public void setCreatedTo(Instant createdTo) {
+        this.createdTo = createdTo;
+    }
+
+    public ProductSort getSort() {
+        return sort;
+    }
+
+    public void setSort(ProductSort sort) {
+        this.sort = sort;
+    }
+
+    @Override
+    public String toString() {
+        return "search=" + search + ",minPrice=" + minPrice + ",maxPrice=" + maxPrice + ",inStock=" + inStock
+            + ",createdFrom=" + createdFrom + ",createdTo=" + createdTo + ",sort=" + sort;
+    }
+}
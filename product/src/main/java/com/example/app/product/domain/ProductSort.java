@@ -0,0 +1,15 @@
+package com.example.app.product.domain;
+
+/**
+ * Order of product search results. Each explicit order is served by a (column, id) index from db/patches/010.
+ */
+public enum ProductSort {
+    /**
+     * Best text matches first for full-text searches, otherwise by id.
+     */
+    RELEVANCE,
+    PRICE_ASC,
+    PRICE_DESC,
+    NAME,
+    NEWEST
+}
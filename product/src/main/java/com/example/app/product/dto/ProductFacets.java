@@ -0,0 +1,100 @@
+package com.example.app.product.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Facet counts for a product search.
+ * <p>
+ * Each facet ignores its own filter, so a client can show what changing it would return: price buckets, minPrice
+ * and maxPrice ignore the price range, inStock ignores the in-stock filter. total applies every filter.
+ */
+public class ProductFacets {
+    private long total;
+    private long inStock;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private List<PriceBucket> priceBuckets;
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long getInStock() {
+        return inStock;
+    }
+
+    public void setInStock(long inStock) {
+        this.inStock = inStock;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public List<PriceBucket> getPriceBuckets() {
+        return priceBuckets;
+    }
+
+    public void setPriceBuckets(List<PriceBucket> priceBuckets) {
+        this.priceBuckets = priceBuckets;
+    }
+
+    /**
+     * Products priced from {@code from} (inclusive, null for no bound) to {@code to} (exclusive, null for no bound).
+     */
+    public static class PriceBucket {
+        private BigDecimal from;
+        private BigDecimal to;
+        private long count;
+
+        public PriceBucket() {
+        }
+
+        public PriceBucket(BigDecimal from, BigDecimal to, long count) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        public BigDecimal getFrom() {
+            return from;
+        }
+
+        public void setFrom(BigDecimal from) {
+            this.from = from;
+        }
+
+        public BigDecimal getTo() {
+            return to;
+        }
+
+        public void setTo(BigDecimal to) {
+            this.to = to;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+    }
+}
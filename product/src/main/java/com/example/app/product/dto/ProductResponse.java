@@ -1,7 +1,11 @@
 package com.example.app.product.dto;
 
+import com.example.app.common.util.DateMapper;
+
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
 
 /**
  * Response DTO for product information.
@@ -16,6 +20,24 @@ public class ProductResponse {
     private Instant createdAt;
     private Instant updatedAt;
 
+    public ProductResponse() {
+    }
+
+    /**
+     * Projection constructor for JPQL constructor expressions, so listings are built straight from result rows.
+     */
+    public ProductResponse(UUID id, String sku, String name, String description, BigDecimal price,
+                           Integer availableQty, Date createdAt, Date updatedAt) {
+        this.id = id.toString();
+        this.sku = sku;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.availableQty = availableQty;
+        this.createdAt = DateMapper.toInstant(createdAt);
+        this.updatedAt = DateMapper.toInstant(updatedAt);
+    }
+
     public String getId() {
         return id;
     }
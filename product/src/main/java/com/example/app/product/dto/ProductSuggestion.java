@@ -0,0 +1,43 @@
+package com.example.app.product.dto;
+
+/**
+ * Autocomplete entry for a product.
+ */
+public class ProductSuggestion {
+    private String id;
+    private String sku;
+    private String name;
+
+    public ProductSuggestion() {
+    }
+
+    public ProductSuggestion(String id, String sku, String name) {
+        this.id = id;
+        this.sku = sku;
+        this.name = name;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
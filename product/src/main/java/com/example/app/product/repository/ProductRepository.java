@@ -1,29 +1,83 @@
 package com.example.app.product.repository;
 
+import com.example.app.product.dto.ProductResponse;
 import com.example.app.product.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository for Product entity.
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, ProductRepositoryCustom {
+    String SEARCH_FILTER =
+        "(:search IS NULL OR :search = '' OR " +
+        "LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+        "LOWER(p.sku) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+        "LOWER(p.description) LIKE LOWER(CONCAT('%', :search, '%')))";
+
     Optional<Product> findBySku(String sku);
     boolean existsBySku(String sku);
+    List<Product> findByIdIn(Collection<UUID> ids);
     
-    @Query("SELECT p FROM Product p WHERE " +
-           "(:search IS NULL OR :search = '' OR " +
-           "LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(p.sku) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(p.description) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<Product> searchProducts(@Param("search") String search, Pageable pageable);
+    // Search results are projected straight into response DTOs; no entities enter the persistence context
+    String SEARCH_PROJECTION =
+        "SELECT new com.example.app.product.dto.ProductResponse(" +
+        "p.id, p.sku, p.name, p.description, p.price, p.availableQty, p.createdAt, p.updatedAt) " +
+        "FROM Product p WHERE " + SEARCH_FILTER;
+
+    @Query(value = SEARCH_PROJECTION, countQuery = "SELECT COUNT(p) FROM Product p WHERE " + SEARCH_FILTER)
+    Page<ProductResponse> searchProducts(@Param("search") String search, Pageable pageable);
+
+    // Fetches one extra row instead of running a count query
+    @Query(SEARCH_PROJECTION)
+    Slice<ProductResponse> searchProductSlice(@Param("search") String search, Pageable pageable);
+
+    @Query("SELECT COUNT(p) FROM Product p WHERE " + SEARCH_FILTER)
+    long countSearchProducts(@Param("search") String search);
+
+    @Query("SELECT new com.example.app.product.dto.ProductResponse(" +
+           "p.id, p.sku, p.name, p.description, p.price, p.availableQty, p.createdAt, p.updatedAt) " +
+           "FROM Product p WHERE p.id IN :ids")
+    List<ProductResponse> findResponsesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * (id, sku, name, description) of every product, streamed in batches for the search index.
+     * Must be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id, p.sku, p.name, p.description FROM Product p ORDER BY p.id")
+    Stream<Object[]> streamSearchDocuments();
+
+    /**
+     * (id, sku, name, description, updatedAt) of the products changed after the given (updatedAt, id) position,
+     * oldest change first; the catalog change feed read by every node.
+     */
+    @Query("SELECT p.id, p.sku, p.name, p.description, p.updatedAt FROM Product p " +
+           "WHERE p.updatedAt > :updatedAt OR (p.updatedAt = :updatedAt AND p.id > :id) " +
+           "ORDER BY p.updatedAt, p.id")
+    List<Object[]> findSearchDocumentsChangedAfter(@Param("updatedAt") Date updatedAt, @Param("id") UUID id,
+                                                   Pageable pageable);
+
+    /**
+     * Planner estimate of the table's row count; negative or zero until the table has been analyzed.
+     */
+    @Query(value = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = CAST('cursordb.products' AS regclass)",
+           nativeQuery = true)
+    Long estimateRowCount();
 }
 
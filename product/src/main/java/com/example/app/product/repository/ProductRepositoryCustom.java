@@ -0,0 +1,50 @@
+package com.example.app.product.repository;
+
+import com.example.app.product.domain.ProductSearchCriteria;
+import com.example.app.product.dto.ProductFacets;
+import com.example.app.product.dto.ProductResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Product searches built from optional filters; full-text matching requires the search_vector column and
+ * indexes from db/patches/009.
+ */
+public interface ProductRepositoryCustom {
+    /**
+     * Products whose words match the search or whose SKU or name contains it, best matches first:
+     * an exact SKU, then by text rank.
+     */
+    Page<ProductResponse> fullTextSearch(String search, Pageable pageable);
+
+    /**
+     * Same as {@link #fullTextSearch} but fetches one extra row instead of running a count query.
+     */
+    Slice<ProductResponse> fullTextSearchSlice(String search, Pageable pageable);
+
+    long countFullTextSearch(String search);
+
+    /**
+     * Products matching every given filter, in the requested order.
+     * @param fullText Match the search through the full-text and trigram indexes instead of substrings of
+     *                 name, SKU and description
+     */
+    Page<ProductResponse> findFiltered(ProductSearchCriteria criteria, boolean fullText, Pageable pageable);
+
+    /**
+     * Same as {@link #findFiltered} but fetches one extra row instead of running a count query.
+     */
+    Slice<ProductResponse> findFilteredSlice(ProductSearchCriteria criteria, boolean fullText, Pageable pageable);
+
+    long countFiltered(ProductSearchCriteria criteria, boolean fullText);
+
+    /**
+     * All facet counts of the search in a single aggregate query.
+     * @param priceBoundaries Ascending bucket boundaries; n boundaries give n + 1 buckets
+     */
+    ProductFacets computeFacets(ProductSearchCriteria criteria, boolean fullText, List<BigDecimal> priceBoundaries);
+}
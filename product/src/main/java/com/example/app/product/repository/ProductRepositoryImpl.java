@@ -0,0 +1,268 @@
+package com.example.app.product.repository;
+
+import com.example.app.product.domain.ProductSearchCriteria;
+import com.example.app.product.domain.ProductSort;
+import com.example.app.product.dto.ProductFacets;
+import com.example.app.product.dto.ProductResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TemporalType;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Implementation of {@link ProductRepositoryCustom}.
+ * Only the filters actually given are added to the query. The tsvector match is served by the GIN index on
+ * search_vector and the substring matches by the trigram indexes on LOWER(sku) and LOWER(name), combined by a
+ * bitmap OR; price and creation ranges and explicit orders by the (column, id) indexes. Rows are mapped straight
+ * into {@link ProductResponse}.
+ */
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    private static final String FULL_TEXT_MATCH =
+        "(p.search_vector @@ plainto_tsquery('english', :search) " +
+        "OR LOWER(p.sku) LIKE :pattern ESCAPE '\\' " +
+        "OR LOWER(p.name) LIKE :pattern ESCAPE '\\')";
+
+    private static final String SUBSTRING_MATCH =
+        "(LOWER(p.name) LIKE :pattern ESCAPE '\\' " +
+        "OR LOWER(p.sku) LIKE :pattern ESCAPE '\\' " +
+        "OR LOWER(p.description) LIKE :pattern ESCAPE '\\')";
+
+    private static final String SELECT_RESPONSE =
+        "SELECT CAST(p.id AS VARCHAR), p.sku, p.name, p.description, p.price, p.available_qty, " +
+        "p.created_at, p.updated_at FROM cursordb.products p";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ProductResponse> fullTextSearch(String search, Pageable pageable) {
+        return findFiltered(ProductSearchCriteria.ofSearch(search), true, pageable);
+    }
+
+    @Override
+    public Slice<ProductResponse> fullTextSearchSlice(String search, Pageable pageable) {
+        return findFilteredSlice(ProductSearchCriteria.ofSearch(search), true, pageable);
+    }
+
+    @Override
+    public long countFullTextSearch(String search) {
+        return countFiltered(ProductSearchCriteria.ofSearch(search), true);
+    }
+
+    @Override
+    public Page<ProductResponse> findFiltered(ProductSearchCriteria criteria, boolean fullText, Pageable pageable) {
+        List<ProductResponse> content = find(criteria, fullText, pageable, pageable.getPageSize());
+        return new PageImpl<>(content, pageable, countFiltered(criteria, fullText));
+    }
+
+    @Override
+    public Slice<ProductResponse> findFilteredSlice(ProductSearchCriteria criteria, boolean fullText,
+                                                    Pageable pageable) {
+        List<ProductResponse> content = find(criteria, fullText, pageable, pageable.getPageSize() + 1);
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content.remove(content.size() - 1);
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public long countFiltered(ProductSearchCriteria criteria, boolean fullText) {
+        Filter filter = new Filter(criteria, fullText);
+        Query query = entityManager.createNativeQuery(
+            "SELECT COUNT(*) FROM cursordb.products p" + filter.where(true, true));
+        filter.bind(query);
+        return ((Number) query.getSingleResult()).longValue();
+    }
+
+    @Override
+    public ProductFacets computeFacets(ProductSearchCriteria criteria, boolean fullText,
+                                       List<BigDecimal> priceBoundaries) {
+        Filter filter = new Filter(criteria, fullText);
+        String price = filter.price != null ? filter.price : "TRUE";
+        String stock = filter.stock != null ? filter.stock : "TRUE";
+
+        StringBuilder sql = new StringBuilder("SELECT ")
+            .append("COUNT(*) FILTER (WHERE ").append(price).append(" AND ").append(stock).append("), ")
+            .append("COUNT(*) FILTER (WHERE ").append(price).append(" AND p.available_qty > 0), ")
+            .append("MIN(p.price) FILTER (WHERE ").append(stock).append("), ")
+            .append("MAX(p.price) FILTER (WHERE ").append(stock).append(")");
+        for (int i = 0; i <= priceBoundaries.size(); i++) {
+            sql.append(", COUNT(*) FILTER (WHERE ").append(stock);
+            if (i > 0) {
+                sql.append(" AND p.price >= :boundary").append(i - 1);
+            }
+            if (i < priceBoundaries.size()) {
+                sql.append(" AND p.price < :boundary").append(i);
+            }
+            sql.append(")");
+        }
+        sql.append(" FROM cursordb.products p").append(filter.where(false, false));
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        filter.bind(query);
+        for (int i = 0; i < priceBoundaries.size(); i++) {
+            query.setParameter("boundary" + i, priceBoundaries.get(i));
+        }
+        Object[] row = (Object[]) query.getSingleResult();
+
+        ProductFacets facets = new ProductFacets();
+        facets.setTotal(((Number) row[0]).longValue());
+        facets.setInStock(((Number) row[1]).longValue());
+        facets.setMinPrice((BigDecimal) row[2]);
+        facets.setMaxPrice((BigDecimal) row[3]);
+        List<ProductFacets.PriceBucket> buckets = new ArrayList<>(priceBoundaries.size() + 1);
+        for (int i = 0; i <= priceBoundaries.size(); i++) {
+            buckets.add(new ProductFacets.PriceBucket(
+                i > 0 ? priceBoundaries.get(i - 1) : null,
+                i < priceBoundaries.size() ? priceBoundaries.get(i) : null,
+                ((Number) row[4 + i]).longValue()));
+        }
+        facets.setPriceBuckets(buckets);
+        return facets;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ProductResponse> find(ProductSearchCriteria criteria, boolean fullText, Pageable pageable,
+                                       int limit) {
+        Filter filter = new Filter(criteria, fullText);
+        Query query = entityManager.createNativeQuery(
+            SELECT_RESPONSE + filter.where(true, true) + " ORDER BY " + filter.orderBy(criteria.getSort()));
+        filter.bind(query);
+        if (filter.ranksByText(criteria.getSort())) {
+            query.setParameter("term", filter.term);
+        }
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(limit);
+
+        List<Object[]> rows = query.getResultList();
+        List<ProductResponse> content = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            content.add(new ProductResponse(
+                UUID.fromString((String) row[0]),
+                (String) row[1],
+                (String) row[2],
+                (String) row[3],
+                (BigDecimal) row[4],
+                row[5] == null ? null : ((Number) row[5]).intValue(),
+                (Date) row[6],
+                (Date) row[7]));
+        }
+        return content;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * SQL conditions for the given criteria and their parameters. The price and stock conditions are kept apart
+     * so facets can leave them out.
+     */
+    private static final class Filter {
+        private final List<String> conditions = new ArrayList<>();
+        private final Map<String, Object> parameters = new LinkedHashMap<>();
+        private final Map<String, Date> timestamps = new LinkedHashMap<>();
+        private final boolean fullText;
+        private String term;
+        private String price;
+        private String stock;
+
+        private Filter(ProductSearchCriteria criteria, boolean fullText) {
+            String search = criteria.getSearch();
+            this.fullText = fullText && StringUtils.hasText(search);
+            if (this.fullText) {
+                term = search.trim().toLowerCase(Locale.ROOT);
+                conditions.add(FULL_TEXT_MATCH);
+                parameters.put("search", search.trim());
+                parameters.put("pattern", "%" + escapeLike(term) + "%");
+            } else if (StringUtils.hasText(search)) {
+                conditions.add(SUBSTRING_MATCH);
+                parameters.put("pattern", "%" + escapeLike(search.toLowerCase(Locale.ROOT)) + "%");
+            }
+            if (criteria.getCreatedFrom() != null) {
+                conditions.add("p.created_at >= :createdFrom");
+                timestamps.put("createdFrom", Date.from(criteria.getCreatedFrom()));
+            }
+            if (criteria.getCreatedTo() != null) {
+                conditions.add("p.created_at < :createdTo");
+                timestamps.put("createdTo", Date.from(criteria.getCreatedTo()));
+            }
+
+            List<String> priceConditions = new ArrayList<>(2);
+            if (criteria.getMinPrice() != null) {
+                priceConditions.add("p.price >= :minPrice");
+                parameters.put("minPrice", criteria.getMinPrice());
+            }
+            if (criteria.getMaxPrice() != null) {
+                priceConditions.add("p.price <= :maxPrice");
+                parameters.put("maxPrice", criteria.getMaxPrice());
+            }
+            if (!priceConditions.isEmpty()) {
+                price = "(" + String.join(" AND ", priceConditions) + ")";
+            }
+            if (criteria.getInStock() != null) {
+                stock = criteria.getInStock() ? "p.available_qty > 0" : "p.available_qty <= 0";
+            }
+        }
+
+        private String where(boolean withPrice, boolean withStock) {
+            List<String> all = new ArrayList<>(conditions);
+            if (withPrice && price != null) {
+                all.add(price);
+            }
+            if (withStock && stock != null) {
+                all.add(stock);
+            }
+            return all.isEmpty() ? "" : " WHERE " + String.join(" AND ", all);
+        }
+
+        private boolean ranksByText(ProductSort sort) {
+            return fullText && (sort == null || sort == ProductSort.RELEVANCE);
+        }
+
+        private String orderBy(ProductSort sort) {
+            if (ranksByText(sort)) {
+                return "(LOWER(p.sku) = :term) DESC, " +
+                    "ts_rank(p.search_vector, plainto_tsquery('english', :search)) DESC, p.id";
+            }
+            switch (sort == null ? ProductSort.RELEVANCE : sort) {
+                case PRICE_ASC:
+                    return "p.price, p.id";
+                case PRICE_DESC:
+                    return "p.price DESC, p.id DESC";
+                case NAME:
+                    return "p.name, p.id";
+                case NEWEST:
+                    return "p.created_at DESC, p.id DESC";
+                default:
+                    return "p.id";
+            }
+        }
+
+        private void bind(Query query) {
+            for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+                query.setParameter(parameter.getKey(), parameter.getValue());
+            }
+            for (Map.Entry<String, Date> timestamp : timestamps.entrySet()) {
+                query.setParameter(timestamp.getKey(), timestamp.getValue(), TemporalType.TIMESTAMP);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.app.product.service;
+
+import com.example.app.common.util.ReadThroughCache;
+import com.example.app.product.dto.ProductResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through near-cache of {@link ProductResponse}s for {@code getProductById} and {@code getProductsByIds}, a
+ * {@link ReadThroughCache} bounded by {@code product.cache.max-size} and {@code product.cache.ttl-ms}. IDs without
+ * a product are remembered for {@code product.cache.negative-ttl-ms}. Writers invalidate a product once their
+ * transaction has completed.
+ */
+@Component
+public class ProductCache {
+
+    @Value("${product.cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${product.cache.max-size:10000}")
+    private int maxSize = 10000;
+
+    @Value("${product.cache.ttl-ms:300000}")
+    private long ttlMs = 300000;
+
+    @Value("${product.cache.negative-ttl-ms:30000}")
+    private long negativeTtlMs = 30000;
+
+    private final ReadThroughCache<UUID, ProductResponse> cache;
+
+    @Autowired
+    public ProductCache(MeterRegistry meterRegistry) {
+        this.cache = new ReadThroughCache<>(meterRegistry, "products.cache", "product", () -> maxSize,
+            response -> response != null ? ttlMs : negativeTtlMs, ProductCache::copy);
+    }
+
+    // Setters for testing
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public void setTtlMs(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    public void setNegativeTtlMs(long negativeTtlMs) {
+        this.negativeTtlMs = negativeTtlMs;
+    }
+
+    /**
+     * Returns the cached product, or runs loader and caches its result unless the product was invalidated
+     * meanwhile. Threads missing the same ID while a load is running wait for that load instead of starting
+     * their own.
+     * @param loader Returns null when there is no product with the ID
+     * @return The product, or null when there is none
+     */
+    public ProductResponse get(UUID productId, Supplier<ProductResponse> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        return cache.get(productId, loader);
+    }
+
+    /**
+     * Returns the cached products and loads all missing ones with a single call to loader. IDs the loader does not
+     * return are cached as not found. Batch loads are not shared with concurrent lookups.
+     * @param loader Returns the products found among the given IDs, keyed by ID
+     * @return The products found, keyed by ID
+     */
+    public Map<UUID, ProductResponse> getAll(Collection<UUID> productIds,
+                                             Function<Collection<UUID>, Map<UUID, ProductResponse>> loader) {
+        if (!enabled) {
+            return loader.apply(productIds);
+        }
+        return cache.getAll(productIds, loader);
+    }
+
+    /**
+     * Drops the product once the current transaction completes, whether it committed or not.
+     */
+    public void invalidateOnCompletion(UUID productId) {
+        if (!enabled) {
+            return;
+        }
+        cache.invalidateOnCompletion(productId);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void invalidate(UUID productId) {
+        cache.invalidate(productId);
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    private static ProductResponse copy(ProductResponse source) {
+        ProductResponse copy = new ProductResponse();
+        copy.setId(source.getId());
+        copy.setSku(source.getSku());
+        copy.setName(source.getName());
+        copy.setDescription(source.getDescription());
+        copy.setPrice(source.getPrice());
+        copy.setAvailableQty(source.getAvailableQty());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        return copy;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.app.product.service;
+
+import com.example.app.product.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Brings products changed on any node into this node's {@link ProductSearchIndex} and {@link ProductSuggester}, and
+ * drops them from its {@link ProductCache}.
+ * <p>
+ * Writers index their own products and invalidate their cache entries after commit, which only reaches the node
+ * they run on. A node would otherwise keep answering 404 for a product created elsewhere until its not-found entry
+ * expires, and serve another node's edits stale for the full cache TTL. Every node therefore
+ * also follows the products table by {@code (updated_at, id)}. Each run starts {@code product.catalog.sync.overlap-ms}
+ * before the newest change seen so far, so rows whose transaction committed late, whose writer's clock lagged or
+ * that a lagging replica did not have yet are still picked up; re-adding an unchanged product does nothing.
+ */
+@Component
+@ConditionalOnProperty(name = "product.catalog.sync.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductCatalogSync {
+    private static final Logger logger = LoggerFactory.getLogger(ProductCatalogSync.class);
+
+    // Lowest UUID in the database's ordering, which compares the bytes unsigned
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductSuggester productSuggester;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Value("${product.catalog.sync.overlap-ms:60000}")
+    private long overlapMs = 60000;
+
+    @Value("${product.catalog.sync.batch-size:500}")
+    private int batchSize = 500;
+
+    private final Counter changesCounter;
+
+    // Changes older than this were loaded at startup or by an earlier run
+    private long seenUntil = System.currentTimeMillis();
+
+    @Autowired
+    public ProductCatalogSync(MeterRegistry meterRegistry) {
+        this.changesCounter = Counter.builder("products.catalog.sync.changes")
+            .description("Number of changed products read by the catalog sync, re-reads included")
+            .register(meterRegistry);
+    }
+
+    // Setters for testing
+    public void setProductRepository(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    public void setProductSearchIndex(ProductSearchIndex productSearchIndex) {
+        this.productSearchIndex = productSearchIndex;
+    }
+
+    public void setProductSuggester(ProductSuggester productSuggester) {
+        this.productSuggester = productSuggester;
+    }
+
+    public void setProductCache(ProductCache productCache) {
+        this.productCache = productCache;
+    }
+
+    public void setOverlapMs(long overlapMs) {
+        this.overlapMs = overlapMs;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Reads the products changed since the last run, batch by batch, hands them to the index and suggester and
+     * drops them from the cache.
+     * @return Number of changed products read
+     */
+    @Scheduled(fixedDelayString = "${product.catalog.sync.interval-ms:5000}")
+    public synchronized int sync() {
+        boolean indexEnabled = productSearchIndex.isEnabled();
+        boolean suggesterEnabled = productSuggester.isEnabled();
+        boolean cacheEnabled = productCache.isEnabled();
+        if (!indexEnabled && !suggesterEnabled && !cacheEnabled) {
+            return 0;
+        }
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        Date updatedAt = new Date(seenUntil - overlapMs);
+        UUID id = FIRST_ID;
+        int read = 0;
+        List<Object[]> rows;
+        do {
+            Date fromUpdatedAt = updatedAt;
+            UUID fromId = id;
+            rows = template.execute(status -> productRepository.findSearchDocumentsChangedAfter(
+                fromUpdatedAt, fromId, PageRequest.of(0, batchSize)));
+            for (Object[] row : rows) {
+                id = (UUID) row[0];
+                updatedAt = (Date) row[4];
+                if (indexEnabled) {
+                    productSearchIndex.index(id, (String) row[1], (String) row[2], (String) row[3]);
+                }
+                if (suggesterEnabled) {
+                    productSuggester.add(id, (String) row[1], (String) row[2]);
+                }
+                if (cacheEnabled) {
+                    productCache.invalidate(id);
+                }
+            }
+            read += rows.size();
+        } while (rows.size() == batchSize);
+
+        seenUntil = Math.max(seenUntil, updatedAt.getTime());
+        changesCounter.increment(read);
+        logger.debug("Catalog sync read {} changed products", read);
+        return read;
+    }
+}
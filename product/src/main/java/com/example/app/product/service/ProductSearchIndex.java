@@ -0,0 +1,540 @@
+package com.example.app.product.service;
+
+import com.example.app.product.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over product name, SKU and description, used when {@code product.search.mode=INDEX}.
+ * <p>
+ * Every indexed product gets a dense ordinal. Words of all three fields and trigrams of name and SKU map to
+ * postings: sorted {@code int[]} arrays of ordinals, so a query is a few array intersections. A product matches
+ * when each word of the term is a word of one of its fields, or when the whole term is a substring of its name
+ * or SKU; an exact SKU comes first, the rest in ordinal order. Re-indexing a changed product retires its old
+ * ordinal; re-indexing an unchanged one does nothing. Once more than {@code product.search.index.compact-ratio} of
+ * the ordinals are retired, the index is compacted: live products are renumbered in their current order and retired
+ * ordinals are dropped from the postings, so memory follows the catalog size rather than its edit history.
+ * <p>
+ * Ordinal order is the order products were indexed in, with changed products moved to the end, and it differs
+ * between nodes. It is not a relevance order: while the index is loading, the database answers the same search
+ * ranked by {@code ts_rank} in FULL_TEXT mode, so results may come back in a different order.
+ * <p>
+ * The index is loaded in the background once the application is ready and is not used until loading finished.
+ * Changes made on this node are indexed after their commit; {@link ProductCatalogSync} brings in those made on
+ * other nodes.
+ */
+@Component
+public class ProductSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final int[] NO_HITS = new int[0];
+    private static final int GRAM = 3;
+    // Smaller indexes are not worth compacting
+    private static final int MIN_RETIRED_TO_COMPACT = 1024;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("#{'${product.search.mode:LIKE}' == 'INDEX'}")
+    private boolean enabled = false;
+
+    @Value("${product.search.index.compact-ratio:0.5}")
+    private double compactRatio = 0.5;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> words = new HashMap<>();
+    private final Map<String, PostingList> trigrams = new HashMap<>();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final Map<String, Integer> skuOrdinals = new HashMap<>();
+    private final BitSet retired = new BitSet();
+    private int retiredCount;
+    private UUID[] ids = new UUID[1024];
+    private String[] names = new String[1024];
+    private String[] skus = new String[1024];
+    private int[] descriptionHashes = new int[1024];
+    private int size;
+
+    private volatile boolean ready;
+
+    @Autowired
+    public ProductSearchIndex(MeterRegistry meterRegistry) {
+        Gauge.builder("products.search.index.size", this, ProductSearchIndex::liveCount)
+            .description("Number of products held by the product search index")
+            .register(meterRegistry);
+    }
+
+    // Setters for testing
+    public void setProductRepository(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setCompactRatio(double compactRatio) {
+        this.compactRatio = compactRatio;
+    }
+
+    /**
+     * Whether searches can be answered from the index; false while it is disabled or still loading.
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        Thread loader = new Thread(this::load, "product-search-index");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Indexes every product in the catalog, then marks the index ready. Products indexed concurrently are
+     * simply re-indexed.
+     */
+    public void load() {
+        long start = System.nanoTime();
+        try {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            template.executeWithoutResult(status -> {
+                try (Stream<Object[]> documents = productRepository.streamSearchDocuments()) {
+                    documents.forEach(row ->
+                        index((UUID) row[0], (String) row[1], (String) row[2], (String) row[3]));
+                }
+            });
+            ready = true;
+            logger.info("Product search index loaded {} products in {} ms",
+                liveCount(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            logger.error("Could not load the product search index; searches keep using the database", e);
+        }
+    }
+
+    /**
+     * Indexes the product once the current transaction commits, or immediately when there is none.
+     */
+    public void indexAfterCommit(UUID id, String sku, String name, String description) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            index(id, sku, name, description);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                index(id, sku, name, description);
+            }
+        });
+    }
+
+    /**
+     * Adds the product, replacing whatever was indexed for it before unless that is unchanged.
+     */
+    public void index(UUID id, String sku, String name, String description) {
+        String lowerSku = lower(sku);
+        String lowerName = lower(name);
+        String lowerDescription = lower(description);
+        lock.writeLock().lock();
+        try {
+            Integer previous = ordinals.get(id);
+            if (previous != null && skus[previous].equals(lowerSku) && names[previous].equals(lowerName)
+                    && descriptionHashes[previous] == lowerDescription.hashCode()) {
+                return;
+            }
+            if (previous != null) {
+                retire(previous);
+            }
+            int ordinal = size;
+            if (ordinal == ids.length) {
+                int capacity = ids.length * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                names = Arrays.copyOf(names, capacity);
+                skus = Arrays.copyOf(skus, capacity);
+                descriptionHashes = Arrays.copyOf(descriptionHashes, capacity);
+            }
+            ids[ordinal] = id;
+            names[ordinal] = lowerName;
+            skus[ordinal] = lowerSku;
+            descriptionHashes[ordinal] = lowerDescription.hashCode();
+            size++;
+            ordinals.put(id, ordinal);
+            skuOrdinals.put(lowerSku, ordinal);
+
+            addWords(lowerSku, ordinal);
+            addWords(lowerName, ordinal);
+            addWords(lowerDescription, ordinal);
+            addTrigrams(lowerSku, ordinal);
+            addTrigrams(lowerName, ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the product, e.g. once a search found that its row no longer exists.
+     */
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(id);
+            if (ordinal != null) {
+                retire(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Evaluates the term and returns the IDs of one page of matches.
+     * @param offset Number of matches to skip
+     * @param limit Maximum number of IDs to return
+     */
+    public Hits search(String term, int offset, int limit) {
+        String query = lower(term.trim());
+        lock.readLock().lock();
+        try {
+            int[] matches = union(matchWords(query), matchSubstring(query));
+            int total = 0;
+            Integer exactSku = skuOrdinals.get(query);
+            boolean exactFirst = exactSku != null && Arrays.binarySearch(matches, exactSku) >= 0;
+            if (exactFirst) {
+                // Move the exact SKU to the front, keeping the others in ordinal order
+                int position = Arrays.binarySearch(matches, exactSku);
+                System.arraycopy(matches, 0, matches, 1, position);
+                matches[0] = exactSku;
+            }
+            List<UUID> page = new ArrayList<>(Math.max(0, Math.min(limit, matches.length - offset)));
+            for (int ordinal : matches) {
+                if (retired.get(ordinal)) {
+                    continue;
+                }
+                if (total >= offset && page.size() < limit) {
+                    page.add(ids[ordinal]);
+                }
+                total++;
+            }
+            return new Hits(page, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int liveCount() {
+        lock.readLock().lock();
+        try {
+            return size - retiredCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of ordinals handed out, retired ones included.
+     */
+    int ordinalCount() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the ordinal as no longer matching and compacts once too many are. Called under the write lock.
+     */
+    private void retire(int ordinal) {
+        retired.set(ordinal);
+        retiredCount++;
+        skuOrdinals.remove(skus[ordinal], ordinal);
+        if (retiredCount >= MIN_RETIRED_TO_COMPACT && retiredCount > size * compactRatio) {
+            compact();
+        }
+    }
+
+    /**
+     * Renumbers the live products densely, keeping their order, and rewrites every posting list accordingly.
+     * Postings stay sorted because the renumbering preserves order. Called under the write lock.
+     */
+    private void compact() {
+        long start = System.nanoTime();
+        int retiredBefore = retiredCount;
+        int[] renumbered = new int[size];
+        int live = 0;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (retired.get(ordinal)) {
+                renumbered[ordinal] = -1;
+                continue;
+            }
+            renumbered[ordinal] = live;
+            ids[live] = ids[ordinal];
+            names[live] = names[ordinal];
+            skus[live] = skus[ordinal];
+            descriptionHashes[live] = descriptionHashes[ordinal];
+            live++;
+        }
+        Arrays.fill(ids, live, size, null);
+        Arrays.fill(names, live, size, null);
+        Arrays.fill(skus, live, size, null);
+        compact(words, renumbered);
+        compact(trigrams, renumbered);
+        ordinals.replaceAll((id, ordinal) -> renumbered[ordinal]);
+        skuOrdinals.replaceAll((sku, ordinal) -> renumbered[ordinal]);
+        retired.clear();
+        retiredCount = 0;
+        size = live;
+        logger.debug("Compacted the product search index: dropped {} retired products in {} ms",
+            retiredBefore, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void compact(Map<String, PostingList> postings, int[] renumbered) {
+        Iterator<PostingList> lists = postings.values().iterator();
+        while (lists.hasNext()) {
+            PostingList list = lists.next();
+            int kept = 0;
+            for (int i = 0; i < list.size; i++) {
+                int ordinal = renumbered[list.values[i]];
+                if (ordinal >= 0) {
+                    list.values[kept++] = ordinal;
+                }
+            }
+            if (kept == 0) {
+                lists.remove();
+                continue;
+            }
+            list.size = kept;
+            if (kept < list.values.length / 4) {
+                list.values = Arrays.copyOf(list.values, Math.max(4, kept * 2));
+            }
+        }
+    }
+
+    /**
+     * Ordinals having every word of the query.
+     */
+    private int[] matchWords(String query) {
+        List<String> queryWords = tokenize(query);
+        if (queryWords.isEmpty()) {
+            return NO_HITS;
+        }
+        PostingList[] lists = new PostingList[queryWords.size()];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = words.get(queryWords.get(i));
+            if (lists[i] == null) {
+                return NO_HITS;
+            }
+        }
+        return intersect(lists);
+    }
+
+    /**
+     * Ordinals whose name or SKU contains the query; trigram postings narrow the candidates, which are then checked.
+     */
+    private int[] matchSubstring(String query) {
+        if (query.isEmpty()) {
+            return NO_HITS;
+        }
+        int[] candidates;
+        int count;
+        if (query.length() < GRAM) {
+            candidates = null;
+            count = size;
+        } else {
+            PostingList[] lists = new PostingList[query.length() - GRAM + 1];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = trigrams.get(query.substring(i, i + GRAM));
+                if (lists[i] == null) {
+                    return NO_HITS;
+                }
+            }
+            candidates = intersect(lists);
+            count = candidates.length;
+        }
+
+        int[] matches = new int[count];
+        int found = 0;
+        for (int i = 0; i < count; i++) {
+            int ordinal = candidates == null ? i : candidates[i];
+            if (names[ordinal].contains(query) || skus[ordinal].contains(query)) {
+                matches[found++] = ordinal;
+            }
+        }
+        return found == count ? matches : Arrays.copyOf(matches, found);
+    }
+
+    private void addWords(String text, int ordinal) {
+        for (String word : tokenize(text)) {
+            words.computeIfAbsent(word, key -> new PostingList()).add(ordinal);
+        }
+    }
+
+    private void addTrigrams(String text, int ordinal) {
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            trigrams.computeIfAbsent(text.substring(i, i + GRAM), key -> new PostingList()).add(ordinal);
+        }
+    }
+
+    /**
+     * Runs of letters and digits.
+     */
+    static List<String> tokenize(String text) {
+        if (text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static int[] intersect(PostingList[] lists) {
+        PostingList shortest = lists[0];
+        for (PostingList list : lists) {
+            if (list.size < shortest.size) {
+                shortest = list;
+            }
+        }
+        int[] result = Arrays.copyOf(shortest.values, shortest.size);
+        int count = result.length;
+        for (PostingList list : lists) {
+            if (list == shortest) {
+                continue;
+            }
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < count && j < list.size; i++) {
+                int ordinal = result[i];
+                while (j < list.size && list.values[j] < ordinal) {
+                    j++;
+                }
+                if (j < list.size && list.values[j] == ordinal) {
+                    result[kept++] = ordinal;
+                }
+            }
+            count = kept;
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        if (a.length == 0) {
+            return b;
+        }
+        if (b.length == 0) {
+            return a;
+        }
+        int[] result = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < a.length || j < b.length) {
+            int next;
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                next = a[i++];
+            } else if (i == a.length || b[j] < a[i]) {
+                next = b[j++];
+            } else {
+                next = a[i++];
+                j++;
+            }
+            result[count++] = next;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Growable, ascending array of ordinals.
+     */
+    private static final class PostingList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int ordinal) {
+            // Ordinals arrive in increasing order; a field repeating a token adds it once
+            if (size > 0 && values[size - 1] == ordinal) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = ordinal;
+        }
+    }
+
+    /**
+     * One page of matching product IDs and the number of matches overall.
+     */
+    public static final class Hits {
+        private final List<UUID> ids;
+        private final int total;
+
+        Hits(List<UUID> ids, int total) {
+            this.ids = ids;
+            this.total = total;
+        }
+
+        public List<UUID> getIds() {
+            return ids;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+    }
+}
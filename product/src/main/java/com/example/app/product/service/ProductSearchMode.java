@@ -0,0 +1,22 @@
+package com.example.app.product.service;
+
+/**
+ * How free-text product searches are evaluated ({@code product.search.mode}).
+ */
+public enum ProductSearchMode {
+    /**
+     * Case-insensitive substring match on name, SKU and description; needs no extra schema but scans the table.
+     */
+    LIKE,
+
+    /**
+     * Ranked full-text match plus SKU/name substrings, served by the indexes from db/patches/009.
+     */
+    FULL_TEXT,
+
+    /**
+     * Evaluated in memory by {@link ProductSearchIndex}; only the rows of the requested page are read from the
+     * database. Until the index has loaded, searches run as {@link #FULL_TEXT}.
+     */
+    INDEX
+}
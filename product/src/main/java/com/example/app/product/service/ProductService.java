@@ -1,9 +1,16 @@
 package com.example.app.product.service;
 
+import com.example.app.common.dto.CountPolicy;
 import com.example.app.common.dto.PagedResponse;
 import com.example.app.product.domain.ProductRequest;
+import com.example.app.product.domain.ProductSearchCriteria;
+import com.example.app.product.dto.ProductFacets;
 import com.example.app.product.dto.ProductResponse;
+import com.example.app.product.dto.ProductSuggestion;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -12,6 +19,33 @@ import java.util.UUID;
 public interface ProductService {
     ProductResponse createProduct(ProductRequest request);
     ProductResponse getProductById(UUID id);
-    PagedResponse<ProductResponse> searchProducts(String search, int page, int size);
+
+    /**
+     * Fetches several products; those not in the product cache are read in a single query.
+     * IDs that do not exist are simply absent from the returned map.
+     */
+    Map<UUID, ProductResponse> getProductsByIds(Collection<UUID> ids);
+
+    /**
+     * @param countPolicy How totalElements/totalPages are obtained; null means EXACT
+     */
+    PagedResponse<ProductResponse> searchProducts(String search, int page, int size, CountPolicy countPolicy);
+
+    /**
+     * Search with optional price, stock and creation-date filters and an explicit order.
+     * @param countPolicy How totalElements/totalPages are obtained; null means EXACT
+     */
+    PagedResponse<ProductResponse> searchProducts(ProductSearchCriteria criteria, int page, int size,
+                                                  CountPolicy countPolicy);
+
+    /**
+     * Facet counts (price buckets, in stock, price range) for the same criteria, in one query.
+     */
+    ProductFacets getProductFacets(ProductSearchCriteria criteria);
+
+    /**
+     * Autocomplete by SKU or name word prefix, most popular first; answered from memory.
+     */
+    List<ProductSuggestion> suggestProducts(String prefix, int limit);
 }
 
@@ -1,22 +1,40 @@
 package com.example.app.product.service;
 
+import com.example.app.common.dto.CountPolicy;
 import com.example.app.common.dto.PagedResponse;
 import com.example.app.common.exception.BusinessException;
 import com.example.app.common.exception.EntityNotFoundException;
+import com.example.app.common.util.CountCache;
 import com.example.app.product.domain.ProductRequest;
+import com.example.app.product.domain.ProductSearchCriteria;
+import com.example.app.product.dto.ProductFacets;
 import com.example.app.product.dto.ProductResponse;
+import com.example.app.product.dto.ProductSuggestion;
 import com.example.app.product.entity.Product;
 import com.example.app.product.mapper.ProductMapper;
 import com.example.app.product.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Implementation of product service.
@@ -30,6 +48,38 @@ public class ProductServiceImpl implements ProductService {
     
     @Autowired
     private ProductMapper productMapper;
+    
+    @Autowired
+    private CountCache countCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductSuggester productSuggester;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${product.search.mode:LIKE}")
+    private ProductSearchMode searchMode = ProductSearchMode.LIKE;
+
+    @Value("${product.facets.price-buckets:25,50,100,250,500}")
+    private BigDecimal[] priceBuckets = {
+        new BigDecimal("25"), new BigDecimal("50"), new BigDecimal("100"), new BigDecimal("250"), new BigDecimal("500")
+    };
+
+    // Setters for testing
+    public void setSearchMode(ProductSearchMode searchMode) {
+        this.searchMode = searchMode;
+    }
+
+    public void setProductCache(ProductCache productCache) {
+        this.productCache = productCache;
+    }
 
     @Override
     public ProductResponse createProduct(ProductRequest request) {
@@ -45,32 +95,197 @@ public class ProductServiceImpl implements ProductService {
         product.setAvailableQty(request.getAvailableQty());
 
         Product savedProduct = productRepository.save(product);
+        productSearchIndex.indexAfterCommit(savedProduct.getId(), savedProduct.getSku(), savedProduct.getName(),
+            savedProduct.getDescription());
+        productSuggester.addAfterCommit(savedProduct.getId(), savedProduct.getSku(), savedProduct.getName());
+        productCache.invalidateOnCompletion(savedProduct.getId());
         return productMapper.toResponse(savedProduct);
     }
 
+    /**
+     * Served from {@link ProductCache}; a hit opens no transaction and touches no connection. A miss loads in a
+     * read-write transaction so it reads the primary: a lagging replica could return the row an invalidation has
+     * just removed, and the cache would keep it.
+     */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ProductResponse getProductById(UUID id) {
-        Product product = productRepository.findById(id)
-            .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + id));
-        return productMapper.toResponse(product);
+        ProductResponse response = productCache.get(id, () -> new TransactionTemplate(transactionManager)
+            .execute(status -> productRepository.findById(id)
+                .map(productMapper::toResponse)
+                .orElse(null)));
+        if (response == null) {
+            throw new EntityNotFoundException("Product not found with id: " + id);
+        }
+        productSuggester.recordView(id);
+        return response;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<UUID, ProductResponse> getProductsByIds(Collection<UUID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        // Misses read the primary, as in getProductById
+        return productCache.getAll(ids, missing -> new TransactionTemplate(transactionManager).execute(status -> {
+            List<Product> products = productRepository.findByIdIn(missing);
+            Map<UUID, ProductResponse> result = new HashMap<>(products.size() * 2);
+            for (Product product : products) {
+                result.put(product.getId(), productMapper.toResponse(product));
+            }
+            return result;
+        }));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public PagedResponse<ProductResponse> searchProducts(String search, int page, int size) {
+    public PagedResponse<ProductResponse> searchProducts(String search, int page, int size, CountPolicy countPolicy) {
+        if (searchMode == ProductSearchMode.INDEX && StringUtils.hasText(search) && productSearchIndex.isReady()) {
+            return searchIndex(search, page, size, countPolicy);
+        }
+
         Pageable pageable = PageRequest.of(page, size);
-        Page<Product> productPage = productRepository.searchProducts(search, pageable);
+        String fullTextSearch = fullTextSearch(search);
+        if (countPolicy != null && countPolicy != CountPolicy.EXACT) {
+            Slice<ProductResponse> productSlice = fullTextSearch != null
+                ? productRepository.fullTextSearchSlice(fullTextSearch, pageable)
+                : productRepository.searchProductSlice(search, pageable);
+            long totalElements = countPolicy == CountPolicy.ESTIMATED && productSlice.hasNext()
+                ? estimateProductCount(search)
+                : PagedResponse.UNKNOWN_TOTAL;
+            return PagedResponse.ofSlice(
+                productSlice.getContent(),
+                page,
+                size,
+                productSlice.hasNext(),
+                totalElements,
+                countPolicy
+            );
+        }
+
+        Page<ProductResponse> productPage = fullTextSearch != null
+            ? productRepository.fullTextSearch(fullTextSearch, pageable)
+            : productRepository.searchProducts(search, pageable);
         
         return new PagedResponse<>(
-            productPage.getContent().stream()
-                .map(productMapper::toResponse)
-                .collect(Collectors.toList()),
+            productPage.getContent(),
             productPage.getNumber(),
             productPage.getSize(),
             productPage.getTotalElements(),
             productPage.getTotalPages()
         );
     }
-}
 
+    @Override
+    @Transactional(readOnly = true)
+    public PagedResponse<ProductResponse> searchProducts(ProductSearchCriteria criteria, int page, int size,
+                                                         CountPolicy countPolicy) {
+        if (!criteria.isFiltered()) {
+            return searchProducts(criteria.getSearch(), page, size, countPolicy);
+        }
+
+        // Filtered and sorted searches go to the database, where the listing indexes serve them
+        Pageable pageable = PageRequest.of(page, size);
+        boolean fullText = fullTextSearch(criteria.getSearch()) != null;
+        if (countPolicy != null && countPolicy != CountPolicy.EXACT) {
+            Slice<ProductResponse> productSlice = productRepository.findFilteredSlice(criteria, fullText, pageable);
+            long totalElements = countPolicy == CountPolicy.ESTIMATED && productSlice.hasNext()
+                ? countCache.get("products:filtered:" + fullText + ":" + criteria,
+                    () -> productRepository.countFiltered(criteria, fullText))
+                : PagedResponse.UNKNOWN_TOTAL;
+            return PagedResponse.ofSlice(
+                productSlice.getContent(),
+                page,
+                size,
+                productSlice.hasNext(),
+                totalElements,
+                countPolicy
+            );
+        }
+
+        Page<ProductResponse> productPage = productRepository.findFiltered(criteria, fullText, pageable);
+        return new PagedResponse<>(
+            productPage.getContent(),
+            productPage.getNumber(),
+            productPage.getSize(),
+            productPage.getTotalElements(),
+            productPage.getTotalPages()
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductFacets getProductFacets(ProductSearchCriteria criteria) {
+        boolean fullText = fullTextSearch(criteria.getSearch()) != null;
+        return productRepository.computeFacets(criteria, fullText, Arrays.asList(priceBuckets));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ProductSuggestion> suggestProducts(String prefix, int limit) {
+        return productSuggester.suggest(prefix, limit);
+    }
+
+    /**
+     * Evaluates the search in memory and reads only the rows of the requested page. The index knows the exact
+     * number of matches, so every count policy gets it for free. Matches whose row is gone are dropped from the
+     * index and from the total. An offset beyond the largest possible number of matches is clamped, which yields an
+     * empty last page.
+     */
+    private PagedResponse<ProductResponse> searchIndex(String search, int page, int size, CountPolicy countPolicy) {
+        long offset = (long) page * size;
+        ProductSearchIndex.Hits hits =
+            productSearchIndex.search(search, (int) Math.min(offset, Integer.MAX_VALUE), size);
+        List<ProductResponse> content = new ArrayList<>(hits.getIds().size());
+        int missing = 0;
+        if (!hits.getIds().isEmpty()) {
+            Map<String, ProductResponse> rows = new HashMap<>(hits.getIds().size() * 2);
+            for (ProductResponse row : productRepository.findResponsesByIdIn(hits.getIds())) {
+                rows.put(row.getId(), row);
+            }
+            for (UUID id : hits.getIds()) {
+                ProductResponse row = rows.get(id.toString());
+                if (row != null) {
+                    content.add(row);
+                } else {
+                    productSearchIndex.remove(id);
+                    missing++;
+                }
+            }
+        }
+
+        boolean hasNext = offset + hits.getIds().size() < hits.getTotal();
+        int total = hits.getTotal() - missing;
+        if (countPolicy != null && countPolicy != CountPolicy.EXACT) {
+            return PagedResponse.ofSlice(content, page, size, hasNext, total, countPolicy);
+        }
+        int totalPages = size > 0 ? (total + size - 1) / size : 0;
+        return new PagedResponse<>(content, page, size, total, totalPages);
+    }
+
+    private long estimateProductCount(String search) {
+        if (search == null || search.isEmpty()) {
+            Long estimate = productRepository.estimateRowCount();
+            if (estimate != null && estimate > 0) {
+                return estimate;
+            }
+        }
+        String fullTextSearch = fullTextSearch(search);
+        if (fullTextSearch != null) {
+            return countCache.get("products:fts:" + fullTextSearch,
+                () -> productRepository.countFullTextSearch(fullTextSearch));
+        }
+        return countCache.get("products:" + search, () -> productRepository.countSearchProducts(search));
+    }
+
+    /**
+     * The trimmed search term when it should go through the full-text indexes, otherwise null.
+     */
+    private String fullTextSearch(String search) {
+        if (searchMode == ProductSearchMode.LIKE || !StringUtils.hasText(search)) {
+            return null;
+        }
+        return search.trim();
+    }
+}
@@ -0,0 +1,538 @@
+package com.example.app.product.service;
+
+import com.example.app.product.dto.ProductSuggestion;
+import com.example.app.product.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Stream;
+
+/**
+ * Prefix autocomplete over product names and SKUs, enabled by {@code product.suggest.enabled}.
+ * <p>
+ * The start of every word of a name and the start of the SKU are keys: {@code long}s pointing at a product and an
+ * offset into its lowercased text, kept sorted by that text. The keys matching a prefix therefore form one range,
+ * found by binary search and scanned into a fixed top-k ranked by popularity (product views since startup,
+ * approximate), ties in key order. Lookups read an immutable snapshot without locking and never touch the
+ * database; adding a changed product merges its keys into a new snapshot.
+ * <p>
+ * The range of a short prefix covers a large part of the catalog, so prefixes of up to
+ * {@code product.suggest.short-prefix-length} characters get their top {@link #MAX_LIMIT} from a full scan that
+ * is reused for {@code product.suggest.short-prefix-ttl-ms} or until the snapshot changes; views recorded
+ * meanwhile show up after that. Longer prefixes scan at most {@code product.suggest.max-scan-keys} keys of their
+ * range and rank only those.
+ * <p>
+ * The catalog is loaded in the background once the application is ready; until then there are no suggestions.
+ * Products created on this node are added after their commit; {@link ProductCatalogSync} brings in those written
+ * on other nodes.
+ */
+@Component
+public class ProductSuggester {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggester.class);
+
+    public static final int MAX_LIMIT = 20;
+
+    private static final int NAME = 0;
+    private static final int SKU = 1;
+    private static final int MAX_OFFSET = 0xFFFF;
+    private static final int MAX_SHORT_PREFIXES = 4096;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${product.suggest.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${product.suggest.max-scan-keys:5000}")
+    private int maxScanKeys = 5000;
+
+    @Value("${product.suggest.short-prefix-length:2}")
+    private int shortPrefixLength = 2;
+
+    @Value("${product.suggest.short-prefix-ttl-ms:10000}")
+    private long shortPrefixTtlMs = 10000;
+
+    private final Object writeLock = new Object();
+    private final Map<UUID, Integer> ordinals = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(16);
+    private volatile boolean ready;
+    private final Map<String, ShortPrefixTop> shortPrefixTops = new ConcurrentHashMap<>();
+    // Products added while the catalog is loading, replayed on top of it; guarded by writeLock
+    private List<String[]> pending;
+
+    // Setters for testing
+    public void setProductRepository(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setMaxScanKeys(int maxScanKeys) {
+        this.maxScanKeys = maxScanKeys;
+    }
+
+    public void setShortPrefixLength(int shortPrefixLength) {
+        this.shortPrefixLength = shortPrefixLength;
+    }
+
+    public void setShortPrefixTtlMs(long shortPrefixTtlMs) {
+        this.shortPrefixTtlMs = shortPrefixTtlMs;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        Thread loader = new Thread(this::load, "product-suggester");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Replaces the suggestions with the whole catalog.
+     */
+    public void load() {
+        long start = System.nanoTime();
+        synchronized (writeLock) {
+            pending = new ArrayList<>();
+        }
+        try {
+            Snapshot loaded = new Snapshot(1024);
+            List<UUID> loadedIds = new ArrayList<>();
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            template.executeWithoutResult(status -> {
+                try (Stream<Object[]> documents = productRepository.streamSearchDocuments()) {
+                    documents.forEach(row -> {
+                        loaded.append((UUID) row[0], (String) row[1], (String) row[2], 0);
+                        loadedIds.add((UUID) row[0]);
+                    });
+                }
+            });
+            loaded.sortKeys();
+
+            synchronized (writeLock) {
+                ordinals.clear();
+                for (int i = 0; i < loadedIds.size(); i++) {
+                    ordinals.put(loadedIds.get(i), i);
+                }
+                snapshot = loaded;
+                List<String[]> replay = pending;
+                pending = null;
+                for (String[] product : replay) {
+                    add(UUID.fromString(product[0]), product[1], product[2]);
+                }
+            }
+            ready = true;
+            logger.info("Product suggestions loaded {} products in {} ms",
+                loadedIds.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                pending = null;
+            }
+            logger.error("Could not load product suggestions", e);
+        }
+    }
+
+    /**
+     * Adds the product once the current transaction commits, or immediately when there is none.
+     */
+    public void addAfterCommit(UUID id, String sku, String name) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(id, sku, name);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(id, sku, name);
+            }
+        });
+    }
+
+    /**
+     * Adds the product, replacing its previous name and SKU but keeping its popularity. Adding it unchanged does
+     * nothing.
+     */
+    public void add(UUID id, String sku, String name) {
+        synchronized (writeLock) {
+            if (pending != null) {
+                pending.add(new String[]{id.toString(), sku, name});
+            }
+            Snapshot current = snapshot;
+            Integer previous = ordinals.get(id);
+            if (previous != null && previous < current.size && Objects.equals(current.skus[previous], sku)
+                    && Objects.equals(current.names[previous], name)) {
+                return;
+            }
+            int popularity = previous == null ? 0 : current.popularity.get(previous);
+            Snapshot next = current.withProduct(id, sku, name, popularity, previous == null ? -1 : previous);
+            ordinals.put(id, current.size);
+            snapshot = next;
+        }
+    }
+
+    /**
+     * Counts a view of the product towards its popularity.
+     */
+    public void recordView(UUID id) {
+        Integer ordinal = ordinals.get(id);
+        if (ordinal != null) {
+            Snapshot current = snapshot;
+            if (ordinal < current.size) {
+                current.popularity.incrementAndGet(ordinal);
+            }
+        }
+    }
+
+    /**
+     * Most popular products whose SKU or a word of whose name starts with the prefix, case-insensitively.
+     * @param limit Maximum number of suggestions, capped at {@link #MAX_LIMIT}
+     */
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        if (!ready || prefix == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        String query = prefix.trim().toLowerCase(Locale.ROOT);
+        if (query.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Snapshot current = snapshot;
+        int k = Math.min(limit, MAX_LIMIT);
+        if (query.length() > shortPrefixLength) {
+            return suggestions(current, top(current, query, k, maxScanKeys), k);
+        }
+
+        long now = System.nanoTime();
+        ShortPrefixTop cached = shortPrefixTops.get(query);
+        if (cached == null || cached.snapshot != current
+                || now - cached.computedAt > TimeUnit.MILLISECONDS.toNanos(shortPrefixTtlMs)) {
+            if (shortPrefixTops.size() >= MAX_SHORT_PREFIXES) {
+                shortPrefixTops.clear();
+            }
+            cached = new ShortPrefixTop(current, top(current, query, MAX_LIMIT, Integer.MAX_VALUE), now);
+            shortPrefixTops.put(query, cached);
+        }
+        return suggestions(cached.snapshot, cached.ordinals, k);
+    }
+
+    /**
+     * Ordinals of the k most popular products among the first maxScan keys starting with the query.
+     */
+    private static int[] top(Snapshot current, String query, int k, int maxScan) {
+        int[] top = new int[k];
+        int[] topPopularity = new int[k];
+        int count = 0;
+        long[] keys = current.keys;
+        int start = current.lowerBound(query);
+        int end = (int) Math.min(keys.length, (long) start + maxScan);
+        for (int i = start; i < end && current.startsWith(keys[i], query); i++) {
+            int ordinal = ordinal(keys[i]);
+            int popularity = current.popularity.get(ordinal);
+            if (count == k && popularity <= topPopularity[k - 1]) {
+                continue;
+            }
+            if (contains(top, count, ordinal)) {
+                continue;
+            }
+            int slot = count < k ? count++ : k - 1;
+            while (slot > 0 && topPopularity[slot - 1] < popularity) {
+                top[slot] = top[slot - 1];
+                topPopularity[slot] = topPopularity[slot - 1];
+                slot--;
+            }
+            top[slot] = ordinal;
+            topPopularity[slot] = popularity;
+        }
+        return count == k ? top : Arrays.copyOf(top, count);
+    }
+
+    private static List<ProductSuggestion> suggestions(Snapshot current, int[] ordinals, int limit) {
+        int count = Math.min(limit, ordinals.length);
+        List<ProductSuggestion> suggestions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int ordinal = ordinals[i];
+            suggestions.add(new ProductSuggestion(current.ids[ordinal].toString(), current.skus[ordinal],
+                current.names[ordinal]));
+        }
+        return suggestions;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long key(int ordinal, int field, int offset) {
+        return ((long) ordinal << 32) | ((long) field << 16) | offset;
+    }
+
+    private static int ordinal(long key) {
+        return (int) (key >>> 32);
+    }
+
+    /**
+     * Top products of a short prefix, most popular first, as ordinals of the snapshot they were computed from.
+     */
+    private static final class ShortPrefixTop {
+        private final Snapshot snapshot;
+        private final int[] ordinals;
+        private final long computedAt;
+
+        private ShortPrefixTop(Snapshot snapshot, int[] ordinals, long computedAt) {
+            this.snapshot = snapshot;
+            this.ordinals = ordinals;
+            this.computedAt = computedAt;
+        }
+    }
+
+    /**
+     * Products by ordinal and the sorted keys pointing at them. Only appended to, and only before publication
+     * or in slots beyond {@code size} that published snapshots never reference.
+     */
+    private static final class Snapshot {
+        private long[] keys;
+        private int keyCount;
+        private UUID[] ids;
+        private String[] skus;
+        private String[] names;
+        private String[] lowerSkus;
+        private String[] lowerNames;
+        private AtomicIntegerArray popularity;
+        private int size;
+
+        private Snapshot(int capacity) {
+            this.keys = new long[0];
+            this.ids = new UUID[capacity];
+            this.skus = new String[capacity];
+            this.names = new String[capacity];
+            this.lowerSkus = new String[capacity];
+            this.lowerNames = new String[capacity];
+            this.popularity = new AtomicIntegerArray(capacity);
+        }
+
+        private Snapshot(Snapshot source) {
+            this.keys = source.keys;
+            this.keyCount = source.keyCount;
+            this.ids = source.ids;
+            this.skus = source.skus;
+            this.names = source.names;
+            this.lowerSkus = source.lowerSkus;
+            this.lowerNames = source.lowerNames;
+            this.popularity = source.popularity;
+            this.size = source.size;
+        }
+
+        /**
+         * Appends a product and its unsorted keys; {@link #sortKeys()} must run before publication.
+         */
+        private void append(UUID id, String sku, String name, int views) {
+            int ordinal = size;
+            if (ordinal == ids.length) {
+                grow();
+            }
+            ids[ordinal] = id;
+            skus[ordinal] = sku;
+            names[ordinal] = name;
+            lowerSkus[ordinal] = sku == null ? "" : sku.toLowerCase(Locale.ROOT);
+            lowerNames[ordinal] = name == null ? "" : name.toLowerCase(Locale.ROOT);
+            popularity.set(ordinal, views);
+            size++;
+
+            if (!lowerSkus[ordinal].isEmpty()) {
+                appendKey(key(ordinal, SKU, 0));
+            }
+            String lowerName = lowerNames[ordinal];
+            for (int i = 0; i < lowerName.length() && i <= MAX_OFFSET; i++) {
+                if (Character.isLetterOrDigit(lowerName.charAt(i))
+                        && (i == 0 || !Character.isLetterOrDigit(lowerName.charAt(i - 1)))) {
+                    appendKey(key(ordinal, NAME, i));
+                }
+            }
+        }
+
+        /**
+         * Copy of this snapshot with the product added, merging its keys in and dropping those of replaced.
+         */
+        private Snapshot withProduct(UUID id, String sku, String name, int views, int replaced) {
+            Snapshot next = new Snapshot(this);
+            next.keys = new long[0];
+            next.keyCount = 0;
+            next.append(id, sku, name, views);
+            next.sortKeys();
+            long[] added = Arrays.copyOf(next.keys, next.keyCount);
+
+            long[] merged = new long[keyCount + added.length];
+            int count = 0;
+            int j = 0;
+            for (int i = 0; i < keyCount; i++) {
+                long key = keys[i];
+                if (ordinal(key) == replaced) {
+                    continue;
+                }
+                while (j < added.length && next.compare(added[j], key) < 0) {
+                    merged[count++] = added[j++];
+                }
+                merged[count++] = key;
+            }
+            while (j < added.length) {
+                merged[count++] = added[j++];
+            }
+            next.keys = count == merged.length ? merged : Arrays.copyOf(merged, count);
+            next.keyCount = next.keys.length;
+            return next;
+        }
+
+        private void appendKey(long key) {
+            if (keyCount == keys.length) {
+                keys = Arrays.copyOf(keys, Math.max(16, keyCount * 2));
+            }
+            keys[keyCount++] = key;
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            skus = Arrays.copyOf(skus, capacity);
+            names = Arrays.copyOf(names, capacity);
+            lowerSkus = Arrays.copyOf(lowerSkus, capacity);
+            lowerNames = Arrays.copyOf(lowerNames, capacity);
+            AtomicIntegerArray grown = new AtomicIntegerArray(capacity);
+            for (int i = 0; i < size; i++) {
+                grown.set(i, popularity.get(i));
+            }
+            popularity = grown;
+        }
+
+        private void sortKeys() {
+            keys = Arrays.copyOf(keys, keyCount);
+            mergeSort(keys, new long[keyCount], 0, keyCount);
+        }
+
+        private void mergeSort(long[] values, long[] buffer, int from, int to) {
+            if (to - from < 2) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            mergeSort(values, buffer, from, mid);
+            mergeSort(values, buffer, mid, to);
+            if (compare(values[mid - 1], values[mid]) <= 0) {
+                return;
+            }
+            System.arraycopy(values, from, buffer, from, to - from);
+            int i = from;
+            int j = mid;
+            int k = from;
+            while (i < mid && j < to) {
+                values[k++] = compare(buffer[i], buffer[j]) <= 0 ? buffer[i++] : buffer[j++];
+            }
+            while (i < mid) {
+                values[k++] = buffer[i++];
+            }
+            while (j < to) {
+                values[k++] = buffer[j++];
+            }
+        }
+
+        private String text(long key) {
+            return ((int) (key >>> 16) & 1) == SKU ? lowerSkus[ordinal(key)] : lowerNames[ordinal(key)];
+        }
+
+        /**
+         * Orders keys by the text from their offset on, then by key.
+         */
+        private int compare(long a, long b) {
+            String textA = text(a);
+            String textB = text(b);
+            int i = (int) (a & MAX_OFFSET);
+            int j = (int) (b & MAX_OFFSET);
+            while (i < textA.length() && j < textB.length()) {
+                int diff = textA.charAt(i++) - textB.charAt(j++);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            int diff = (textA.length() - i) - (textB.length() - j);
+            return diff != 0 ? diff : Long.compare(a, b);
+        }
+
+        /**
+         * Index of the first key whose text is not less than the prefix.
+         */
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (comparePrefix(keys[mid], prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private boolean startsWith(long key, String prefix) {
+            return text(key).startsWith(prefix, (int) (key & MAX_OFFSET));
+        }
+
+        /**
+         * Negative if the key's text sorts before the prefix, zero if it starts with it, positive otherwise.
+         */
+        private int comparePrefix(long key, String prefix) {
+            String text = text(key);
+            int offset = (int) (key & MAX_OFFSET);
+            int length = Math.min(text.length() - offset, prefix.length());
+            for (int i = 0; i < length; i++) {
+                int diff = text.charAt(offset + i) - prefix.charAt(i);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return text.length() - offset < prefix.length() ? -1 : 0;
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.example.app.product.controller;
 
+import com.example.app.common.dto.CountPolicy;
 import com.example.app.common.dto.PagedResponse;
 import com.example.app.product.domain.ProductRequest;
+import com.example.app.product.domain.ProductSearchCriteria;
+import com.example.app.product.domain.ProductSort;
+import com.example.app.product.dto.ProductFacets;
 import com.example.app.product.dto.ProductResponse;
+import com.example.app.product.dto.ProductSuggestion;
 import com.example.app.product.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -88,19 +93,72 @@ class ProductControllerTest {
         verify(productService).getProductById(productId);
     }
 
+    @Test
+    void testSearchProducts_WithFiltersAndSort_PassesCriteria() {
+        // Arrange
+        ProductSearchCriteria criteria = ProductSearchCriteria.ofSearch("mouse");
+        criteria.setMinPrice(new BigDecimal("10"));
+        criteria.setInStock(true);
+        criteria.setSort(ProductSort.PRICE_ASC);
+        PagedResponse<ProductResponse> pagedResponse = new PagedResponse<>();
+        pagedResponse.setContent(java.util.Collections.singletonList(productResponse));
+        when(productService.searchProducts(criteria, 0, 20, CountPolicy.SKIP)).thenReturn(pagedResponse);
+
+        // Act
+        ResponseEntity<PagedResponse<ProductResponse>> response =
+            productController.searchProducts(criteria, 0, 20, CountPolicy.SKIP);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(pagedResponse, response.getBody());
+    }
+
+    @Test
+    void testGetProductFacets_ReturnsOk() {
+        // Arrange
+        ProductSearchCriteria criteria = ProductSearchCriteria.ofSearch("mouse");
+        ProductFacets facets = new ProductFacets();
+        facets.setTotal(3);
+        when(productService.getProductFacets(criteria)).thenReturn(facets);
+
+        // Act
+        ResponseEntity<ProductFacets> response = productController.getProductFacets(criteria);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3, response.getBody().getTotal());
+    }
+
+    @Test
+    void testSuggestProducts_ReturnsOk() {
+        // Arrange
+        ProductSuggestion suggestion = new ProductSuggestion(productId.toString(), "SKU-001", "Test Product");
+        when(productService.suggestProducts("tes", 10)).thenReturn(java.util.Collections.singletonList(suggestion));
+
+        // Act
+        ResponseEntity<java.util.List<ProductSuggestion>> response = productController.suggestProducts("tes", 10);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("SKU-001", response.getBody().get(0).getSku());
+    }
+
     @Test
     void testSearchProducts_WithSearchTerm_ReturnsOk() {
         // Arrange
+        ProductSearchCriteria criteria = ProductSearchCriteria.ofSearch("test");
         PagedResponse<ProductResponse> pagedResponse = new PagedResponse<>();
         pagedResponse.setContent(java.util.Collections.singletonList(productResponse));
         pagedResponse.setTotalElements(1);
         pagedResponse.setTotalPages(1);
 
-        when(productService.searchProducts(eq("test"), eq(0), eq(20))).thenReturn(pagedResponse);
+        when(productService.searchProducts(eq(criteria), eq(0), eq(20), eq(CountPolicy.EXACT)))
+            .thenReturn(pagedResponse);
 
         // Act
         ResponseEntity<PagedResponse<ProductResponse>> response = 
-            productController.searchProducts("test", 0, 20);
+            productController.searchProducts(criteria, 0, 20, CountPolicy.EXACT);
 
         // Assert
         assertNotNull(response);
@@ -108,51 +166,55 @@ class ProductControllerTest {
         assertNotNull(response.getBody());
         assertEquals(1, response.getBody().getContent().size());
 
-        verify(productService).searchProducts(eq("test"), eq(0), eq(20));
+        verify(productService).searchProducts(eq(criteria), eq(0), eq(20), eq(CountPolicy.EXACT));
     }
 
     @Test
     void testSearchProducts_WithoutSearchTerm_ReturnsOk() {
         // Arrange
+        ProductSearchCriteria criteria = ProductSearchCriteria.ofSearch(null);
         PagedResponse<ProductResponse> pagedResponse = new PagedResponse<>();
         pagedResponse.setContent(java.util.Collections.singletonList(productResponse));
         pagedResponse.setTotalElements(1);
         pagedResponse.setTotalPages(1);
 
-        when(productService.searchProducts(eq(null), eq(0), eq(20))).thenReturn(pagedResponse);
+        when(productService.searchProducts(eq(criteria), eq(0), eq(20), eq(CountPolicy.EXACT)))
+            .thenReturn(pagedResponse);
 
         // Act
         ResponseEntity<PagedResponse<ProductResponse>> response = 
-            productController.searchProducts(null, 0, 20);
+            productController.searchProducts(criteria, 0, 20, CountPolicy.EXACT);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
 
-        verify(productService).searchProducts(eq(null), eq(0), eq(20));
+        verify(productService).searchProducts(eq(criteria), eq(0), eq(20), eq(CountPolicy.EXACT));
     }
 
     @Test
     void testSearchProducts_WithCustomPagination_ReturnsOk() {
         // Arrange
+        ProductSearchCriteria criteria = ProductSearchCriteria.ofSearch("query");
         PagedResponse<ProductResponse> pagedResponse = new PagedResponse<>();
         pagedResponse.setContent(java.util.Collections.emptyList());
         pagedResponse.setTotalElements(0);
         pagedResponse.setTotalPages(0);
 
-        when(productService.searchProducts(eq("query"), eq(2), eq(10))).thenReturn(pagedResponse);
+        when(productService.searchProducts(eq(criteria), eq(2), eq(10), eq(CountPolicy.EXACT)))
+            .thenReturn(pagedResponse);
 
         // Act
         ResponseEntity<PagedResponse<ProductResponse>> response = 
-            productController.searchProducts("query", 2, 10);
+            productController.searchProducts(criteria, 2, 10, CountPolicy.EXACT);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
 
-        verify(productService).searchProducts(eq("query"), eq(2), eq(10));
+        verify(productService).searchProducts(eq(criteria), eq(2), eq(10), eq(CountPolicy.EXACT));
     }
 
     @Configuration
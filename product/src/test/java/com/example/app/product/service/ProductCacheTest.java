@@ -0,0 +1,246 @@
+package com.example.app.product.service;
+
+import com.example.app.product.dto.ProductResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private ProductCache cache;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ProductCache(meterRegistry);
+    }
+
+    @Test
+    void testGet_ReturnsCopies() {
+        // Arrange
+        UUID productId = UUID.randomUUID();
+        cache.get(productId, () -> response(productId, "Mouse"));
+
+        // Act
+        ProductResponse first = cache.get(productId, () -> fail("should be cached"));
+        first.setName("Changed");
+        ProductResponse second = cache.get(productId, () -> fail("should be cached"));
+
+        // Assert
+        assertEquals("Mouse", second.getName());
+        assertEquals(2, meterRegistry.counter("products.cache", "result", "hit").count());
+        assertEquals(1, meterRegistry.counter("products.cache", "result", "miss").count());
+    }
+
+    @Test
+    void testGet_CachesNotFoundForNegativeTtl() throws InterruptedException {
+        // Arrange
+        cache.setNegativeTtlMs(20);
+        UUID productId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        ProductResponse first = cache.get(productId, () -> missing(loads));
+        ProductResponse second = cache.get(productId, () -> missing(loads));
+        Thread.sleep(30);
+        cache.get(productId, () -> missing(loads));
+
+        // Assert
+        assertNull(first);
+        assertNull(second);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGet_ReloadsAfterTtl() throws InterruptedException {
+        // Arrange
+        cache.setTtlMs(1);
+        UUID productId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(productId, () -> response(productId, "Mouse", loads));
+        Thread.sleep(5);
+
+        // Act
+        cache.get(productId, () -> response(productId, "Mouse", loads));
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(1, meterRegistry.counter("products.cache.evictions", "cause", "expired").count());
+    }
+
+    @Test
+    void testGet_EvictsLeastRecentlyReadBeyondMaxSize() {
+        // Arrange
+        cache.setMaxSize(2);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        cache.get(first, () -> response(first, "First"));
+        cache.get(second, () -> response(second, "Second"));
+        cache.get(first, () -> fail("should be cached"));
+
+        // Act
+        cache.get(third, () -> response(third, "Third"));
+
+        // Assert
+        assertEquals(2, cache.size());
+        assertEquals(1, meterRegistry.counter("products.cache.evictions", "cause", "size").count());
+        cache.get(first, () -> fail("should be cached"));
+    }
+
+    @Test
+    void testGet_ConcurrentMissesShareOneLoad() throws Exception {
+        // Arrange
+        UUID productId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            // Act
+            List<Future<ProductResponse>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get(productId, () -> {
+                loadStarted.countDown();
+                await(release);
+                return response(productId, "Mouse", loads);
+            })));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < threads; i++) {
+                results.add(executor.submit(() -> cache.get(productId, () -> response(productId, "Mouse", loads))));
+            }
+            while (meterRegistry.counter("products.cache", "result", "coalesced").count() < threads - 1) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            // Assert
+            for (Future<ProductResponse> result : results) {
+                assertEquals("Mouse", result.get(5, TimeUnit.SECONDS).getName());
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testGet_FailedLoadIsNotCached() {
+        // Arrange
+        UUID productId = UUID.randomUUID();
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> cache.get(productId, () -> {
+            throw new IllegalStateException("database down");
+        }));
+        ProductResponse loaded = cache.get(productId, () -> response(productId, "Mouse"));
+
+        // Assert
+        assertEquals("Mouse", loaded.getName());
+    }
+
+    @Test
+    void testGet_DoesNotStoreLoadThatRacedAnInvalidation() {
+        // Arrange
+        UUID productId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act: the update commits while the stale row is being loaded
+        cache.get(productId, () -> {
+            cache.invalidate(productId);
+            return response(productId, "Old Name", loads);
+        });
+        ProductResponse reloaded = cache.get(productId, () -> response(productId, "New Name", loads));
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals("New Name", reloaded.getName());
+    }
+
+    @Test
+    void testGetAll_LoadsOnlyMissingProductsInOneCall() {
+        // Arrange
+        UUID cached = UUID.randomUUID();
+        UUID uncached = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        cache.get(cached, () -> response(cached, "Cached"));
+        List<Collection<UUID>> calls = new ArrayList<>();
+
+        // Act
+        Map<UUID, ProductResponse> result = cache.getAll(Arrays.asList(cached, uncached, unknown), ids -> {
+            calls.add(new ArrayList<>(ids));
+            return Collections.singletonMap(uncached, response(uncached, "Loaded"));
+        });
+        Map<UUID, ProductResponse> again = cache.getAll(Arrays.asList(uncached, unknown), ids -> fail("cached"));
+
+        // Assert
+        assertEquals(Collections.singletonList(Arrays.asList(uncached, unknown)), calls);
+        assertEquals("Cached", result.get(cached).getName());
+        assertEquals("Loaded", result.get(uncached).getName());
+        assertFalse(result.containsKey(unknown));
+        assertEquals(Collections.singleton(uncached), again.keySet());
+    }
+
+    @Test
+    void testGet_DisabledAlwaysLoads() {
+        // Arrange
+        cache.setEnabled(false);
+        UUID productId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        cache.get(productId, () -> response(productId, "Mouse", loads));
+        cache.get(productId, () -> response(productId, "Mouse", loads));
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ProductResponse missing(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return null;
+    }
+
+    private static ProductResponse response(UUID productId, String name, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return response(productId, name);
+    }
+
+    private static ProductResponse response(UUID productId, String name) {
+        ProductResponse response = new ProductResponse();
+        response.setId(productId.toString());
+        response.setSku("SKU-" + name);
+        response.setName(name);
+        response.setPrice(new BigDecimal("9.99"));
+        return response;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.app.product.service;
+
+import com.example.app.product.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCatalogSyncTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductSuggester productSuggester;
+
+    @Mock
+    private ProductCache productCache;
+
+    private ProductCatalogSync sync;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sync = new ProductCatalogSync(meterRegistry);
+        sync.setProductRepository(productRepository);
+        sync.setTransactionManager(transactionManager);
+        sync.setProductSearchIndex(productSearchIndex);
+        sync.setProductSuggester(productSuggester);
+        sync.setProductCache(productCache);
+        sync.setOverlapMs(60000);
+        sync.setBatchSize(2);
+    }
+
+    @Test
+    void testSync_IndexesChangesBatchByBatch() {
+        // Arrange
+        when(productSearchIndex.isEnabled()).thenReturn(true);
+        Date changedAt = new Date();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        long before = System.currentTimeMillis();
+        when(productRepository.findSearchDocumentsChangedAfter(any(Date.class), any(UUID.class), any(Pageable.class)))
+            .thenReturn(Arrays.asList(row(first, "Mouse", changedAt), row(second, "Keyboard", changedAt)))
+            .thenReturn(Collections.singletonList(row(third, "Cable", changedAt)));
+
+        // Act
+        int read = sync.sync();
+
+        // Assert
+        assertEquals(3, read);
+        ArgumentCaptor<Date> from = ArgumentCaptor.forClass(Date.class);
+        ArgumentCaptor<UUID> after = ArgumentCaptor.forClass(UUID.class);
+        verify(productRepository, times(2)).findSearchDocumentsChangedAfter(from.capture(), after.capture(),
+            any(Pageable.class));
+        assertTrue(from.getAllValues().get(0).getTime() <= before - 60000);
+        assertEquals(new UUID(0L, 0L), after.getAllValues().get(0));
+        // The second batch continues after the last row of the first
+        assertEquals(changedAt, from.getAllValues().get(1));
+        assertEquals(second, after.getAllValues().get(1));
+        verify(productSearchIndex).index(first, "SKU-Mouse", "Mouse", "About Mouse");
+        verify(productSearchIndex).index(third, "SKU-Cable", "Cable", "About Cable");
+        verify(productSuggester, never()).add(any(), any(), any());
+        assertEquals(3.0, meterRegistry.counter("products.catalog.sync.changes").count());
+    }
+
+    @Test
+    void testSync_NextRunStartsOverlapBeforeNewestChange() {
+        // Arrange: the writer's clock runs ahead of this node's
+        when(productSearchIndex.isEnabled()).thenReturn(true);
+        Date changedAt = new Date(System.currentTimeMillis() + 3600000);
+        when(productRepository.findSearchDocumentsChangedAfter(any(Date.class), any(UUID.class), any(Pageable.class)))
+            .thenReturn(Collections.singletonList(row(UUID.randomUUID(), "Mouse", changedAt)))
+            .thenReturn(Collections.emptyList());
+        sync.sync();
+
+        // Act
+        int read = sync.sync();
+
+        // Assert
+        assertEquals(0, read);
+        verify(productRepository).findSearchDocumentsChangedAfter(eq(new Date(changedAt.getTime() - 60000)),
+            eq(new UUID(0L, 0L)), any(Pageable.class));
+    }
+
+    @Test
+    void testSync_FeedsSuggesterWithoutIndex() {
+        // Arrange
+        when(productSuggester.isEnabled()).thenReturn(true);
+        UUID mouse = UUID.randomUUID();
+        when(productRepository.findSearchDocumentsChangedAfter(any(Date.class), any(UUID.class), any(Pageable.class)))
+            .thenReturn(Collections.singletonList(row(mouse, "Mouse", new Date())));
+
+        // Act
+        int read = sync.sync();
+
+        // Assert
+        assertEquals(1, read);
+        verify(productSuggester).add(mouse, "SKU-Mouse", "Mouse");
+        verify(productSearchIndex, never()).index(any(), any(), any(), any());
+    }
+
+    @Test
+    void testSync_InvalidatesCachedProductsChangedElsewhere() {
+        // Arrange: only the cache is on, e.g. in LIKE search mode
+        when(productCache.isEnabled()).thenReturn(true);
+        UUID created = UUID.randomUUID();
+        UUID edited = UUID.randomUUID();
+        when(productRepository.findSearchDocumentsChangedAfter(any(Date.class), any(UUID.class), any(Pageable.class)))
+            .thenReturn(Arrays.asList(row(created, "Mouse", new Date()), row(edited, "Keyboard", new Date())))
+            .thenReturn(Collections.emptyList());
+
+        // Act
+        int read = sync.sync();
+
+        // Assert
+        assertEquals(2, read);
+        verify(productCache).invalidate(created);
+        verify(productCache).invalidate(edited);
+        verify(productSearchIndex, never()).index(any(), any(), any(), any());
+        verify(productSuggester, never()).add(any(), any(), any());
+    }
+
+    @Test
+    void testSync_SkippedWhileIndexSuggesterAndCacheDisabled() {
+        // Arrange
+        when(productSearchIndex.isEnabled()).thenReturn(false);
+        when(productSuggester.isEnabled()).thenReturn(false);
+        when(productCache.isEnabled()).thenReturn(false);
+
+        // Act
+        int read = sync.sync();
+
+        // Assert
+        assertEquals(0, read);
+        verifyNoInteractions(productRepository);
+    }
+
+    private static Object[] row(UUID id, String name, Date updatedAt) {
+        return new Object[]{id, "SKU-" + name, name, "About " + name, updatedAt};
+    }
+}
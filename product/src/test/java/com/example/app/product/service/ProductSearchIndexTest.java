@@ -0,0 +1,164 @@
+package com.example.app.product.service;
+
+import com.example.app.product.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+    private MeterRegistry meterRegistry;
+    private final UUID mouseId = UUID.randomUUID();
+    private final UUID keyboardId = UUID.randomUUID();
+    private final UUID padId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new ProductSearchIndex(meterRegistry);
+        index.setEnabled(true);
+        index.index(mouseId, "MSE-100", "Wireless Mouse", "Ergonomic mouse with USB receiver");
+        index.index(keyboardId, "KBD-200", "Wireless Keyboard", "Full-size keyboard, USB receiver included");
+        index.index(padId, "MSE-100-PAD", "Mouse Pad", null);
+    }
+
+    @Test
+    void testSearch_AllWordsMustMatch() {
+        // Act
+        ProductSearchIndex.Hits hits = index.search("USB wireless", 0, 10);
+        ProductSearchIndex.Hits none = index.search("usb bluetooth", 0, 10);
+
+        // Assert
+        assertEquals(Arrays.asList(mouseId, keyboardId), hits.getIds());
+        assertEquals(2, hits.getTotal());
+        assertEquals(0, none.getTotal());
+    }
+
+    @Test
+    void testSearch_MatchesNameAndSkuFragments() {
+        // Act
+        ProductSearchIndex.Hits partialWord = index.search("keyb", 0, 10);
+        ProductSearchIndex.Hits skuFragment = index.search("e-10", 0, 10);
+        ProductSearchIndex.Hits shortTerm = index.search("pa", 0, 10);
+
+        // Assert
+        assertEquals(Collections.singletonList(keyboardId), partialWord.getIds());
+        assertEquals(Arrays.asList(mouseId, padId), skuFragment.getIds());
+        assertEquals(Collections.singletonList(padId), shortTerm.getIds());
+    }
+
+    @Test
+    void testSearch_ExactSkuFirst() {
+        // Act
+        ProductSearchIndex.Hits hits = index.search("mse-100-pad", 0, 10);
+        ProductSearchIndex.Hits mouse = index.search("mouse", 0, 10);
+
+        // Assert
+        assertEquals(padId, hits.getIds().get(0));
+        assertEquals(Arrays.asList(mouseId, padId), mouse.getIds());
+    }
+
+    @Test
+    void testSearch_PagesWithExactTotal() {
+        // Act
+        ProductSearchIndex.Hits first = index.search("mse", 0, 1);
+        ProductSearchIndex.Hits second = index.search("mse", 1, 1);
+        ProductSearchIndex.Hits beyond = index.search("mse", 5, 1);
+
+        // Assert
+        assertEquals(Collections.singletonList(mouseId), first.getIds());
+        assertEquals(Collections.singletonList(padId), second.getIds());
+        assertTrue(beyond.getIds().isEmpty());
+        assertEquals(2, beyond.getTotal());
+    }
+
+    @Test
+    void testIndex_ReplacesPreviousVersion() {
+        // Act
+        index.index(mouseId, "MSE-100", "Bluetooth Mouse", "Silent clicks");
+
+        // Assert
+        assertEquals(Collections.singletonList(keyboardId), index.search("wireless", 0, 10).getIds());
+        assertEquals(Collections.singletonList(mouseId), index.search("bluetooth", 0, 10).getIds());
+        assertEquals(Collections.singletonList(mouseId), index.search("MSE-100", 0, 1).getIds());
+        assertEquals(3, meterRegistry.get("products.search.index.size").gauge().value());
+    }
+
+    @Test
+    void testIndex_UnchangedProductKeepsItsPosition() {
+        // Act: a catalog sync re-reads the mouse without changes
+        index.index(mouseId, "MSE-100", "Wireless Mouse", "Ergonomic mouse with USB receiver");
+
+        // Assert
+        assertEquals(Arrays.asList(mouseId, keyboardId), index.search("wireless", 0, 10).getIds());
+    }
+
+    @Test
+    void testRemove_DropsProductFromSearches() {
+        // Act
+        index.remove(padId);
+        index.remove(UUID.randomUUID());
+
+        // Assert
+        assertEquals(Collections.singletonList(mouseId), index.search("mse", 0, 10).getIds());
+        assertEquals(0, index.search("MSE-100-PAD", 0, 10).getTotal());
+        assertEquals(2, meterRegistry.get("products.search.index.size").gauge().value());
+    }
+
+    @Test
+    void testIndex_CompactsRetiredOrdinals() {
+        // Arrange
+        UUID cableId = UUID.randomUUID();
+        index.index(cableId, "CBL-300", "USB Cable", "Braided cable");
+
+        // Act: each edit retires the mouse's previous ordinal
+        for (int i = 0; i < 3000; i++) {
+            index.index(mouseId, "MSE-100", "Wireless Mouse " + i, "Ergonomic mouse with USB receiver");
+        }
+        index.remove(keyboardId);
+
+        // Assert: memory follows the catalog, not its edit history, and results keep their order
+        assertTrue(index.ordinalCount() < 3000, "retired ordinals should have been compacted");
+        assertEquals(3, index.liveCount());
+        assertEquals(Arrays.asList(cableId, mouseId), index.search("usb", 0, 10).getIds());
+        assertEquals(Collections.singletonList(mouseId), index.search("mouse 2999", 0, 10).getIds());
+        assertEquals(0, index.search("mouse 2998", 0, 10).getTotal());
+        assertEquals(0, index.search("keyboard", 0, 10).getTotal());
+        assertEquals(Arrays.asList(mouseId, padId), index.search("MSE-100", 0, 10).getIds());
+        assertEquals(Collections.singletonList(padId), index.search("MSE-100-PAD", 0, 10).getIds());
+    }
+
+    @Test
+    void testLoad_IndexesCatalogAndBecomesReady() {
+        // Arrange
+        ProductRepository productRepository = mock(ProductRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        UUID cableId = UUID.randomUUID();
+        when(productRepository.streamSearchDocuments())
+            .thenReturn(Stream.<Object[]>of(new Object[]{cableId, "CBL-1", "USB Cable", "Braided"}));
+        index.setProductRepository(productRepository);
+        index.setTransactionManager(transactionManager);
+
+        // Act
+        assertFalse(index.isReady());
+        index.load();
+
+        // Assert
+        assertTrue(index.isReady());
+        assertEquals(Collections.singletonList(cableId), index.search("braided", 0, 10).getIds());
+    }
+}
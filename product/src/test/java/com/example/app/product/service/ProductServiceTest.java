@@ -1,11 +1,16 @@
 package com.example.app.product.service;
 
+import com.example.app.common.dto.CountPolicy;
 import com.example.app.common.exception.EntityNotFoundException;
 import com.example.app.product.domain.ProductRequest;
+import com.example.app.product.domain.ProductSearchCriteria;
+import com.example.app.product.domain.ProductSort;
+import com.example.app.product.dto.ProductFacets;
 import com.example.app.product.dto.ProductResponse;
 import com.example.app.product.entity.Product;
 import com.example.app.product.mapper.ProductMapper;
 import com.example.app.product.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,14 +21,19 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +45,15 @@ class ProductServiceTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductSuggester productSuggester;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -59,6 +78,8 @@ class ProductServiceTest {
         product.setDescription("Test Description");
         product.setPrice(new BigDecimal("99.99"));
         product.setAvailableQty(100);
+
+        productService.setProductCache(new ProductCache(new SimpleMeterRegistry()));
     }
 
     @Test
@@ -70,6 +91,8 @@ class ProductServiceTest {
 
         assertNotNull(response);
         verify(productRepository).save(any(Product.class));
+        verify(productSearchIndex).indexAfterCommit(productId, "SKU-001", "Test Product", "Test Description");
+        verify(productSuggester).addAfterCommit(productId, "SKU-001", "Test Product");
     }
 
     @Test
@@ -80,6 +103,7 @@ class ProductServiceTest {
         ProductResponse response = productService.getProductById(productId);
 
         assertNotNull(response);
+        verify(productSuggester).recordView(productId);
     }
 
     @Test
@@ -89,19 +113,257 @@ class ProductServiceTest {
         assertThrows(EntityNotFoundException.class, () -> productService.getProductById(productId));
     }
 
+    @Test
+    void testGetProductById_SecondReadServedFromCache() {
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productMapper.toResponse(product)).thenReturn(createProductResponse());
+
+        productService.getProductById(productId);
+        ProductResponse response = productService.getProductById(productId);
+
+        assertEquals("SKU-001", response.getSku());
+        verify(productRepository, times(1)).findById(productId);
+        verify(productSuggester, times(2)).recordView(productId);
+    }
+
+    @Test
+    void testGetProductById_MissReadsThePrimary() {
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productMapper.toResponse(product)).thenReturn(createProductResponse());
+
+        productService.getProductById(productId);
+
+        // Read-only transactions may be routed to a replica that has not seen the latest update yet
+        verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()));
+    }
+
+    @Test
+    void testGetProductById_NotFoundIsCachedUntilCreated() {
+        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        assertThrows(EntityNotFoundException.class, () -> productService.getProductById(productId));
+        assertThrows(EntityNotFoundException.class, () -> productService.getProductById(productId));
+        verify(productRepository, times(1)).findById(productId);
+
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(productMapper.toResponse(product)).thenReturn(createProductResponse());
+        productService.createProduct(productRequest);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+
+        assertNotNull(productService.getProductById(productId));
+        verify(productRepository, times(2)).findById(productId);
+    }
+
+    @Test
+    void testGetProductsByIds_LoadsOnlyUncachedProducts() {
+        UUID otherId = UUID.randomUUID();
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productMapper.toResponse(product)).thenReturn(createProductResponse());
+        productService.getProductById(productId);
+        when(productRepository.findByIdIn(anyCollection())).thenReturn(Collections.emptyList());
+
+        Map<UUID, ProductResponse> result = productService.getProductsByIds(Arrays.asList(productId, otherId));
+
+        assertEquals(1, result.size());
+        assertTrue(result.containsKey(productId));
+        verify(productRepository).findByIdIn(Collections.singletonList(otherId));
+    }
+
+    @Test
+    void testGetProductsByIds_SingleQuery() {
+        UUID missingId = UUID.randomUUID();
+        when(productRepository.findByIdIn(anyCollection())).thenReturn(Collections.singletonList(product));
+        when(productMapper.toResponse(product)).thenReturn(createProductResponse());
+
+        Map<UUID, ProductResponse> result = productService.getProductsByIds(Arrays.asList(productId, missingId));
+
+        assertEquals(1, result.size());
+        assertTrue(result.containsKey(productId));
+        assertFalse(result.containsKey(missingId));
+        verify(productRepository, times(1)).findByIdIn(anyCollection());
+        verify(productRepository, never()).findById(any(UUID.class));
+    }
+
+    @Test
+    void testGetProductsByIds_Empty() {
+        Map<UUID, ProductResponse> result = productService.getProductsByIds(Collections.emptyList());
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(productRepository);
+    }
+
     @Test
     void testSearchProducts() {
         Pageable pageable = PageRequest.of(0, 20);
-        Page<Product> productPage = new PageImpl<>(Collections.singletonList(product));
+        Page<ProductResponse> productPage = new PageImpl<>(Collections.singletonList(createProductResponse()));
         
         when(productRepository.searchProducts(anyString(), eq(pageable))).thenReturn(productPage);
-        when(productMapper.toResponse(any(Product.class))).thenReturn(createProductResponse());
 
         com.example.app.common.dto.PagedResponse<ProductResponse> response = 
-            productService.searchProducts("test", 0, 20);
+            productService.searchProducts("test", 0, 20, CountPolicy.EXACT);
 
         assertNotNull(response);
         assertEquals(1, response.getContent().size());
+        // Rows arrive already projected; no entity is mapped
+        verifyNoInteractions(productMapper);
+    }
+
+    @Test
+    void testSearchProducts_SkipPolicy_RunsNoCount() {
+        Pageable pageable = PageRequest.of(1, 20);
+        when(productRepository.searchProductSlice("test", pageable))
+            .thenReturn(new SliceImpl<>(Collections.singletonList(createProductResponse()), pageable, false));
+
+        com.example.app.common.dto.PagedResponse<ProductResponse> response =
+            productService.searchProducts("test", 1, 20, CountPolicy.SKIP);
+
+        assertEquals(1, response.getContent().size());
+        assertEquals(Boolean.FALSE, response.getHasNext());
+        // The last page proves the exact total without counting
+        assertEquals(21L, response.getTotalElements());
+        assertEquals(2, response.getTotalPages());
+        verify(productRepository, never()).countSearchProducts(any());
+        verify(productRepository, never()).searchProducts(any(), any());
+    }
+
+    @Test
+    void testSearchProducts_FullTextMode_UsesIndexedSearch() {
+        productService.setSearchMode(ProductSearchMode.FULL_TEXT);
+        Pageable pageable = PageRequest.of(0, 20);
+        when(productRepository.fullTextSearch("wireless mouse", pageable))
+            .thenReturn(new PageImpl<>(Collections.singletonList(createProductResponse()), pageable, 1));
+
+        com.example.app.common.dto.PagedResponse<ProductResponse> response =
+            productService.searchProducts("  wireless mouse ", 0, 20, CountPolicy.EXACT);
+
+        assertEquals(1, response.getContent().size());
+        assertEquals(1L, response.getTotalElements());
+        verify(productRepository, never()).searchProducts(any(), any());
+    }
+
+    @Test
+    void testSearchProducts_FullTextModeWithoutTerm_ListsAll() {
+        productService.setSearchMode(ProductSearchMode.FULL_TEXT);
+        Pageable pageable = PageRequest.of(0, 20);
+        when(productRepository.searchProducts(null, pageable))
+            .thenReturn(new PageImpl<>(Collections.singletonList(createProductResponse()), pageable, 1));
+
+        productService.searchProducts((String) null, 0, 20, CountPolicy.EXACT);
+
+        verify(productRepository, never()).fullTextSearch(any(), any());
+    }
+
+    @Test
+    void testSearchProducts_IndexMode_ReadsOnlyPageRows() {
+        productService.setSearchMode(ProductSearchMode.INDEX);
+        UUID otherId = UUID.randomUUID();
+        ProductResponse other = createProductResponse();
+        other.setId(otherId.toString());
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.search("mouse", 2, 2))
+            .thenReturn(new ProductSearchIndex.Hits(Arrays.asList(otherId, productId), 5));
+        when(productRepository.findResponsesByIdIn(Arrays.asList(otherId, productId)))
+            .thenReturn(Arrays.asList(createProductResponse(), other));
+
+        com.example.app.common.dto.PagedResponse<ProductResponse> response =
+            productService.searchProducts("mouse", 1, 2, CountPolicy.EXACT);
+
+        // Rows come back in index order, with the exact total from the index
+        assertEquals(otherId.toString(), response.getContent().get(0).getId());
+        assertEquals(productId.toString(), response.getContent().get(1).getId());
+        assertEquals(5L, response.getTotalElements());
+        assertEquals(3, response.getTotalPages());
+        verify(productRepository, never()).searchProducts(any(), any());
+        verify(productRepository, never()).countSearchProducts(any());
+    }
+
+    @Test
+    void testSearchProducts_IndexMode_DropsMatchesWithoutRow() {
+        productService.setSearchMode(ProductSearchMode.INDEX);
+        UUID deletedId = UUID.randomUUID();
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.search("mouse", 0, 2))
+            .thenReturn(new ProductSearchIndex.Hits(Arrays.asList(deletedId, productId), 2));
+        when(productRepository.findResponsesByIdIn(Arrays.asList(deletedId, productId)))
+            .thenReturn(Collections.singletonList(createProductResponse()));
+
+        com.example.app.common.dto.PagedResponse<ProductResponse> response =
+            productService.searchProducts("mouse", 0, 2, CountPolicy.EXACT);
+
+        assertEquals(1, response.getContent().size());
+        assertEquals(1L, response.getTotalElements());
+        assertEquals(1, response.getTotalPages());
+        verify(productSearchIndex).remove(deletedId);
+    }
+
+    @Test
+    void testSearchProducts_IndexMode_HugePageIsEmptyInsteadOfOverflowing() {
+        productService.setSearchMode(ProductSearchMode.INDEX);
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.search("mouse", Integer.MAX_VALUE, 20))
+            .thenReturn(new ProductSearchIndex.Hits(Collections.emptyList(), 5));
+
+        com.example.app.common.dto.PagedResponse<ProductResponse> response =
+            productService.searchProducts("mouse", 200000000, 20, CountPolicy.SKIP);
+
+        assertTrue(response.getContent().isEmpty());
+        assertFalse(response.getHasNext());
+        verify(productRepository, never()).findResponsesByIdIn(any());
+    }
+
+    @Test
+    void testSearchProducts_IndexNotReady_UsesFullTextSearch() {
+        productService.setSearchMode(ProductSearchMode.INDEX);
+        Pageable pageable = PageRequest.of(0, 20);
+        when(productSearchIndex.isReady()).thenReturn(false);
+        when(productRepository.fullTextSearch("mouse", pageable))
+            .thenReturn(new PageImpl<>(Collections.singletonList(createProductResponse()), pageable, 1));
+
+        com.example.app.common.dto.PagedResponse<ProductResponse> response =
+            productService.searchProducts("mouse", 0, 20, CountPolicy.EXACT);
+
+        assertEquals(1, response.getContent().size());
+        verify(productSearchIndex, never()).search(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testSearchProducts_WithFilters_UsesFilteredQuery() {
+        productService.setSearchMode(ProductSearchMode.FULL_TEXT);
+        ProductSearchCriteria criteria = ProductSearchCriteria.ofSearch("mouse");
+        criteria.setMaxPrice(new BigDecimal("50"));
+        criteria.setSort(ProductSort.NEWEST);
+        Pageable pageable = PageRequest.of(0, 20);
+        when(productRepository.findFiltered(criteria, true, pageable))
+            .thenReturn(new PageImpl<>(Collections.singletonList(createProductResponse()), pageable, 1));
+
+        com.example.app.common.dto.PagedResponse<ProductResponse> response =
+            productService.searchProducts(criteria, 0, 20, CountPolicy.EXACT);
+
+        assertEquals(1, response.getContent().size());
+        verify(productRepository, never()).fullTextSearch(any(), any());
+        verifyNoInteractions(productSearchIndex);
+    }
+
+    @Test
+    void testSearchProducts_CriteriaWithoutFilters_UsesPlainSearch() {
+        Pageable pageable = PageRequest.of(0, 20);
+        when(productRepository.searchProducts("mouse", pageable))
+            .thenReturn(new PageImpl<>(Collections.singletonList(createProductResponse()), pageable, 1));
+
+        productService.searchProducts(ProductSearchCriteria.ofSearch("mouse"), 0, 20, CountPolicy.EXACT);
+
+        verify(productRepository, never()).findFiltered(any(), anyBoolean(), any());
+    }
+
+    @Test
+    void testGetProductFacets_SingleAggregateQuery() {
+        ProductSearchCriteria criteria = ProductSearchCriteria.ofSearch("mouse");
+        ProductFacets facets = new ProductFacets();
+        when(productRepository.computeFacets(eq(criteria), eq(false), any())).thenReturn(facets);
+
+        assertSame(facets, productService.getProductFacets(criteria));
+        verify(productRepository).computeFacets(criteria, false, Arrays.asList(
+            new BigDecimal("25"), new BigDecimal("50"), new BigDecimal("100"), new BigDecimal("250"),
+            new BigDecimal("500")));
     }
 
     private ProductResponse createProductResponse() {
@@ -0,0 +1,167 @@
+package com.example.app.product.service;
+
+import com.example.app.product.dto.ProductSuggestion;
+import com.example.app.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProductSuggesterTest {
+
+    private ProductSuggester suggester;
+    private final UUID mouseId = UUID.randomUUID();
+    private final UUID keyboardId = UUID.randomUUID();
+    private final UUID padId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(productRepository.streamSearchDocuments()).thenReturn(Stream.of(
+            new Object[]{mouseId, "MSE-100", "Wireless Mouse", "Ergonomic"},
+            new Object[]{keyboardId, "KBD-200", "Wireless Keyboard", null},
+            new Object[]{padId, "MSE-100-PAD", "Mouse Pad", null}));
+
+        suggester = new ProductSuggester();
+        suggester.setProductRepository(productRepository);
+        suggester.setTransactionManager(transactionManager);
+        suggester.setEnabled(true);
+        suggester.load();
+    }
+
+    @Test
+    void testSuggest_MatchesSkuAndNameWordPrefixes() {
+        // Act
+        List<ProductSuggestion> byWord = suggester.suggest("MOU", 10);
+        List<ProductSuggestion> bySku = suggester.suggest("mse-100-", 10);
+        List<ProductSuggestion> none = suggester.suggest("ouse", 10);
+
+        // Assert
+        // Equal popularity: "mouse" sorts before "mouse pad"
+        assertEquals(Arrays.asList(mouseId.toString(), padId.toString()), ids(byWord));
+        assertEquals(Arrays.asList(padId.toString()), ids(bySku));
+        assertEquals("MSE-100-PAD", bySku.get(0).getSku());
+        assertEquals("Mouse Pad", bySku.get(0).getName());
+        assertTrue(none.isEmpty());
+    }
+
+    @Test
+    void testSuggest_RanksByPopularityAndLimits() {
+        // Arrange
+        suggester.recordView(keyboardId);
+        suggester.recordView(keyboardId);
+        suggester.recordView(mouseId);
+
+        // Act
+        List<ProductSuggestion> all = suggester.suggest("w", 10);
+        List<ProductSuggestion> top = suggester.suggest("w", 1);
+
+        // Assert
+        assertEquals(Arrays.asList(keyboardId.toString(), mouseId.toString()), ids(all));
+        assertEquals(Arrays.asList(keyboardId.toString()), ids(top));
+    }
+
+    @Test
+    void testSuggest_ListsProductOnceWhenSeveralKeysMatch() {
+        // Arrange
+        UUID cableId = UUID.randomUUID();
+        suggester.add(cableId, "CAB-1", "Cable Cable");
+
+        // Act
+        List<ProductSuggestion> suggestions = suggester.suggest("cab", 10);
+
+        // Assert
+        assertEquals(Arrays.asList(cableId.toString()), ids(suggestions));
+    }
+
+    @Test
+    void testAdd_ReplacesNameAndKeepsPopularity() {
+        // Arrange
+        suggester.recordView(padId);
+
+        // Act
+        suggester.add(padId, "MSE-100-PAD", "Desk Mat");
+
+        // Assert
+        assertEquals(Arrays.asList(mouseId.toString()), ids(suggester.suggest("mouse", 10)));
+        List<ProductSuggestion> desk = suggester.suggest("desk", 10);
+        assertEquals(Arrays.asList(padId.toString()), ids(desk));
+        assertEquals("Desk Mat", desk.get(0).getName());
+        assertEquals(padId.toString(), suggester.suggest("mse", 10).get(0).getId());
+    }
+
+    @Test
+    void testAdd_ManyProductsStayPrefixSearchable() {
+        // Act
+        for (int i = 0; i < 2000; i++) {
+            suggester.add(UUID.randomUUID(), String.format("GEN-%04d", i), "Generic Item " + i);
+        }
+
+        // Assert
+        assertEquals(20, suggester.suggest("gen", 50).size());
+        assertEquals(10, suggester.suggest("gen-199", 20).size());
+        assertEquals("GEN-1999", suggester.suggest("gen-1999", 5).get(0).getSku());
+    }
+
+    @Test
+    void testSuggest_LongPrefixRanksOnlyScannedKeys() {
+        // Arrange
+        suggester.setMaxScanKeys(1);
+        suggester.recordView(padId);
+
+        // Act: "mouse" sorts before "mouse pad", so the more popular pad is never scanned
+        List<ProductSuggestion> suggestions = suggester.suggest("mouse", 10);
+
+        // Assert
+        assertEquals(Arrays.asList(mouseId.toString()), ids(suggestions));
+    }
+
+    @Test
+    void testSuggest_ShortPrefixReusesTopUntilTtlOrChange() throws InterruptedException {
+        // Arrange
+        assertEquals(Arrays.asList(keyboardId.toString(), mouseId.toString()), ids(suggester.suggest("w", 10)));
+        suggester.recordView(mouseId);
+
+        // Act
+        suggester.add(mouseId, "MSE-100", "Wireless Mouse");
+        List<ProductSuggestion> cached = suggester.suggest("w", 10);
+        suggester.setShortPrefixTtlMs(0);
+        Thread.sleep(1);
+        List<ProductSuggestion> recomputed = suggester.suggest("w", 1);
+
+        // Assert: re-adding the unchanged mouse kept the snapshot and its cached top
+        assertEquals(Arrays.asList(keyboardId.toString(), mouseId.toString()), ids(cached));
+        assertEquals(Arrays.asList(mouseId.toString()), ids(recomputed));
+    }
+
+    @Test
+    void testSuggest_DisabledOrBlankReturnsNothing() {
+        // Arrange
+        ProductSuggester notLoaded = new ProductSuggester();
+
+        // Act & Assert
+        assertTrue(notLoaded.suggest("mouse", 10).isEmpty());
+        assertTrue(suggester.suggest("  ", 10).isEmpty());
+        assertTrue(suggester.suggest("mouse", 0).isEmpty());
+    }
+
+    private static List<String> ids(List<ProductSuggestion> suggestions) {
+        List<String> ids = new ArrayList<>();
+        for (ProductSuggestion suggestion : suggestions) {
+            ids.add(suggestion.getId());
+        }
+        return ids;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.app.user.controller;
 
+import com.example.app.common.dto.CountPolicy;
 import com.example.app.common.dto.PagedResponse;
 import com.example.app.user.domain.AuthRequest;
 import com.example.app.user.domain.UserRequest;
@@ -62,12 +63,14 @@ public class UserController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all users with pagination")
+    @Operation(summary = "Get all users with pagination",
+        description = "count=SKIP omits the total count and reports hasNext; count=ESTIMATED approximates it")
     @ApiResponse(responseCode = "200", description = "Users retrieved successfully")
     public ResponseEntity<PagedResponse<UserResponse>> getAllUsers(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        PagedResponse<UserResponse> response = userService.getAllUsers(page, size);
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "EXACT") CountPolicy count) {
+        PagedResponse<UserResponse> response = userService.getAllUsers(page, size, count);
         return ResponseEntity.ok(response);
     }
 
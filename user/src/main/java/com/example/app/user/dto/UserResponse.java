@@ -1,7 +1,12 @@
 package com.example.app.user.dto;
 
+import com.example.app.common.util.DateMapper;
+
 import java.time.Instant;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.Set;
+import java.util.UUID;
 
 /**
  * Response DTO for user information.
@@ -14,6 +19,21 @@ public class UserResponse {
     private Instant createdAt;
     private Instant updatedAt;
 
+    public UserResponse() {
+    }
+
+    /**
+     * Projection constructor for JPQL constructor expressions; roles are added separately.
+     */
+    public UserResponse(UUID id, String username, String email, Date createdAt, Date updatedAt) {
+        this.id = id.toString();
+        this.username = username;
+        this.email = email;
+        this.roles = new HashSet<>();
+        this.createdAt = DateMapper.toInstant(createdAt);
+        this.updatedAt = DateMapper.toInstant(updatedAt);
+    }
+
     public String getId() {
         return id;
     }
@@ -1,9 +1,17 @@
 package com.example.app.user.repository;
 
+import com.example.app.user.dto.UserResponse;
 import com.example.app.user.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,5 +24,30 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    // Listings are projected straight into response DTOs; no entities (or their eager roles) are loaded
+    String RESPONSE_PROJECTION =
+        "SELECT new com.example.app.user.dto.UserResponse(u.id, u.username, u.email, u.createdAt, u.updatedAt) " +
+        "FROM User u";
+
+    @Query(value = RESPONSE_PROJECTION, countQuery = "SELECT COUNT(u) FROM User u")
+    Page<UserResponse> findResponses(Pageable pageable);
+
+    // Fetches one extra row instead of running a count query
+    @Query(RESPONSE_PROJECTION)
+    Slice<UserResponse> findResponseSlice(Pageable pageable);
+
+    /**
+     * Roles of a page of users as (user id, role) rows, in one query.
+     */
+    @Query("SELECT u.id, r FROM User u JOIN u.roles r WHERE u.id IN :userIds")
+    List<Object[]> findRolesByUserIdIn(@Param("userIds") Collection<UUID> userIds);
+
+    /**
+     * Planner estimate of the table's row count; negative or zero until the table has been analyzed.
+     */
+    @Query(value = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = CAST('cursordb.users' AS regclass)",
+           nativeQuery = true)
+    Long estimateRowCount();
 }
 
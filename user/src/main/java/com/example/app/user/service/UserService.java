@@ -1,5 +1,6 @@
 package com.example.app.user.service;
 
+import com.example.app.common.dto.CountPolicy;
 import com.example.app.common.dto.PagedResponse;
 import com.example.app.user.domain.UserRequest;
 import com.example.app.user.dto.UserResponse;
@@ -13,6 +14,10 @@ public interface UserService {
     UserResponse createUser(UserRequest request);
     UserResponse getUserById(UUID id);
     UserResponse updateUser(UUID id, UserRequest request);
-    PagedResponse<UserResponse> getAllUsers(int page, int size);
+
+    /**
+     * @param countPolicy How totalElements/totalPages are obtained; null means EXACT
+     */
+    PagedResponse<UserResponse> getAllUsers(int page, int size, CountPolicy countPolicy);
 }
 
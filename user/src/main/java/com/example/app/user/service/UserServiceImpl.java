@@ -1,8 +1,10 @@
 package com.example.app.user.service;
 
+import com.example.app.common.dto.CountPolicy;
 import com.example.app.common.dto.PagedResponse;
 import com.example.app.common.exception.BusinessException;
 import com.example.app.common.exception.EntityNotFoundException;
+import com.example.app.common.util.CountCache;
 import com.example.app.user.domain.UserRequest;
 import com.example.app.user.dto.UserResponse;
 import com.example.app.user.entity.Role;
@@ -13,11 +15,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -37,6 +43,9 @@ public class UserServiceImpl implements UserService {
     
     @Autowired
     private UserMapper userMapper;
+    
+    @Autowired
+    private CountCache countCache;
 
     @Override
     public UserResponse createUser(UserRequest request) {
@@ -119,19 +128,59 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional(readOnly = true)
-    public PagedResponse<UserResponse> getAllUsers(int page, int size) {
+    public PagedResponse<UserResponse> getAllUsers(int page, int size, CountPolicy countPolicy) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<User> userPage = userRepository.findAll(pageable);
+        if (countPolicy != null && countPolicy != CountPolicy.EXACT) {
+            Slice<UserResponse> userSlice = userRepository.findResponseSlice(pageable);
+            long totalElements = countPolicy == CountPolicy.ESTIMATED && userSlice.hasNext()
+                ? estimateUserCount()
+                : PagedResponse.UNKNOWN_TOTAL;
+            return PagedResponse.ofSlice(
+                withRoles(userSlice.getContent()),
+                page,
+                size,
+                userSlice.hasNext(),
+                totalElements,
+                countPolicy
+            );
+        }
+
+        Page<UserResponse> userPage = userRepository.findResponses(pageable);
         
         return new PagedResponse<>(
-            userPage.getContent().stream()
-                .map(userMapper::toResponse)
-                .collect(Collectors.toList()),
+            withRoles(userPage.getContent()),
             userPage.getNumber(),
             userPage.getSize(),
             userPage.getTotalElements(),
             userPage.getTotalPages()
         );
     }
-}
 
+    /**
+     * Fills in the roles of a page of projected users with one query.
+     */
+    private List<UserResponse> withRoles(List<UserResponse> users) {
+        if (users.isEmpty()) {
+            return users;
+        }
+        Map<String, UserResponse> usersById = new HashMap<>();
+        for (UserResponse user : users) {
+            usersById.put(user.getId(), user);
+        }
+        List<UUID> userIds = users.stream()
+            .map(user -> UUID.fromString(user.getId()))
+            .collect(Collectors.toList());
+        for (Object[] row : userRepository.findRolesByUserIdIn(userIds)) {
+            usersById.get(row[0].toString()).getRoles().add(((Role) row[1]).name());
+        }
+        return users;
+    }
+
+    private long estimateUserCount() {
+        Long estimate = userRepository.estimateRowCount();
+        if (estimate != null && estimate > 0) {
+            return estimate;
+        }
+        return countCache.get("users", userRepository::count);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.app.user.controller;
 
+import com.example.app.common.dto.CountPolicy;
 import com.example.app.common.dto.PagedResponse;
 import com.example.app.user.domain.AuthRequest;
 import com.example.app.user.domain.UserRequest;
@@ -126,10 +127,11 @@ class UserControllerTest {
         pagedResponse.setTotalElements(1);
         pagedResponse.setTotalPages(1);
 
-        when(userService.getAllUsers(0, 20)).thenReturn(pagedResponse);
+        when(userService.getAllUsers(0, 20, CountPolicy.EXACT)).thenReturn(pagedResponse);
 
         // Act
-        ResponseEntity<PagedResponse<UserResponse>> response = userController.getAllUsers(0, 20);
+        ResponseEntity<PagedResponse<UserResponse>> response =
+            userController.getAllUsers(0, 20, CountPolicy.EXACT);
 
         // Assert
         assertNotNull(response);
@@ -137,7 +139,7 @@ class UserControllerTest {
         assertNotNull(response.getBody());
         assertEquals(1, response.getBody().getContent().size());
 
-        verify(userService).getAllUsers(0, 20);
+        verify(userService).getAllUsers(0, 20, CountPolicy.EXACT);
     }
 
     @Test
@@ -148,17 +150,18 @@ class UserControllerTest {
         pagedResponse.setTotalElements(0);
         pagedResponse.setTotalPages(0);
 
-        when(userService.getAllUsers(1, 10)).thenReturn(pagedResponse);
+        when(userService.getAllUsers(1, 10, CountPolicy.EXACT)).thenReturn(pagedResponse);
 
         // Act
-        ResponseEntity<PagedResponse<UserResponse>> response = userController.getAllUsers(1, 10);
+        ResponseEntity<PagedResponse<UserResponse>> response =
+            userController.getAllUsers(1, 10, CountPolicy.EXACT);
 
         // Assert
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
 
-        verify(userService).getAllUsers(1, 10);
+        verify(userService).getAllUsers(1, 10, CountPolicy.EXACT);
     }
 
     @Test
@@ -1,7 +1,9 @@
 package com.example.app.user.service;
 
+import com.example.app.common.dto.CountPolicy;
 import com.example.app.common.exception.BusinessException;
 import com.example.app.common.exception.EntityNotFoundException;
+import com.example.app.common.util.CountCache;
 import com.example.app.user.domain.UserRequest;
 import com.example.app.user.entity.Role;
 import com.example.app.user.entity.User;
@@ -17,6 +19,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.*;
@@ -37,6 +40,9 @@ class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private CountCache countCache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -128,16 +134,39 @@ class UserServiceTest {
     @Test
     void testGetAllUsers() {
         Pageable pageable = PageRequest.of(0, 20);
-        Page<User> userPage = new PageImpl<>(Collections.singletonList(user));
+        Page<com.example.app.user.dto.UserResponse> userPage = new PageImpl<>(Collections.singletonList(
+            new com.example.app.user.dto.UserResponse(userId, "testuser", "test@example.com", new Date(), new Date())));
         
-        when(userRepository.findAll(pageable)).thenReturn(userPage);
-        when(userMapper.toResponse(any(User.class))).thenReturn(createUserResponse());
+        when(userRepository.findResponses(pageable)).thenReturn(userPage);
+        when(userRepository.findRolesByUserIdIn(Collections.singletonList(userId)))
+            .thenReturn(Collections.singletonList(new Object[] {userId, Role.USER}));
 
         com.example.app.common.dto.PagedResponse<com.example.app.user.dto.UserResponse> response = 
-            userService.getAllUsers(0, 20);
+            userService.getAllUsers(0, 20, CountPolicy.EXACT);
 
         assertNotNull(response);
         assertEquals(1, response.getContent().size());
+        assertEquals(Collections.singleton("USER"), response.getContent().get(0).getRoles());
+        // Rows arrive already projected; no entity is loaded or mapped
+        verify(userRepository, never()).findAll(any(Pageable.class));
+        verifyNoInteractions(userMapper);
+    }
+
+    @Test
+    void testGetAllUsers_EstimatedPolicy_FallsBackToCachedCount() {
+        Pageable pageable = PageRequest.of(0, 1);
+        when(userRepository.findResponseSlice(pageable))
+            .thenReturn(new SliceImpl<>(Collections.singletonList(createUserResponse()), pageable, true));
+        when(userRepository.estimateRowCount()).thenReturn(-1L);
+        when(countCache.get(eq("users"), any())).thenReturn(57L);
+
+        com.example.app.common.dto.PagedResponse<com.example.app.user.dto.UserResponse> response =
+            userService.getAllUsers(0, 1, CountPolicy.ESTIMATED);
+
+        assertEquals(57L, response.getTotalElements());
+        assertEquals(57, response.getTotalPages());
+        assertEquals(Boolean.TRUE, response.getHasNext());
+        verify(userRepository, never()).findAll(any(Pageable.class));
     }
 
     private com.example.app.user.dto.UserResponse createUserResponse() {